@@ -0,0 +1,547 @@
+package com.targomo.client.api;
+
+import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.pojo.EdgeStatisticsReachabilityRequestOptions;
+import com.targomo.client.api.pojo.EdgeStatisticsRequestOptions;
+import com.targomo.client.api.pojo.MobilityRequestOptions;
+import com.targomo.client.api.quality.Location;
+import com.targomo.client.api.quality.criterion.CriterionDefinition;
+import com.targomo.client.api.request.*;
+import com.targomo.client.api.request.cache.ResponseCache;
+import com.targomo.client.api.request.metrics.RequestMetrics;
+import com.targomo.client.api.request.ssl.SslClientGenerator;
+import com.targomo.client.api.response.MultiGraphResponse;
+import com.targomo.client.api.statistic.PoiType;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived, thread-safe entry point to all Targomo requests.
+ *
+ * <p>
+ * A {@link TargomoClient} owns exactly one JAX-RS {@link Client} and with it one connector and one
+ * {@link javax.net.ssl.SSLContext} (and therefore one TLS session cache), instead of a new client per request object.
+ * Create it once, share it between threads and obtain all request objects from it, e.g.
+ * <pre>
+ *     TargomoClient targomo = TargomoClient.builder().requestTimeout(Duration.ofSeconds(30)).build();
+ *     TimeResponse response = targomo.timeRequest(travelOptions).get();
+ *     CompletableFuture&lt;TimeResponse&gt; future = targomo.timeRequest(travelOptions).getAsync();
+ * </pre>
+ * Close it when it is not needed anymore. The convenience constructors of the request classes (the ones without a
+ * {@link Client} parameter) use the shared instances {@link #getDefault()} and {@link #getDefaultTrustAll()}.
+ * </p>
+ *
+ * <p>
+ * Note: The client does not pool connections itself, whether and how connections are reused is up to the connector
+ * of the JAX-RS implementation, which is chosen by the user of this library. Jersey's default connector is based on
+ * {@link java.net.HttpURLConnection}, which keeps connections alive JVM-wide as configured by the application with
+ * the JVM properties <code>http.keepAlive</code> and <code>http.maxConnections</code>. To use a connector with its
+ * own connection pool (e.g. Jersey's Apache connector with a pooling connection manager) pass a preconfigured
+ * {@link Configuration} via {@link Builder#configuration(Configuration)}, or send the requests with an
+ * {@link Http2Transport}.
+ * </p>
+ */
+@Slf4j
+public class TargomoClient implements AutoCloseable {
+
+    private final Client client;
+    private final boolean shared;
+    private volatile boolean warm = false;
+
+    private TargomoClient(Builder builder, boolean shared) {
+        this.shared = shared;
+
+        ClientBuilder clientBuilder = builder.configuration == null ?
+                ClientBuilder.newBuilder() : ClientBuilder.newBuilder().withConfig(builder.configuration);
+        if (builder.trustAll) {
+            clientBuilder = clientBuilder
+                    .hostnameVerifier(new SslClientGenerator.TrustAllHostNameVerifier())
+                    .sslContext(SslClientGenerator.getTrustAllContext());
+        }
+        if (builder.asyncExecutorService != null) {
+            clientBuilder = clientBuilder.executorService(builder.asyncExecutorService);
+        }
+        if (builder.connectTimeout != null) {
+            clientBuilder = clientBuilder.connectTimeout(builder.connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (builder.readTimeout != null) {
+            clientBuilder = clientBuilder.readTimeout(builder.readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        this.client = clientBuilder
+                .property(RequestExecutor.PROPERTY, builder.requestExecutor.build())
+                .build();
+    }
+
+    /**
+     * @return a new builder for a {@link TargomoClient}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Shared instance with default settings that is used by the convenience constructors of the request classes.
+     * It lives as long as the JVM, calling {@link #close()} on it has no effect.
+     *
+     * @return the shared default instance
+     */
+    public static TargomoClient getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Shared instance with the trust-all SSL policy of {@link SslClientGenerator}. It is used by the convenience
+     * constructors that previously created a new client via {@link SslClientGenerator#initClient()}.
+     * It lives as long as the JVM, calling {@link #close()} on it has no effect.
+     *
+     * @return the shared default instance with trust-all SSL policy
+     */
+    public static TargomoClient getDefaultTrustAll() {
+        return DefaultTrustAllHolder.INSTANCE;
+    }
+
+    /**
+     * @return the underlying JAX-RS client; it must not be closed directly
+     */
+    public Client getClient() {
+        return client;
+    }
+
+    public TimeRequest timeRequest(TravelOptions travelOptions) {
+        return timeRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public TimeRequest timeRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new TimeRequest(client, travelOptions, headers);
+    }
+
+    public ReachabilityRequest reachabilityRequest(TravelOptions travelOptions) {
+        return reachabilityRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public ReachabilityRequest reachabilityRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new ReachabilityRequest(client, travelOptions, headers);
+    }
+
+    /**
+     * @param travelOptions Travel options parameters
+     * @param method HTTP Method (GET or POST)
+     * @return the polygon request
+     */
+    public PolygonRequest polygonRequest(TravelOptions travelOptions, String method) {
+        return polygonRequest(travelOptions, method, new MultivaluedHashMap<>());
+    }
+
+    public PolygonRequest polygonRequest(TravelOptions travelOptions, String method, MultivaluedMap<String, Object> headers) {
+        return new PolygonRequest(client, travelOptions, method, headers);
+    }
+
+    public RouteRequest routeRequest(TravelOptions travelOptions) {
+        return new RouteRequest(client, travelOptions);
+    }
+
+    public <R extends MultiGraphResponse<?>> MultiGraphRequest<R> multiGraphRequest(TravelOptions travelOptions, Class<R> responseClass) {
+        return multiGraphRequest(travelOptions, responseClass, new MultivaluedHashMap<>());
+    }
+
+    public <R extends MultiGraphResponse<?>> MultiGraphRequest<R> multiGraphRequest(TravelOptions travelOptions, Class<R> responseClass,
+                                                                                   MultivaluedMap<String, Object> headers) {
+        return new MultiGraphRequest<>(client, travelOptions, responseClass, headers);
+    }
+
+    public TimeVectorRequest timeVectorRequest(TravelOptions travelOptions) {
+        return timeVectorRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public TimeVectorRequest timeVectorRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new TimeVectorRequest(client, travelOptions, headers);
+    }
+
+    public TransitStopsRequest transitStopsRequest(TravelOptions travelOptions) {
+        return transitStopsRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public TransitStopsRequest transitStopsRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new TransitStopsRequest(client, travelOptions, headers);
+    }
+
+    public BoundingBoxRequest boundingBoxRequest(TravelOptions travelOptions) {
+        return boundingBoxRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public BoundingBoxRequest boundingBoxRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new BoundingBoxRequest(client, travelOptions, headers);
+    }
+
+    public StatisticsRequest statisticsRequest(StatisticTravelOptions travelOptions) {
+        return statisticsRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public StatisticsRequest statisticsRequest(StatisticTravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new StatisticsRequest(client, travelOptions, headers);
+    }
+
+    public PointOfInterestRequest pointOfInterestRequest(TravelOptions travelOptions) {
+        return pointOfInterestRequest(travelOptions, new MultivaluedHashMap<>());
+    }
+
+    public PointOfInterestRequest pointOfInterestRequest(TravelOptions travelOptions, MultivaluedMap<String, Object> headers) {
+        return new PointOfInterestRequest(client, travelOptions, headers);
+    }
+
+    public OverpassRequest overpassRequest(TravelOptions travelOptions) {
+        return new OverpassRequest(client, travelOptions);
+    }
+
+    public OverpassRequest overpassRequest(TravelOptions travelOptions, PoiType poiType) {
+        return new OverpassRequest(travelOptions, client, poiType);
+    }
+
+    public MobilityRequest mobilityRequest(MobilityRequestOptions requestOptions) {
+        return mobilityRequest(requestOptions, new MultivaluedHashMap<>());
+    }
+
+    public MobilityRequest mobilityRequest(MobilityRequestOptions requestOptions, MultivaluedMap<String, Object> headers) {
+        return new MobilityRequest(client, requestOptions, headers);
+    }
+
+    public EdgeStatisticsRequest edgeStatisticsRequest(String serviceUrl, String serviceKey, int edgeStatisticCollectionId,
+                                                       EdgeStatisticsRequestOptions requestOptions) {
+        return edgeStatisticsRequest(serviceUrl, serviceKey, edgeStatisticCollectionId, requestOptions, new MultivaluedHashMap<>());
+    }
+
+    public EdgeStatisticsRequest edgeStatisticsRequest(String serviceUrl, String serviceKey, int edgeStatisticCollectionId,
+                                                       EdgeStatisticsRequestOptions requestOptions, MultivaluedMap<String, Object> headers) {
+        return new EdgeStatisticsRequest(client, serviceUrl, serviceKey, edgeStatisticCollectionId, requestOptions, headers);
+    }
+
+    public EdgeStatisticsReachabilityRequest edgeStatisticsReachabilityRequest(int edgeStatisticCollectionId,
+                                                                               EdgeStatisticsReachabilityRequestOptions requestOptions) {
+        return edgeStatisticsReachabilityRequest(edgeStatisticCollectionId, requestOptions, new MultivaluedHashMap<>());
+    }
+
+    public EdgeStatisticsReachabilityRequest edgeStatisticsReachabilityRequest(int edgeStatisticCollectionId,
+                                                                               EdgeStatisticsReachabilityRequestOptions requestOptions,
+                                                                               MultivaluedMap<String, Object> headers) {
+        return new EdgeStatisticsReachabilityRequest(client, edgeStatisticCollectionId, requestOptions, headers);
+    }
+
+    public ScoreRequest scoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations) {
+        return scoreRequest(serviceUrl, key, criteria, locations, Collections.emptyList(), null, null, null, new MultivaluedHashMap<>());
+    }
+
+    /**
+     * @param serviceUrl url of the quality service
+     * @param key the api key
+     * @param criteria the criteria to be scored, by name
+     * @param locations the locations to be scored
+     * @param competitors competing locations, may be empty
+     * @param showDetails null for the service default (false)
+     * @param forceRecalculate null for the service default (false)
+     * @param cacheResult null for the service default (true)
+     * @param headers custom http headers
+     * @return the score request
+     */
+    public ScoreRequest scoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria,
+                                     List<Location> locations, List<Location> competitors, Boolean showDetails,
+                                     Boolean forceRecalculate, Boolean cacheResult, MultivaluedMap<String, Object> headers) {
+        return new ScoreRequest(client, criteria, locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, headers);
+    }
+
+    public RatingRequest ratingRequest(String serviceUrl, String key, String ratingId, List<Location> locations) {
+        return ratingRequest(serviceUrl, key, ratingId, locations, null, null, null, null);
+    }
+
+    public RatingRequest ratingRequest(String serviceUrl, String key, String ratingId, List<Location> locations,
+                                       List<Location> competitors, Boolean showDetails, Boolean forceRecalculate,
+                                       Boolean cacheResult) {
+        return new RatingRequest(client, locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, ratingId);
+    }
+
+    public GeocodingRequest geocodingRequest() {
+        return new GeocodingRequest(client);
+    }
+
+    public GeocodingRequest geocodingRequest(int requestTimeOutInMs) {
+        return new GeocodingRequest(client, requestTimeOutInMs);
+    }
+
+    /**
+     * Runs {@link ClientWarmUp#DEFAULT}, see {@link #warmUp(ClientWarmUp)}.
+     *
+     * @throws TargomoClientException if the warm-up fails
+     */
+    public void warmUp() throws TargomoClientException {
+        warmUp(ClientWarmUp.DEFAULT);
+    }
+
+    /**
+     * Initializes the client, its SSL context and the mappers and runs synthetic requests through the serialization
+     * and parsing code, so the first real request does not pay for it. Blocks until the warm-up is done, e.g. during
+     * the startup of an application before its readiness check passes.
+     *
+     * @param warmUp the warm-up to run
+     * @throws TargomoClientException if the warm-up fails
+     */
+    public void warmUp(ClientWarmUp warmUp) throws TargomoClientException {
+        warmUp.run(this);
+        warm = true;
+    }
+
+    /**
+     * @return true if a warm-up of this client completed, e.g. for a readiness check
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Closes the underlying client and with it its connector. Has no effect on the shared default instances.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            log.debug("Ignoring close() on a shared default TargomoClient");
+            return;
+        }
+        client.close();
+    }
+
+    private static class DefaultHolder {
+        private static final TargomoClient INSTANCE = new TargomoClient(new Builder(), true);
+    }
+
+    private static class DefaultTrustAllHolder {
+        private static final TargomoClient INSTANCE = new TargomoClient(new Builder().trustAll(true), true);
+    }
+
+    /**
+     * Builder for a {@link TargomoClient}.
+     */
+    public static class Builder {
+
+        private boolean trustAll = false;
+        private Configuration configuration = null;
+        private ExecutorService asyncExecutorService = null;
+        private Duration connectTimeout = null;
+        private Duration readTimeout = null;
+        private final RequestExecutor.Builder requestExecutor = RequestExecutor.builder();
+
+        private Builder() {
+        }
+
+        /**
+         * @param trustAll if true the trust-all SSL policy of {@link SslClientGenerator} is used, default false
+         * @return this builder
+         */
+        public Builder trustAll(boolean trustAll) {
+            this.trustAll = trustAll;
+            return this;
+        }
+
+        /**
+         * @param configuration JAX-RS configuration the client is created with, e.g. to register a connector
+         *                      provider with its own connection pool or a GZIP encoder
+         * @return this builder
+         */
+        public Builder configuration(Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        /**
+         * @param asyncExecutorService executor service the JAX-RS client runs asynchronous requests on (see
+         *                             {@link ClientBuilder#executorService(ExecutorService)}), default is the
+         *                             executor of the JAX-RS implementation
+         * @return this builder
+         */
+        public Builder asyncExecutorService(ExecutorService asyncExecutorService) {
+            this.asyncExecutorService = asyncExecutorService;
+            return this;
+        }
+
+        /**
+         * @param connectTimeout timeout of establishing a connection, default null (the default of the JAX-RS
+         *                       implementation, usually infinite)
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            if (connectTimeout != null && connectTimeout.isNegative())
+                throw new IllegalArgumentException("connectTimeout must not be negative");
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * @param readTimeout timeout of waiting for response data, default null (the default of the JAX-RS
+         *                    implementation, usually infinite)
+         * @return this builder
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            if (readTimeout != null && readTimeout.isNegative())
+                throw new IllegalArgumentException("readTimeout must not be negative");
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * @param requestTimeout budget of every request including retries and waiting in the limiters, e.g.
+         *                       <code>Duration.ofSeconds(30)</code>; workflows of several requests can share a
+         *                       budget with a {@link Deadline}, default null (no timeout)
+         * @return this builder
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestExecutor.requestTimeout(requestTimeout);
+            return this;
+        }
+
+        /**
+         * @param parseExecutor executor the responses of asynchronous requests (e.g. {@link TimeRequest#getAsync()})
+         *                      are parsed on, default is the common fork join pool
+         * @return this builder
+         */
+        public Builder parseExecutor(Executor parseExecutor) {
+            this.requestExecutor.parseExecutor(parseExecutor);
+            return this;
+        }
+
+        /**
+         * @param compression compression of large POST request bodies, e.g.
+         *                    <code>RequestCompression.builder().threshold(16 * 1024).build()</code>,
+         *                    default null (bodies are sent uncompressed)
+         * @return this builder
+         */
+        public Builder requestCompression(RequestCompression compression) {
+            this.requestExecutor.compression(compression);
+            return this;
+        }
+
+        /**
+         * @param coalesceRequests if true, identical polygon, reachability and {@link TargomoRequest}s that are in
+         *                         flight at the same time share one HTTP call and one parsed response, default false
+         * @return this builder
+         */
+        public Builder coalesceRequests(boolean coalesceRequests) {
+            this.requestExecutor.coalesceRequests(coalesceRequests);
+            return this;
+        }
+
+        /**
+         * @param responseCache cache of successful responses of all requests, e.g.
+         *                      <code>InMemoryResponseCache.builder().maxBytes(256L &lt;&lt; 20).build()</code>,
+         *                      default null (responses are not cached)
+         * @return this builder
+         */
+        public Builder responseCache(ResponseCache responseCache) {
+            this.requestExecutor.responseCache(responseCache);
+            return this;
+        }
+
+        /**
+         * @param retryPolicy retries with backoff and optional hedging of failed or slow calls of all requests, e.g.
+         *                    <code>RetryPolicy.builder().maxAttempts(4).build()</code>,
+         *                    default null (calls are sent once)
+         * @return this builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.requestExecutor.retryPolicy(retryPolicy);
+            return this;
+        }
+
+        /**
+         * @param isolation circuit breaker and bulkhead per service, so a slow service can not take up the connections
+         *                  and threads of the others, e.g. <code>ServiceIsolation.builder().build()</code>,
+         *                  default null (calls are not isolated)
+         * @return this builder
+         */
+        public Builder isolation(ServiceIsolation isolation) {
+            this.requestExecutor.isolation(isolation);
+            return this;
+        }
+
+        /**
+         * @param limiter adaptive limit of the calls in flight per service and API key, replacing hard coded thread
+         *                counts, e.g. <code>ConcurrencyLimiter.builder().build()</code>,
+         *                default null (calls are not limited)
+         * @return this builder
+         */
+        public Builder limiter(ConcurrencyLimiter limiter) {
+            this.requestExecutor.limiter(limiter);
+            return this;
+        }
+
+        /**
+         * @param rateLimiter token bucket per API key to stay within its request quota, blocking requests wait for
+         *                    tokens and asynchronous requests are queued, e.g.
+         *                    <code>RateLimiter.builder().rate(20, 40).build()</code>,
+         *                    default null (the request rate is not limited)
+         * @return this builder
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.requestExecutor.rateLimiter(rateLimiter);
+            return this;
+        }
+
+        /**
+         * @param metrics receiver of the timings of every request, e.g. latency histograms per endpoint exported via
+         *                JMX with <code>JmxRequestMetrics.builder().build()</code>,
+         *                default null (nothing is recorded)
+         * @return this builder
+         */
+        public Builder metrics(RequestMetrics metrics) {
+            this.requestExecutor.metrics(metrics);
+            return this;
+        }
+
+        /**
+         * @param transport sends the requests with the JDK HTTP client instead of the JAX-RS connector, multiplexing
+         *                  concurrent requests to a service over HTTP/2, e.g.
+         *                  <code>Http2Transport.builder().build()</code>,
+         *                  default null (requests are sent with the JAX-RS connector)
+         * @return this builder
+         */
+        public Builder transport(Http2Transport transport) {
+            this.requestExecutor.transport(transport);
+            return this;
+        }
+
+        /**
+         * @param urlConfigPolicy URL length above which route, polygon and multigraph GET requests are sent as POST
+         *                        and whether their configuration is sent compact, e.g.
+         *                        <code>UrlConfigPolicy.builder().maxUrlLength(4000).build()</code>,
+         *                        default {@link UrlConfigPolicy#DEFAULT}
+         * @return this builder
+         */
+        public Builder urlConfigPolicy(UrlConfigPolicy urlConfigPolicy) {
+            this.requestExecutor.urlConfigPolicy(urlConfigPolicy);
+            return this;
+        }
+
+        /**
+         * @param loadBalancer spreads the requests to a service URL over its replicas with health based ejection and
+         *                     failover, e.g. <code>LoadBalancer.builder().service(serviceUrl, replica1, replica2).build()</code>,
+         *                     must not be shared with other clients, default null (requests are sent to the service URL)
+         * @return this builder
+         */
+        public Builder loadBalancer(LoadBalancer loadBalancer) {
+            this.requestExecutor.loadBalancer(loadBalancer);
+            return this;
+        }
+
+        public TargomoClient build() {
+            return new TargomoClient(this, false);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.targomo.client.api.exception;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Exception thrown instead of sending a request if the circuit breaker of its service is open, the service has too
+ * many calls in flight or the API key sent too many requests, see {@link com.targomo.client.api.request.ServiceIsolation},
+ * {@link com.targomo.client.api.request.ConcurrencyLimiter} and {@link com.targomo.client.api.request.RateLimiter}.
+ */
+public class CallRejectedException extends ProcessingException {
+
+	private static final long serialVersionUID = 4381290257314405616L;
+
+	/**
+	 * Why a call was rejected.
+	 */
+	public enum Reason {
+		/** the circuit breaker of the service is open after too many failed calls */
+		CIRCUIT_OPEN,
+		/** the service has the maximum number of calls in flight */
+		BULKHEAD_FULL,
+		/** the call waited too long for the adaptive concurrency limit of its service */
+		LIMIT_EXCEEDED,
+		/** the call would have to wait too long for the request rate of its API key */
+		RATE_LIMITED
+	}
+
+	private final String service;
+	private final Reason reason;
+
+	/**
+	 * @param service the service the call was sent to
+	 * @param reason why the call was rejected
+	 */
+	public CallRejectedException(String service, Reason reason) {
+		super("Call to " + service + " rejected: " + message(reason));
+		this.service = service;
+		this.reason = reason;
+	}
+
+	private static String message(Reason reason) {
+		switch (reason) {
+			case CIRCUIT_OPEN:
+				return "circuit breaker is open";
+			case BULKHEAD_FULL:
+				return "too many calls in flight";
+			case LIMIT_EXCEEDED:
+				return "concurrency limit exceeded";
+			default:
+				return "request rate of the API key exceeded";
+		}
+	}
+
+	/**
+	 * @return the service the call was sent to
+	 */
+	public String getService() {
+		return service;
+	}
+
+	/**
+	 * @return why the call was rejected
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+}
@@ -0,0 +1,154 @@
+package com.targomo.client.api.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, preconfigured Jackson mappers of the client.
+ *
+ * <p>
+ * Creating an {@link ObjectMapper} per call repeats the introspection of the (de)serialized classes and throws away
+ * the serializer caches every time. All mappers here are created once and never handed out, so they can not be
+ * reconfigured; the immutable {@link ObjectReader}s and {@link ObjectWriter}s are cached per target type and are
+ * thread-safe.
+ * </p>
+ *
+ * <p>
+ * Writers produce compact JSON, which is what request bodies should use. If the system property
+ * {@value #BYTECODE_MODULE_PROPERTY} is <code>true</code> and the Jackson Blackbird or Afterburner module is on the
+ * class path, it is registered with all mappers to replace reflection by generated accessors.
+ * </p>
+ */
+@Slf4j
+public final class JsonMappers {
+
+	/**
+	 * System property enabling the registration of a bytecode-accelerated Jackson module.
+	 */
+	public static final String BYTECODE_MODULE_PROPERTY = "com.targomo.client.api.json.bytecodeModule";
+
+	private static final String[] BYTECODE_MODULES = {
+			"com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+			"com.fasterxml.jackson.module.afterburner.AfterburnerModule" };
+
+	private static final Module BYTECODE_MODULE = Boolean.getBoolean(BYTECODE_MODULE_PROPERTY) ? loadBytecodeModule() : null;
+
+	private static final ObjectMapper MAPPER = configure(new ObjectMapper());
+	private static final ObjectMapper NON_EMPTY_MAPPER = configure(new ObjectMapper()
+			.setSerializationInclusion(JsonInclude.Include.NON_EMPTY));
+	private static final ObjectMapper LENIENT_MAPPER = configure(new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+	private static final ObjectWriter WRITER = MAPPER.writer();
+	private static final ObjectWriter NON_EMPTY_WRITER = NON_EMPTY_MAPPER.writer();
+	private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+	private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+	private static final Map<Type, ObjectReader> LENIENT_READERS = new ConcurrentHashMap<>();
+
+	private JsonMappers() {
+	}
+
+	/**
+	 * @return a copy of the default mapper, which may be reconfigured; copying is costly, use the readers and writers
+	 * to read and write JSON
+	 */
+	public static ObjectMapper getMapper() {
+		return MAPPER.copy();
+	}
+
+	/**
+	 * @return a copy of the mapper ignoring unknown properties when reading, which may be reconfigured; copying is
+	 * costly, use {@link #lenientReader(Class)} to read JSON
+	 */
+	public static ObjectMapper getLenientMapper() {
+		return LENIENT_MAPPER.copy();
+	}
+
+	/**
+	 * @param in the JSON to read
+	 * @return a streaming parser of the shared default mapper, e.g. to read large responses while they arrive
+	 * @throws IOException In case the parser can not be created
+	 */
+	public static JsonParser parser(InputStream in) throws IOException {
+		return MAPPER.getFactory().createParser(in);
+	}
+
+	/**
+	 * @return writer producing compact JSON
+	 */
+	public static ObjectWriter writer() {
+		return WRITER;
+	}
+
+	/**
+	 * @return writer producing compact JSON without null or empty values
+	 */
+	public static ObjectWriter nonEmptyWriter() {
+		return NON_EMPTY_WRITER;
+	}
+
+	/**
+	 * @return writer producing indented JSON, for logging and debugging only
+	 */
+	public static ObjectWriter prettyWriter() {
+		return PRETTY_WRITER;
+	}
+
+	/**
+	 * @param type the type to read
+	 * @return cached reader for the type
+	 */
+	public static ObjectReader reader(Class<?> type) {
+		return READERS.computeIfAbsent(type, key -> MAPPER.readerFor(type));
+	}
+
+	/**
+	 * @param type the type to read, e.g. a generic collection type
+	 * @return cached reader for the type
+	 */
+	public static ObjectReader reader(TypeReference<?> type) {
+		return READERS.computeIfAbsent(type.getType(), key -> MAPPER.readerFor(type));
+	}
+
+	/**
+	 * @param type the type to read
+	 * @return cached reader for the type ignoring unknown properties
+	 */
+	public static ObjectReader lenientReader(Class<?> type) {
+		return LENIENT_READERS.computeIfAbsent(type, key -> LENIENT_MAPPER.readerFor(type));
+	}
+
+	private static ObjectMapper configure(ObjectMapper mapper) {
+		if (BYTECODE_MODULE != null)
+			mapper.registerModule(BYTECODE_MODULE);
+		return mapper;
+	}
+
+	private static Module loadBytecodeModule() {
+		for (String className : BYTECODE_MODULES) {
+			try {
+				return (Module) Class.forName(className).getDeclaredConstructor().newInstance();
+			} catch (ClassNotFoundException e) {
+				// try the next one
+			} catch (ReflectiveOperationException | LinkageError e) {
+				log.warn("Could not register Jackson module {}", className, e);
+			}
+		}
+		log.warn("System property {} is set, but neither Blackbird nor Afterburner is on the class path", BYTECODE_MODULE_PROPERTY);
+		return null;
+	}
+}
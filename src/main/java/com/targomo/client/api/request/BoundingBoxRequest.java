@@ -1,6 +1,7 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.RequestConfigurator;
@@ -11,13 +12,15 @@ import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Creates a bounding box of the reachable area using the specified travel options.
@@ -42,7 +45,7 @@ public class BoundingBoxRequest {
     }
 
     public BoundingBoxRequest(TravelOptions travelOptions) {
-        this(ClientBuilder.newClient(), travelOptions, new MultivaluedHashMap<>());
+        this(TargomoClient.getDefault().getClient(), travelOptions, new MultivaluedHashMap<>());
     }
 
     public BoundingBoxRequest(Client client, TravelOptions travelOptions){
@@ -58,25 +61,37 @@ public class BoundingBoxRequest {
 
         long startTimeMillis = System.currentTimeMillis();
 
+        // Execute POST request
+        return RequestExecutor.forClient(client).execute(this::prepareCall,
+                response -> parseResponse(response, System.currentTimeMillis() - startTimeMillis));
+    }
+
+    /**
+     * Executes the request asynchronously.
+     * @return future of the response containing the bounds of the reachable area, completed exceptionally with the
+     * exception {@link #get()} would have thrown
+     */
+    public CompletableFuture<BoundingBoxResponse> getAsync() {
+
+        long startTimeMillis = System.currentTimeMillis();
+
+        return RequestExecutor.forClient(client).executeAsync(this::prepareCall,
+                response -> parseResponse(response, System.currentTimeMillis() - startTimeMillis));
+    }
+
+    private HttpCall prepareCall() throws TargomoClientException {
+
         WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/boundingbox")
                 .queryParam("key", travelOptions.getServiceKey())
                 .queryParam(Constants.INTER_SERVICE_KEY, travelOptions.getInterServiceKey())
                 .queryParam(Constants.INTER_SERVICE_REQUEST, travelOptions.getInterServiceRequestType());
 
-        final Entity<String> entity = Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+        final Entity<RequestConfigurator.StreamingConfig> entity = Entity.entity(RequestConfigurator.getStreamingConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
 
         log.debug("Executing reachability request to URI: '{}}'", target.getUri());
 
-        Response response;
-
-        // Execute POST request
-        response = target.request().headers(headers).post(entity);
-
-
-        // Execution time
-        long roundTripTimeMillis = (System.currentTimeMillis() - startTimeMillis);
-
-        return parseResponse(response, roundTripTimeMillis);
+        return HttpCall.post(target, headers, entity)
+                .withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult());
     }
 
     private BoundingBoxResponse parseResponse(final Response response, final long roundTripTimeMillis)
@@ -85,8 +100,12 @@ public class BoundingBoxRequest {
         // compare the HTTP status codes, NOT the route 360 code
         if (response.getStatus() == Response.Status.OK.getStatusCode()) {
             // consume the results
-            String responseStr = response.readEntity(String.class);
-            JSONObject json = JsonUtil.parseString(responseStr);
+            JSONObject json;
+            try (InputStream responseStream = response.readEntity(InputStream.class)) {
+                json = JsonUtil.parseStream(responseStream);
+            } catch (IOException e) {
+                throw new TargomoClientException("Could not read bounding box response: " + e.getMessage(), e, response.getStatus());
+            }
 
             // Check response code
             final String code = json.has("code") ? JsonUtil.getString(json, "code") : null;
@@ -0,0 +1,102 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.request.cache.CachedResponse;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inbound {@link Response} backed by a {@link CachedResponse}, the entity can be read as String, byte array or
+ * InputStream, which covers all the request classes need. Streams read the cached body without copying it.
+ */
+final class BufferedResponse extends InboundResponse {
+
+	// describe the transfer of the original response, not the buffered entity
+	private static final List<String> TRANSFER_HEADERS = Arrays.asList(
+			HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING, "Transfer-Encoding");
+
+	private final CachedResponse cached;
+
+	BufferedResponse(CachedResponse cached) {
+		super(cached.getStatus(), cached.getMediaType() == null ? null : MediaType.valueOf(cached.getMediaType()),
+				cached.getHeaders());
+		this.cached = cached;
+	}
+
+	/**
+	 * Reads the entity of the response into memory and closes it.
+	 * @param response the response received from the server
+	 * @return the buffered response
+	 */
+	static CachedResponse buffer(Response response) {
+		try {
+			byte[] body = response.hasEntity() ? response.readEntity(byte[].class) : new byte[0];
+			MediaType mediaType = response.getMediaType();
+			return cached(response.getStatus(), mediaType == null ? null : mediaType.toString(),
+					response.getStringHeaders(), body);
+		} finally {
+			response.close();
+		}
+	}
+
+	/**
+	 * @param status the status of the response
+	 * @param mediaType the media type of the body, null if unknown
+	 * @param headers the headers of the response
+	 * @param body the complete body
+	 * @return the response without the headers describing its transfer
+	 */
+	static CachedResponse cached(int status, String mediaType, Map<String, List<String>> headers, byte[] body) {
+		Map<String, List<String>> kept = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (TRANSFER_HEADERS.stream().noneMatch(header.getKey()::equalsIgnoreCase))
+				kept.put(header.getKey(), new ArrayList<>(header.getValue()));
+		}
+		return new CachedResponse(status, mediaType, kept, body, System.currentTimeMillis());
+	}
+
+	@Override
+	public Object getEntity() {
+		return cached.openBody();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T readEntity(Class<T> entityType) {
+		if (entityType == byte[].class)
+			return (T) cached.getBody().clone();
+		if (entityType == String.class)
+			return (T) new String(cached.getBody(), charset());
+		if (entityType == InputStream.class || entityType == Object.class)
+			return (T) cached.openBody();
+		throw new ProcessingException("Cached responses can not be read as " + entityType.getName());
+	}
+
+	@Override
+	public boolean hasEntity() {
+		return cached.getBodyLength() > 0;
+	}
+
+	@Override
+	public boolean bufferEntity() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+	@Override
+	public int getLength() {
+		return cached.getBodyLength();
+	}
+}
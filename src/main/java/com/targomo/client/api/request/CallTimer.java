@@ -0,0 +1,342 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.request.metrics.RequestEvent;
+import com.targomo.client.api.request.metrics.ResponseParseEvent;
+import com.targomo.client.api.response.DefaultResponse;
+import com.targomo.client.api.response.PolygonResponse;
+import com.targomo.client.api.response.ReachabilityResponse;
+import com.targomo.client.api.response.RequestTimings;
+import com.targomo.client.api.response.ResponseCode;
+import com.targomo.client.api.response.RouteResponse;
+import com.targomo.client.api.response.TimeResponse;
+import jdk.jfr.Event;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Measures the phases of one request for its {@link RequestTimings}. The phases are marked one after another, for
+ * asynchronous requests on different threads, each of them ordered after the previous one by the future chain.
+ *
+ * <p>
+ * While a flight recording is running, the request is also emitted as {@link RequestEvent} and the parsing of its
+ * response as {@link ResponseParseEvent}. Otherwise no events are kept, the check costs one short lived allocation.
+ * </p>
+ */
+final class CallTimer {
+
+	private final long startNanos = System.nanoTime();
+	private final RequestEvent requestEvent = enabled(new RequestEvent());
+	private ResponseParseEvent parseEvent;
+	private String endpoint = "";
+	private long requestBytes = 0;
+	private CountingBody countingBody;
+	private long builtNanos = -1;
+	private long headersNanos = -1;
+	private long bufferedBytes = -1;
+	private MeteredBody responseBody;
+
+	/**
+	 * Marks the end of building the call and counts its body, a streamed body is counted while it is written.
+	 * @param call the prepared call
+	 * @return the call to send
+	 */
+	HttpCall built(HttpCall call) {
+		builtNanos = System.nanoTime();
+		URI uri = call.getTarget().getUri();
+		endpoint = uri == null || uri.getPath() == null ? "" : uri.getPath();
+		if (requestEvent != null) {
+			requestEvent.method = call.getMethod();
+			requestEvent.sources = call.getSources();
+			requestEvent.targets = call.getTargets();
+		}
+		Entity<?> entity = call.getEntity();
+		if (entity == null)
+			return call;
+		Object body = entity.getEntity();
+		if (body instanceof String) {
+			requestBytes = utf8Length((String) body);
+		} else if (body instanceof byte[]) {
+			requestBytes = ((byte[]) body).length;
+		} else if (body instanceof StreamingOutput) {
+			countingBody = new CountingBody((StreamingOutput) body);
+			return call.withEntity(call.getHeaders(),
+					Entity.entity(countingBody, entity.getVariant(), entity.getAnnotations()));
+		} else {
+			requestBytes = -1;
+		}
+		return call;
+	}
+
+	/**
+	 * Marks the arrival of the response headers.
+	 * @param response the received response
+	 * @return the response
+	 */
+	Response headers(Response response) {
+		headersNanos = System.nanoTime();
+		return response;
+	}
+
+	/**
+	 * Wraps the body of the response in a stream measuring the bytes and the time spent reading them, so reading the
+	 * body is measured separately from parsing while the parser still reads the body as it arrives.
+	 * @param response the received response
+	 * @param meter false to leave the body alone unless a flight recording is running, it is then measured as part
+	 *              of parsing
+	 * @return the response to parse
+	 */
+	Response bodyRead(Response response, boolean meter) {
+		Response read = response;
+		if (response instanceof BufferedResponse) {
+			bufferedBytes = response.getLength();
+		} else if (meter || requestEvent != null) {
+			boolean hasEntity = response.hasEntity();
+			responseBody = new MeteredBody(hasEntity ? response.readEntity(InputStream.class) : null);
+			read = new StreamedResponse(response.getStatus(), response.getMediaType(), response.getStringHeaders(),
+					hasEntity ? responseBody : null, response);
+		}
+		if (requestEvent != null) {
+			requestEvent.status = response.getStatus();
+			parseEvent = enabled(new ResponseParseEvent());
+		}
+		return read;
+	}
+
+	/**
+	 * @param status the status of the response
+	 * @param result the parsed response
+	 * @return the timings of the request, parsed right now
+	 */
+	RequestTimings parsed(int status, Object result) {
+		long now = System.nanoTime();
+		if (requestEvent != null) {
+			requestEvent.status = status;
+			requestEvent.code = code(resultCode(result));
+			requestEvent.resultType = result == null ? "" : result.getClass().getName();
+			commitParseEvent(requestEvent.resultType);
+		}
+		long bodyReadNanos = responseBody == null ? -1 : responseBody.nanos;
+		// reads are interleaved with parsing, the time blocked in them is not part of parsing
+		long parseStart = headersNanos < 0 ? -1 : bodyReadNanos < 0 ? headersNanos : headersNanos + bodyReadNanos;
+		return RequestTimings.builder()
+				.endpoint(endpoint)
+				.status(status)
+				.requestBytes(countingBody == null ? requestBytes : countingBody.bytes)
+				.responseBytes(responseBytes())
+				.configBuildNanos(builtNanos < 0 ? -1 : builtNanos - startNanos)
+				.sendNanos(builtNanos < 0 || headersNanos < 0 ? -1 : headersNanos - builtNanos)
+				.bodyReadNanos(bodyReadNanos)
+				.parseNanos(parseStart < 0 ? -1 : now - parseStart)
+				.totalNanos(now - startNanos)
+				.build();
+	}
+
+	/**
+	 * Emits the request event with the final timings, e.g. completed with the server time.
+	 * @param timings the timings of the request
+	 */
+	void completed(RequestTimings timings) {
+		if (requestEvent == null)
+			return;
+		requestEvent.requestBytes = timings.getRequestBytes();
+		requestEvent.responseBytes = timings.getResponseBytes();
+		requestEvent.configBuildTime = timings.getConfigBuildNanos();
+		requestEvent.networkTime = timings.getSendNanos();
+		requestEvent.bodyReadTime = timings.getBodyReadNanos();
+		requestEvent.parseTime = timings.getParseNanos();
+		requestEvent.serverTime = timings.getServerTimeMillis();
+		commitRequestEvent();
+	}
+
+	/**
+	 * Emits the request event of a failed request.
+	 * @param error the exception the request failed with
+	 */
+	void failed(Throwable error) {
+		if (requestEvent == null)
+			return;
+		commitParseEvent("");
+		requestEvent.failure = error.toString();
+		if (error instanceof ResponseErrorException)
+			requestEvent.code = code(((ResponseErrorException) error).getErrorCode());
+		requestEvent.requestBytes = countingBody == null ? requestBytes : countingBody.bytes;
+		requestEvent.responseBytes = responseBytes();
+		commitRequestEvent();
+	}
+
+	String getEndpoint() {
+		return endpoint;
+	}
+
+	long elapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * @return the bytes of the response body read so far, -1 if they were not measured
+	 */
+	private long responseBytes() {
+		return responseBody == null ? bufferedBytes : responseBody.bytes;
+	}
+
+	private void commitParseEvent(String resultType) {
+		if (parseEvent == null)
+			return;
+		parseEvent.end();
+		parseEvent.endpoint = endpoint;
+		parseEvent.status = requestEvent.status;
+		parseEvent.resultType = resultType;
+		parseEvent.responseBytes = responseBytes();
+		parseEvent.commit();
+		parseEvent = null;
+	}
+
+	private void commitRequestEvent() {
+		requestEvent.end();
+		requestEvent.endpoint = endpoint;
+		requestEvent.commit();
+	}
+
+	/**
+	 * @return the Targomo code of the parsed response, null if it has none
+	 */
+	private static ResponseCode resultCode(Object result) {
+		if (result instanceof DefaultResponse)
+			return ((DefaultResponse<?, ?>) result).getCode();
+		if (result instanceof TimeResponse)
+			return ((TimeResponse) result).getCode();
+		if (result instanceof ReachabilityResponse)
+			return ((ReachabilityResponse) result).getCode();
+		if (result instanceof RouteResponse)
+			return ((RouteResponse) result).getCode();
+		if (result instanceof PolygonResponse)
+			return ((PolygonResponse) result).getCode();
+		return null;
+	}
+
+	private static String code(ResponseCode code) {
+		return code == null ? "" : code.name();
+	}
+
+	/**
+	 * @return the started event or null if it is not recorded
+	 */
+	private static <E extends Event> E enabled(E event) {
+		if (!event.isEnabled())
+			return null;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @return the length of the string in UTF-8, without encoding it
+	 */
+	static long utf8Length(String value) {
+		long bytes = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				bytes++;
+			} else if (c < 0x800) {
+				bytes += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+				bytes += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				// encoded as '?'
+				bytes++;
+			} else {
+				bytes += 3;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Response body counting the bytes read from it and the time spent blocked in reading them.
+	 */
+	private static final class MeteredBody extends FilterInputStream {
+
+		private volatile long bytes = 0;
+		private volatile long nanos = 0;
+
+		private MeteredBody(InputStream body) {
+			super(body == null ? InputStream.nullInputStream() : body);
+		}
+
+		@Override
+		public int read() throws IOException {
+			long start = System.nanoTime();
+			int b = in.read();
+			nanos += System.nanoTime() - start;
+			if (b >= 0)
+				bytes++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			long start = System.nanoTime();
+			int read = in.read(buffer, offset, length);
+			nanos += System.nanoTime() - start;
+			if (read > 0)
+				bytes += read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long start = System.nanoTime();
+			long skipped = in.skip(n);
+			nanos += System.nanoTime() - start;
+			bytes += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+	/**
+	 * Streamed body counting the bytes of its last write, i.e. the body that was actually sent.
+	 */
+	private static final class CountingBody implements StreamingOutput {
+
+		private final StreamingOutput body;
+		private volatile long bytes = -1;
+
+		private CountingBody(StreamingOutput body) {
+			this.body = body;
+		}
+
+		@Override
+		public void write(OutputStream output) throws IOException {
+			long[] written = new long[1];
+			body.write(new FilterOutputStream(output) {
+				@Override
+				public void write(int b) throws IOException {
+					out.write(b);
+					written[0]++;
+				}
+
+				@Override
+				public void write(byte[] bytes, int offset, int length) throws IOException {
+					out.write(bytes, offset, length);
+					written[0] += length;
+				}
+			});
+			bytes = written[0];
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.TargomoClient;
+import com.targomo.client.api.TravelOptions;
+import com.targomo.client.api.enums.EdgeWeightType;
+import com.targomo.client.api.enums.TravelType;
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.geo.DefaultSourceCoordinate;
+import com.targomo.client.api.geo.DefaultTargetCoordinate;
+import com.targomo.client.api.json.JsonMappers;
+import com.targomo.client.api.request.config.RequestConfigurator;
+import com.targomo.client.api.response.MultiGraphResponse.MultiGraphGeoJsonResponse;
+import com.targomo.client.api.response.MultiGraphResponse.MultiGraphJsonResponse;
+import com.targomo.client.api.response.MultiGraphResponse.MultiGraphTileHashResponse;
+import com.targomo.client.api.response.PointOfInterestResponse;
+import com.targomo.client.api.response.PointOfInterestSummaryResponse;
+import com.targomo.client.api.response.ReachabilityResponse;
+import com.targomo.client.api.response.TimeResponse;
+import com.targomo.client.api.response.TimeVectorResponse;
+import com.targomo.client.api.util.IOUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Function;
+
+/**
+ * Moves the one-time costs of a client out of its first request, e.g. before an instance reports ready:
+ * <pre>
+ *     TargomoClient targomo = TargomoClient.builder().build();
+ *     targomo.warmUp(ClientWarmUp.builder().serviceUrl("https://api.targomo.com/westcentraleurope/").build());
+ *     // readiness check
+ *     return targomo.isWarm();
+ * </pre>
+ *
+ * <p>
+ * The warm-up bootstraps the runtime of the JAX-RS client and its SSL context, initializes the Jackson mappers and
+ * their deserializers of the response classes, and runs synthetic passes of building request configurations and
+ * parsing time and reachability responses, so the JIT has compiled them before the first real request. The samples
+ * are generated for the synthetic travel options, nothing is sent for them. If a service URL is set, one GET request
+ * to it opens a connection to the service, which then stays in the connection pool.
+ * </p>
+ */
+@Slf4j
+public final class ClientWarmUp {
+
+	/**
+	 * 200 passes with 20 sources and targets, no connection to a service.
+	 */
+	public static final ClientWarmUp DEFAULT = builder().build();
+
+	private final int iterations;
+	private final int locations;
+	private final String serviceUrl;
+
+	private ClientWarmUp(Builder builder) {
+		this.iterations = builder.iterations;
+		this.locations = builder.locations;
+		this.serviceUrl = builder.serviceUrl;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the number of synthetic serialization and parse passes
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * @return the number of sources and targets of the synthetic requests
+	 */
+	public int getLocations() {
+		return locations;
+	}
+
+	/**
+	 * @return the URL the warm-up opens a connection to, null if it does not connect
+	 */
+	public String getServiceUrl() {
+		return serviceUrl;
+	}
+
+	/**
+	 * Warms up the client, see {@link TargomoClient#warmUp(ClientWarmUp)}. Failing to connect to the service is only
+	 * logged, the client is warm apart from the connection.
+	 * @param targomoClient the client to warm up
+	 * @return the duration of the warm-up
+	 * @throws TargomoClientException if a synthetic pass fails, i.e. the client can not serialize or parse requests
+	 */
+	public Duration run(TargomoClient targomoClient) throws TargomoClientException {
+		long start = System.nanoTime();
+		Client client = targomoClient.getClient();
+
+		initClient(client);
+		initMappers();
+		runPasses();
+		if (serviceUrl != null)
+			connect(client);
+
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+		log.info("Warmed up client in {} ms", elapsed.toMillis());
+		return elapsed;
+	}
+
+	/**
+	 * Bootstraps the runtime of the JAX-RS client, which is created when the first request is built, and loads the
+	 * trust store of its SSL context.
+	 */
+	private void initClient(Client client) {
+		client.target(serviceUrl == null ? "http://localhost/" : serviceUrl).request().buildGet();
+		client.getSslContext().createSSLEngine();
+	}
+
+	/**
+	 * Registers the modules of the multigraph mapper and creates the readers of the response classes, which also
+	 * introspects the classes and caches their deserializers.
+	 */
+	private static void initMappers() throws TargomoClientException {
+		try {
+			Class.forName(MultiGraphRequest.class.getName(), true, MultiGraphRequest.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new TargomoClientException("Could not initialize the multigraph request", e);
+		}
+		for (Class<?> responseClass : new Class<?>[]{ MultiGraphJsonResponse.class, MultiGraphTileHashResponse.class,
+				MultiGraphGeoJsonResponse.class, TimeVectorResponse.class })
+			TargomoRequest.MAPPER.readerFor(responseClass);
+		JsonMappers.reader(PointOfInterestResponse.POI.class);
+		JsonMappers.reader(PointOfInterestSummaryResponse.POISummary.class);
+	}
+
+	private void runPasses() throws TargomoClientException {
+		TravelOptions travelOptions = travelOptions();
+		byte[] timeSample = timeSample().toString().getBytes(StandardCharsets.UTF_8);
+		byte[] reachabilitySample = reachabilitySample().toString().getBytes(StandardCharsets.UTF_8);
+
+		try {
+			for (int i = 0; i < iterations; i++) {
+				RequestConfigurator.getConfig(travelOptions);
+				RequestConfigurator.getStreamingConfig(travelOptions).write(OutputStream.nullOutputStream());
+
+				long requestStart = System.currentTimeMillis();
+				try (InputStream stream = IOUtil.getResultStream(sample(timeSample))) {
+					TimeResponse.parse(travelOptions, stream, requestStart);
+				}
+				try (InputStream stream = IOUtil.getResultStream(sample(reachabilitySample))) {
+					ReachabilityResponse.parse(travelOptions, stream, requestStart, Function.identity());
+				}
+			}
+		} catch (IOException | ResponseErrorException e) {
+			throw new TargomoClientException("Warm-up pass failed: " + e.getMessage(), e);
+		}
+	}
+
+	private void connect(Client client) {
+		HttpCall call = HttpCall.get(client.target(serviceUrl), new MultivaluedHashMap<>()).withCacheFlags(true, false);
+		try (Response response = RequestExecutor.forClient(client).execute(call)) {
+			log.debug("Warm-up connection to '{}' returned status {}", serviceUrl, response.getStatus());
+		} catch (RuntimeException e) {
+			log.warn("Warm-up could not connect to '{}': {}", serviceUrl, e.getMessage());
+		}
+	}
+
+	private TravelOptions travelOptions() {
+		TravelOptions travelOptions = new TravelOptions();
+		for (int i = 0; i < locations; i++) {
+			travelOptions.addSource(new DefaultSourceCoordinate("s" + i, 13.4 + i * 0.001, 52.5));
+			travelOptions.addTarget(new DefaultTargetCoordinate("t" + i, 13.4, 52.5 + i * 0.001));
+		}
+		travelOptions.setTravelType(TravelType.CAR);
+		travelOptions.setEdgeWeightType(EdgeWeightType.TIME);
+		travelOptions.setMaxEdgeWeight(1800);
+		return travelOptions;
+	}
+
+	private JSONObject timeSample() {
+		JSONArray data = new JSONArray();
+		for (int source = 0; source < locations; source++) {
+			JSONArray targets = new JSONArray();
+			for (int target = 0; target < locations; target++)
+				targets.put(new JSONObject().put("id", "t" + target).put("travelTime", 60 * (source + target))
+						.put("length", 1000 * (source + target)));
+			data.put(new JSONObject().put("id", "s" + source).put("targets", targets));
+		}
+		return new JSONObject().put("code", "ok").put("requestTime", 1).put("data", data);
+	}
+
+	private JSONObject reachabilitySample() {
+		JSONArray data = new JSONArray();
+		for (int target = 0; target < locations; target++)
+			data.put(new JSONObject().put("id", "t" + target).put("travelTime", 60 * target).put("source", "s0"));
+		return new JSONObject().put("code", "ok").put("requestTime", 1).put("data", data);
+	}
+
+	private static Response sample(byte[] body) {
+		return new BufferedResponse(BufferedResponse.cached(Response.Status.OK.getStatusCode(),
+				MediaType.APPLICATION_JSON, Collections.emptyMap(), body));
+	}
+
+	/**
+	 * Builder for {@link ClientWarmUp}.
+	 */
+	public static class Builder {
+
+		private int iterations = 200;
+		private int locations = 20;
+		private String serviceUrl = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param iterations number of synthetic serialization and parse passes, default 200; 0 only initializes the
+		 *                   client and the mappers
+		 * @return this builder
+		 */
+		public Builder iterations(int iterations) {
+			if (iterations < 0)
+				throw new IllegalArgumentException("iterations must not be negative but was " + iterations);
+			this.iterations = iterations;
+			return this;
+		}
+
+		/**
+		 * @param locations number of sources and targets of the synthetic requests, default 20
+		 * @return this builder
+		 */
+		public Builder locations(int locations) {
+			if (locations <= 0)
+				throw new IllegalArgumentException("locations must be positive but was " + locations);
+			this.locations = locations;
+			return this;
+		}
+
+		/**
+		 * @param serviceUrl URL the warm-up sends one GET request to, to open a connection to the service, default
+		 *                   null (no connection)
+		 * @return this builder
+		 */
+		public Builder serviceUrl(String serviceUrl) {
+			this.serviceUrl = serviceUrl;
+			return this;
+		}
+
+		public ClientWarmUp build() {
+			return new ClientWarmUp(this);
+		}
+	}
+}
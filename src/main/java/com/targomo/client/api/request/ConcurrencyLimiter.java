@@ -0,0 +1,386 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+
+import javax.ws.rs.core.Response;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Adaptive limit of the calls in flight per service and API key, configured on the {@link RequestExecutor}, instead
+ * of hard coded thread counts.
+ *
+ * <p>
+ * The limit follows AIMD (additive increase, multiplicative decrease) on the round trip times and status codes of the
+ * calls: it shrinks by the backoff ratio if a call is answered with 429, 503 or 504, times out, or takes longer than
+ * the latency tolerance times the usual round trip time of the service; it grows by one per limit's worth of
+ * successful calls while at least half of it is used. The usual round trip time is a slow moving average of all
+ * successful calls.
+ * </p>
+ *
+ * <p>
+ * Calls over the limit wait for a free slot in the order they arrived, asynchronous calls without blocking a thread.
+ * Calls that waited longer than the maximum wait or found the queue full throw a {@link CallRejectedException}.
+ * </p>
+ */
+public final class ConcurrencyLimiter {
+
+	private static final Set<Integer> OVERLOAD_STATUSES = new HashSet<>(Arrays.asList(429, 503, 504));
+	// weight of a new round trip time in the usual round trip time
+	private static final double RTT_SMOOTHING = 0.02;
+
+	private final Function<URI, String> limitKey;
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double latencyTolerance;
+	private final long maxWaitMillis;
+	private final int maxQueued;
+
+	private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+	private final LongAdder rejectedCalls = new LongAdder();
+
+	private ConcurrencyLimiter(Builder builder) {
+		this.limitKey = builder.limitKey;
+		this.initialLimit = builder.initialLimit;
+		this.minLimit = builder.minLimit;
+		this.maxLimit = builder.maxLimit;
+		this.backoffRatio = builder.backoffRatio;
+		this.latencyTolerance = builder.latencyTolerance;
+		this.maxWaitMillis = builder.maxWait.toMillis();
+		this.maxQueued = builder.maxQueued;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param uri URI of a call
+	 * @return the service of the call (see {@link ServiceIsolation#defaultServiceKey(URI)}) and the first 16 hex
+	 * digits of the SHA-256 digest of its API key, the key itself is not exposed in exceptions and metrics
+	 */
+	public static String defaultLimitKey(URI uri) {
+		return ServiceIsolation.defaultServiceKey(uri) + " " + HttpCall.apiKeyDigest(HttpCall.apiKey(uri));
+	}
+
+	/**
+	 * @return the current limit per limit key
+	 */
+	public Map<String, Integer> getLimits() {
+		Map<String, Integer> current = new LinkedHashMap<>();
+		limits.forEach((key, limit) -> current.put(key, limit.current()));
+		return current;
+	}
+
+	/**
+	 * @param key the limit key, see {@link #defaultLimitKey(URI)}
+	 * @return the current limit, the initial limit if there were no calls with this key
+	 */
+	public int getLimit(String key) {
+		Limit limit = limits.get(key);
+		return limit == null ? initialLimit : limit.current();
+	}
+
+	/**
+	 * @return number of calls rejected after waiting too long or because the queue was full
+	 */
+	public long getRejectedCalls() {
+		return rejectedCalls.sum();
+	}
+
+	/**
+	 * @param call the call to send
+	 * @return future of the permit to send the call, completed when a slot is free or failed with a
+	 * {@link CallRejectedException} after the maximum wait
+	 */
+	CompletableFuture<Permit> acquireAsync(HttpCall call) {
+		Limit limit = limit(call);
+		CompletableFuture<Permit> permit = acquire(limit);
+		if (permit.isDone())
+			return permit;
+		CompletableFuture<Permit> result = new CompletableFuture<>();
+		permit.whenComplete((acquired, error) -> {
+			if (acquired != null)
+				result.complete(acquired);
+		});
+		CompletableFuture.delayedExecutor(maxWaitMillis(call), TimeUnit.MILLISECONDS).execute(() -> {
+			if (limit.cancel(permit)) {
+				rejectedCalls.increment();
+				result.completeExceptionally(new CallRejectedException(limit.key, CallRejectedException.Reason.LIMIT_EXCEEDED));
+			}
+		});
+		return result;
+	}
+
+	private Limit limit(HttpCall call) {
+		return limits.computeIfAbsent(limitKey.apply(call.getTarget().getUri()), Limit::new);
+	}
+
+	private CompletableFuture<Permit> acquire(Limit limit) {
+		CompletableFuture<Permit> permit = limit.acquire();
+		if (permit.isCompletedExceptionally())
+			rejectedCalls.increment();
+		return permit;
+	}
+
+	/**
+	 * @return the maximum wait of the call, at most its remaining deadline
+	 */
+	private long maxWaitMillis(HttpCall call) {
+		Deadline deadline = call.getDeadline();
+		return deadline == null ? maxWaitMillis : Math.min(maxWaitMillis, deadline.remainingMillis());
+	}
+
+	/**
+	 * Waits at most the maximum wait for the permit to send the call.
+	 * @param call the call to send
+	 * @return the permit
+	 * @throws CallRejectedException if no slot got free in time
+	 */
+	Permit acquireBlocking(HttpCall call) {
+		Limit limit = limit(call);
+		CompletableFuture<Permit> permit = acquire(limit);
+		try {
+			return permit.get(maxWaitMillis(call), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			throw (CallRejectedException) e.getCause();
+		} catch (InterruptedException | TimeoutException e) {
+			if (e instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+			// a slot may have been assigned in the meantime
+			if (!limit.cancel(permit))
+				permit.join().releaseUnused();
+			rejectedCalls.increment();
+			throw new CallRejectedException(limit.key, CallRejectedException.Reason.LIMIT_EXCEEDED);
+		}
+	}
+
+	/**
+	 * Permission to send one call, released with its outcome.
+	 */
+	final class Permit {
+
+		private final Limit limit;
+		private final long startNanos = System.nanoTime();
+		private boolean released = false;
+
+		private Permit(Limit limit) {
+			this.limit = limit;
+		}
+
+		/**
+		 * @param response the response of the call
+		 */
+		void release(Response response) {
+			boolean overload = OVERLOAD_STATUSES.contains(response.getStatus());
+			release(overload, !overload && response.getStatus() < 500);
+		}
+
+		/**
+		 * @param error the exception the call failed with
+		 */
+		void releaseFailed(Throwable error) {
+			release(timedOut(error), false);
+		}
+
+		private void releaseUnused() {
+			release(false, false);
+		}
+
+		private void release(boolean overload, boolean sample) {
+			synchronized (this) {
+				if (released)
+					return;
+				released = true;
+			}
+			limit.release(System.nanoTime() - startNanos, overload, sample);
+		}
+
+		private boolean timedOut(Throwable error) {
+			for (Throwable cause = error; cause != null && cause.getCause() != cause; cause = cause.getCause()) {
+				if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException)
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The limit of one limit key.
+	 */
+	private final class Limit {
+
+		private final String key;
+		private final ArrayDeque<CompletableFuture<Permit>> waiting = new ArrayDeque<>();
+		private double limit = initialLimit;
+		private int inFlight = 0;
+		private double usualRttNanos = 0;
+
+		private Limit(String key) {
+			this.key = key;
+		}
+
+		private synchronized int current() {
+			return (int) limit;
+		}
+
+		private CompletableFuture<Permit> acquire() {
+			CompletableFuture<Permit> permit = new CompletableFuture<>();
+			synchronized (this) {
+				if (inFlight < (int) limit && waiting.isEmpty()) {
+					inFlight++;
+				} else if (waiting.size() < maxQueued) {
+					waiting.add(permit);
+					return permit;
+				} else {
+					permit.completeExceptionally(new CallRejectedException(key, CallRejectedException.Reason.LIMIT_EXCEEDED));
+					return permit;
+				}
+			}
+			permit.complete(new Permit(this));
+			return permit;
+		}
+
+		/**
+		 * Gives up waiting for a permit, the call no longer counts against the maximum queue length.
+		 * @return false if the permit was already assigned
+		 */
+		private synchronized boolean cancel(CompletableFuture<Permit> permit) {
+			if (!permit.cancel(false))
+				return false;
+			waiting.remove(permit);
+			return true;
+		}
+
+		private void release(long rttNanos, boolean overload, boolean sample) {
+			List<CompletableFuture<Permit>> started = new ArrayList<>();
+			synchronized (this) {
+				inFlight--;
+				if (overload) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+				} else if (sample) {
+					usualRttNanos = usualRttNanos == 0 ? rttNanos : usualRttNanos + RTT_SMOOTHING * (rttNanos - usualRttNanos);
+					if (rttNanos > latencyTolerance * usualRttNanos)
+						limit = Math.max(minLimit, limit * backoffRatio);
+					else if (2 * (inFlight + 1) >= limit)
+						limit = Math.min(maxLimit, limit + 1 / limit);
+				}
+				while (inFlight < (int) limit && !waiting.isEmpty()) {
+					CompletableFuture<Permit> next = waiting.poll();
+					if (!next.isDone()) {
+						inFlight++;
+						started.add(next);
+					}
+				}
+			}
+			// completed outside of the lock, the calls are sent by the completing thread
+			for (CompletableFuture<Permit> next : started) {
+				Permit permit = new Permit(this);
+				if (!next.complete(permit))
+					permit.releaseUnused();
+			}
+		}
+	}
+
+	/**
+	 * Builder for a {@link ConcurrencyLimiter}.
+	 */
+	public static class Builder {
+
+		private Function<URI, String> limitKey = ConcurrencyLimiter::defaultLimitKey;
+		private int initialLimit = 20;
+		private int minLimit = 1;
+		private int maxLimit = 200;
+		private double backoffRatio = 0.9;
+		private double latencyTolerance = 2;
+		private Duration maxWait = Duration.ofMinutes(1);
+		private int maxQueued = 10_000;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param limitKey maps the URI of a call to the key of its limit, default {@link #defaultLimitKey(URI)}
+		 * @return this builder
+		 */
+		public Builder limitKey(Function<URI, String> limitKey) {
+			if (limitKey == null)
+				throw new IllegalArgumentException("limitKey must not be null");
+			this.limitKey = limitKey;
+			return this;
+		}
+
+		/**
+		 * @param initialLimit limit before the first calls, default 20
+		 * @param minLimit lower bound of the limit, default 1
+		 * @param maxLimit upper bound of the limit, default 200
+		 * @return this builder
+		 */
+		public Builder limits(int initialLimit, int minLimit, int maxLimit) {
+			if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit)
+				throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+			this.initialLimit = initialLimit;
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+			return this;
+		}
+
+		/**
+		 * @param backoffRatio factor the limit is multiplied with on overload, between 0.5 and 1, default 0.9
+		 * @return this builder
+		 */
+		public Builder backoffRatio(double backoffRatio) {
+			if (backoffRatio < 0.5 || backoffRatio >= 1)
+				throw new IllegalArgumentException("backoffRatio must be at least 0.5 and less than 1 but was " + backoffRatio);
+			this.backoffRatio = backoffRatio;
+			return this;
+		}
+
+		/**
+		 * @param latencyTolerance factor of the usual round trip time above which a call counts as overload, default 2
+		 * @return this builder
+		 */
+		public Builder latencyTolerance(double latencyTolerance) {
+			if (latencyTolerance <= 1)
+				throw new IllegalArgumentException("latencyTolerance must be greater than 1 but was " + latencyTolerance);
+			this.latencyTolerance = latencyTolerance;
+			return this;
+		}
+
+		/**
+		 * @param maxWait maximum time a blocking call waits for a free slot, default 1 minute
+		 * @param maxQueued maximum number of waiting calls per limit key, default 10000
+		 * @return this builder
+		 */
+		public Builder queue(Duration maxWait, int maxQueued) {
+			if (maxWait == null || maxWait.isNegative() || maxQueued < 0)
+				throw new IllegalArgumentException("maxWait must not be null or negative, maxQueued must not be negative");
+			this.maxWait = maxWait;
+			this.maxQueued = maxQueued;
+			return this;
+		}
+
+		public ConcurrencyLimiter build() {
+			return new ConcurrencyLimiter(this);
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.targomo.client.api.request;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Time budget of one request or of a workflow of several requests, which can also be cancelled.
+ *
+ * <p>
+ * A deadline applies to all requests executed on the current thread while it is entered:
+ * <pre>
+ *     Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+ *     try (Deadline.Scope scope = deadline.enter()) {
+ *         TimeResponse times = targomo.timeRequest(travelOptions).get();
+ *         ReachabilityResponse reachability = targomo.reachabilityRequest(travelOptions).get();
+ *     }
+ * </pre>
+ * Each call gets the remaining budget as read timeout of the connector, is not sent or retried once the budget is
+ * used up and its response is not parsed anymore. Asynchronous calls are failed by a shared timer when the deadline
+ * passes, or as soon as {@link #cancel()} is called, without waiting for the response. Deadlines entered while another
+ * one is entered are capped by the outer one. The default request timeout of the {@link RequestExecutor} applies in
+ * addition to an entered deadline.
+ * </p>
+ */
+public final class Deadline {
+
+	// the connector properties of Jersey, ignored by other JAX-RS implementations
+	static final String CONNECT_TIMEOUT_PROPERTY = "jersey.config.client.connectTimeout";
+	static final String READ_TIMEOUT_PROPERTY = "jersey.config.client.readTimeout";
+
+	private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+	private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+	private final long deadlineNanos;
+	// deadlines this one was derived from, cancelling them cancels this one
+	private final Deadline[] parents;
+	private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+	private volatile boolean cancelled = false;
+
+	private Deadline(long deadlineNanos, Deadline... parents) {
+		this.deadlineNanos = deadlineNanos;
+		this.parents = parents;
+	}
+
+	/**
+	 * @param timeout the budget from now on
+	 * @return a new deadline
+	 */
+	public static Deadline after(Duration timeout) {
+		if (timeout == null || timeout.isNegative())
+			throw new IllegalArgumentException("timeout must not be null or negative");
+		return new Deadline(System.nanoTime() + timeout.toNanos());
+	}
+
+	/**
+	 * @param timeout the budget of a single step
+	 * @return a deadline expiring after the timeout but not after this deadline, cancelled together with it
+	 */
+	public Deadline within(Duration timeout) {
+		return earliest(this, after(timeout));
+	}
+
+	/**
+	 * @return the deadline entered on the current thread or null if there is none
+	 */
+	public static Deadline current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * @return the remaining budget, zero if it is used up or the deadline was cancelled
+	 */
+	public Duration remaining() {
+		return Duration.ofNanos(remainingNanos());
+	}
+
+	long remainingNanos() {
+		return isCancelled() ? 0 : Math.max(0, deadlineNanos - System.nanoTime());
+	}
+
+	long remainingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+	}
+
+	/**
+	 * @return true if the budget is used up or the deadline was cancelled
+	 */
+	public boolean isExpired() {
+		return remainingNanos() == 0;
+	}
+
+	/**
+	 * @return true if this deadline or one it was derived from was cancelled
+	 */
+	public boolean isCancelled() {
+		if (cancelled)
+			return true;
+		for (Deadline parent : parents) {
+			if (parent.isCancelled())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Cancels all requests using this deadline: calls in flight are abandoned, their responses are closed instead of
+	 * parsed, and no further calls are sent.
+	 */
+	public void cancel() {
+		cancelled = true;
+		for (Runnable listener : cancelListeners)
+			listener.run();
+	}
+
+	/**
+	 * Makes this deadline the deadline of the requests executed on the current thread until the scope is closed.
+	 * @return the scope to close, restoring the previous deadline
+	 */
+	public Scope enter() {
+		Deadline previous = CURRENT.get();
+		CURRENT.set(earliest(previous, this));
+		return new Scope(previous);
+	}
+
+	/**
+	 * @return a deadline expiring with the first of both and cancelled with either of them, null if both are null
+	 */
+	static Deadline earliest(Deadline first, Deadline second) {
+		if (first == null)
+			return second;
+		if (second == null || first == second)
+			return first;
+		long earliestNanos = first.deadlineNanos - second.deadlineNanos <= 0 ? first.deadlineNanos : second.deadlineNanos;
+		return new Deadline(earliestNanos, first, second);
+	}
+
+	/**
+	 * @param what description of the call, e.g. its URI
+	 * @throws CancellationException if the deadline was cancelled
+	 * @throws ProcessingException caused by a {@link TimeoutException} if the budget is used up
+	 */
+	void check(Object what) {
+		if (isCancelled())
+			throw new CancellationException("Request cancelled: " + what);
+		if (remainingNanos() == 0)
+			throw new ProcessingException("Deadline exceeded: " + what, new TimeoutException());
+	}
+
+	/**
+	 * Fails the returned future when the deadline passes or is cancelled before the response arrives. A response
+	 * arriving afterwards is closed, cancelling the returned future cancels the given one.
+	 *
+	 * @param response future of the response of a call
+	 * @param what description of the call, e.g. its URI
+	 * @return future of the response within the deadline
+	 */
+	CompletableFuture<Response> bound(CompletableFuture<Response> response, Object what) {
+		return bound(response, what, Response::close);
+	}
+
+	/**
+	 * Fails the returned future when the deadline passes or is cancelled before the value arrives, cancelling the
+	 * returned future cancels the given one.
+	 *
+	 * @param value future of a value, e.g. the parsed response of an identical request in flight
+	 * @param what description of the call, e.g. its URI
+	 * @param discard releases a value arriving after the returned future failed
+	 * @param <T> the type of the value
+	 * @return future of the value within the deadline
+	 */
+	<T> CompletableFuture<T> bound(CompletableFuture<T> value, Object what, Consumer<? super T> discard) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Runnable onCancel = () -> result.completeExceptionally(new CancellationException("Request cancelled: " + what));
+		ScheduledFuture<?> timeout = TIMER.schedule(
+				() -> result.completeExceptionally(new ProcessingException("Deadline exceeded: " + what, new TimeoutException())),
+				remainingNanos(), TimeUnit.NANOSECONDS);
+		listen(onCancel);
+		if (isCancelled())
+			onCancel.run();
+
+		value.whenComplete((received, error) -> {
+			if (error != null)
+				result.completeExceptionally(error);
+			else if (!result.complete(received))
+				discard.accept(received);
+		});
+		// completed after the given future was cancelled, so dependent stages never see a call still in flight
+		CompletableFuture<T> bounded = new CompletableFuture<>();
+		result.whenComplete((received, error) -> {
+			timeout.cancel(false);
+			unlisten(onCancel);
+			if (error != null) {
+				value.cancel(true);
+				bounded.completeExceptionally(error);
+			} else {
+				bounded.complete(received);
+			}
+		});
+		bounded.whenComplete((received, error) -> {
+			if (error != null)
+				result.completeExceptionally(error);
+		});
+		return bounded;
+	}
+
+	private void listen(Runnable listener) {
+		cancelListeners.add(listener);
+		for (Deadline parent : parents)
+			parent.listen(listener);
+	}
+
+	private void unlisten(Runnable listener) {
+		cancelListeners.remove(listener);
+		for (Deadline parent : parents)
+			parent.unlisten(listener);
+	}
+
+	private static ScheduledThreadPoolExecutor timer() {
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "targomo-deadline-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+		return timer;
+	}
+
+	/**
+	 * The time a {@link Deadline} is entered on a thread, see {@link Deadline#enter()}.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final Deadline previous;
+
+		private Scope(Deadline previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous == null)
+				CURRENT.remove();
+			else
+				CURRENT.set(previous);
+		}
+	}
+}
@@ -2,24 +2,27 @@ package com.targomo.client.api.request;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.pojo.EdgeStatisticsReachabilityRequestOptions;
 import com.targomo.client.api.response.EdgeStatisticsReachabilityResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Reachability request to edge statistics service.
@@ -68,11 +71,11 @@ public class EdgeStatisticsReachabilityRequest {
 
     /**
      * Use default client implementation with specified options and default headers
-     * Default client uses {@link ClientBuilder}
+     * Default client uses {@link TargomoClient#getDefault()}
      * @see EdgeStatisticsReachabilityRequest#EdgeStatisticsReachabilityRequest(Client, int, Set, List, boolean, TravelOptions, MultivaluedMap)
      */
     public EdgeStatisticsReachabilityRequest(int edgeStatisticCollectionId, Set<Integer> edgeStatisticIds, List<Integer> ignoreRoadClasses, boolean calculateReachabilityInFlyMode, TravelOptions travelOptions) {
-        this(ClientBuilder.newClient(), edgeStatisticCollectionId, edgeStatisticIds, ignoreRoadClasses, calculateReachabilityInFlyMode, travelOptions);
+        this(TargomoClient.getDefault().getClient(), edgeStatisticCollectionId, edgeStatisticIds, ignoreRoadClasses, calculateReachabilityInFlyMode, travelOptions);
     }
 
     /**
@@ -82,16 +85,27 @@ public class EdgeStatisticsReachabilityRequest {
      */
     public EdgeStatisticsReachabilityResponse get() throws TargomoClientException, JsonProcessingException {
 
+        // Execute POST request
+        return RequestExecutor.forClient(client).execute(this::prepareCall, this::parseResponse);
+    }
+
+    /**
+     * @return future of the response object, completed exceptionally with the exception {@link #get()} would have thrown
+     */
+    public CompletableFuture<EdgeStatisticsReachabilityResponse> getAsync() {
+        return RequestExecutor.forClient(client).executeAsync(this::prepareCall, this::parseResponse);
+    }
+
+    private HttpCall prepareCall() throws JsonProcessingException {
+
         String path = StringUtils.join(Arrays.asList(String.valueOf(this.edgeStatisticCollectionId), "reachability"), "/");
         WebTarget target = client.target(requestOptions.getRoutingOptions().getServiceUrl()).path(path).queryParam("key", requestOptions.getRoutingOptions().getServiceKey());
 
         log.debug(String.format("Executing edge statistics reachability request (%s) to URI: '%s'", path, target.getUri()));
 
-        // Execute POST request
-        String requestBody = new ObjectMapper().writeValueAsString(requestOptions);
+        String requestBody = JsonMappers.writer().writeValueAsString(requestOptions);
         final Entity<String> entity = Entity.entity(requestBody, MediaType.APPLICATION_JSON_TYPE);
-        Response response = target.request().headers(headers).post(entity);
-        return parseResponse(response);
+        return HttpCall.post(target, headers, entity);
     }
 
     /**
@@ -102,21 +116,19 @@ public class EdgeStatisticsReachabilityRequest {
      */
     private EdgeStatisticsReachabilityResponse parseResponse(final Response response) throws TargomoClientException {
 
-        String responseStr = response.readEntity(String.class);
-
         // compare the HTTP status codes, NOT the Targomo code
         if (response.getStatus() == Response.Status.OK.getStatusCode()) {
             // consume the results
-            try {
+            try (InputStream responseStream = response.readEntity(InputStream.class)) {
                 TypeReference<EdgeStatisticsReachabilityResponse> typeRef = new TypeReference<EdgeStatisticsReachabilityResponse>() {};
-                return new ObjectMapper().readValue(responseStr, typeRef);
+                return JsonMappers.reader(typeRef).readValue(responseStream);
             }
-            catch (JsonProcessingException e){
+            catch (IOException e){
                 throw new TargomoClientRuntimeException("Couldn't parse Edge Statistics reachability response", e);
             }
         }
         else {
-            throw new TargomoClientException(responseStr, response.getStatus());
+            throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
         }
     }
 }
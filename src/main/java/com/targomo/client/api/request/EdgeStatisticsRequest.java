@@ -1,26 +1,28 @@
 package com.targomo.client.api.request;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.pojo.EdgeStatisticsRequestOptions;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class EdgeStatisticsRequest {
@@ -45,12 +47,12 @@ public class EdgeStatisticsRequest {
 
 	/**
 	 * Use default client implementation with specified options and default headers
-	 * Default client uses {@link ClientBuilder}
+	 * Default client uses {@link TargomoClient#getDefault()}
 	 * @see EdgeStatisticsRequest#EdgeStatisticsRequest(Client, String, String, int, EdgeStatisticsRequestOptions, MultivaluedMap)
 	 */
 	public EdgeStatisticsRequest(String serviceUrl, String serviceKey, int edgeStatisticCollectionId,
 								 EdgeStatisticsRequestOptions requestOptions) {
-		this(ClientBuilder.newClient(), serviceUrl, serviceKey, edgeStatisticCollectionId, requestOptions);
+		this(TargomoClient.getDefault().getClient(), serviceUrl, serviceKey, edgeStatisticCollectionId, requestOptions);
 	}
 
 	/**
@@ -79,15 +81,27 @@ public class EdgeStatisticsRequest {
 	 */
 	public Map<String, Map<String, Double>> get() throws TargomoClientException, JsonProcessingException {
 
+		// Execute POST request
+		return RequestExecutor.forClient(client).execute(this::prepareCall, this::parseResponse);
+	}
+
+	/**
+	 * @return future of the map of location id to a map of edge statistic id to statistic value, completed
+	 * exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<Map<String, Map<String, Double>>> getAsync() {
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, this::parseResponse);
+	}
+
+	private HttpCall prepareCall() throws JsonProcessingException {
+
 		String path = StringUtils.join(Arrays.asList(String.valueOf(this.edgeStatisticCollectionId), "locations"), "/");
 		WebTarget target = client.target(serviceUrl).path(path).queryParam("key", serviceKey);
 
 		log.debug(String.format("Executing edge statistics request (%s) to URI: '%s'", path, target.getUri()));
 
-		// Execute POST request
-		final Entity<String> entity = Entity.entity(new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY).writeValueAsString(requestOptions), MediaType.APPLICATION_JSON_TYPE);
-		Response response = target.request().headers(headers).post(entity);
-		return parseResponse(response);
+		final Entity<String> entity = Entity.entity(JsonMappers.nonEmptyWriter().writeValueAsString(requestOptions), MediaType.APPLICATION_JSON_TYPE);
+		return HttpCall.post(target, headers, entity);
 	}
 
 	/**
@@ -99,22 +113,20 @@ public class EdgeStatisticsRequest {
 	private Map<String, Map<String, Double>> parseResponse(final Response response)
 			throws TargomoClientException {
 
-		String responseStr = response.readEntity(String.class);
-
 		// compare the HTTP status codes, NOT the Targomo code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 
 			// consume the results
-			try {
+			try (InputStream responseStream = response.readEntity(InputStream.class)) {
 				TypeReference<HashMap<String, Map<String, Double>>> typeRef = new TypeReference<HashMap<String, Map<String, Double>>>() {};
-				return new ObjectMapper().readValue(responseStr, typeRef);
+				return JsonMappers.reader(typeRef).readValue(responseStream);
 			}
-			catch (JsonProcessingException e){
+			catch (IOException e){
 				throw new TargomoClientRuntimeException("Couldn't parse Edge Statistics response", e);
 			}
 		}
 		else {
-			throw new TargomoClientException(responseStr, response.getStatus());
+			throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
 		}
 	}
 }
@@ -19,6 +19,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Function;
@@ -264,6 +265,21 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         for(Map.Entry<Option,String> entry : requestOptions.entrySet())
             target = conditionalQueryParam(entry.getKey().name, entry.getValue(), target);
 
+        // authentication and geocoding share the budget of the request
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(requestTimeoutInMs)).enter()) {
+            return geocode(target);
+        }
+    }
+
+    /**
+     * Private method requesting the result within the current deadline, authenticating first if necessary.
+     *
+     * @param target the prepared target without access token
+     * @return the resulting {@link GeocodingResponse}
+     * @throws TargomoClientException when error occurs during request. This does not query a Targomo Service.
+     * @throws ProcessingException when connection error occurs
+     */
+    private GeocodingResponse geocode(WebTarget target) throws TargomoClientException, ProcessingException {
         boolean tokenIsInvalid = this.currentAccessToken == null;
         WebTarget finalTarget;
         do {
@@ -276,13 +292,9 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
                 finalTarget = target;
             //execute request
             log.debug("Executing geocoding request to URI: {}", finalTarget.getUri());
-            WebTarget immutableTarget = finalTarget;
             Response response = null;
             try {
-                ExecutorService singleThread = Executors.newSingleThreadExecutor();
-                response = singleThread.submit( () -> immutableTarget.request().buildGet().invoke() )
-                        .get(requestTimeoutInMs, TimeUnit.MILLISECONDS);
-                shutdownServiceExecutor(singleThread);
+                response = execute(finalTarget);
 
                 GeocodingResponse reqResponse = validateGeocodingResponse(response);
                 if (reqResponse.wasErrorResponse() &&
@@ -293,7 +305,7 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
                     tokenIsInvalid = true;
                 } else
                     return reqResponse; //successful request with valid response (can also be an error unrelated to the token validity)
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            } catch (ProcessingException | CancellationException e) {
                 throw new TargomoClientException( "Error occurred during Geocoding an address", e);
             } finally {
                 if(response != null)
@@ -350,15 +362,12 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         Response response = null;
         AuthenticationResponse auth;
         try{
-            ExecutorService singleThread = Executors.newSingleThreadExecutor();
-            response = singleThread.submit( () -> target.request().buildGet().invoke() )
-                    .get(requestTimeoutInMs, TimeUnit.MILLISECONDS);
-            shutdownServiceExecutor(singleThread);
+            response = execute(target);
             auth = validateAuthenticationResponse(response);
             if (auth.wasErrorResponse())
                 throw new TargomoClientException("Error occurred during authentication with ESRI Service - \nRequest: \n" +
                         target.getUri() + "\nResponse: \n" + POJOUtil.prettyPrintPOJO(auth.getError()));
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        } catch (ProcessingException | CancellationException e) {
             throw new TargomoClientException( "Error occurred during authentication at ESRI for Geocoding", e);
         } finally {
             if(response != null)
@@ -367,11 +376,23 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         return auth.getAccessToken();
     }
 
+    /**
+     * Private method executing a GET call to the ESRI service within the deadline of the current request. The
+     * responses are not cached, since they depend on the validity of the access token.
+     *
+     * @param target the prepared target
+     * @return the response
+     * @throws ProcessingException when connection error occurs or the request timed out
+     */
+    private Response execute(WebTarget target) throws ProcessingException {
+        return RequestExecutor.forClient(client).execute(HttpCall.get(target, null).withCacheFlags(true, false));
+    }
+
     /**
      * Facilitating a parallel batch request for geocoding multiple addresses given as single String. It uses an
      * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
      * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * of times, waiting with the backoff of the {@link RetryPolicy} in between, before failing.
      *
      * @see GeocodingRequest#get(String)
      *
@@ -392,7 +413,7 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
      * Facilitating a parallel batch request for geocoding multiple {@link Address Addresses}. It uses an
      * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
      * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * of times, waiting with the backoff of the {@link RetryPolicy} in between, before failing.
      *
      * @see GeocodingRequest#get(Address)
      *
@@ -413,7 +434,7 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
      * Private Method facilitating a parallel batch request for geocoding multiple addresses. It uses an
      * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
      * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * of times, waiting with the backoff of the {@link RetryPolicy} in between, before failing.
      *
      * @see GeocodingRequest#get(Function)
      *
@@ -440,14 +461,24 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
 
         final ExecutorService executor = Executors.newFixedThreadPool(parallelThreads);
         final List<Callable<GeocodingResponse>> requests = new ArrayList<>();
+        final Deadline batchDeadline = Deadline.current();
+        final RequestExecutor requestExecutor = RequestExecutor.forClient(client);
         for (A singleAddress : addresses) {
             requests.add( () -> { //Adding individual Callables to be executed in available parallel Threads
-                // will terminate after the n-th try
-                for( int numberOfTries = 0; numberOfTries < triesBeforeFail; numberOfTries ++) {
+                // will terminate after the n-th try or when the deadline does not leave time for another one
+                for( int numberOfTries = 1; numberOfTries <= triesBeforeFail; numberOfTries ++) {
                     try {
-                        return singleRequest.get(singleAddress);
+                        if (batchDeadline == null)
+                            return singleRequest.get(singleAddress);
+                        try (Deadline.Scope scope = batchDeadline.enter()) {
+                            return singleRequest.get(singleAddress);
+                        }
                         // special case since the service is sometimes unavailable when too many parallel requests are processed
-                    } catch (ServiceUnavailableException e) { /* do nothing, i.e. ignore the exception and try again */ }
+                    } catch (ServiceUnavailableException e) {
+                        // back off like retried calls, so the parallel requests do not hammer the overloaded service
+                        if (numberOfTries < triesBeforeFail && !requestExecutor.backoff(numberOfTries, batchDeadline))
+                            break;
+                    }
                 }
                 throw new ServiceUnavailableException("Even after " + triesBeforeFail + " tries the service was still " +
                         "unavailable. Try reducing the thread number or increasing the number of tries.");
@@ -0,0 +1,368 @@
+package com.targomo.client.api.request;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the calls of the request classes with the JDK {@link HttpClient} instead of the connector of the JAX-RS
+ * client, e.g.:
+ * <pre>
+ *     TargomoClient targomo = TargomoClient.builder().transport(Http2Transport.builder().build()).build();
+ * </pre>
+ *
+ * <p>
+ * Over HTTPS the client negotiates HTTP/2, so concurrent requests to the same service are multiplexed on one
+ * connection and asynchronous requests do not block a thread while they are in flight. Servers without HTTP/2 are
+ * called with HTTP/1.1 over pooled keep-alive connections. The JAX-RS client is then only used to build the targets
+ * and its connector is bypassed. The {@link javax.ws.rs.client.ClientRequestFilter} instances registered with it,
+ * e.g. a {@link com.targomo.client.api.request.config.UserServiceEnvClientFilter}, still apply, other providers do
+ * not. Without an SSL context of its own, the transport uses the one of the JAX-RS client; hostnames are always
+ * verified, since the JDK client has no hostname verifier.
+ * </p>
+ *
+ * <p>
+ * Streamed request bodies are written to the connection through a pipe on a writer thread, responses are returned as
+ * soon as their headers arrived and their bodies are parsed while they arrive. Thread-safe, one instance should be
+ * shared by all requests to reuse its connections.
+ * </p>
+ */
+public final class Http2Transport {
+
+	// set by the HTTP client itself and not allowed as request headers
+	private static final List<String> RESTRICTED_HEADERS = Arrays.asList(
+			"Connection", "Content-Length", "Expect", "Host", "Upgrade");
+
+	private static final int PIPE_BYTES = 64 * 1024;
+	private static final AtomicInteger WRITER_THREADS = new AtomicInteger();
+	// own threads, a writer blocked on a full pipe must not take a thread the HTTP client needs to empty it
+	private static final ExecutorService BODY_WRITER = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "targomo-body-writer-" + WRITER_THREADS.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final HttpClient.Version version;
+	private final Duration connectTimeout;
+	private final Duration readTimeout;
+	private final Executor executor;
+	private final SSLContext sslContext;
+	// one HTTP client per SSL context, usually the only one of the JAX-RS client
+	private final ConcurrentMap<SSLContext, HttpClient> clients = new ConcurrentHashMap<>();
+
+	private Http2Transport(Builder builder) {
+		this.version = builder.version;
+		this.connectTimeout = builder.connectTimeout;
+		this.readTimeout = builder.readTimeout;
+		this.executor = builder.executor;
+		this.sslContext = builder.sslContext;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the HTTP protocol version the transport prefers
+	 */
+	public HttpClient.Version getVersion() {
+		return version;
+	}
+
+	/**
+	 * Sends the call and blocks until the headers of its response arrived.
+	 * @param call the prepared call
+	 * @param client the JAX-RS client the call was created with, null if unknown
+	 * @return the response, its body is read from the connection
+	 */
+	Response send(HttpCall call, Client client) {
+		TransportRequestContext context = TransportRequestContext.filter(call, client);
+		if (context.getAbortResponse() != null)
+			return context.getAbortResponse();
+		try {
+			return response(httpClient(client).send(request(call, context), HttpResponse.BodyHandlers.ofInputStream()));
+		} catch (IOException e) {
+			throw new ProcessingException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProcessingException(e);
+		}
+	}
+
+	/**
+	 * Sends the call without blocking. Cancelling the returned future abandons the exchange.
+	 * @param call the prepared call
+	 * @param client the JAX-RS client the call was created with, null if unknown
+	 * @return future of the response, completed when its headers arrived
+	 */
+	CompletableFuture<Response> sendAsync(HttpCall call, Client client) {
+		TransportRequestContext context = TransportRequestContext.filter(call, client);
+		if (context.getAbortResponse() != null)
+			return CompletableFuture.completedFuture(context.getAbortResponse());
+		CompletableFuture<HttpResponse<InputStream>> sent = httpClient(client).sendAsync(request(call, context),
+				HttpResponse.BodyHandlers.ofInputStream());
+		CompletableFuture<Response> response = new CompletableFuture<>();
+		sent.whenComplete((received, error) -> {
+			if (error == null)
+				response.complete(response(received));
+			else
+				response.completeExceptionally(failure(error));
+		});
+		response.whenComplete((received, error) -> {
+			if (error instanceof CancellationException)
+				sent.cancel(true);
+		});
+		return response;
+	}
+
+	/**
+	 * @return the HTTP client with the SSL context of this transport or else of the JAX-RS client
+	 */
+	private HttpClient httpClient(Client client) {
+		SSLContext context = sslContext != null ? sslContext : client != null ? client.getSslContext() : null;
+		if (context == null) {
+			try {
+				context = SSLContext.getDefault();
+			} catch (NoSuchAlgorithmException e) {
+				throw new ProcessingException("No default SSL context", e);
+			}
+		}
+		return clients.computeIfAbsent(context, this::build);
+	}
+
+	private HttpClient build(SSLContext context) {
+		HttpClient.Builder clientBuilder = HttpClient.newBuilder()
+				.version(version)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.sslContext(context);
+		if (connectTimeout != null)
+			clientBuilder.connectTimeout(connectTimeout);
+		if (executor != null)
+			clientBuilder.executor(executor);
+		return clientBuilder.build();
+	}
+
+	private HttpRequest request(HttpCall call, TransportRequestContext context) {
+		call.checkDeadline();
+		HttpRequest.Builder request = HttpRequest.newBuilder(context.getUri());
+		for (Map.Entry<String, List<Object>> header : context.getHeaders().entrySet()) {
+			if (RESTRICTED_HEADERS.stream().anyMatch(header.getKey()::equalsIgnoreCase))
+				continue;
+			for (Object value : header.getValue())
+				request.header(header.getKey(), String.valueOf(value));
+		}
+
+		Duration timeout = readTimeout;
+		if (call.getDeadline() != null) {
+			Duration remaining = Duration.ofMillis(Math.max(1, call.getDeadline().remainingMillis()));
+			timeout = timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+		}
+		if (timeout != null)
+			request.timeout(timeout);
+
+		Entity<?> entity = context.entity();
+		if (entity == null)
+			return HttpMethod.GET.equals(context.getMethod())
+					? request.GET().build()
+					: request.method(context.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+		if (entity.getMediaType() != null)
+			request.setHeader(HttpHeaders.CONTENT_TYPE, entity.getMediaType().toString());
+		if (entity.getEncoding() != null)
+			request.setHeader(HttpHeaders.CONTENT_ENCODING, entity.getEncoding());
+		return request.method(context.getMethod(), publisher(entity)).build();
+	}
+
+	private HttpRequest.BodyPublisher publisher(Entity<?> entity) {
+		Object body = entity.getEntity();
+		if (body instanceof byte[])
+			return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+		if (body instanceof String)
+			return HttpRequest.BodyPublishers.ofString((String) body, RequestCompression.charset(entity.getMediaType()));
+		if (body instanceof StreamingOutput)
+			// called again for every attempt of the HTTP client, e.g. after a redirect
+			return HttpRequest.BodyPublishers.ofInputStream(() -> pipe((StreamingOutput) body));
+		throw new ProcessingException("Request body of type " + body.getClass().getName() + " is not supported");
+	}
+
+	/**
+	 * Writes the body into a pipe on a writer thread, the HTTP client sends it while it is read from the pipe.
+	 * @return the end of the pipe the body is read from
+	 */
+	private InputStream pipe(StreamingOutput body) {
+		BodyPipe in = new BodyPipe();
+		PipedOutputStream out;
+		try {
+			out = new PipedOutputStream(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		BODY_WRITER.execute(() -> {
+			try {
+				body.write(out);
+			} catch (IOException | RuntimeException e) {
+				// set before the pipe is closed, so the body does not look complete to the reader
+				in.failure = e;
+			} finally {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// the reader is gone
+				}
+			}
+		});
+		return in;
+	}
+
+	private static Response response(HttpResponse<InputStream> response) {
+		String mediaType = response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
+		boolean empty = response.statusCode() == Response.Status.NO_CONTENT.getStatusCode()
+				|| response.statusCode() == Response.Status.NOT_MODIFIED.getStatusCode()
+				|| response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH).orElse(-1) == 0;
+		if (empty) {
+			try {
+				response.body().close();
+			} catch (IOException e) {
+				// nothing to release
+			}
+		}
+		return new StreamedResponse(response.statusCode(), mediaType == null ? null : MediaType.valueOf(mediaType),
+				response.headers().map(), empty ? null : response.body(), null);
+	}
+
+	private static RuntimeException failure(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof ProcessingException || cause instanceof CancellationException)
+			return (RuntimeException) cause;
+		return new ProcessingException(cause);
+	}
+
+	/**
+	 * Read end of the pipe of a request body, fails instead of ending if the body could not be written.
+	 */
+	private static final class BodyPipe extends PipedInputStream {
+
+		private volatile Exception failure;
+
+		private BodyPipe() {
+			super(PIPE_BYTES);
+		}
+
+		@Override
+		public synchronized int read() throws IOException {
+			return checked(super.read());
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			return checked(super.read(b, off, len));
+		}
+
+		private int checked(int read) throws IOException {
+			if (read < 0 && failure != null)
+				throw new IOException("Could not write request body", failure);
+			return read;
+		}
+	}
+
+	/**
+	 * Builder for {@link Http2Transport}.
+	 */
+	public static class Builder {
+
+		private HttpClient.Version version = HttpClient.Version.HTTP_2;
+		private Duration connectTimeout = null;
+		private Duration readTimeout = null;
+		private Executor executor = null;
+		private SSLContext sslContext = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param version the preferred protocol version, default HTTP/2 with fallback to HTTP/1.1
+		 * @return this builder
+		 */
+		public Builder version(HttpClient.Version version) {
+			if (version == null)
+				throw new IllegalArgumentException("version must not be null");
+			this.version = version;
+			return this;
+		}
+
+		/**
+		 * @param connectTimeout timeout of establishing a connection, default null (the default of the JDK)
+		 * @return this builder
+		 */
+		public Builder connectTimeout(Duration connectTimeout) {
+			if (connectTimeout != null && (connectTimeout.isNegative() || connectTimeout.isZero()))
+				throw new IllegalArgumentException("connectTimeout must be positive");
+			this.connectTimeout = connectTimeout;
+			return this;
+		}
+
+		/**
+		 * @param readTimeout timeout of waiting for the response of a call, default null (bounded only by the
+		 *                    deadline of the request)
+		 * @return this builder
+		 */
+		public Builder readTimeout(Duration readTimeout) {
+			if (readTimeout != null && (readTimeout.isNegative() || readTimeout.isZero()))
+				throw new IllegalArgumentException("readTimeout must be positive");
+			this.readTimeout = readTimeout;
+			return this;
+		}
+
+		/**
+		 * @param executor executor of the HTTP client's asynchronous tasks, default null (a cached thread pool of
+		 *                 the JDK)
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * @param sslContext SSL context of HTTPS connections, e.g.
+		 *                   {@link com.targomo.client.api.request.ssl.SslClientGenerator#getTrustAllContext()},
+		 *                   default null (the context of the JAX-RS client or else the default context of the JVM)
+		 * @return this builder
+		 */
+		public Builder sslContext(SSLContext sslContext) {
+			this.sslContext = sslContext;
+			return this;
+		}
+
+		public Http2Transport build() {
+			return new Http2Transport(this);
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.TravelOptions;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A fully prepared HTTP call (target, headers and body) that can be executed blocking or asynchronously.
+ * Created by the request classes and executed by the {@link RequestExecutor}.
+ */
+final class HttpCall {
+
+	private final WebTarget target;
+	private final String method;
+	private final MultivaluedMap<String, Object> headers;
+	private final Entity<?> entity;
+	private final boolean forceRecalculate;
+	private final boolean cacheResult;
+	private final Deadline deadline;
+	private final int sources;
+	private final int targets;
+	// computed once, empty if the body can not be hashed; shared by copies with the same target, headers and body
+	private volatile String key;
+
+	private HttpCall(WebTarget target, String method, MultivaluedMap<String, Object> headers, Entity<?> entity,
+					 boolean forceRecalculate, boolean cacheResult, Deadline deadline, int sources, int targets) {
+		this.target = target;
+		this.method = method;
+		this.headers = headers;
+		this.entity = entity;
+		this.forceRecalculate = forceRecalculate;
+		this.cacheResult = cacheResult;
+		this.deadline = deadline;
+		this.sources = sources;
+		this.targets = targets;
+	}
+
+	static HttpCall get(WebTarget target, MultivaluedMap<String, Object> headers) {
+		return new HttpCall(target, HttpMethod.GET, headers, null, false, true, null, -1, -1);
+	}
+
+	static HttpCall post(WebTarget target, MultivaluedMap<String, Object> headers, Entity<?> entity) {
+		return new HttpCall(target, HttpMethod.POST, headers, entity, false, true, null, -1, -1);
+	}
+
+	WebTarget getTarget() {
+		return target;
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	MultivaluedMap<String, Object> getHeaders() {
+		return headers;
+	}
+
+	Entity<?> getEntity() {
+		return entity;
+	}
+
+	/**
+	 * @param uri the URI of a call
+	 * @return the API key of the call, the query parameter <code>key</code> or, for score and rating requests,
+	 * <code>apiKey</code>; empty if there is none
+	 */
+	static String apiKey(URI uri) {
+		String query = uri.getRawQuery();
+		if (query != null) {
+			for (String parameter : query.split("&")) {
+				if (parameter.startsWith("key="))
+					return parameter.substring("key=".length());
+				if (parameter.startsWith("apiKey="))
+					return parameter.substring("apiKey=".length());
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * @param apiKey an API key
+	 * @return the first 16 hex digits of the SHA-256 digest of the key, to tell keys apart in keys, metrics and
+	 * messages without exposing them; empty if the key is empty
+	 */
+	static String apiKeyDigest(String apiKey) {
+		return apiKey.isEmpty() ? "" : hex(sha256().digest(apiKey.getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+	}
+
+	/**
+	 * @param headers the headers of the new call
+	 * @param entity the body of the new call
+	 * @return a copy of this call with replaced headers and body
+	 */
+	HttpCall withEntity(MultivaluedMap<String, Object> headers, Entity<?> entity) {
+		return new HttpCall(target, method, headers, entity, forceRecalculate, cacheResult, deadline, sources, targets);
+	}
+
+	/**
+	 * @param target the target of the new call, e.g. on another replica of the service
+	 * @return a copy of this call sent to the given target
+	 */
+	HttpCall withTarget(WebTarget target) {
+		return new HttpCall(target, method, headers, entity, forceRecalculate, cacheResult, deadline, sources, targets);
+	}
+
+	/**
+	 * @param forceRecalculate if true the response is not taken from the client side cache
+	 * @param cacheResult if false the response is not stored in the client side cache
+	 * @return a copy of this call with the cache flags of the request, e.g. from the travel options
+	 */
+	HttpCall withCacheFlags(boolean forceRecalculate, boolean cacheResult) {
+		return sameKey(new HttpCall(target, method, headers, entity, forceRecalculate, cacheResult, deadline, sources, targets));
+	}
+
+	/**
+	 * @param deadline the budget of the call, null if it has none
+	 * @return a copy of this call with the deadline
+	 */
+	HttpCall withDeadline(Deadline deadline) {
+		return sameKey(new HttpCall(target, method, headers, entity, forceRecalculate, cacheResult, deadline, sources, targets));
+	}
+
+	/**
+	 * @param travelOptions the travel options the call was created from
+	 * @return a copy of this call with the number of sources and targets of the travel options, for diagnostics
+	 */
+	HttpCall withLocationCounts(TravelOptions travelOptions) {
+		int sourceCount = travelOptions.getSources().size() + travelOptions.getSourceAddresses().size()
+				+ travelOptions.getSourceGeometries().size();
+		int targetCount = travelOptions.getTargets().size() + travelOptions.getTargetGeohashes().size()
+				+ travelOptions.getTargetAddresses().size();
+		return sameKey(new HttpCall(target, method, headers, entity, forceRecalculate, cacheResult, deadline, sourceCount, targetCount));
+	}
+
+	private HttpCall sameKey(HttpCall copy) {
+		copy.key = key;
+		return copy;
+	}
+
+	/**
+	 * @return number of sources of the call, -1 if unknown
+	 */
+	int getSources() {
+		return sources;
+	}
+
+	/**
+	 * @return number of targets of the call, -1 if unknown
+	 */
+	int getTargets() {
+		return targets;
+	}
+
+	/**
+	 * @return the budget of the call or null if it has none
+	 */
+	Deadline getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Fails if the deadline of the call is used up or cancelled, e.g. before it is sent or its response is parsed.
+	 */
+	void checkDeadline() {
+		if (deadline != null)
+			deadline.check(target.getUri());
+	}
+
+	boolean isForceRecalculate() {
+		return forceRecalculate;
+	}
+
+	boolean isCacheResult() {
+		return cacheResult;
+	}
+
+	/**
+	 * Key identifying identical calls: method, URI (service URL, path and query parameters including the key),
+	 * headers, media type and the SHA-256 hash of the body. A streamed body is written once to compute the hash, the key
+	 * is kept for further calls on this call and its copies.
+	 * @return the key or null if the body can not be hashed
+	 */
+	String key() {
+		String computed = key;
+		if (computed == null) {
+			computed = computeKey();
+			key = computed = computed == null ? "" : computed;
+		}
+		return computed.isEmpty() ? null : computed;
+	}
+
+	private String computeKey() {
+		StringBuilder key = new StringBuilder()
+				.append(method).append(' ')
+				.append(target.getUri());
+		if (headers != null && !headers.isEmpty())
+			key.append(' ').append(new TreeMap<>(headers));
+		if (entity != null) {
+			String hash = hash(entity.getEntity());
+			if (hash == null)
+				return null;
+			key.append(' ').append(entity.getMediaType()).append(' ').append(hash);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Executes the call and blocks until the response is available.
+	 * @return the response
+	 */
+	Response invoke() {
+		Invocation.Builder builder = builder();
+		return HttpMethod.GET.equals(method) ? builder.get() : builder.post(entity);
+	}
+
+	/**
+	 * Executes the call with the reactive invoker of the client, i.e. on the client's async executor service or
+	 * non-blocking if the configured connector supports it.
+	 * @return future of the response
+	 */
+	CompletableFuture<Response> invokeAsync() {
+		Invocation.Builder builder = builder();
+		return (HttpMethod.GET.equals(method) ? builder.rx().get() : builder.rx().post(entity)).toCompletableFuture();
+	}
+
+	private static String hash(Object body) {
+		MessageDigest digest = sha256();
+		if (body instanceof String) {
+			digest.update(((String) body).getBytes(StandardCharsets.UTF_8));
+		} else if (body instanceof byte[]) {
+			digest.update((byte[]) body);
+		} else if (body instanceof StreamingOutput) {
+			try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+				((StreamingOutput) body).write(out);
+			} catch (IOException e) {
+				throw new ProcessingException("Could not write request body", e);
+			}
+		} else {
+			return null;
+		}
+		return hex(digest.digest());
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return hex.toString();
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError("SHA-256 is unknown", e);
+		}
+	}
+
+	private Invocation.Builder builder() {
+		checkDeadline();
+		Invocation.Builder builder = target.request();
+		if (headers != null && !headers.isEmpty())
+			builder = builder.headers(headers);
+		if (deadline != null) {
+			// the connector gives up when the remaining budget is used up
+			int remainingMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remainingMillis()));
+			builder.property(Deadline.CONNECT_TIMEOUT_PROPERTY, remainingMillis);
+			builder.property(Deadline.READ_TIMEOUT_PROPERTY, remainingMillis);
+		}
+		return builder;
+	}
+}
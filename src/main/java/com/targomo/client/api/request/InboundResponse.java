@@ -0,0 +1,171 @@
+package com.targomo.client.api.request;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inbound {@link Response} created by the client itself instead of the JAX-RS connector, with status, media type and
+ * headers. Subclasses provide the entity, which covers reading it as String, byte array or InputStream.
+ */
+abstract class InboundResponse extends Response {
+
+	private final int status;
+	private final MediaType mediaType;
+	private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+
+	InboundResponse(int status, MediaType mediaType, Map<String, List<String>> headers) {
+		this.status = status;
+		this.mediaType = mediaType;
+		for (Map.Entry<String, List<String>> header : headers.entrySet())
+			this.headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public StatusType getStatusInfo() {
+		Status known = Status.fromStatusCode(status);
+		if (known != null)
+			return known;
+		return new StatusType() {
+			@Override
+			public int getStatusCode() {
+				return status;
+			}
+
+			@Override
+			public Status.Family getFamily() {
+				return Status.Family.familyOf(status);
+			}
+
+			@Override
+			public String getReasonPhrase() {
+				return "";
+			}
+		};
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T readEntity(GenericType<T> entityType) {
+		return (T) readEntity(entityType.getRawType());
+	}
+
+	@Override
+	public <T> T readEntity(Class<T> entityType, Annotation[] annotations) {
+		return readEntity(entityType);
+	}
+
+	@Override
+	public <T> T readEntity(GenericType<T> entityType, Annotation[] annotations) {
+		return readEntity(entityType);
+	}
+
+	@Override
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	@Override
+	public Locale getLanguage() {
+		return null;
+	}
+
+	@Override
+	public Set<String> getAllowedMethods() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Map<String, NewCookie> getCookies() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public EntityTag getEntityTag() {
+		return null;
+	}
+
+	@Override
+	public Date getDate() {
+		return null;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return null;
+	}
+
+	@Override
+	public URI getLocation() {
+		return null;
+	}
+
+	@Override
+	public Set<Link> getLinks() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public boolean hasLink(String relation) {
+		return false;
+	}
+
+	@Override
+	public Link getLink(String relation) {
+		return null;
+	}
+
+	@Override
+	public Link.Builder getLinkBuilder(String relation) {
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public MultivaluedMap<String, Object> getMetadata() {
+		return (MultivaluedMap<String, Object>) (MultivaluedMap<String, ?>) headers;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getStringHeaders() {
+		return headers;
+	}
+
+	@Override
+	public String getHeaderString(String name) {
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (header.getKey().equalsIgnoreCase(name))
+				return String.join(",", header.getValue());
+		}
+		return null;
+	}
+
+	/**
+	 * @return the charset of the media type, UTF-8 if it has none
+	 */
+	Charset charset() {
+		String charset = mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+		return charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset);
+	}
+}
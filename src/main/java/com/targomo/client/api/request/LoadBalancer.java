@@ -0,0 +1,388 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads the calls to a service over several replicas, configured on the {@link RequestExecutor}, e.g.:
+ * <pre>
+ *     LoadBalancer balancer = LoadBalancer.builder()
+ *             .service("https://api.targomo.com/westcentraleurope/",
+ *                     "https://eu1.routing.example.com/westcentraleurope/",
+ *                     "https://eu2.routing.example.com/westcentraleurope/")
+ *             .build();
+ *     TargomoClient targomo = TargomoClient.builder().loadBalancer(balancer).build();
+ * </pre>
+ * The travel options keep the service URL, calls whose URL starts with it are sent to one of its replicas instead.
+ *
+ * <p>
+ * Each attempt of a call picks its replica, so retries of the {@link RetryPolicy} move on to other replicas. A call
+ * that could not be sent, because the replica refused the connection or its host is unknown, fails over to a replica
+ * it did not try yet. Other errors, e.g. read timeouts of calls that may have been processed, are left to the retry
+ * policy, which knows whether the call may be sent again; calls rejected by the limiters of the client itself do not
+ * count against the replica. Replicas failing several times in a row, with an error or a 502, 503 or 504 response,
+ * are ejected for a while; if all replicas of a service are ejected, all of them are used again.
+ * </p>
+ *
+ * <p>
+ * One balancer must only be used by one client, its replicas keep the number of outstanding calls and the latency of
+ * the calls of that client.
+ * </p>
+ */
+@Slf4j
+public final class LoadBalancer {
+
+	private static final Set<Integer> FAILURE_STATUSES = new HashSet<>(Arrays.asList(502, 503, 504));
+	// weight of a new latency in the average latency of a replica
+	private static final double LATENCY_SMOOTHING = 0.3;
+
+	/**
+	 * How a replica is picked from the replicas that are not ejected.
+	 */
+	public enum Strategy {
+		/**
+		 * The replica with the fewest outstanding calls, ties broken by the lower average latency.
+		 */
+		LEAST_OUTSTANDING,
+		/**
+		 * The better of two random replicas, scored by average latency times outstanding calls plus one.
+		 */
+		POWER_OF_TWO_CHOICES
+	}
+
+	private final List<Service> services;
+	private final Strategy strategy;
+	private final int ejectAfterFailures;
+	private final long ejectionNanos;
+
+	private LoadBalancer(Builder builder) {
+		List<Service> configured = new ArrayList<>();
+		builder.services.forEach((serviceUrl, replicas) -> configured.add(new Service(serviceUrl, replicas)));
+		// the longest service URL wins if several match
+		configured.sort((a, b) -> b.url.length() - a.url.length());
+		this.services = Collections.unmodifiableList(configured);
+		this.strategy = builder.strategy;
+		this.ejectAfterFailures = builder.ejectAfterFailures;
+		this.ejectionNanos = builder.ejectionTime.toNanos();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return the replicas per service URL
+	 */
+	public Map<String, List<Replica>> getReplicas() {
+		Map<String, List<Replica>> replicas = new LinkedHashMap<>();
+		for (Service service : services)
+			replicas.put(service.url, Collections.unmodifiableList(Arrays.asList(service.replicas)));
+		return replicas;
+	}
+
+	/**
+	 * Picks the replica of a call.
+	 * @param uri the URI of the call
+	 * @return the selected replica or null if the URI does not belong to a balanced service
+	 */
+	Selection select(URI uri) {
+		String url = uri.toString();
+		for (Service service : services) {
+			if (service.matches(url))
+				return new Selection(service, url.substring(service.url.length()));
+		}
+		return null;
+	}
+
+	private static String normalize(String url) {
+		if (url == null || url.isEmpty())
+			throw new IllegalArgumentException("URLs must not be null or empty");
+		return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+	}
+
+	/**
+	 * A replica of a service with its live state.
+	 */
+	public final class Replica {
+
+		private final String url;
+		private final AtomicInteger outstanding = new AtomicInteger();
+		private int consecutiveFailures = 0;
+		private double latencyNanos = 0;
+		private long ejectedUntilNanos = 0;
+
+		private Replica(String url) {
+			this.url = url;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * @return number of calls sent to the replica and not completed yet
+		 */
+		public int getOutstanding() {
+			return outstanding.get();
+		}
+
+		/**
+		 * @return average latency of the calls to the replica in milliseconds, 0 before the first response
+		 */
+		public synchronized double getLatencyMillis() {
+			return latencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		/**
+		 * @return true if the replica is ejected after failures and only used if all replicas are ejected
+		 */
+		public synchronized boolean isEjected() {
+			return ejectedUntilNanos - System.nanoTime() > 0;
+		}
+
+		private synchronized double score() {
+			return latencyNanos * (outstanding.get() + 1);
+		}
+
+		private synchronized void succeeded(long elapsedNanos) {
+			consecutiveFailures = 0;
+			latencyNanos = latencyNanos == 0 ? elapsedNanos : latencyNanos + LATENCY_SMOOTHING * (elapsedNanos - latencyNanos);
+		}
+
+		private synchronized void failed() {
+			if (++consecutiveFailures < ejectAfterFailures)
+				return;
+			ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+			// one more failure after the ejection ends ejects it again
+			consecutiveFailures = ejectAfterFailures - 1;
+			log.warn("Ejecting replica '{}' for {} ms after failures", url, TimeUnit.NANOSECONDS.toMillis(ejectionNanos));
+		}
+	}
+
+	/**
+	 * A service URL and its replicas.
+	 */
+	private final class Service {
+
+		private final String url;
+		private final Replica[] replicas;
+
+		private Service(String url, List<String> replicaUrls) {
+			this.url = url;
+			this.replicas = replicaUrls.stream().map(Replica::new).toArray(Replica[]::new);
+		}
+
+		private boolean matches(String callUrl) {
+			if (!callUrl.startsWith(url))
+				return false;
+			if (callUrl.length() == url.length())
+				return true;
+			char next = callUrl.charAt(url.length());
+			return next == '/' || next == '?';
+		}
+
+		/**
+		 * @return the replica to send the next attempt to, null if all replicas were tried
+		 */
+		private Replica pick(Set<Replica> tried) {
+			List<Replica> candidates = new ArrayList<>(replicas.length);
+			for (Replica replica : replicas) {
+				if (!tried.contains(replica) && !replica.isEjected())
+					candidates.add(replica);
+			}
+			if (candidates.isEmpty()) {
+				// all ejected: better any replica than none
+				for (Replica replica : replicas) {
+					if (!tried.contains(replica))
+						candidates.add(replica);
+				}
+			}
+			if (candidates.isEmpty())
+				return null;
+			if (candidates.size() == 1)
+				return candidates.get(0);
+
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (strategy == Strategy.POWER_OF_TWO_CHOICES) {
+				int first = random.nextInt(candidates.size());
+				int second = random.nextInt(candidates.size() - 1);
+				Replica a = candidates.get(first);
+				Replica b = candidates.get(second >= first ? second + 1 : second);
+				return b.score() < a.score() ? b : a;
+			}
+
+			// least outstanding, starting at a random replica so ties are spread
+			int offset = random.nextInt(candidates.size());
+			Replica best = null;
+			for (int i = 0; i < candidates.size(); i++) {
+				Replica replica = candidates.get((offset + i) % candidates.size());
+				if (best == null || replica.getOutstanding() < best.getOutstanding()
+						|| replica.getOutstanding() == best.getOutstanding() && replica.getLatencyMillis() < best.getLatencyMillis())
+					best = replica;
+			}
+			return best;
+		}
+	}
+
+	/**
+	 * The replica one attempt of a call is sent to, released with its outcome.
+	 */
+	final class Selection {
+
+		private final Service service;
+		private final String path;
+		private final Set<Replica> tried = new HashSet<>();
+		private Replica replica;
+		private long startNanos;
+
+		private Selection(Service service, String path) {
+			this.service = service;
+			this.path = path;
+			next();
+		}
+
+		/**
+		 * @return the URI of the call on the selected replica
+		 */
+		URI getUri() {
+			return URI.create(replica.url + path);
+		}
+
+		Replica getReplica() {
+			return replica;
+		}
+
+		/**
+		 * @param response the response of the replica
+		 */
+		void release(Response response) {
+			replica.outstanding.decrementAndGet();
+			if (FAILURE_STATUSES.contains(response.getStatus()))
+				replica.failed();
+			else
+				replica.succeeded(System.nanoTime() - startNanos);
+		}
+
+		/**
+		 * Releases the replica after a failed attempt and selects the next one if the call should fail over, i.e. if
+		 * it was not sent.
+		 * @param error the exception the attempt failed with
+		 * @return true if the call should be sent again to the newly selected replica
+		 */
+		boolean failover(Throwable error) {
+			replica.outstanding.decrementAndGet();
+			// rejected by the client before it was sent, the replica is not to blame
+			if (!(error instanceof ProcessingException) || error instanceof CallRejectedException)
+				return false;
+			replica.failed();
+			if (!RetryPolicy.notSent(error) || !next())
+				return false;
+			log.debug("Failing over from '{}' to '{}': {}", service.url, replica.url, error.getMessage());
+			return true;
+		}
+
+		private boolean next() {
+			Replica next = service.pick(tried);
+			if (next == null)
+				return false;
+			replica = next;
+			tried.add(next);
+			next.outstanding.incrementAndGet();
+			startNanos = System.nanoTime();
+			return true;
+		}
+	}
+
+	/**
+	 * Builder for a {@link LoadBalancer}.
+	 */
+	public static class Builder {
+
+		private final Map<String, List<String>> services = new LinkedHashMap<>();
+		private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+		private int ejectAfterFailures = 3;
+		private Duration ejectionTime = Duration.ofSeconds(30);
+
+		private Builder() {
+		}
+
+		/**
+		 * @param serviceUrl the service URL of the travel options, e.g. <code>https://api.targomo.com/westcentraleurope/</code>
+		 * @param replicaUrls the base URLs the calls to the service are spread over, may include the service URL
+		 * @return this builder
+		 */
+		public Builder service(String serviceUrl, String... replicaUrls) {
+			return service(serviceUrl, Arrays.asList(replicaUrls));
+		}
+
+		/**
+		 * @param serviceUrl the service URL of the travel options, e.g. <code>https://api.targomo.com/westcentraleurope/</code>
+		 * @param replicaUrls the base URLs the calls to the service are spread over, may include the service URL
+		 * @return this builder
+		 */
+		public Builder service(String serviceUrl, List<String> replicaUrls) {
+			if (replicaUrls == null || replicaUrls.isEmpty())
+				throw new IllegalArgumentException("replicaUrls must not be null or empty");
+			List<String> replicas = new ArrayList<>();
+			for (String replicaUrl : replicaUrls) {
+				String replica = normalize(replicaUrl);
+				if (!replicas.contains(replica))
+					replicas.add(replica);
+			}
+			services.put(normalize(serviceUrl), replicas);
+			return this;
+		}
+
+		/**
+		 * @param strategy how a replica is picked, default {@link Strategy#POWER_OF_TWO_CHOICES}
+		 * @return this builder
+		 */
+		public Builder strategy(Strategy strategy) {
+			if (strategy == null)
+				throw new IllegalArgumentException("strategy must not be null");
+			this.strategy = strategy;
+			return this;
+		}
+
+		/**
+		 * @param ejectAfterFailures number of failures in a row after which a replica is ejected, default 3
+		 * @param ejectionTime how long an ejected replica is not used, default 30 seconds
+		 * @return this builder
+		 */
+		public Builder ejection(int ejectAfterFailures, Duration ejectionTime) {
+			if (ejectAfterFailures < 1)
+				throw new IllegalArgumentException("ejectAfterFailures must be at least 1 but was " + ejectAfterFailures);
+			if (ejectionTime == null || ejectionTime.isNegative())
+				throw new IllegalArgumentException("ejectionTime must not be null or negative");
+			this.ejectAfterFailures = ejectAfterFailures;
+			this.ejectionTime = ejectionTime;
+			return this;
+		}
+
+		public LoadBalancer build() {
+			if (services.isEmpty())
+				throw new IllegalArgumentException("at least one service must be configured");
+			return new LoadBalancer(this);
+		}
+	}
+}
@@ -2,12 +2,12 @@ package com.targomo.client.api.request;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
 import com.targomo.client.api.geo.Coordinate;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.pojo.MobilityRequestOptions;
 import lombok.Getter;
 import lombok.Setter;
@@ -17,15 +17,17 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class MobilityRequest {
@@ -37,7 +39,6 @@ public class MobilityRequest {
 	private final Client client;
 	private final MobilityRequestOptions requestOptions;
 	private final MultivaluedMap<String, Object> headers;
-	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
 	/**
 	 * Use a custom client implementation with specified options and method
@@ -50,11 +51,11 @@ public class MobilityRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}
+	 * Default client uses {@link TargomoClient#getDefault()}
 	 * @param requestOptions Options to be used
 	 */
 	public MobilityRequest(MobilityRequestOptions requestOptions) {
-		this(ClientBuilder.newClient(), requestOptions);
+		this(TargomoClient.getDefault().getClient(), requestOptions);
 	}
 
 	/**
@@ -77,6 +78,21 @@ public class MobilityRequest {
 	 */
 	public List<MobilityResult> get(Collection<Coordinate> locations) throws TargomoClientException, JSONException {
 
+		// Execute POST request
+		return RequestExecutor.forClient(client).execute(() -> prepareCall(locations), this::parseResponse);
+	}
+
+	/**
+	 * @param locations Coordinate collection of locations
+	 * @return future of the list of mobility results, completed exceptionally with the exception
+	 * {@link #get(Collection)} would have thrown
+	 */
+	public CompletableFuture<List<MobilityResult>> getAsync(Collection<Coordinate> locations) {
+		return RequestExecutor.forClient(client).executeAsync(() -> prepareCall(locations), this::parseResponse);
+	}
+
+	private HttpCall prepareCall(Collection<Coordinate> locations) throws JSONException {
+
 		String path = "staypoints/profile/";
 		WebTarget target = client.target(requestOptions.getMobilityServiceUrl()).path(path)
 				.queryParam("min_duration", requestOptions.getMinDuration())
@@ -98,9 +114,7 @@ public class MobilityRequest {
 
 		log.debug(String.format("Executing mobility request (%s) to URI: '%s'", path, target.getUri()));
 
-		// Execute POST request
-		Response response = target.request().headers(headers).post(entity);
-		return parseResponse(response);
+		return HttpCall.post(target, headers, entity);
 	}
 
 	/**
@@ -116,11 +130,11 @@ public class MobilityRequest {
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 
 			// consume the results
-			try {
+			try (InputStream responseStream = response.readEntity(InputStream.class)) {
 				TypeReference<List<MobilityResult>> typeRef = new TypeReference<List<MobilityResult>>() {};
-				return OBJECT_MAPPER.readValue(response.readEntity(String.class), typeRef);
+				return JsonMappers.reader(typeRef).readValue(responseStream);
 			}
-			catch (JsonProcessingException e){
+			catch (IOException e){
 				throw new TargomoClientRuntimeException("Couldn't parse Mobility response", e);
 			}
 		}
@@ -55,8 +55,8 @@ public class MultiGraphRequest<R extends MultiGraphResponse<?>> extends TargomoR
     }
 
     /**
-     * Not recommended since a heavy client object is constructed and destroyed with every call. Also a GZIPEncoder
-     * needs to be registered usually to the client to receive results.
+     * Uses the shared default client of {@link com.targomo.client.api.TargomoClient}. Note that a GZIPEncoder
+     * usually needs to be registered to the client to receive results.
      *
      * @param travelOptions Travel options parameters of this request
      * @return result of the request
@@ -83,8 +83,8 @@ public class MultiGraphRequest<R extends MultiGraphResponse<?>> extends TargomoR
     }
 
     /**
-     * Not recommended since a heavy client object is constructed and destroyed with every call. Also a GZIPEncoder
-     * needs to be registered usually to the client to receive results.
+     * Uses the shared default client of {@link com.targomo.client.api.TargomoClient}. Note that a GZIPEncoder
+     * usually needs to be registered to the client to receive results.
      *
      * @param travelOptions Travel options parameters of this request
      * @return result of the request
@@ -1,5 +1,6 @@
 package com.targomo.client.api.request;
 
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.statistic.PoiType;
 import com.targomo.client.api.util.IOUtil;
@@ -10,11 +11,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Find reachable openstreetmap pois with this class.
@@ -42,12 +43,12 @@ public class OverpassRequest {
 
 	/**
 	 * Use default client implementation with specified options and method and a specific PoI type
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * @param travelOptions Options to be used
 	 * @param poiTye the Point of Interest type used for the request
 	 */
 	public OverpassRequest(TravelOptions travelOptions, PoiType poiTye) {
-		this(travelOptions, ClientBuilder.newClient(), poiTye);
+		this(travelOptions, TargomoClient.getDefault().getClient(), poiTye);
 	}
 
 	/**
@@ -62,12 +63,12 @@ public class OverpassRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * Default PoI type is the first taken from the osmTypes in travel options
 	 * @param travelOptions Options to be used
 	 */
 	public OverpassRequest(TravelOptions travelOptions) {
-		this(travelOptions, ClientBuilder.newClient(), travelOptions.getOsmTypes().iterator().next());
+		this(travelOptions, TargomoClient.getDefault().getClient(), travelOptions.getOsmTypes().iterator().next());
 	}
 
 	/**
@@ -79,6 +80,22 @@ public class OverpassRequest {
 
 		long requestStart = System.currentTimeMillis();
 
+		return RequestExecutor.forClient(client).execute(this::prepareCall, response -> validateResponse(response, requestStart));
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the point of interest response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<OverpassResponse> getAsync() {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, response -> validateResponse(response, requestStart));
+	}
+
+	private HttpCall prepareCall() throws TargomoClientException {
+
 		WebTarget target = client.target(travelOptions.getOverpassServiceUrl()).path("/api/interpreter");
         log.info("{}", target.getUri());
 
@@ -89,9 +106,8 @@ public class OverpassRequest {
 
 		log.debug("Executing overpass query to URI: '{}'", target.getUri());
 
-		Response response = target.request().post(entity);
-
-		return validateResponse(response, requestStart);
+		return HttpCall.post(target, null, entity)
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult());
 	}
 
 	/**
@@ -106,7 +122,7 @@ public class OverpassRequest {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 			// consume the results
-			OverpassResponse overpassResponse = new OverpassResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart, poiType);
+			OverpassResponse overpassResponse = new OverpassResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), requestStart, poiType);
 			log.info("Request complete in {}ms", overpassResponse.getRequestEnd());
 			return overpassResponse;
 		}
@@ -1,6 +1,7 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.enums.Format;
 import com.targomo.client.api.exception.TargomoClientException;
@@ -14,13 +15,13 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -36,11 +37,11 @@ public class PointOfInterestRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public PointOfInterestRequest(TravelOptions travelOptions) {
-		this.client	= ClientBuilder.newClient();
+		this.client	= TargomoClient.getDefault().getClient();
 		this.travelOptions = travelOptions;
 		this.headers = new MultivaluedHashMap<>();
 	}
@@ -76,9 +77,7 @@ public class PointOfInterestRequest {
 	public PointOfInterestResponse get() throws TargomoClientException {
 		long requestStart = System.currentTimeMillis();
 
-		Response response = getResponse("/reachability");
-
-		return validateResponse(response, requestStart, true);
+		return getResponse("/reachability", response -> validateResponse(response, requestStart, true));
 	}
 
 	/**
@@ -89,9 +88,7 @@ public class PointOfInterestRequest {
 	public PointOfInterestSummaryResponse getSummary() throws TargomoClientException {
 		long requestStart = System.currentTimeMillis();
 
-		Response response = getResponse("/reachability/summary");
-
-		return validateSummaryResponse(response, requestStart);
+		return getResponse("/reachability/summary", response -> validateSummaryResponse(response, requestStart));
 	}
 
 	/**
@@ -102,9 +99,7 @@ public class PointOfInterestRequest {
 	public PointOfInterestResponse getPOIsWithinGeometry() throws TargomoClientException {
 		long requestStart = System.currentTimeMillis();
 
-		Response response = getResponse("/geometry");
-
-		return validateResponse(response, requestStart, false);
+		return getResponse("/geometry", response -> validateResponse(response, requestStart, false));
 	}
 
 	/**
@@ -115,9 +110,7 @@ public class PointOfInterestRequest {
 	public PointOfInterestSummaryResponse getPOIsWithinGeometrySummary() throws TargomoClientException {
 		long requestStart = System.currentTimeMillis();
 
-		Response response = getResponse("/geometry/summary");
-
-		return validateSummaryResponse(response, requestStart);
+		return getResponse("/geometry/summary", response -> validateSummaryResponse(response, requestStart));
 	}
 
 	/**
@@ -128,12 +121,67 @@ public class PointOfInterestRequest {
 	public PointOfInterestGravitationResponse getGravitationAnalysis() throws TargomoClientException {
 		long requestStart = System.currentTimeMillis();
 
-		Response response = getResponse("/gravitation");
+		return getResponse("/gravitation", response -> validateGravitationResponse(response, requestStart));
+	}
+
+	/**
+	 * Execute poi reachability request asynchronously
+	 * @return future of the point of interest response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<PointOfInterestResponse> getAsync() {
+		long requestStart = System.currentTimeMillis();
+		return getResponseAsync("/reachability", response -> validateResponse(response, requestStart, true));
+	}
+
+	/**
+	 * Execute poi reachability summary request asynchronously
+	 * @return future of the point of interest summary response, completed exceptionally with the exception
+	 * {@link #getSummary()} would have thrown
+	 */
+	public CompletableFuture<PointOfInterestSummaryResponse> getSummaryAsync() {
+		long requestStart = System.currentTimeMillis();
+		return getResponseAsync("/reachability/summary", response -> validateSummaryResponse(response, requestStart));
+	}
+
+	/**
+	 * Execute poi inside geometry request asynchronously
+	 * @return future of the point of interest response, completed exceptionally with the exception
+	 * {@link #getPOIsWithinGeometry()} would have thrown
+	 */
+	public CompletableFuture<PointOfInterestResponse> getPOIsWithinGeometryAsync() {
+		long requestStart = System.currentTimeMillis();
+		return getResponseAsync("/geometry", response -> validateResponse(response, requestStart, false));
+	}
+
+	/**
+	 * Execute poi inside geometry summary request asynchronously
+	 * @return future of the point of interest summary response, completed exceptionally with the exception
+	 * {@link #getPOIsWithinGeometrySummary()} would have thrown
+	 */
+	public CompletableFuture<PointOfInterestSummaryResponse> getPOIsWithinGeometrySummaryAsync() {
+		long requestStart = System.currentTimeMillis();
+		return getResponseAsync("/geometry/summary", response -> validateSummaryResponse(response, requestStart));
+	}
+
+	/**
+	 * Execute gravitation poi request asynchronously
+	 * @return future of the point of interest gravitation response, completed exceptionally with the exception
+	 * {@link #getGravitationAnalysis()} would have thrown
+	 */
+	public CompletableFuture<PointOfInterestGravitationResponse> getGravitationAnalysisAsync() {
+		long requestStart = System.currentTimeMillis();
+		return getResponseAsync("/gravitation", response -> validateGravitationResponse(response, requestStart));
+	}
+
+	private <T> T getResponse(String path, RequestExecutor.BlockingParser<T, RuntimeException> parser) throws TargomoClientException {
+		return RequestExecutor.forClient(client).execute(() -> prepareCall(path), parser);
+	}
 
-		return validateGravitationResponse(response, requestStart);
+	private <T> CompletableFuture<T> getResponseAsync(String path, RequestExecutor.ResponseParser<T> parser) {
+		return RequestExecutor.forClient(client).executeAsync(() -> prepareCall(path), parser);
 	}
 
-	private Response getResponse(String path) throws TargomoClientException {
+	private HttpCall prepareCall(String path) throws TargomoClientException {
 		WebTarget target = client.target(travelOptions.getPointOfInterestServiceUrl()).path(path)
 				.queryParam("key", travelOptions.getServiceKey())
 				.queryParam("forceRecalculate", travelOptions.isForceRecalculate())
@@ -147,10 +195,12 @@ public class PointOfInterestRequest {
 
 		if (travelOptions.getFormat() == null) travelOptions.setFormat(Format.JSON);
 		log.debug("Executing POI request to URI: '{}}'", target.getUri());
-		String config = RequestConfigurator.getConfig(travelOptions);
-		final Entity<String> entity = Entity.entity(config, MediaType.APPLICATION_JSON_TYPE);
+		RequestConfigurator.StreamingConfig config = RequestConfigurator.getStreamingConfig(travelOptions);
+		final Entity<RequestConfigurator.StreamingConfig> entity = Entity.entity(config, MediaType.APPLICATION_JSON_TYPE);
 
-		return target.request().headers(headers).post(entity);
+		return HttpCall.post(target, headers, entity)
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
 	/**
@@ -164,7 +214,7 @@ public class PointOfInterestRequest {
 	 */
 	private PointOfInterestResponse validateResponse(final Response response, final long requestStart, final boolean resultContainsEdgeWeights)
 																		throws TargomoClientException {
-		return validateResponse(response, () -> new PointOfInterestResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), resultContainsEdgeWeights, requestStart));
+		return validateResponse(response, () -> new PointOfInterestResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), resultContainsEdgeWeights, requestStart));
 	}
 
 	/**
@@ -177,7 +227,7 @@ public class PointOfInterestRequest {
 	private PointOfInterestSummaryResponse validateSummaryResponse(final Response response, final long requestStart)
 			throws TargomoClientException {
 
-		return validateResponse(response, () -> new PointOfInterestSummaryResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart));
+		return validateResponse(response, () -> new PointOfInterestSummaryResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), requestStart));
 	}
 
 	/**
@@ -190,7 +240,7 @@ public class PointOfInterestRequest {
 	private PointOfInterestGravitationResponse validateGravitationResponse(final Response response, final long requestStart)
 			throws TargomoClientException {
 
-		return validateResponse(response, () -> new PointOfInterestGravitationResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart));
+		return validateResponse(response, () -> new PointOfInterestGravitationResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), requestStart));
 	}
 
 	private <T> T validateResponse(Response response, Supplier<T> responseSupplier) throws TargomoClientException {
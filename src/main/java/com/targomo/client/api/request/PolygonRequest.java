@@ -1,11 +1,11 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.RequestConfigurator;
-import com.targomo.client.api.request.ssl.SslClientGenerator;
 import com.targomo.client.api.response.PolygonResponse;
 import com.targomo.client.api.response.ResponseCode;
 import com.targomo.client.api.util.IOUtil;
@@ -21,6 +21,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Creates polygons for the source points with specified travel times in minutes.
@@ -45,10 +46,10 @@ public class PolygonRequest {
 	}
 
 	/**
-	 * Use default Client. See {@link SslClientGenerator}
+	 * Use the shared default Client with trust-all SSL policy. See {@link TargomoClient#getDefaultTrustAll()}
 	 */
 	public PolygonRequest() {
-		this(SslClientGenerator.initClient());
+		this(TargomoClient.getDefaultTrustAll().getClient());
 	}
 
 	/**
@@ -126,6 +127,25 @@ public class PolygonRequest {
 
 		long startTimeMillis = System.currentTimeMillis();
 
+		// Execute, validate & return
+		return RequestExecutor.forClient(client).executeShared(this::prepareCall, PolygonResponse.class.getName(),
+				response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the polygon response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<PolygonResponse> getAsync() {
+
+		long startTimeMillis = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeSharedAsync(this::prepareCall, PolygonResponse.class.getName(),
+				response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+	}
+
+	private HttpCall prepareCall() throws TargomoClientException {
+
 		WebTarget request = client.target(travelOptions.getServiceUrl())
 				.path("v1/polygon")
 				.queryParam("cb", Constants.CALLBACK)
@@ -133,24 +153,20 @@ public class PolygonRequest {
 				.queryParam("interServiceKey", travelOptions.getInterServiceKey())
 				.queryParam("interServiceRequest", travelOptions.getInterServiceRequestType());
 
-		// Execute request
-		Response response;
-		String config = RequestConfigurator.getConfig(travelOptions);
 		if (HttpMethod.GET.equals(method)) {
-			request  = request.queryParam("cfg", IOUtil.encode(config));
-			response = request.request().headers(headers).get();
+			String config = RequestConfigurator.getConfig(travelOptions);
+			return RequestExecutor.forClient(client).getUrlConfigPolicy().call(request, headers, config)
+					.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+					.withLocationCounts(travelOptions);
 		}
 		else if (HttpMethod.POST.equals(method)) {
-			response = request.request().headers(headers).post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
+			RequestConfigurator.StreamingConfig config = RequestConfigurator.getStreamingConfig(travelOptions);
+			return HttpCall.post(request, headers, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE))
+					.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+					.withLocationCounts(travelOptions);
 		} else {
 			throw new TargomoClientException("HTTP Method not supported: " + this.method);
 		}
-
-		// Execution time
-		long roundTripTimeMillis = (System.currentTimeMillis() - startTimeMillis);
-
-		// Validate & return
-		return validateResponse(response, roundTripTimeMillis);
 	}
 
 	/**
@@ -165,10 +181,8 @@ public class PolygonRequest {
 
 		// Check HTTP status
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-			String resultString = IOUtil.getResultString(response);
-
 			long startParsing = System.currentTimeMillis();
-			JSONObject result = JsonUtil.parseString(resultString);
+			JSONObject result = IOUtil.parseResultStream(response, JsonUtil::parseStream);
 			long parseTime = System.currentTimeMillis() - startParsing;
 
 			// Check response code
@@ -0,0 +1,298 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket per API key (<code>TravelOptions.getServiceKey()</code>, or the <code>apiKey</code> of score and
+ * rating requests), configured on the {@link RequestExecutor}, to stay within the request quotas of the keys instead of
+ * being throttled by the service.
+ *
+ * <p>
+ * Every call takes one token; the bucket of a key holds up to <code>burst</code> tokens and refills with the configured
+ * rate. If the bucket is empty, the call reserves the next token and waits until it is due: blocking calls sleep,
+ * asynchronous calls are sent from a delayed future. Calls that would have to wait longer than the maximum wait, or
+ * find too many calls of their key waiting, fail with a {@link CallRejectedException} without using a token. The
+ * maximum wait is capped by the {@link Deadline} of the call.
+ * </p>
+ */
+public final class RateLimiter {
+
+	private final double permitsPerSecond;
+	private final int burst;
+	private final Map<String, double[]> ratesByApiKey;
+	private final long maxWaitNanos;
+	private final int maxQueued;
+
+	private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final LongAdder admittedCalls = new LongAdder();
+	private final LongAdder delayedCalls = new LongAdder();
+	private final LongAdder rejectedCalls = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+
+	private RateLimiter(Builder builder) {
+		this.permitsPerSecond = builder.permitsPerSecond;
+		this.burst = builder.burst;
+		this.ratesByApiKey = new HashMap<>(builder.ratesByApiKey);
+		this.maxWaitNanos = builder.maxWait.toNanos();
+		this.maxQueued = builder.maxQueued;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return number of calls currently waiting for a token
+	 */
+	public int getQueueDepth() {
+		return queued.get();
+	}
+
+	/**
+	 * @return number of calls waiting for a token per API key, only keys with waiting calls are contained; the keys
+	 * are the first 16 hex digits of the SHA-256 digests of the API keys, the API keys themselves are not exposed
+	 */
+	public Map<String, Integer> getQueueDepths() {
+		Map<String, Integer> depths = new LinkedHashMap<>();
+		long now = System.nanoTime();
+		buckets.forEach((apiKey, bucket) -> {
+			int depth = bucket.queued(now);
+			if (depth > 0)
+				depths.put(bucket.digest, depth);
+		});
+		return depths;
+	}
+
+	/**
+	 * @return number of calls that got a token, immediately or after waiting
+	 */
+	public long getAdmittedCalls() {
+		return admittedCalls.sum();
+	}
+
+	/**
+	 * @return number of calls that had to wait for a token
+	 */
+	public long getDelayedCalls() {
+		return delayedCalls.sum();
+	}
+
+	/**
+	 * @return number of calls rejected because they would have waited too long or the queue was full
+	 */
+	public long getRejectedCalls() {
+		return rejectedCalls.sum();
+	}
+
+	/**
+	 * @return total time calls waited for tokens in milliseconds
+	 */
+	public long getWaitTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+	}
+
+	/**
+	 * Takes a token for the call, sleeping until it is due.
+	 * @param call the call to send
+	 * @throws CallRejectedException if the call would have to wait too long or is interrupted while waiting
+	 */
+	void acquireBlocking(HttpCall call) {
+		Bucket bucket = bucket(call);
+		long wait = reserve(call, bucket);
+		if (wait == 0)
+			return;
+		queued.incrementAndGet();
+		try {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			// the call is not sent, its token is left to the next call
+			bucket.unreserve();
+			admittedCalls.decrement();
+			rejectedCalls.increment();
+			throw new CallRejectedException(ServiceIsolation.defaultServiceKey(call.getTarget().getUri()),
+					CallRejectedException.Reason.RATE_LIMITED);
+		} finally {
+			queued.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Takes a token for the call.
+	 * @param call the call to send
+	 * @return future completed when the token is due, failed with a {@link CallRejectedException} if the call would
+	 * have to wait too long
+	 */
+	CompletableFuture<Void> acquireAsync(HttpCall call) {
+		long wait;
+		try {
+			wait = reserve(call, bucket(call));
+		} catch (CallRejectedException e) {
+			CompletableFuture<Void> rejected = new CompletableFuture<>();
+			rejected.completeExceptionally(e);
+			return rejected;
+		}
+		if (wait == 0)
+			return CompletableFuture.completedFuture(null);
+		queued.incrementAndGet();
+		CompletableFuture<Void> due = new CompletableFuture<>();
+		CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS).execute(() -> {
+			queued.decrementAndGet();
+			due.complete(null);
+		});
+		return due;
+	}
+
+	/**
+	 * @return nanoseconds until the reserved token is due
+	 */
+	private long reserve(HttpCall call, Bucket bucket) {
+		Deadline deadline = call.getDeadline();
+		long maxWait = deadline == null ? maxWaitNanos : Math.min(maxWaitNanos, deadline.remainingNanos());
+		long wait = bucket.reserve(System.nanoTime(), maxWait);
+		if (wait < 0) {
+			rejectedCalls.increment();
+			throw new CallRejectedException(ServiceIsolation.defaultServiceKey(call.getTarget().getUri()),
+					CallRejectedException.Reason.RATE_LIMITED);
+		}
+		admittedCalls.increment();
+		if (wait > 0) {
+			delayedCalls.increment();
+			waitNanos.add(wait);
+		}
+		return wait;
+	}
+
+	private Bucket bucket(HttpCall call) {
+		return buckets.computeIfAbsent(HttpCall.apiKey(call.getTarget().getUri()), this::bucket);
+	}
+
+	private Bucket bucket(String apiKey) {
+		double[] rate = ratesByApiKey.get(apiKey);
+		String digest = HttpCall.apiKeyDigest(apiKey);
+		return rate == null ? new Bucket(digest, permitsPerSecond, burst) : new Bucket(digest, rate[0], (int) rate[1]);
+	}
+
+	/**
+	 * Token bucket of one API key. The tokens become negative while calls wait for reserved tokens.
+	 */
+	private final class Bucket {
+
+		private final String digest;
+		private final double tokensPerNano;
+		private final int capacity;
+		private double tokens;
+		private long refilledAtNanos = System.nanoTime();
+
+		private Bucket(String digest, double permitsPerSecond, int capacity) {
+			this.digest = digest;
+			this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			this.capacity = capacity;
+			this.tokens = capacity;
+		}
+
+		/**
+		 * @return nanoseconds until the reserved token is due or -1 if no token was reserved
+		 */
+		private synchronized long reserve(long now, long maxWait) {
+			refill(now);
+			if (tokens >= 1) {
+				tokens--;
+				return 0;
+			}
+			long wait = (long) Math.ceil((1 - tokens) / tokensPerNano);
+			if (wait > maxWait || -tokens >= maxQueued)
+				return -1;
+			tokens--;
+			return wait;
+		}
+
+		/**
+		 * Returns a reserved token that is not used.
+		 */
+		private synchronized void unreserve() {
+			refill(System.nanoTime());
+			tokens = Math.min(capacity, tokens + 1);
+		}
+
+		private synchronized int queued(long now) {
+			refill(now);
+			return tokens < 0 ? (int) Math.ceil(-tokens) : 0;
+		}
+
+		private void refill(long now) {
+			tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+			refilledAtNanos = now;
+		}
+	}
+
+	/**
+	 * Builder for a {@link RateLimiter}.
+	 */
+	public static class Builder {
+
+		private double permitsPerSecond = 10;
+		private int burst = 10;
+		private final Map<String, double[]> ratesByApiKey = new HashMap<>();
+		private Duration maxWait = Duration.ofMinutes(1);
+		private int maxQueued = 10_000;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param permitsPerSecond requests per second per API key, default 10
+		 * @param burst maximum number of requests sent at once after a pause, default 10
+		 * @return this builder
+		 */
+		public Builder rate(double permitsPerSecond, int burst) {
+			if (permitsPerSecond <= 0 || burst < 1)
+				throw new IllegalArgumentException("permitsPerSecond must be greater than 0, burst must be at least 1");
+			this.permitsPerSecond = permitsPerSecond;
+			this.burst = burst;
+			return this;
+		}
+
+		/**
+		 * @param apiKey the API key with its own quota
+		 * @param permitsPerSecond requests per second of the API key
+		 * @param burst maximum number of requests of the API key sent at once after a pause
+		 * @return this builder
+		 */
+		public Builder rate(String apiKey, double permitsPerSecond, int burst) {
+			if (apiKey == null || permitsPerSecond <= 0 || burst < 1)
+				throw new IllegalArgumentException("apiKey must not be null, permitsPerSecond must be greater than 0, burst must be at least 1");
+			this.ratesByApiKey.put(apiKey, new double[]{ permitsPerSecond, burst });
+			return this;
+		}
+
+		/**
+		 * @param maxWait maximum time a call waits for a token, default 1 minute
+		 * @param maxQueued maximum number of calls per API key waiting for a token, default 10000
+		 * @return this builder
+		 */
+		public Builder queue(Duration maxWait, int maxQueued) {
+			if (maxWait == null || maxWait.isNegative() || maxQueued < 0)
+				throw new IllegalArgumentException("maxWait must not be null or negative, maxQueued must not be negative");
+			this.maxWait = maxWait;
+			this.maxQueued = maxQueued;
+			return this;
+		}
+
+		public RateLimiter build() {
+			return new RateLimiter(this);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.targomo.client.api.request;
 
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.quality.Location;
 import com.targomo.client.api.request.config.RequestConfigurator;
@@ -7,12 +8,11 @@ import com.targomo.client.api.response.ScoreResponse;
 import lombok.AllArgsConstructor;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @AllArgsConstructor
 public class RatingRequest {
@@ -29,22 +29,33 @@ public class RatingRequest {
     private final String ratingId;
 
     public RatingRequest(String serviceUrl, String apiKey, String ratingId, List<Location> locations) {
-        this(ClientBuilder.newClient(), locations, null, serviceUrl, apiKey, null, null, null, ratingId);
+        this(TargomoClient.getDefault().getClient(), locations, null, serviceUrl, apiKey, null, null, null, ratingId);
     }
 
     public RatingRequest(String serviceUrl, String key, String ratingId, List<Location> locations, List<Location> competitors) {
-        this(ClientBuilder.newClient(), locations, competitors, serviceUrl, key, null, null, null, ratingId);
+        this(TargomoClient.getDefault().getClient(), locations, competitors, serviceUrl, key, null, null, null, ratingId);
     }
 
     public RatingRequest(String serviceUrl, String key, String ratingId, List<Location> locations, List<Location> competitors, boolean showDetails, boolean forceRecalculate, boolean cacheResult) {
-        this(ClientBuilder.newClient(), locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, ratingId);
+        this(TargomoClient.getDefault().getClient(), locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, ratingId);
     }
 
     public RatingRequest(String serviceUrl, String key, String ratingId, List<Location> locations, boolean showDetails, boolean forceRecalculate, boolean cacheResult) {
-        this(ClientBuilder.newClient(), locations, null, serviceUrl, key, showDetails, forceRecalculate, cacheResult, ratingId);
+        this(TargomoClient.getDefault().getClient(), locations, null, serviceUrl, key, showDetails, forceRecalculate, cacheResult, ratingId);
     }
 
     public ScoreResponse get() throws TargomoClientException {
+        return RequestExecutor.forClient(client).execute(this::prepareCall, ScoreRequest::validateResponse);
+    }
+
+    /**
+     * @return future of the rating response, completed exceptionally with the exception {@link #get()} would have thrown
+     */
+    public CompletableFuture<ScoreResponse> getAsync() {
+        return RequestExecutor.forClient(client).executeAsync(this::prepareCall, ScoreRequest::validateResponse);
+    }
+
+    private HttpCall prepareCall() throws TargomoClientException {
         WebTarget request = client.target(serviceUrl).path("v1/rating").path(ratingId).path("/location")
                 .queryParam("apiKey", apiKey);
 
@@ -59,7 +70,7 @@ public class RatingRequest {
         }
 
         String config = RequestConfigurator.getConfig(locations, competitors);
-        Response response = request.request().post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
-        return ScoreRequest.validateResponse(response);
+        return HttpCall.post(request, null, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE))
+                .withCacheFlags(Boolean.TRUE.equals(forceRecalculate), !Boolean.FALSE.equals(cacheResult));
     }
-}
\ No newline at end of file
+}
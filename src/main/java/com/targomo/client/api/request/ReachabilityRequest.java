@@ -1,23 +1,27 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.RequestConfigurator;
 import com.targomo.client.api.response.ReachabilityResponse;
-import com.targomo.client.api.util.JsonUtil;
+import com.targomo.client.api.response.TravelTimeConsumer;
+import com.targomo.client.api.util.IOUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 
@@ -31,16 +35,18 @@ public class ReachabilityRequest {
 	private final Client client;
 	private final TravelOptions travelOptions;
 	private static final String CALLBACK = "callback";
+	// responses parsed without mapper only depend on the request and can be shared by coalesced requests
+	private static final Function<String, String> NO_MAPPING = Function.identity();
 	private final MultivaluedMap<String, Object> headers;
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public ReachabilityRequest(TravelOptions travelOptions) {
 		this.headers = new MultivaluedHashMap<>();
-		this.client	= ClientBuilder.newClient();
+		this.client	= TargomoClient.getDefault().getClient();
 		this.travelOptions = travelOptions;
 	}
 
@@ -73,7 +79,7 @@ public class ReachabilityRequest {
 	 * @throws TargomoClientException In case of error other than Gateway Timeout
 	 */
 	public ReachabilityResponse get() throws TargomoClientException, ResponseErrorException {
-		return get(Function.identity());
+		return get(NO_MAPPING);
 	}
 
 	/**
@@ -88,6 +94,70 @@ public class ReachabilityRequest {
 
 		long requestStart = System.currentTimeMillis();
 
+		// Execute POST request
+		RequestExecutor executor = RequestExecutor.forClient(client);
+		if (targetIdMapperFilter != NO_MAPPING)
+			return executor.execute(this::prepareCall, response -> validateResponse(response, requestStart, targetIdMapperFilter));
+
+		return executor.executeShared(this::prepareCall, ReachabilityResponse.class.getName(),
+				response -> validateResponse(response, requestStart, targetIdMapperFilter));
+	}
+
+	/**
+	 * Execute request and pass the results to a consumer while they are parsed, without collecting them in the response.
+	 * @param consumer receives the travel time and closest source of each target
+	 * @return Reachability response, with code and timings but without results
+	 * @throws TargomoClientException In case of error other than Gateway Timeout
+	 * @throws ResponseErrorException In case the response has an error code, possibly after results were passed to the
+	 * consumer, see {@link TravelTimeConsumer}
+	 */
+	public ReachabilityResponse get(TravelTimeConsumer consumer) throws TargomoClientException, ResponseErrorException {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).execute(this::prepareCall, response -> validateResponse(response, requestStart, consumer));
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the reachability response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<ReachabilityResponse> getAsync() {
+		return getAsync(NO_MAPPING);
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @param targetIdMapperFilter a function that maps the target id to a different value or filters targets by returning null,
+	 *                             see {@link #get(Function)}
+	 * @return future of the reachability response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<ReachabilityResponse> getAsync(Function<String, String> targetIdMapperFilter) {
+
+		long requestStart = System.currentTimeMillis();
+
+		RequestExecutor executor = RequestExecutor.forClient(client);
+		if (targetIdMapperFilter != NO_MAPPING)
+			return executor.executeAsync(this::prepareCall, response -> validateResponse(response, requestStart, targetIdMapperFilter));
+
+		return executor.executeSharedAsync(this::prepareCall, ReachabilityResponse.class.getName(),
+				response -> validateResponse(response, requestStart, targetIdMapperFilter));
+	}
+
+	/**
+	 * Execute request asynchronously, see {@link #get(TravelTimeConsumer)}
+	 * @param consumer receives the travel time and closest source of each target, on the thread parsing the response
+	 * @return future of the reachability response without results, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<ReachabilityResponse> getAsync(TravelTimeConsumer consumer) {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, response -> validateResponse(response, requestStart, consumer));
+	}
+
+	private HttpCall prepareCall() throws TargomoClientException {
+
 		WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/reachability")
 				.queryParam("cb", CALLBACK)
 				.queryParam("key", travelOptions.getServiceKey())
@@ -96,14 +166,13 @@ public class ReachabilityRequest {
 				.queryParam(Constants.INTER_SERVICE_KEY, travelOptions.getInterServiceKey())
 				.queryParam(Constants.INTER_SERVICE_REQUEST, travelOptions.getInterServiceRequestType());
 
-		final Entity<String> entity = Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+		final Entity<RequestConfigurator.StreamingConfig> entity = Entity.entity(RequestConfigurator.getStreamingConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
 
 		log.debug("Executing reachability request to URI: '{}}'", target.getUri());
 
-		// Execute POST request
-		Response response = target.request().headers(headers).post(entity);
-
-		return validateResponse(response, requestStart, targetIdMapperFilter);
+		return HttpCall.post(target, headers, entity)
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
 	/**
@@ -117,9 +186,35 @@ public class ReachabilityRequest {
 			throws TargomoClientException, ResponseErrorException {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-			// consume the results
-			String res = response.readEntity(String.class);
-			return new ReachabilityResponse(travelOptions, JsonUtil.parseString(res), requestStart, targetIdMapperFilter);
+			// stream the results into the response, mapping and filtering the target IDs while parsing
+			try (InputStream resultStream = IOUtil.getResultStream(response)) {
+				return ReachabilityResponse.parse(travelOptions, resultStream, requestStart, targetIdMapperFilter);
+			} catch (IOException e) {
+				throw new TargomoClientException("Could not read reachability response: " + e.getMessage(), e, response.getStatus());
+			}
+		} else {
+			throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
+		}
+	}
+
+	/**
+	 * Validate HTTP response and pass its results to a consumer
+	 * @param response HTTP response
+	 * @param requestStart Beginning of execution in milliseconds
+	 * @param consumer receives the results
+	 * @return ReachabilityResponse without results
+	 * @throws TargomoClientException In case of errors other than GatewayTimeout
+	 */
+	private ReachabilityResponse validateResponse(final Response response, final long requestStart, TravelTimeConsumer consumer)
+			throws TargomoClientException, ResponseErrorException {
+		// compare the HTTP status codes, NOT the route 360 code
+		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+			// stream the results to the consumer
+			try (InputStream resultStream = IOUtil.getResultStream(response)) {
+				return ReachabilityResponse.parse(travelOptions, resultStream, requestStart, consumer);
+			} catch (IOException e) {
+				throw new TargomoClientException("Could not read reachability response: " + e.getMessage(), e, response.getStatus());
+			}
 		} else {
 			throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
 		}
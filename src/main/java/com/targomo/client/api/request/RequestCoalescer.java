@@ -0,0 +1,146 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.exception.TargomoClientException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical requests: while a request is in flight, identical requests wait for its parsed
+ * response instead of sending their own HTTP call, at most until their own {@link Deadline} passes.
+ *
+ * <p>
+ * Requests are identical if their {@link HttpCall#key()} and the response type are equal. All callers of a
+ * coalesced request get the same response object, so it must not be modified.
+ * </p>
+ */
+final class RequestCoalescer {
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder coalescedRequests = new LongAdder();
+
+	/**
+	 * @return number of requests that were answered with the response of an identical request in flight
+	 */
+	long getCoalescedRequests() {
+		return coalescedRequests.sum();
+	}
+
+	/**
+	 * @param call the prepared call
+	 * @param resultType name of the type the response is parsed to
+	 * @return the key identifying identical calls or null if the body can not be hashed
+	 */
+	static String key(HttpCall call, String resultType) {
+		String key = call.key();
+		return key == null ? null : key + ' ' + resultType;
+	}
+
+	/**
+	 * Executes the call blocking, unless an identical call is in flight.
+	 * @param key key of the call, see {@link #key(HttpCall, String)}
+	 * @param prepared the call with the deadline of the caller, bounding the wait for an identical call in flight
+	 * @param call executes and parses the request
+	 * @param <T> the response type
+	 * @return the parsed response, possibly shared with other callers
+	 * @throws TargomoClientException the exception the call has thrown
+	 * @throws ResponseErrorException the exception the call has thrown
+	 */
+	<T> T execute(String key, HttpCall prepared, BlockingCall<T> call) throws TargomoClientException, ResponseErrorException {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			coalescedRequests.increment();
+			return await(within(prepared, existing));
+		}
+
+		T result;
+		try {
+			result = call.call();
+		} catch (Throwable e) {
+			land(key, flight, null, e);
+			throw e;
+		}
+		land(key, flight, result, null);
+		return result;
+	}
+
+	/**
+	 * Executes the call asynchronously, unless an identical call is in flight.
+	 * @param key key of the call, see {@link #key(HttpCall, String)}
+	 * @param prepared the call with the deadline of the caller, bounding the wait for an identical call in flight
+	 * @param call starts the request
+	 * @param <T> the response type
+	 * @return future of the parsed response, possibly shared with other callers
+	 */
+	@SuppressWarnings("unchecked")
+	<T> CompletableFuture<T> executeAsync(String key, HttpCall prepared, Supplier<CompletableFuture<T>> call) {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			coalescedRequests.increment();
+			return (CompletableFuture<T>) within(prepared, existing);
+		}
+
+		try {
+			call.get().whenComplete((result, error) -> land(key, flight, result, error));
+		} catch (RuntimeException | Error e) {
+			land(key, flight, null, e);
+		}
+		return (CompletableFuture<T>) flight.thenApply(Function.identity());
+	}
+
+	private void land(String key, CompletableFuture<Object> flight, Object result, Throwable error) {
+		// removed first, so requests arriving from now on are sent again
+		inFlight.remove(key, flight);
+		if (error == null)
+			flight.complete(result);
+		else
+			flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+	}
+
+	/**
+	 * @return a dependent copy of the flight, so cancelling it does not affect the other callers, failed when the
+	 * deadline of the call passes or is cancelled
+	 */
+	private static CompletableFuture<Object> within(HttpCall prepared, CompletableFuture<Object> flight) {
+		CompletableFuture<Object> copy = flight.thenApply(Function.identity());
+		Deadline deadline = prepared.getDeadline();
+		// the response is shared, it is not closed by a caller giving up on it
+		return deadline == null ? copy : deadline.bound(copy, prepared.getTarget().getUri(), response -> { });
+	}
+
+	private static <T> T await(CompletableFuture<Object> flight) throws TargomoClientException, ResponseErrorException {
+		try {
+			@SuppressWarnings("unchecked")
+			T result = (T) flight.join();
+			return result;
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof TargomoClientException)
+				throw (TargomoClientException) cause;
+			if (cause instanceof ResponseErrorException)
+				throw (ResponseErrorException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new TargomoClientException("Coalesced request failed", cause);
+		}
+	}
+
+	/**
+	 * Executes and parses a request blocking.
+	 * @param <T> the response type
+	 */
+	@FunctionalInterface
+	interface BlockingCall<T> {
+		T call() throws TargomoClientException, ResponseErrorException;
+	}
+}
@@ -0,0 +1,348 @@
+package com.targomo.client.api.request;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in compression of POST request bodies, configured on the {@link RequestExecutor}.
+ *
+ * <p>
+ * Bodies smaller than the threshold are sent as they are, larger bodies are compressed while they are written and sent
+ * with the matching <code>Content-Encoding</code> header. Streamed bodies, e.g. the configuration of travel options,
+ * are not rendered to learn their size: they are compressed if their call has at least as many sources and targets
+ * as the location threshold. The body sizes before and after compression are counted while the body is written,
+ * summed up per instance and can additionally be reported per sent body to a {@link Listener}.
+ * </p>
+ */
+@Slf4j
+public final class RequestCompression {
+
+	/**
+	 * Content encodings supported for request bodies.
+	 */
+	public enum Encoding {
+		GZIP("gzip"),
+		DEFLATE("deflate");
+
+		private final String headerValue;
+
+		Encoding(String headerValue) {
+			this.headerValue = headerValue;
+		}
+
+		/**
+		 * @return the value of the <code>Content-Encoding</code> header
+		 */
+		public String getHeaderValue() {
+			return headerValue;
+		}
+	}
+
+	/**
+	 * Receives the body sizes of each compressed request.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+
+		/**
+		 * @param uri the URI of the request
+		 * @param uncompressedBytes size of the body before compression
+		 * @param compressedBytes size of the body that is sent
+		 */
+		void bodyCompressed(URI uri, long uncompressedBytes, long compressedBytes);
+	}
+
+	private final Encoding encoding;
+	private final int threshold;
+	private final int locationThreshold;
+	private final int level;
+	private final Listener listener;
+
+	private final LongAdder compressedRequests = new LongAdder();
+	private final LongAdder uncompressedBytes = new LongAdder();
+	private final LongAdder compressedBytes = new LongAdder();
+
+	private RequestCompression(Builder builder) {
+		this.encoding = builder.encoding;
+		this.threshold = builder.threshold;
+		this.locationThreshold = builder.locationThreshold;
+		this.level = builder.level;
+		this.listener = builder.listener;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	public int getLocationThreshold() {
+		return locationThreshold;
+	}
+
+	/**
+	 * @return number of requests that were sent compressed
+	 */
+	public long getCompressedRequests() {
+		return compressedRequests.sum();
+	}
+
+	/**
+	 * @return summed up size of all compressed bodies before compression
+	 */
+	public long getUncompressedBytes() {
+		return uncompressedBytes.sum();
+	}
+
+	/**
+	 * @return summed up size of all compressed bodies as they were sent
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes.sum();
+	}
+
+	/**
+	 * Compresses the body of the call if it is large enough, the compressed body is streamed like the original one.
+	 * @param call the prepared call
+	 * @return the call with compressed body or the unchanged call
+	 */
+	HttpCall apply(HttpCall call) {
+		Entity<?> entity = call.getEntity();
+		if (entity == null || entity.getEncoding() != null)
+			return call;
+
+		Object body = entity.getEntity();
+		StreamingOutput uncompressed;
+		if (body instanceof byte[]) {
+			byte[] bytes = (byte[]) body;
+			if (bytes.length < threshold)
+				return call;
+			uncompressed = out -> out.write(bytes);
+		} else if (body instanceof String) {
+			String string = (String) body;
+			Charset charset = charset(entity.getMediaType());
+			// the UTF-8 length is exact for UTF-8 and close enough for other charsets
+			if (CallTimer.utf8Length(string) < threshold)
+				return call;
+			uncompressed = out -> {
+				Writer writer = new OutputStreamWriter(out, charset);
+				writer.write(string);
+				writer.flush();
+			};
+		} else if (body instanceof StreamingOutput) {
+			if (call.getSources() >= 0 && call.getTargets() >= 0
+					&& call.getSources() + call.getTargets() < locationThreshold)
+				return call;
+			uncompressed = (StreamingOutput) body;
+		} else {
+			return call;
+		}
+
+		MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+		if (call.getHeaders() != null)
+			headers.putAll(call.getHeaders());
+		headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding.getHeaderValue());
+		return call.withEntity(headers,
+				Entity.entity(new CompressedBody(uncompressed, call.getTarget().getUri()), entity.getMediaType()));
+	}
+
+	/**
+	 * @param mediaType media type of a body, may be null
+	 * @return the charset of the media type, UTF-8 if it has none
+	 */
+	static Charset charset(MediaType mediaType) {
+		String charset = mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+		return charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset);
+	}
+
+	private void compressed(URI uri, long bodyBytes, long sentBytes) {
+		compressedRequests.increment();
+		uncompressedBytes.add(bodyBytes);
+		compressedBytes.add(sentBytes);
+		log.debug("Compressed request body to '{}' from {} to {} bytes", uri, bodyBytes, sentBytes);
+		if (listener != null)
+			listener.bodyCompressed(uri, bodyBytes, sentBytes);
+	}
+
+	/**
+	 * Body compressing the original body while it is written, counting the bytes on both sides of the compression.
+	 */
+	private final class CompressedBody implements StreamingOutput {
+
+		private final StreamingOutput body;
+		private final URI uri;
+
+		private CompressedBody(StreamingOutput body, URI uri) {
+			this.body = body;
+			this.uri = uri;
+		}
+
+		@Override
+		public void write(OutputStream output) throws IOException {
+			CountingOutputStream sent = new CountingOutputStream(output, false);
+			CountingOutputStream written;
+			try (OutputStream compressing = encoding == Encoding.GZIP
+					? new LeveledGZIPOutputStream(sent, level) : new LeveledDeflaterOutputStream(sent, level)) {
+				written = new CountingOutputStream(compressing, true);
+				body.write(written);
+			}
+			compressed(uri, written.bytes, sent.bytes);
+		}
+	}
+
+	/**
+	 * Counts the bytes written through it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		// the output of the connector is closed by the connector, closing the compression only finishes it
+		private final boolean closeOut;
+		private long bytes = 0;
+
+		private CountingOutputStream(OutputStream out, boolean closeOut) {
+			super(out);
+			this.closeOut = closeOut;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			bytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			bytes += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closeOut)
+				out.close();
+			else
+				out.flush();
+		}
+	}
+
+	/**
+	 * {@link GZIPOutputStream} with configurable compression level.
+	 */
+	private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+		LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+			super(out);
+			def.setLevel(level);
+		}
+	}
+
+	/**
+	 * {@link DeflaterOutputStream} (zlib format, as expected for <code>Content-Encoding: deflate</code>) with
+	 * configurable compression level.
+	 */
+	private static final class LeveledDeflaterOutputStream extends DeflaterOutputStream {
+
+		LeveledDeflaterOutputStream(OutputStream out, int level) {
+			super(out);
+			def.setLevel(level);
+		}
+	}
+
+	/**
+	 * Builder for a {@link RequestCompression}.
+	 */
+	public static class Builder {
+
+		private Encoding encoding = Encoding.GZIP;
+		private int threshold = 8 * 1024;
+		private int locationThreshold = 100;
+		private int level = Deflater.DEFAULT_COMPRESSION;
+		private Listener listener = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param encoding content encoding of compressed bodies, default gzip
+		 * @return this builder
+		 */
+		public Builder encoding(Encoding encoding) {
+			if (encoding == null)
+				throw new IllegalArgumentException("encoding must not be null");
+			this.encoding = encoding;
+			return this;
+		}
+
+		/**
+		 * @param threshold minimum size in bytes of a String or byte array body that is compressed, default 8 KiB
+		 * @return this builder
+		 */
+		public Builder threshold(int threshold) {
+			if (threshold < 0)
+				throw new IllegalArgumentException("threshold must not be negative but was " + threshold);
+			this.threshold = threshold;
+			return this;
+		}
+
+		/**
+		 * @param locationThreshold minimum number of sources and targets of a call with streamed body that is
+		 *                          compressed, default 100; streamed bodies of calls without known number of locations
+		 *                          are always compressed
+		 * @return this builder
+		 */
+		public Builder locationThreshold(int locationThreshold) {
+			if (locationThreshold < 0)
+				throw new IllegalArgumentException("locationThreshold must not be negative but was " + locationThreshold);
+			this.locationThreshold = locationThreshold;
+			return this;
+		}
+
+		/**
+		 * @param level compression level between 0 and 9 or -1 for the default level of {@link Deflater}
+		 * @return this builder
+		 */
+		public Builder level(int level) {
+			if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+				throw new IllegalArgumentException("level must be between -1 and 9 but was " + level);
+			this.level = level;
+			return this;
+		}
+
+		/**
+		 * @param listener receives the body sizes of each compressed request
+		 * @return this builder
+		 */
+		public Builder listener(Listener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		public RequestCompression build() {
+			return new RequestCompression(this);
+		}
+	}
+}
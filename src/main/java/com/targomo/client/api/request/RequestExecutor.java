@@ -0,0 +1,976 @@
+package com.targomo.client.api.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.json.JsonMappers;
+import com.targomo.client.api.request.cache.CachedResponse;
+import com.targomo.client.api.request.cache.ResponseCache;
+import com.targomo.client.api.request.metrics.JmxRequestMetrics;
+import com.targomo.client.api.request.metrics.RequestMetrics;
+import com.targomo.client.api.response.RequestTimings;
+import com.targomo.client.api.response.TimedResponse;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the HTTP calls of all request classes, blocking or asynchronously.
+ *
+ * <p>
+ * One instance belongs to one {@link com.targomo.client.api.TargomoClient} and is registered as property
+ * {@link #PROPERTY} in the configuration of its JAX-RS {@link Client}, so request objects created with that client
+ * pick it up automatically. Clients without this property (e.g. created directly via
+ * {@link javax.ws.rs.client.ClientBuilder}) use a default instance.
+ * </p>
+ *
+ * <p>
+ * Every call is bounded by the {@link Deadline} entered on the calling thread and the default request timeout, if
+ * any: the remaining budget is passed to the connector as connect and read timeout, limits the waiting in the rate
+ * and concurrency limiters and the backoff between retries, and asynchronous calls are failed by a shared timer when
+ * it is used up. Cancelling the future of an asynchronous request abandons the call and skips parsing its response.
+ * </p>
+ *
+ * <p>
+ * The phases of every request are timed and passed to the configured {@link RequestMetrics}; responses extending
+ * {@link TimedResponse} carry their {@link RequestTimings}. While a flight recording is running, requests and the
+ * parsing of their responses are also emitted as JFR events, see
+ * {@link com.targomo.client.api.request.metrics.RequestEvent}.
+ * </p>
+ */
+public final class RequestExecutor {
+
+	/**
+	 * Name of the client configuration property holding the {@link RequestExecutor}.
+	 */
+	public static final String PROPERTY = "com.targomo.client.api.request.RequestExecutor";
+
+	private static final RequestExecutor DEFAULT = builder().build();
+	// backoff of requests retried by the request classes themselves if no retry policy is configured
+	private static final RetryPolicy DEFAULT_BACKOFF = RetryPolicy.builder().build();
+
+	private final Executor parseExecutor;
+	private final RequestCompression compression;
+	private final RequestCoalescer coalescer;
+	private final ResponseCache responseCache;
+	private final RetryPolicy retryPolicy;
+	private final ServiceIsolation isolation;
+	private final ConcurrencyLimiter limiter;
+	private final RateLimiter rateLimiter;
+	private final Duration requestTimeout;
+	private final RequestMetrics metrics;
+	private final Http2Transport transport;
+	private final UrlConfigPolicy urlConfigPolicy;
+	private final LoadBalancer loadBalancer;
+	// the client this executor is registered with, creates the targets of balanced calls and provides the SSL context
+	// of the transport
+	private volatile Client client;
+
+	private RequestExecutor(Builder builder) {
+		this.parseExecutor = builder.parseExecutor;
+		this.compression = builder.compression;
+		this.coalescer = builder.coalesceRequests ? new RequestCoalescer() : null;
+		this.responseCache = builder.responseCache;
+		this.retryPolicy = builder.retryPolicy;
+		this.isolation = builder.isolation;
+		this.limiter = builder.limiter;
+		this.rateLimiter = builder.rateLimiter;
+		this.requestTimeout = builder.requestTimeout;
+		this.metrics = builder.metrics;
+		this.transport = builder.transport;
+		this.urlConfigPolicy = builder.urlConfigPolicy;
+		this.loadBalancer = builder.loadBalancer;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param client the client a request is executed with
+	 * @return the executor registered with the client or the default executor
+	 */
+	static RequestExecutor forClient(Client client) {
+		Configuration configuration = client == null ? null : client.getConfiguration();
+		Object executor = configuration == null ? null : configuration.getProperty(PROPERTY);
+		if (!(executor instanceof RequestExecutor))
+			return DEFAULT;
+		RequestExecutor registered = (RequestExecutor) executor;
+		if ((registered.loadBalancer != null || registered.transport != null) && registered.client == null)
+			registered.client = client;
+		return registered;
+	}
+
+	/**
+	 * @return the executor used to parse the responses of asynchronous requests
+	 */
+	public Executor getParseExecutor() {
+		return parseExecutor;
+	}
+
+	/**
+	 * @return the compression of request bodies or null if bodies are sent uncompressed
+	 */
+	public RequestCompression getCompression() {
+		return compression;
+	}
+
+	/**
+	 * @return the cache of responses or null if responses are not cached
+	 */
+	public ResponseCache getResponseCache() {
+		return responseCache;
+	}
+
+	/**
+	 * @return the retry and hedging policy or null if calls are sent once
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * @return the circuit breakers and bulkheads of the services or null if calls are not isolated
+	 */
+	public ServiceIsolation getIsolation() {
+		return isolation;
+	}
+
+	/**
+	 * @return the adaptive concurrency limiter or null if calls are not limited
+	 */
+	public ConcurrencyLimiter getLimiter() {
+		return limiter;
+	}
+
+	/**
+	 * @return the rate limiter of the API keys or null if the request rate is not limited
+	 */
+	public RateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * @return the default timeout of every request or null if requests are only bounded by an entered {@link Deadline}
+	 */
+	public Duration getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	/**
+	 * @return the receiver of the request timings, {@link RequestMetrics#NOOP} if none is configured
+	 */
+	public RequestMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the transport calls are sent with or null if they are sent with the connector of the JAX-RS client
+	 */
+	public Http2Transport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * @return how requests sending their configuration as URL parameter are sent
+	 */
+	public UrlConfigPolicy getUrlConfigPolicy() {
+		return urlConfigPolicy;
+	}
+
+	/**
+	 * @return the balancer spreading calls over the replicas of a service or null if calls are sent as they are
+	 */
+	public LoadBalancer getLoadBalancer() {
+		return loadBalancer;
+	}
+
+	/**
+	 * @return number of requests that were answered with the response of an identical request in flight,
+	 * always 0 if request coalescing is disabled
+	 */
+	public long getCoalescedRequests() {
+		return coalescer == null ? 0 : coalescer.getCoalescedRequests();
+	}
+
+	/**
+	 * Executes the call blocking within its deadline, or answers it from the response cache.
+	 * @param call the prepared call
+	 * @return the HTTP response
+	 */
+	Response execute(HttpCall call) {
+		HttpCall bounded = withDeadline(call);
+		return checkDeadline(bounded, cachedOrSent(bounded));
+	}
+
+	private Response cachedOrSent(HttpCall call) {
+		String key = responseCache == null ? null : call.key();
+		if (key == null)
+			return send(prepare(call));
+
+		if (!call.isForceRecalculate()) {
+			CachedResponse cached = responseCache.get(key);
+			if (cached != null)
+				return new BufferedResponse(cached);
+		}
+		return store(call, key, send(prepare(call)));
+	}
+
+	/**
+	 * Executes the call asynchronously, or answers it from the response cache. The future fails when the deadline of
+	 * the call is used up or cancelled.
+	 * @param call the prepared call with its deadline
+	 * @return future of the HTTP response
+	 */
+	private CompletableFuture<Response> invokeAsync(HttpCall call) {
+		if (call.getDeadline() == null)
+			return cachedOrSentAsync(call);
+		try {
+			call.checkDeadline();
+		} catch (RuntimeException e) {
+			return failed(e);
+		}
+		return call.getDeadline().bound(cachedOrSentAsync(call), call.getTarget().getUri());
+	}
+
+	private CompletableFuture<Response> cachedOrSentAsync(HttpCall call) {
+		String key = responseCache == null ? null : call.key();
+		if (key == null)
+			return sendAsync(prepare(call));
+
+		if (!call.isForceRecalculate()) {
+			CachedResponse cached = responseCache.get(key);
+			if (cached != null)
+				return CompletableFuture.completedFuture(new BufferedResponse(cached));
+		}
+		return sendAsync(prepare(call)).thenApply(response -> store(call, key, response));
+	}
+
+	/**
+	 * Sends the call blocking, retried and hedged according to the retry policy.
+	 */
+	private Response send(HttpCall call) {
+		if (retryPolicy == null)
+			return balanced(call);
+		if (retryPolicy.hedgeDelayMillis(call) >= 0) {
+			CompletableFuture<Response> hedged = sendAsync(call);
+			return joinUnwrapped(call.getDeadline() == null ? hedged : call.getDeadline().bound(hedged, call.getTarget().getUri()));
+		}
+
+		for (int attempt = 1; ; attempt++) {
+			Response response;
+			try {
+				response = balanced(call);
+			} catch (RuntimeException e) {
+				if (!retryPolicy.shouldRetry(call, attempt, e) || !backoff(call, retryPolicy.backoffMillis(attempt, null)))
+					throw e;
+				continue;
+			}
+			if (!retryPolicy.shouldRetry(call, attempt, response) || !backoff(call, retryPolicy.backoffMillis(attempt, response)))
+				return response;
+			response.close();
+		}
+	}
+
+	/**
+	 * Sends the call asynchronously, retried and hedged according to the retry policy.
+	 */
+	private CompletableFuture<Response> sendAsync(HttpCall call) {
+		if (retryPolicy == null)
+			return balancedAsync(call);
+		CompletableFuture<Response> result = new CompletableFuture<>();
+		attemptAsync(call, 1, result);
+		return result;
+	}
+
+	private void attemptAsync(HttpCall call, int attempt, CompletableFuture<Response> result) {
+		hedged(call).whenComplete((response, error) -> {
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			boolean retry = cause != null
+					? retryPolicy.shouldRetry(call, attempt, cause)
+					: retryPolicy.shouldRetry(call, attempt, response);
+			long backoff = retry && !result.isDone() ? retryPolicy.backoffMillis(attempt, response) : -1;
+			if (backoff < 0 || !withinDeadline(call, backoff)) {
+				if (cause != null)
+					result.completeExceptionally(cause);
+				else if (!result.complete(response))
+					response.close();
+				return;
+			}
+			if (response != null)
+				response.close();
+			CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS)
+					.execute(() -> attemptAsync(call, attempt + 1, result));
+		});
+	}
+
+	/**
+	 * Sends the call and, if it is hedged and no response arrived within the hedge delay, a second copy of it. The
+	 * first response wins, the other one is closed; the future fails only if all sent copies failed.
+	 */
+	private CompletableFuture<Response> hedged(HttpCall call) {
+		long hedgeDelay = retryPolicy.hedgeDelayMillis(call);
+		CompletableFuture<Response> result = new CompletableFuture<>();
+		AtomicInteger pending = new AtomicInteger(1);
+		sendCopy(call, result, pending);
+		if (hedgeDelay >= 0) {
+			CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.MILLISECONDS).execute(() -> {
+				if (!result.isDone() && pending.incrementAndGet() > 1) {
+					retryPolicy.hedged();
+					sendCopy(call, result, pending);
+				}
+			});
+		}
+		return result;
+	}
+
+	private void sendCopy(HttpCall call, CompletableFuture<Response> result, AtomicInteger pending) {
+		long start = System.nanoTime();
+		balancedAsync(call).whenComplete((response, error) -> {
+			if (error == null) {
+				retryPolicy.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				if (!result.complete(response))
+					response.close();
+			} else if (pending.decrementAndGet() == 0) {
+				result.completeExceptionally(error);
+			}
+		});
+	}
+
+	/**
+	 * Sends the call once to a replica of its service, failing over to other replicas if it can not be sent.
+	 */
+	private Response balanced(HttpCall call) {
+		LoadBalancer.Selection selection = select(call);
+		if (selection == null)
+			return dispatch(call);
+		while (true) {
+			Response response;
+			try {
+				response = dispatch(retarget(call, selection));
+			} catch (RuntimeException | Error e) {
+				if (selection.failover(e) && withinDeadline(call, 0))
+					continue;
+				throw e;
+			}
+			selection.release(response);
+			return response;
+		}
+	}
+
+	/**
+	 * Sends the call once asynchronously to a replica of its service, failing over to other replicas if it can not
+	 * be sent.
+	 */
+	private CompletableFuture<Response> balancedAsync(HttpCall call) {
+		LoadBalancer.Selection selection = select(call);
+		if (selection == null)
+			return dispatchAsync(call);
+		CompletableFuture<Response> result = new CompletableFuture<>();
+		balancedAttemptAsync(call, selection, result);
+		return result;
+	}
+
+	private void balancedAttemptAsync(HttpCall call, LoadBalancer.Selection selection, CompletableFuture<Response> result) {
+		CompletableFuture<Response> sent;
+		try {
+			sent = dispatchAsync(retarget(call, selection));
+		} catch (RuntimeException e) {
+			sent = failed(e);
+		}
+		sent.whenComplete((response, error) -> {
+			if (error == null) {
+				selection.release(response);
+				if (!result.complete(response))
+					response.close();
+				return;
+			}
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			if (!result.isDone() && selection.failover(cause) && withinDeadline(call, 0))
+				balancedAttemptAsync(call, selection, result);
+			else
+				result.completeExceptionally(cause);
+		});
+	}
+
+	/**
+	 * @return the replica of the call or null if it is not balanced, e.g. because its executor is not registered with
+	 * a client
+	 */
+	private LoadBalancer.Selection select(HttpCall call) {
+		if (loadBalancer == null || client == null)
+			return null;
+		return loadBalancer.select(call.getTarget().getUri());
+	}
+
+	private HttpCall retarget(HttpCall call, LoadBalancer.Selection selection) {
+		return call.withTarget(client.target(selection.getUri()));
+	}
+
+	/**
+	 * Sends the call once, within the request rate of its API key and the concurrency limit, bulkhead and circuit
+	 * breaker of its service.
+	 */
+	private Response dispatch(HttpCall call) {
+		if (rateLimiter != null)
+			rateLimiter.acquireBlocking(call);
+		if (limiter == null)
+			return isolated(call);
+		ConcurrencyLimiter.Permit permit = limiter.acquireBlocking(call);
+		Response response;
+		try {
+			response = isolated(call);
+		} catch (RuntimeException | Error e) {
+			permit.releaseFailed(e);
+			throw e;
+		}
+		permit.release(response);
+		return response;
+	}
+
+	/**
+	 * Sends the call once asynchronously, within the request rate of its API key and the concurrency limit, bulkhead
+	 * and circuit breaker of its service.
+	 */
+	private CompletableFuture<Response> dispatchAsync(HttpCall call) {
+		if (rateLimiter != null)
+			return rateLimiter.acquireAsync(call).thenCompose(due -> limitedAsync(call));
+		return limitedAsync(call);
+	}
+
+	private CompletableFuture<Response> limitedAsync(HttpCall call) {
+		if (limiter == null)
+			return isolatedAsync(call);
+		return limiter.acquireAsync(call).thenCompose(permit -> isolatedAsync(call).whenComplete((response, error) -> {
+			if (error == null)
+				permit.release(response);
+			else
+				permit.releaseFailed(error);
+		}));
+	}
+
+	private Response isolated(HttpCall call) {
+		if (isolation == null)
+			return transmit(call);
+		ServiceIsolation.Permit permit = isolation.acquire(call, true);
+		Response response;
+		try {
+			response = transmit(call);
+		} catch (RuntimeException | Error e) {
+			permit.releaseFailed();
+			throw e;
+		}
+		permit.release(response);
+		return response;
+	}
+
+	private CompletableFuture<Response> isolatedAsync(HttpCall call) {
+		ServiceIsolation.Permit permit;
+		CompletableFuture<Response> response;
+		try {
+			permit = isolation == null ? null : isolation.acquire(call, false);
+		} catch (RuntimeException e) {
+			return failed(e);
+		}
+		try {
+			response = transmitAsync(call);
+		} catch (RuntimeException e) {
+			response = failed(e);
+		}
+		if (permit == null)
+			return response;
+		return response.whenComplete((result, error) -> {
+			if (error == null)
+				permit.release(result);
+			else
+				permit.releaseFailed();
+		});
+	}
+
+	private Response transmit(HttpCall call) {
+		return transport == null ? call.invoke() : transport.send(call, client);
+	}
+
+	private CompletableFuture<Response> transmitAsync(HttpCall call) {
+		return transport == null ? call.invokeAsync() : transport.sendAsync(call, client);
+	}
+
+	/**
+	 * Waits before the next attempt of a request the request class retries itself, with the backoff of the retry policy
+	 * or of a default one if none is configured.
+	 * @param attempt the failed attempt, starting at 1
+	 * @param deadline the deadline of the request, null if it has none
+	 * @return false if the request must not be sent again, because its deadline would be used up or the thread was
+	 * interrupted
+	 */
+	boolean backoff(int attempt, Deadline deadline) {
+		long millis = (retryPolicy != null ? retryPolicy : DEFAULT_BACKOFF).backoffMillis(attempt, null);
+		return (deadline == null || deadline.remainingMillis() > millis) && sleep(millis);
+	}
+
+	/**
+	 * Waits before the next attempt of the call.
+	 * @return false if the call must not be sent again, because its deadline would be used up or the thread was
+	 * interrupted
+	 */
+	private static boolean backoff(HttpCall call, long millis) {
+		return withinDeadline(call, millis) && sleep(millis);
+	}
+
+	/**
+	 * @return true if the deadline of the call leaves more than the given time
+	 */
+	private static boolean withinDeadline(HttpCall call, long millis) {
+		return call.getDeadline() == null || call.getDeadline().remainingMillis() > millis;
+	}
+
+	private static boolean sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			// the last outcome is handled as if there were no more attempts
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static <T> T joinUnwrapped(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the call bounded by the deadline entered on the current thread and the request timeout
+	 */
+	private HttpCall withDeadline(HttpCall call) {
+		Deadline deadline = Deadline.earliest(call.getDeadline(), Deadline.current());
+		if (requestTimeout != null)
+			deadline = deadline == null ? Deadline.after(requestTimeout) : deadline.within(requestTimeout);
+		return deadline == null || deadline == call.getDeadline() ? call : call.withDeadline(deadline);
+	}
+
+	/**
+	 * Closes the response instead of passing it on to parsing if the deadline of the call is used up or cancelled.
+	 */
+	private static Response checkDeadline(HttpCall call, Response response) {
+		try {
+			call.checkDeadline();
+		} catch (RuntimeException e) {
+			response.close();
+			throw e;
+		}
+		return response;
+	}
+
+	/**
+	 * Stores successful responses in the response cache, unless the request asks not to. Responses announcing a body
+	 * larger than the cache can store are passed on unbuffered, responses with a Targomo error code are not stored.
+	 * @return the response, buffered if it was stored
+	 */
+	private Response store(HttpCall call, String key, Response response) {
+		if (!call.isCacheResult() || response.getStatus() != Response.Status.OK.getStatusCode()
+				|| response.getLength() > responseCache.getMaxBodyBytes())
+			return response;
+		CachedResponse cached = BufferedResponse.buffer(response);
+		if (!hasErrorCode(cached))
+			responseCache.put(key, call.getTarget().getUri().getPath(), cached);
+		return new BufferedResponse(cached);
+	}
+
+	/**
+	 * @return true if the body is a JSON object with a Targomo code other than <code>ok</code>, e.g. a
+	 * <code>gateway-time-out</code> of an overloaded service
+	 */
+	private static boolean hasErrorCode(CachedResponse response) {
+		if (response.getMediaType() != null && !response.getMediaType().contains("json"))
+			return false;
+		try (JsonParser parser = JsonMappers.parser(response.openBody())) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				return false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				if ("code".equals(field))
+					return parser.currentToken() == JsonToken.VALUE_STRING && !"ok".equalsIgnoreCase(parser.getText());
+				parser.skipChildren();
+			}
+			return false;
+		} catch (IOException e) {
+			// not JSON, e.g. a vector tile
+			return false;
+		}
+	}
+
+	/**
+	 * Executes the call blocking and parses the response, recording its {@link RequestTimings}.
+	 *
+	 * @param callFactory prepares the call, e.g. creates the request configuration
+	 * @param parser validates and parses the HTTP response
+	 * @param <T> the response type
+	 * @param <E> other exception of the call factory or the parser, e.g. a JSON processing error
+	 * @return the parsed response
+	 * @throws TargomoClientException the exception of the call factory or the parser
+	 * @throws E the other exception of the call factory or the parser
+	 */
+	<T, E extends Exception> T execute(BlockingCallFactory<E> callFactory, BlockingParser<T, E> parser)
+			throws TargomoClientException, E {
+		CallTimer timer = new CallTimer();
+		return executeTimed(timer, timer.built(callFactory.create()), parser);
+	}
+
+	/**
+	 * Executes the call blocking and parses the response. If request coalescing is enabled, identical calls in flight
+	 * at the same time share one HTTP call and one parsed response, see {@link RequestCoalescer}.
+	 *
+	 * @param callFactory prepares the call, e.g. creates the request configuration
+	 * @param resultType name of the type the response is parsed to, part of the coalescing key
+	 * @param parser validates and parses the HTTP response
+	 * @param <T> the response type
+	 * @param <E> other exception of the call factory
+	 * @return the parsed response
+	 * @throws TargomoClientException the exception of the call factory or the parser
+	 * @throws ResponseErrorException the exception of the parser
+	 * @throws E the exception of the call factory
+	 */
+	<T, E extends Exception> T executeShared(BlockingCallFactory<E> callFactory, String resultType,
+											 BlockingParser<T, ResponseErrorException> parser)
+			throws TargomoClientException, ResponseErrorException, E {
+		CallTimer timer = new CallTimer();
+		HttpCall call = timer.built(callFactory.create());
+		String key = coalescer == null ? null : RequestCoalescer.key(call, resultType);
+		if (key == null)
+			return executeTimed(timer, call, parser);
+		return coalescer.execute(key, withDeadline(call), () -> executeTimed(timer, call, parser));
+	}
+
+	private <T, E extends Exception> T executeTimed(CallTimer timer, HttpCall call, BlockingParser<T, E> parser)
+			throws TargomoClientException, E {
+		try {
+			Response response = timer.bodyRead(timer.headers(execute(call)), metrics != RequestMetrics.NOOP);
+			int status = response.getStatus();
+			return recorded(timer, status, parser.parse(response));
+		} catch (Exception | Error e) {
+			timer.failed(e);
+			metrics.recordFailure(timer.getEndpoint(), timer.elapsedNanos(), e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Asynchronous variant of {@link #executeShared(BlockingCallFactory, String, BlockingParser)}.
+	 *
+	 * @param callFactory prepares the call, e.g. creates the request configuration
+	 * @param resultType name of the type the response is parsed to, part of the coalescing key
+	 * @param parser validates and parses the HTTP response
+	 * @param <T> the response type
+	 * @return future of the parsed response
+	 */
+	<T> CompletableFuture<T> executeSharedAsync(CallFactory callFactory, String resultType, ResponseParser<T> parser) {
+		if (coalescer == null)
+			return executeAsync(callFactory, parser);
+		CallTimer timer = new CallTimer();
+		HttpCall call;
+		String key;
+		try {
+			call = timer.built(callFactory.create());
+			key = RequestCoalescer.key(call, resultType);
+		} catch (Exception e) {
+			return failed(e);
+		}
+		if (key == null)
+			return executeAsync(timer, call, parser);
+		return coalescer.executeAsync(key, withDeadline(call), () -> executeAsync(timer, call, parser));
+	}
+
+	/**
+	 * Executes the call asynchronously and parses the response on the parse executor. The returned future
+	 * completes exceptionally with a {@link CompletionException} wrapping the exception the blocking variant
+	 * of the request would have thrown. Cancelling it abandons the call, the response is not parsed.
+	 *
+	 * @param callFactory prepares the call, e.g. creates the request configuration
+	 * @param parser validates and parses the HTTP response
+	 * @param <T> the response type
+	 * @return future of the parsed response
+	 */
+	<T> CompletableFuture<T> executeAsync(CallFactory callFactory, ResponseParser<T> parser) {
+		CallTimer timer = new CallTimer();
+		HttpCall call;
+		try {
+			call = timer.built(callFactory.create());
+		} catch (Exception e) {
+			return failed(e);
+		}
+		return executeAsync(timer, call, parser);
+	}
+
+	private <T> CompletableFuture<T> executeAsync(CallTimer timer, HttpCall prepared, ResponseParser<T> parser) {
+		HttpCall call = withDeadline(prepared);
+		CompletableFuture<Response> response = invokeAsync(call).thenApply(timer::headers);
+		CompletableFuture<T> parsed = response.thenApplyAsync(received -> {
+			Response read = timer.bodyRead(checkDeadline(call, received), metrics != RequestMetrics.NOOP);
+			int status = read.getStatus();
+			return recorded(timer, status, parse(parser, read));
+		}, parseExecutor);
+		parsed.whenComplete((result, error) -> {
+			if (error == null)
+				return;
+			if (error instanceof CancellationException)
+				response.cancel(true);
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			timer.failed(cause);
+			metrics.recordFailure(timer.getEndpoint(), timer.elapsedNanos(), cause);
+		});
+		return parsed;
+	}
+
+	/**
+	 * Attaches the timings to a {@link TimedResponse} and records them.
+	 * @return the result
+	 */
+	private <T> T recorded(CallTimer timer, int status, T result) {
+		RequestTimings timings = timer.parsed(status, result);
+		if (result instanceof TimedResponse) {
+			((TimedResponse) result).setTimings(timings);
+			timings = ((TimedResponse) result).getTimings();
+		}
+		timer.completed(timings);
+		metrics.record(timings);
+		return result;
+	}
+
+	private static <T> CompletableFuture<T> failed(Exception e) {
+		CompletableFuture<T> failed = new CompletableFuture<>();
+		failed.completeExceptionally(e);
+		return failed;
+	}
+
+	private HttpCall prepare(HttpCall call) {
+		return compression == null || call.getEntity() == null ? call : compression.apply(call);
+	}
+
+	private static <T> T parse(ResponseParser<T> parser, Response response) {
+		try {
+			return parser.parse(response);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	/**
+	 * Creates the call of a request, may fail e.g. if the request configuration is invalid.
+	 */
+	@FunctionalInterface
+	interface CallFactory {
+		HttpCall create() throws Exception;
+	}
+
+	/**
+	 * Creates the call of a blocking request, may fail e.g. if the request configuration is invalid.
+	 * @param <E> other exception than {@link TargomoClientException} the call factory may throw
+	 */
+	@FunctionalInterface
+	interface BlockingCallFactory<E extends Exception> {
+		HttpCall create() throws TargomoClientException, E;
+	}
+
+	/**
+	 * Validates and parses the HTTP response of a request.
+	 * @param <T> the response type
+	 */
+	@FunctionalInterface
+	interface ResponseParser<T> {
+		T parse(Response response) throws Exception;
+	}
+
+	/**
+	 * Validates and parses the HTTP response of a blocking request.
+	 * @param <T> the response type
+	 * @param <E> other exception than {@link TargomoClientException} the parser may throw, e.g. a
+	 *            {@link ResponseErrorException}
+	 */
+	@FunctionalInterface
+	interface BlockingParser<T, E extends Exception> {
+		T parse(Response response) throws TargomoClientException, E;
+	}
+
+	/**
+	 * Builder for a {@link RequestExecutor}.
+	 */
+	public static class Builder {
+
+		private Executor parseExecutor = ForkJoinPool.commonPool();
+		private RequestCompression compression = null;
+		private boolean coalesceRequests = false;
+		private ResponseCache responseCache = null;
+		private RetryPolicy retryPolicy = null;
+		private ServiceIsolation isolation = null;
+		private ConcurrencyLimiter limiter = null;
+		private RateLimiter rateLimiter = null;
+		private Duration requestTimeout = null;
+		private RequestMetrics metrics = RequestMetrics.NOOP;
+		private Http2Transport transport = null;
+		private UrlConfigPolicy urlConfigPolicy = UrlConfigPolicy.DEFAULT;
+		private LoadBalancer loadBalancer = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param parseExecutor executor the responses of asynchronous requests are parsed on,
+		 *                      default is the common fork join pool
+		 * @return this builder
+		 */
+		public Builder parseExecutor(Executor parseExecutor) {
+			if (parseExecutor == null)
+				throw new IllegalArgumentException("parseExecutor must not be null");
+			this.parseExecutor = parseExecutor;
+			return this;
+		}
+
+		/**
+		 * @param compression compression of POST request bodies, default null (bodies are sent uncompressed)
+		 * @return this builder
+		 */
+		public Builder compression(RequestCompression compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * @param coalesceRequests if true, identical polygon, reachability and {@link TargomoRequest}s in flight at
+		 *                         the same time share one HTTP call and one parsed response, default false
+		 * @return this builder
+		 */
+		public Builder coalesceRequests(boolean coalesceRequests) {
+			this.coalesceRequests = coalesceRequests;
+			return this;
+		}
+
+		/**
+		 * @param responseCache cache of successful responses, e.g. an
+		 *                      {@link com.targomo.client.api.request.cache.InMemoryResponseCache},
+		 *                      default null (responses are not cached)
+		 * @return this builder
+		 */
+		public Builder responseCache(ResponseCache responseCache) {
+			this.responseCache = responseCache;
+			return this;
+		}
+
+		/**
+		 * @param retryPolicy retries and hedging of failed or slow calls, default null (calls are sent once)
+		 * @return this builder
+		 */
+		public Builder retryPolicy(RetryPolicy retryPolicy) {
+			this.retryPolicy = retryPolicy;
+			return this;
+		}
+
+		/**
+		 * @param isolation circuit breaker and bulkhead per service, default null (calls are not isolated)
+		 * @return this builder
+		 */
+		public Builder isolation(ServiceIsolation isolation) {
+			this.isolation = isolation;
+			return this;
+		}
+
+		/**
+		 * @param limiter adaptive limit of the calls in flight per service and API key,
+		 *                default null (calls are not limited)
+		 * @return this builder
+		 */
+		public Builder limiter(ConcurrencyLimiter limiter) {
+			this.limiter = limiter;
+			return this;
+		}
+
+		/**
+		 * @param rateLimiter token bucket per API key, default null (the request rate is not limited)
+		 * @return this builder
+		 */
+		public Builder rateLimiter(RateLimiter rateLimiter) {
+			this.rateLimiter = rateLimiter;
+			return this;
+		}
+
+		/**
+		 * @param requestTimeout budget of every request including retries and waiting in the limiters, applied in
+		 *                       addition to an entered {@link Deadline}, default null (no timeout)
+		 * @return this builder
+		 */
+		public Builder requestTimeout(Duration requestTimeout) {
+			if (requestTimeout != null && (requestTimeout.isNegative() || requestTimeout.isZero()))
+				throw new IllegalArgumentException("requestTimeout must be positive");
+			this.requestTimeout = requestTimeout;
+			return this;
+		}
+
+		/**
+		 * @param metrics receiver of the timings of every request, e.g. {@link JmxRequestMetrics}, default null
+		 *                (nothing is recorded and response bodies are not read separately from parsing)
+		 * @return this builder
+		 */
+		public Builder metrics(RequestMetrics metrics) {
+			this.metrics = metrics == null ? RequestMetrics.NOOP : metrics;
+			return this;
+		}
+
+		/**
+		 * @param transport sends the calls with the JDK HTTP client, e.g. multiplexed over HTTP/2,
+		 *                  default null (calls are sent with the connector of the JAX-RS client)
+		 * @return this builder
+		 */
+		public Builder transport(Http2Transport transport) {
+			this.transport = transport;
+			return this;
+		}
+
+		/**
+		 * @param urlConfigPolicy URL length above which GET requests are sent as POST and the encoding of the
+		 *                        configuration in the URL, default {@link UrlConfigPolicy#DEFAULT}
+		 * @return this builder
+		 */
+		public Builder urlConfigPolicy(UrlConfigPolicy urlConfigPolicy) {
+			if (urlConfigPolicy == null)
+				throw new IllegalArgumentException("urlConfigPolicy must not be null");
+			this.urlConfigPolicy = urlConfigPolicy;
+			return this;
+		}
+
+		/**
+		 * @param loadBalancer spreads the calls to a service over its replicas, default null (calls are sent to the
+		 *                     service URL of the request)
+		 * @return this builder
+		 */
+		public Builder loadBalancer(LoadBalancer loadBalancer) {
+			this.loadBalancer = loadBalancer;
+			return this;
+		}
+
+		public RequestExecutor build() {
+			return new RequestExecutor(this);
+		}
+	}
+}
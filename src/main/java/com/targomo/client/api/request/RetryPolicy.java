@@ -0,0 +1,309 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retries and hedging of the HTTP calls of all request classes, configured on the {@link RequestExecutor}.
+ *
+ * <p>
+ * Failed calls are retried with exponential backoff and jitter, a <code>Retry-After</code> header of the response is
+ * respected up to the maximum backoff. Retries depend on whether the call is idempotent:
+ * </p>
+ * <ul>
+ *     <li>calls that could not connect and responses with status 503 were not processed and are retried always</li>
+ *     <li>other connection failures and the remaining retry statuses (by default 502 and 504) may come after the
+ *     request was processed and are only retried for idempotent calls</li>
+ * </ul>
+ * <p>
+ * GET calls are idempotent. POST calls are idempotent by default as well, since all POST endpoints of the Targomo API
+ * only compute results, see {@link Builder#postIdempotent(boolean)}.
+ * </p>
+ *
+ * <p>
+ * With hedging enabled, a second copy of an idempotent call is sent if the first one did not respond within the hedge
+ * delay; the first response wins and the other one is closed. The delay is either fixed or a percentile of the
+ * latencies recently observed by this policy.
+ * </p>
+ *
+ * <p>
+ * Calls rejected by the {@link ServiceIsolation} are not retried. When all attempts are used up, the last response or
+ * exception is handled by the request as without retries, e.g. a 504 of a statistics request still results in a
+ * <code>gateway-time-out</code> response.
+ * </p>
+ */
+public final class RetryPolicy {
+
+	private static final int LATENCY_SAMPLES = 256;
+
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	private final double multiplier;
+	private final double jitter;
+	private final Set<Integer> retryStatuses;
+	private final boolean postIdempotent;
+	private final long hedgeDelayMillis;
+	private final double hedgePercentile;
+
+	// ring buffer of recent call latencies, only used for percentile based hedging
+	private final long[] latencyMillis = new long[LATENCY_SAMPLES];
+	private long latencyCount = 0;
+
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder hedgedCalls = new LongAdder();
+
+	private RetryPolicy(Builder builder) {
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoffMillis = builder.initialBackoff.toMillis();
+		this.maxBackoffMillis = builder.maxBackoff.toMillis();
+		this.multiplier = builder.multiplier;
+		this.jitter = builder.jitter;
+		this.retryStatuses = Collections.unmodifiableSet(new HashSet<>(builder.retryStatuses));
+		this.postIdempotent = builder.postIdempotent;
+		this.hedgeDelayMillis = builder.hedgeDelay == null ? -1 : builder.hedgeDelay.toMillis();
+		this.hedgePercentile = builder.hedgePercentile;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return number of calls sent again after a failed attempt
+	 */
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	/**
+	 * @return number of hedged copies of calls sent
+	 */
+	public long getHedgedCalls() {
+		return hedgedCalls.sum();
+	}
+
+	int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	boolean isIdempotent(HttpCall call) {
+		return HttpMethod.GET.equals(call.getMethod()) || (postIdempotent && HttpMethod.POST.equals(call.getMethod()));
+	}
+
+	/**
+	 * @return true if the response of the given attempt should be discarded and the call sent again
+	 */
+	boolean shouldRetry(HttpCall call, int attempt, Response response) {
+		if (attempt >= maxAttempts || !retryStatuses.contains(response.getStatus()))
+			return false;
+		return response.getStatus() == Response.Status.SERVICE_UNAVAILABLE.getStatusCode() || isIdempotent(call);
+	}
+
+	/**
+	 * @return true if the call should be sent again after the given attempt failed with the exception
+	 */
+	boolean shouldRetry(HttpCall call, int attempt, Throwable error) {
+		if (attempt >= maxAttempts || !(error instanceof ProcessingException) || error instanceof CallRejectedException)
+			return false;
+		return notSent(error) || isIdempotent(call);
+	}
+
+	/**
+	 * @param attempt the failed attempt, starting at 1
+	 * @param response the response of the failed attempt or null if it failed with an exception
+	 * @return the time to wait before the next attempt in milliseconds
+	 */
+	long backoffMillis(int attempt, Response response) {
+		retries.increment();
+		long retryAfter = response == null ? -1 : retryAfterMillis(response);
+		if (retryAfter >= 0)
+			return Math.min(retryAfter, maxBackoffMillis);
+		double backoff = Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(multiplier, attempt - 1));
+		return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+	}
+
+	/**
+	 * @return the delay after which a hedged copy of the call is sent or -1 if the call must not be hedged
+	 */
+	long hedgeDelayMillis(HttpCall call) {
+		if (hedgeDelayMillis < 0 || !isIdempotent(call))
+			return -1;
+		if (hedgePercentile <= 0)
+			return hedgeDelayMillis;
+		synchronized (latencyMillis) {
+			// the fixed delay is used until enough latencies were observed
+			if (latencyCount < LATENCY_SAMPLES / 4)
+				return hedgeDelayMillis;
+			int samples = (int) Math.min(latencyCount, LATENCY_SAMPLES);
+			long[] sorted = Arrays.copyOf(latencyMillis, samples);
+			Arrays.sort(sorted);
+			return Math.max(1, sorted[(int) Math.min(samples - 1, Math.ceil(hedgePercentile * samples) - 1)]);
+		}
+	}
+
+	void hedged() {
+		hedgedCalls.increment();
+	}
+
+	/**
+	 * @param millis latency of a call until its response arrived
+	 */
+	void recordLatency(long millis) {
+		if (hedgePercentile <= 0)
+			return;
+		synchronized (latencyMillis) {
+			latencyMillis[(int) (latencyCount++ % LATENCY_SAMPLES)] = millis;
+		}
+	}
+
+	/**
+	 * @return true if the call failed before it reached the server, so it can be sent again even if it is not idempotent
+	 */
+	static boolean notSent(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConnectException || cause instanceof UnknownHostException)
+				return true;
+			if (cause.getCause() == cause)
+				break;
+		}
+		return false;
+	}
+
+	private static long retryAfterMillis(Response response) {
+		String retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+		if (retryAfter == null)
+			return -1;
+		try {
+			return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+		} catch (NumberFormatException e) {
+			// HTTP dates are not supported, fall back to the backoff
+			return -1;
+		}
+	}
+
+	/**
+	 * Builder for a {@link RetryPolicy}.
+	 */
+	public static class Builder {
+
+		private int maxAttempts = 3;
+		private Duration initialBackoff = Duration.ofMillis(100);
+		private Duration maxBackoff = Duration.ofSeconds(5);
+		private double multiplier = 2;
+		private double jitter = 0.5;
+		private final Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(
+				Response.Status.BAD_GATEWAY.getStatusCode(),
+				Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+				Response.Status.GATEWAY_TIMEOUT.getStatusCode()));
+		private boolean postIdempotent = true;
+		private Duration hedgeDelay = null;
+		private double hedgePercentile = 0;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maxAttempts maximum number of attempts of a call including the first one, default 3
+		 * @return this builder
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			if (maxAttempts < 1)
+				throw new IllegalArgumentException("maxAttempts must be at least 1 but was " + maxAttempts);
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * @param initialBackoff backoff before the first retry, default 100 ms
+		 * @param maxBackoff maximum backoff, also caps <code>Retry-After</code>, default 5 s
+		 * @param multiplier factor the backoff grows by with each retry, default 2
+		 * @return this builder
+		 */
+		public Builder backoff(Duration initialBackoff, Duration maxBackoff, double multiplier) {
+			if (initialBackoff == null || maxBackoff == null || initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0)
+				throw new IllegalArgumentException("backoffs must not be null or negative, maxBackoff must not be less than initialBackoff");
+			if (multiplier < 1)
+				throw new IllegalArgumentException("multiplier must be at least 1 but was " + multiplier);
+			this.initialBackoff = initialBackoff;
+			this.maxBackoff = maxBackoff;
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		/**
+		 * @param jitter fraction of the backoff that is randomly taken off, between 0 and 1, default 0.5
+		 * @return this builder
+		 */
+		public Builder jitter(double jitter) {
+			if (jitter < 0 || jitter > 1)
+				throw new IllegalArgumentException("jitter must be between 0 and 1 but was " + jitter);
+			this.jitter = jitter;
+			return this;
+		}
+
+		/**
+		 * @param statuses HTTP status codes that are retried, default 502, 503 and 504
+		 * @return this builder
+		 */
+		public Builder retryStatuses(Integer... statuses) {
+			this.retryStatuses.clear();
+			this.retryStatuses.addAll(Arrays.asList(statuses));
+			return this;
+		}
+
+		/**
+		 * @param postIdempotent if false, POST calls are only retried if they were not processed (connection refused,
+		 *                       503) and never hedged, default true
+		 * @return this builder
+		 */
+		public Builder postIdempotent(boolean postIdempotent) {
+			this.postIdempotent = postIdempotent;
+			return this;
+		}
+
+		/**
+		 * @param hedgeDelay delay after which a second copy of an idempotent call is sent, default null (no hedging)
+		 * @return this builder
+		 */
+		public Builder hedgeDelay(Duration hedgeDelay) {
+			if (hedgeDelay != null && hedgeDelay.isNegative())
+				throw new IllegalArgumentException("hedgeDelay must not be negative");
+			this.hedgeDelay = hedgeDelay;
+			return this;
+		}
+
+		/**
+		 * Hedges calls after the given percentile of the recently observed latencies, e.g. 0.95. The hedge delay is
+		 * used until enough latencies were observed.
+		 *
+		 * @param percentile the percentile between 0 and 1, 0 uses the fixed hedge delay
+		 * @param initialDelay hedge delay before enough latencies were observed
+		 * @return this builder
+		 */
+		public Builder hedgeAtPercentile(double percentile, Duration initialDelay) {
+			if (percentile < 0 || percentile > 1)
+				throw new IllegalArgumentException("percentile must be between 0 and 1 but was " + percentile);
+			hedgeDelay(initialDelay);
+			this.hedgePercentile = percentile;
+			return this;
+		}
+
+		public RetryPolicy build() {
+			return new RetryPolicy(this);
+		}
+	}
+}
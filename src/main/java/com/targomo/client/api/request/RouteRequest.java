@@ -1,5 +1,6 @@
 package com.targomo.client.api.request;
 
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.RequestConfigurator;
@@ -12,9 +13,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Generates possible route from sources to targets.
@@ -27,11 +28,11 @@ public class RouteRequest {
 
 	/**
 	 * Use default Client with specified travelOptions
-	 * Default client uses {@link ClientBuilder}
+	 * Default client uses {@link TargomoClient#getDefault()}
 	 * @param travelOptions Travel options parameters
 	 */
 	public RouteRequest(TravelOptions travelOptions) {
-		this.client	= ClientBuilder.newClient();
+		this.client	= TargomoClient.getDefault().getClient();
 
 		this.travelOptions = travelOptions;
 	}
@@ -51,16 +52,28 @@ public class RouteRequest {
 	 * @throws TargomoClientException In case of error other than Gateway Timeout
 	 */
 	public RouteResponse get() throws TargomoClientException, ResponseErrorException {
-		long requestStart = System.currentTimeMillis();
 
+		// make the request
+		return RequestExecutor.forClient(client).execute(this::prepareCall, this::validateResponse);
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the route response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<RouteResponse> getAsync() {
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, this::validateResponse);
+	}
+
+	private HttpCall prepareCall() throws TargomoClientException {
 		WebTarget request = client.target(travelOptions.getServiceUrl()).path("v1/route")
 			.queryParam("cb", CALLBACK)
-			.queryParam("key", travelOptions.getServiceKey())
-			.queryParam("cfg", IOUtil.encode(RequestConfigurator.getConfig(travelOptions)));
+			.queryParam("key", travelOptions.getServiceKey());
 
-		// make the request
-		Response response = request.request().get();
-		return validateResponse(response);
+		return RequestExecutor.forClient(client).getUrlConfigPolicy()
+				.call(request, null, RequestConfigurator.getConfig(travelOptions))
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
     /**
@@ -88,7 +101,7 @@ public class RouteRequest {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 			// consume the results
-			JSONObject result = JsonUtil.parseString(IOUtil.getResultString(response));
+			JSONObject result = IOUtil.parseResultStream(response, JsonUtil::parseStream);
 
 			ResponseCode code = ResponseCode.fromString(JsonUtil.getString(result, "code"));
 			final String message = result.has("message") ? JsonUtil.getString(result, "message") : "";
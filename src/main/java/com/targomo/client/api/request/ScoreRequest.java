@@ -1,5 +1,6 @@
 package com.targomo.client.api.request;
 
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.quality.Location;
 import com.targomo.client.api.quality.criterion.CriterionDefinition;
@@ -14,7 +15,6 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
@@ -24,6 +24,7 @@ import javax.ws.rs.core.Response;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @AllArgsConstructor
 public class ScoreRequest {
@@ -42,25 +43,25 @@ public class ScoreRequest {
     private final MultivaluedMap<String, Object> headers;
 
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations, MultivaluedMap<String, Object> headers) {
-        this(ClientBuilder.newClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, null, null, null, headers);
+        this(TargomoClient.getDefault().getClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, null, null, null, headers);
     }
 
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations) {
-        this(ClientBuilder.newClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, null, null, null, new MultivaluedHashMap<>());
+        this(TargomoClient.getDefault().getClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, null, null, null, new MultivaluedHashMap<>());
     }
 
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations, List<Location> competitors) {
-        this(ClientBuilder.newClient(), criteria, locations, competitors, serviceUrl, key, null, null, null, new MultivaluedHashMap<>());
+        this(TargomoClient.getDefault().getClient(), criteria, locations, competitors, serviceUrl, key, null, null, null, new MultivaluedHashMap<>());
     }
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations, List<Location> competitors, boolean showDetails, boolean forceRecalculate, boolean cacheResult) {
-        this(ClientBuilder.newClient(), criteria, locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, new MultivaluedHashMap<>());
+        this(TargomoClient.getDefault().getClient(), criteria, locations, competitors, serviceUrl, key, showDetails, forceRecalculate, cacheResult, new MultivaluedHashMap<>());
     }
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations, boolean showDetails, boolean forceRecalculate, boolean cacheResult) {
-        this(ClientBuilder.newClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, showDetails, forceRecalculate, cacheResult, new MultivaluedHashMap<>());
+        this(TargomoClient.getDefault().getClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, showDetails, forceRecalculate, cacheResult, new MultivaluedHashMap<>());
     }
 
     public ScoreRequest(String serviceUrl, String key, Map<String, CriterionDefinition> criteria, List<Location> locations, boolean showDetails, boolean forceRecalculate, boolean cacheResult, MultivaluedMap<String, Object> headers) {
-        this(ClientBuilder.newClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, showDetails, forceRecalculate, cacheResult, headers);
+        this(TargomoClient.getDefault().getClient(), criteria, locations, Collections.emptyList(), serviceUrl, key, showDetails, forceRecalculate, cacheResult, headers);
     }
     
     //added this for backward compatibility with any of the callers using the all-args constructor directly
@@ -69,6 +70,17 @@ public class ScoreRequest {
     }
 
     public ScoreResponse get() throws TargomoClientException {
+        return RequestExecutor.forClient(client).execute(this::prepareCall, ScoreRequest::validateResponse);
+    }
+
+    /**
+     * @return future of the score response, completed exceptionally with the exception {@link #get()} would have thrown
+     */
+    public CompletableFuture<ScoreResponse> getAsync() {
+        return RequestExecutor.forClient(client).executeAsync(this::prepareCall, ScoreRequest::validateResponse);
+    }
+
+    private HttpCall prepareCall() throws TargomoClientException {
         WebTarget request = client.target(serviceUrl).path("v1/scores")
                 .queryParam("apiKey", apiKey);
         if(showDetails != null) {
@@ -82,8 +94,8 @@ public class ScoreRequest {
         }
 
         String config = RequestConfigurator.getConfig(criteria, locations, competitors);
-        Response response = request.request().headers(headers).post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
-        return validateResponse(response);
+        return HttpCall.post(request, headers, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE))
+                .withCacheFlags(Boolean.TRUE.equals(forceRecalculate), !Boolean.FALSE.equals(cacheResult));
     }
 
     /**
@@ -96,7 +108,7 @@ public class ScoreRequest {
         // compare the HTTP status codes, NOT the route 360 code
         if (response.getStatus() == Response.Status.OK.getStatusCode()) {
             // consume the results
-            JSONObject result = JsonUtil.parseString(IOUtil.getResultString(response));
+            JSONObject result = IOUtil.parseResultStream(response, JsonUtil::parseStream);
 
             String message;
             JSONObject data;
@@ -0,0 +1,410 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Circuit breaker and bulkhead per service, configured on the {@link RequestExecutor}, so a slow or failing backend
+ * (e.g. the statistics service) can not take up the connections and threads of calls to the other services.
+ *
+ * <p>
+ * Calls are grouped by service, by default scheme, host, port and first path segment of the URI, e.g.
+ * <code>https://api.targomo.com/westcentraleurope</code> for routing and <code>https://api.targomo.com/statistics</code>
+ * for statistics calls. Per service:
+ * </p>
+ * <ul>
+ *     <li>the bulkhead limits the calls in flight; a call waits for a free slot at most the configured time, calls of
+ *     asynchronous requests do not wait</li>
+ *     <li>the circuit breaker opens if the failure rate of the last calls exceeds the threshold; failures are connection
+ *     errors and the status codes 500, 502, 503 and 504. While it is open, calls fail fast; after the open duration a
+ *     few trial calls are let through, which close it again if all of them succeed. If the trial calls have not all
+ *     completed after another open duration, it opens again</li>
+ * </ul>
+ * <p>
+ * Rejected calls throw a {@link CallRejectedException}, they are not retried by the {@link RetryPolicy}. A call is in
+ * flight until the headers of its response arrived, the time to read and parse the body is not limited.
+ * </p>
+ */
+@Slf4j
+public final class ServiceIsolation {
+
+	/**
+	 * States of a circuit breaker.
+	 */
+	public enum State {
+		/** calls are sent */
+		CLOSED,
+		/** calls fail fast */
+		OPEN,
+		/** a limited number of trial calls is sent */
+		HALF_OPEN
+	}
+
+	private static final Set<Integer> FAILURE_STATUSES = new HashSet<>(Arrays.asList(500, 502, 503, 504));
+
+	private final Function<URI, String> serviceKey;
+	private final int maxConcurrentCalls;
+	private final Map<String, Integer> maxConcurrentCallsByService;
+	private final long maxWaitMillis;
+	private final double failureRateThreshold;
+	private final int windowSize;
+	private final int minimumCalls;
+	private final long openMillis;
+	private final int halfOpenCalls;
+	private final Clock clock;
+
+	private final ConcurrentMap<String, Service> services = new ConcurrentHashMap<>();
+	private final LongAdder rejectedCalls = new LongAdder();
+
+	private ServiceIsolation(Builder builder) {
+		this.serviceKey = builder.serviceKey;
+		this.maxConcurrentCalls = builder.maxConcurrentCalls;
+		this.maxConcurrentCallsByService = new LinkedHashMap<>(builder.maxConcurrentCallsByService);
+		this.maxWaitMillis = builder.maxWait.toMillis();
+		this.failureRateThreshold = builder.failureRateThreshold;
+		this.windowSize = builder.windowSize;
+		this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+		this.openMillis = builder.openDuration.toMillis();
+		this.halfOpenCalls = builder.halfOpenCalls;
+		this.clock = builder.clock;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param uri URI of a call
+	 * @return the service of the call, scheme, host, port and first path segment by default
+	 */
+	public static String defaultServiceKey(URI uri) {
+		String path = uri.getPath() == null ? "" : uri.getPath();
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = path.indexOf('/', start);
+		String segment = path.substring(start, end < 0 ? path.length() : end);
+		return uri.getScheme() + "://" + uri.getRawAuthority() + "/" + segment;
+	}
+
+	/**
+	 * @return the state of the circuit breaker of every service called so far
+	 */
+	public Map<String, State> getStates() {
+		Map<String, State> states = new LinkedHashMap<>();
+		services.forEach((key, service) -> states.put(key, service.state()));
+		return states;
+	}
+
+	/**
+	 * @param service the service, see {@link #defaultServiceKey(URI)}
+	 * @return the state of the circuit breaker of the service, closed if it was not called so far
+	 */
+	public State getState(String service) {
+		Service isolated = services.get(service);
+		return isolated == null ? State.CLOSED : isolated.state();
+	}
+
+	/**
+	 * @return number of calls rejected by circuit breakers or bulkheads
+	 */
+	public long getRejectedCalls() {
+		return rejectedCalls.sum();
+	}
+
+	/**
+	 * Takes a slot in the bulkhead of the service of the call and checks its circuit breaker.
+	 * @param call the call to send
+	 * @param wait if the call may wait for a free slot, false for asynchronous calls
+	 * @return the permit to send the call, must be released when the response arrived
+	 * @throws CallRejectedException if the call must not be sent
+	 */
+	Permit acquire(HttpCall call, boolean wait) {
+		String key = serviceKey.apply(call.getTarget().getUri());
+		Service service = services.computeIfAbsent(key, Service::new);
+		long waitMillis = !wait ? 0 : call.getDeadline() == null ? maxWaitMillis
+				: Math.min(maxWaitMillis, call.getDeadline().remainingMillis());
+		if (!service.tryEnter(waitMillis)) {
+			rejectedCalls.increment();
+			throw new CallRejectedException(key, CallRejectedException.Reason.BULKHEAD_FULL);
+		}
+		long generation = service.allowCall();
+		if (generation < 0) {
+			service.bulkhead.release();
+			rejectedCalls.increment();
+			throw new CallRejectedException(key, CallRejectedException.Reason.CIRCUIT_OPEN);
+		}
+		return new Permit(service, generation);
+	}
+
+	private int maxConcurrentCalls(String service) {
+		for (Map.Entry<String, Integer> limit : maxConcurrentCallsByService.entrySet()) {
+			if (service.contains(limit.getKey()))
+				return limit.getValue();
+		}
+		return maxConcurrentCalls;
+	}
+
+	/**
+	 * Permission to send one call, released with the outcome of the call.
+	 */
+	final class Permit {
+
+		private final Service service;
+		private final long generation;
+		private boolean released = false;
+
+		private Permit(Service service, long generation) {
+			this.service = service;
+			this.generation = generation;
+		}
+
+		/**
+		 * @param response the response of the call
+		 */
+		void release(Response response) {
+			release(FAILURE_STATUSES.contains(response.getStatus()));
+		}
+
+		/**
+		 * Releases the permit of a call that failed with an exception.
+		 */
+		void releaseFailed() {
+			release(true);
+		}
+
+		private synchronized void release(boolean failure) {
+			if (released)
+				return;
+			released = true;
+			service.bulkhead.release();
+			service.record(generation, failure);
+		}
+	}
+
+	/**
+	 * Bulkhead and circuit breaker of one service.
+	 */
+	private final class Service {
+
+		private final String key;
+		private final Semaphore bulkhead;
+
+		// outcomes of the last calls while closed, true for failures
+		private final boolean[] window = new boolean[windowSize];
+		private int windowCalls = 0;
+		private int windowFailures = 0;
+		private int windowIndex = 0;
+
+		private State state = State.CLOSED;
+		// changes with every state, outcomes of calls allowed in an earlier state are ignored
+		private long generation = 0;
+		private long openedAtMillis = 0;
+		private int trialCallsStarted = 0;
+		private int trialCallsSucceeded = 0;
+
+		private Service(String key) {
+			this.key = key;
+			int limit = maxConcurrentCalls(key);
+			this.bulkhead = new Semaphore(limit <= 0 ? Integer.MAX_VALUE : limit);
+		}
+
+		private boolean tryEnter(long waitMillis) {
+			if (waitMillis <= 0)
+				return bulkhead.tryAcquire();
+			try {
+				return bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private synchronized State state() {
+			return state;
+		}
+
+		/**
+		 * @return the generation the call is allowed in or -1 if it is not allowed
+		 */
+		private synchronized long allowCall() {
+			if (state == State.OPEN) {
+				if (clock.millis() - openedAtMillis < openMillis)
+					return -1;
+				transition(State.HALF_OPEN);
+			}
+			if (state == State.HALF_OPEN) {
+				if (trialCallsStarted >= halfOpenCalls) {
+					// trial calls that did not complete within the open duration count as failures, so calls
+					// that never return do not keep the circuit half open
+					if (clock.millis() - openedAtMillis >= openMillis)
+						transition(State.OPEN);
+					return -1;
+				}
+				trialCallsStarted++;
+			}
+			return generation;
+		}
+
+		private synchronized void record(long callGeneration, boolean failure) {
+			if (callGeneration != generation)
+				return;
+			if (state == State.HALF_OPEN) {
+				if (failure)
+					transition(State.OPEN);
+				else if (++trialCallsSucceeded >= halfOpenCalls)
+					transition(State.CLOSED);
+				return;
+			}
+			if (windowCalls == windowSize && window[windowIndex])
+				windowFailures--;
+			window[windowIndex] = failure;
+			windowIndex = (windowIndex + 1) % windowSize;
+			windowCalls = Math.min(windowCalls + 1, windowSize);
+			if (failure)
+				windowFailures++;
+			if (windowCalls >= minimumCalls && windowFailures >= failureRateThreshold * windowCalls)
+				transition(State.OPEN);
+		}
+
+		private void transition(State next) {
+			if (next == State.OPEN)
+				log.warn("Opening circuit breaker of {}", key);
+			else if (next == State.CLOSED)
+				log.info("Closing circuit breaker of {}", key);
+			state = next;
+			generation++;
+			openedAtMillis = clock.millis();
+			trialCallsStarted = 0;
+			trialCallsSucceeded = 0;
+			windowCalls = 0;
+			windowFailures = 0;
+			windowIndex = 0;
+		}
+	}
+
+	/**
+	 * Builder for a {@link ServiceIsolation}.
+	 */
+	public static class Builder {
+
+		private Function<URI, String> serviceKey = ServiceIsolation::defaultServiceKey;
+		private int maxConcurrentCalls = 64;
+		private final Map<String, Integer> maxConcurrentCallsByService = new LinkedHashMap<>();
+		private Duration maxWait = Duration.ZERO;
+		private double failureRateThreshold = 0.5;
+		private int windowSize = 50;
+		private int minimumCalls = 20;
+		private Duration openDuration = Duration.ofSeconds(30);
+		private int halfOpenCalls = 3;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param serviceKey maps the URI of a call to its service, default {@link #defaultServiceKey(URI)}
+		 * @return this builder
+		 */
+		public Builder serviceKey(Function<URI, String> serviceKey) {
+			if (serviceKey == null)
+				throw new IllegalArgumentException("serviceKey must not be null");
+			this.serviceKey = serviceKey;
+			return this;
+		}
+
+		/**
+		 * @param maxConcurrentCalls maximum calls in flight per service, 0 for no limit, default 64
+		 * @return this builder
+		 */
+		public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+			if (maxConcurrentCalls < 0)
+				throw new IllegalArgumentException("maxConcurrentCalls must not be negative but was " + maxConcurrentCalls);
+			this.maxConcurrentCalls = maxConcurrentCalls;
+			return this;
+		}
+
+		/**
+		 * @param service part of the service key, e.g. <code>/statistics</code>; the first matching service in the
+		 *                order of configuration wins
+		 * @param maxConcurrentCalls maximum calls in flight to the matching services, 0 for no limit
+		 * @return this builder
+		 */
+		public Builder maxConcurrentCalls(String service, int maxConcurrentCalls) {
+			if (service == null || maxConcurrentCalls < 0)
+				throw new IllegalArgumentException("service must not be null, maxConcurrentCalls must not be negative");
+			this.maxConcurrentCallsByService.put(service, maxConcurrentCalls);
+			return this;
+		}
+
+		/**
+		 * @param maxWait maximum time a blocking call waits for a free slot in the bulkhead, default zero (fail fast)
+		 * @return this builder
+		 */
+		public Builder maxWait(Duration maxWait) {
+			if (maxWait == null || maxWait.isNegative())
+				throw new IllegalArgumentException("maxWait must not be null or negative");
+			this.maxWait = maxWait;
+			return this;
+		}
+
+		/**
+		 * @param failureRateThreshold failure rate between 0 and 1 opening the circuit breaker, default 0.5
+		 * @param windowSize number of last calls the failure rate is computed of, default 50
+		 * @param minimumCalls minimum number of calls before the circuit breaker can open, default 20
+		 * @return this builder
+		 */
+		public Builder failureRate(double failureRateThreshold, int windowSize, int minimumCalls) {
+			if (failureRateThreshold <= 0 || failureRateThreshold > 1)
+				throw new IllegalArgumentException("failureRateThreshold must be greater than 0 and at most 1");
+			if (windowSize < 1 || minimumCalls < 1)
+				throw new IllegalArgumentException("windowSize and minimumCalls must be at least 1");
+			this.failureRateThreshold = failureRateThreshold;
+			this.windowSize = windowSize;
+			this.minimumCalls = minimumCalls;
+			return this;
+		}
+
+		/**
+		 * @param openDuration time the circuit breaker stays open before trial calls are sent, default 30 seconds
+		 * @param halfOpenCalls number of trial calls that must succeed to close the circuit breaker, default 3
+		 * @return this builder
+		 */
+		public Builder open(Duration openDuration, int halfOpenCalls) {
+			if (openDuration == null || openDuration.isNegative() || halfOpenCalls < 1)
+				throw new IllegalArgumentException("openDuration must not be null or negative, halfOpenCalls must be at least 1");
+			this.openDuration = openDuration;
+			this.halfOpenCalls = halfOpenCalls;
+			return this;
+		}
+
+		/**
+		 * @param clock clock used for the open duration, default the system clock
+		 * @return this builder
+		 */
+		public Builder clock(Clock clock) {
+			if (clock == null)
+				throw new IllegalArgumentException("clock must not be null");
+			this.clock = clock;
+			return this;
+		}
+
+		public ServiceIsolation build() {
+			return new ServiceIsolation(this);
+		}
+	}
+}
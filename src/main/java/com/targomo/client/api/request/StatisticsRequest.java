@@ -1,6 +1,7 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.StatisticTravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.JacksonRequestConfigurator;
@@ -12,13 +13,13 @@ import com.targomo.client.api.util.JsonUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 @Slf4j
@@ -31,11 +32,11 @@ public class StatisticsRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}
+	 * Default client uses {@link TargomoClient#getDefault()}
 	 * @param travelOptions Options to be used
 	 */
 	public StatisticsRequest(StatisticTravelOptions travelOptions) {
-		this.client	= ClientBuilder.newClient();
+		this.client	= TargomoClient.getDefault().getClient();
 		this.travelOptions = travelOptions;
 		this.headers = new MultivaluedHashMap<>();
 	}
@@ -72,6 +73,23 @@ public class StatisticsRequest {
 		return get(VALUES_GEOMETRY, this::validateGeometryValuesResponse);
 	}
 
+	/**
+	 * Executes the request asynchronously
+	 * @param method the statistic method
+	 * @return future of the response, completed exceptionally with the exception {@link #get(StatisticMethod)} would have thrown
+	 */
+	public CompletableFuture<StatisticsResponse> getAsync(StatisticMethod method) {
+		return getAsync(method.getPath(), this::validateResponse);
+	}
+
+	/**
+	 * Executes the values geometry request asynchronously
+	 * @return future of the response, completed exceptionally with the exception {@link #getValuesGeometry()} would have thrown
+	 */
+	public CompletableFuture<StatisticsGeometryValuesResponse> getValuesGeometryAsync() {
+		return getAsync(VALUES_GEOMETRY, this::validateGeometryValuesResponse);
+	}
+
 	/**
 	 * @param path the path for the request to be executed
 	 * @return Response from the statistics server
@@ -81,6 +99,26 @@ public class StatisticsRequest {
 
 		long requestStart = System.currentTimeMillis();
 
+		// Execute POST request
+		return RequestExecutor.forClient(client).execute(() -> prepareCall(path),
+				response -> responseValidator.validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	/**
+	 * @param path the path for the request to be executed
+	 * @return future of the response from the statistics server, completed exceptionally with the exception
+	 * {@link #get(String, ResponseValidator)} would have thrown
+	 */
+	public <T> CompletableFuture<T> getAsync(String path, ResponseValidator<T> responseValidator) {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeAsync(() -> prepareCall(path),
+				response -> responseValidator.validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	private HttpCall prepareCall(String path) throws TargomoClientException {
+
 		WebTarget target = client.target(this.travelOptions.getStatisticServiceUrl()).path(path)
 				.queryParam("key", travelOptions.getServiceKey())
 				.queryParam("serviceUrl", travelOptions.getServiceUrl());
@@ -100,14 +138,9 @@ public class StatisticsRequest {
 
 		log.debug("Executing statistics request ({}) to URI: '{}'", path, target.getUri());
 
-		Response response;
-
-		// Execute POST request
-		response = target.request().headers(headers).post(entity);
-
-		long roundTripTime = System.currentTimeMillis() - requestStart;
-
-		return responseValidator.validateResponse(response, requestStart, roundTripTime);
+		return HttpCall.post(target, headers, entity)
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
 	private <T> T validateResponse(final Response response, Supplier<T> responseSupplier, Supplier<T> gatewayTimeOutResponseSupplier)
@@ -139,7 +172,7 @@ public class StatisticsRequest {
 			throws TargomoClientException {
 
 		return validateResponse(response,
-				() -> new StatisticsResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart),
+				() -> new StatisticsResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), requestStart),
 				() -> new StatisticsResponse(travelOptions, "gateway-time-out", roundTripTime, requestStart));
 	}
 
@@ -155,7 +188,7 @@ public class StatisticsRequest {
 			throws TargomoClientException {
 
 		return validateResponse(response,
-				() -> new StatisticsGeometryValuesResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart),
+				() -> new StatisticsGeometryValuesResponse(travelOptions, IOUtil.parseResultStream(response, JsonUtil::parseStream), requestStart),
 				() -> new StatisticsGeometryValuesResponse(travelOptions, "gateway-time-out", roundTripTime, requestStart));
 	}
 
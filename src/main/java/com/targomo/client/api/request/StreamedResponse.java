@@ -0,0 +1,92 @@
+package com.targomo.client.api.request;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inbound {@link Response} whose entity is read from a stream, e.g. the body of a response still arriving from the
+ * server. The entity can be read once, as String, byte array or InputStream; only the first two read it into memory.
+ */
+final class StreamedResponse extends InboundResponse {
+
+	private final InputStream body;
+	private final boolean hasEntity;
+	private final Response received;
+	private boolean consumed = false;
+
+	/**
+	 * @param status the status of the response
+	 * @param mediaType the media type of the body, null if unknown
+	 * @param headers the headers of the response
+	 * @param body the body, null if the response has none
+	 * @param received the response the body was taken from, closed with this response, may be null
+	 */
+	StreamedResponse(int status, MediaType mediaType, Map<String, List<String>> headers, InputStream body,
+					 Response received) {
+		super(status, mediaType, headers);
+		this.body = body == null ? InputStream.nullInputStream() : body;
+		this.hasEntity = body != null;
+		this.received = received;
+	}
+
+	@Override
+	public Object getEntity() {
+		return body;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T readEntity(Class<T> entityType) {
+		if (consumed)
+			throw new IllegalStateException("The entity of the response was already read");
+		consumed = true;
+		if (entityType == InputStream.class || entityType == Object.class)
+			return (T) body;
+		if (entityType != byte[].class && entityType != String.class)
+			throw new ProcessingException("Streamed responses can not be read as " + entityType.getName());
+		try (InputStream in = body) {
+			byte[] bytes = in.readAllBytes();
+			return (T) (entityType == byte[].class ? bytes : new String(bytes, charset()));
+		} catch (IOException e) {
+			throw new ProcessingException("Could not read the response body", e);
+		}
+	}
+
+	@Override
+	public boolean hasEntity() {
+		return hasEntity;
+	}
+
+	@Override
+	public boolean bufferEntity() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+		try {
+			body.close();
+		} catch (IOException e) {
+			throw new ProcessingException("Could not close the response", e);
+		} finally {
+			if (received != null)
+				received.close();
+		}
+	}
+
+	@Override
+	public int getLength() {
+		String length = getHeaderString(HttpHeaders.CONTENT_LENGTH);
+		try {
+			return length == null ? -1 : Integer.parseInt(length.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
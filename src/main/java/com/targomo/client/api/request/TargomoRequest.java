@@ -2,11 +2,11 @@ package com.targomo.client.api.request;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.request.config.RequestConfigurator;
-import com.targomo.client.api.request.ssl.SslClientGenerator;
 import com.targomo.client.api.response.DefaultResponse;
 import com.targomo.client.api.response.ResponseCode;
 import com.targomo.client.api.util.IOUtil;
@@ -15,13 +15,14 @@ import org.apache.commons.lang3.StringUtils;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -45,8 +46,9 @@ public abstract class TargomoRequest<R extends DefaultResponse<?,?>> {
     private final MultivaluedMap<String, Object> headers;
 
     /**
-     * Not recommended since a heavy client object is constructed and destroyed with every call. Also a GZIPEncoder
-     * needs to be registered usually to the client to receive results.
+     * Executes the request with the shared client of {@link TargomoClient#getDefaultTrustAll()}. Note that a
+     * GZIPEncoder usually needs to be registered to the client to receive results - in that case use a
+     * {@link TargomoClient} built with the respective configuration instead.
      *
      * Example how to call it: MultiGraphResponse r = TargomoRequest.executeRequest(MultiGraphRequest::new,travelOptions);
      *
@@ -60,12 +62,7 @@ public abstract class TargomoRequest<R extends DefaultResponse<?,?>> {
     static <O extends DefaultResponse<?,?>, C extends TargomoRequest<O>> O
                     executeRequest(BiFunction<Client,TravelOptions, C> constructor,
                                    TravelOptions travelOptions) throws TargomoClientException, ResponseErrorException {
-        Client client = SslClientGenerator.initClient();
-        try{
-            return constructor.apply(client,travelOptions).get();
-        } finally {
-            client.close();
-        }
+        return constructor.apply(TargomoClient.getDefaultTrustAll().getClient(), travelOptions).get();
     }
 
     /**
@@ -117,6 +114,26 @@ public abstract class TargomoRequest<R extends DefaultResponse<?,?>> {
     public R get() throws TargomoClientException, ResponseErrorException {
 
         long startTimeMillis = System.currentTimeMillis();
+
+        // Execute, validate & return
+        return RequestExecutor.forClient(client).executeShared(this::prepareCall, clazz.getName(),
+                response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+    }
+
+    /**
+     * Executes the request asynchronously, the response is parsed on the parse executor of the client's
+     * {@link RequestExecutor}.
+     *
+     * @return future of the request's response of type R, completed exceptionally with the exception {@link #get()}
+     * would have thrown
+     */
+    public CompletableFuture<R> getAsync() {
+        long startTimeMillis = System.currentTimeMillis();
+        return RequestExecutor.forClient(client).executeSharedAsync(this::prepareCall, clazz.getName(),
+                response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+    }
+
+    private HttpCall prepareCall() throws TargomoClientException {
         WebTarget request = client.target(travelOptions.getServiceUrl())
                 .path(path)
                 .queryParam("cb", Constants.CALLBACK)
@@ -124,31 +141,20 @@ public abstract class TargomoRequest<R extends DefaultResponse<?,?>> {
                 .queryParam(Constants.INTER_SERVICE_KEY, travelOptions.getInterServiceKey())
                 .queryParam(Constants.INTER_SERVICE_REQUEST, travelOptions.getInterServiceRequestType());
 
-        // Execute request
-        Response response;
-        String config = RequestConfigurator.getConfig(travelOptions);
         if (HttpMethod.GET.equals(httpMethod)) {
-            request  = request.queryParam("cfg", IOUtil.encode(config));
-            Invocation.Builder invocationBuilder = request.request();
-
-            if (!headers.isEmpty())
-                invocationBuilder = request.request().headers(headers);
-
-            response = invocationBuilder.get();
+            String config = RequestConfigurator.getConfig(travelOptions);
+            return RequestExecutor.forClient(client).getUrlConfigPolicy().call(request, headers, config)
+                    .withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+                    .withLocationCounts(travelOptions);
         }
         else if (HttpMethod.POST.equals(httpMethod)) {
-            Invocation.Builder invocationBuilder = request.request();
-
-            if (!headers.isEmpty())
-                invocationBuilder = request.request().headers(headers);
-
-            response = invocationBuilder.post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
+            RequestConfigurator.StreamingConfig config = RequestConfigurator.getStreamingConfig(travelOptions);
+            return HttpCall.post(request, headers, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE))
+                    .withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+                    .withLocationCounts(travelOptions);
         } else {
             throw new TargomoClientException("HTTP Method not supported: " + httpMethod);
         }
-
-        // Validate & return
-        return validateResponse(response, System.currentTimeMillis() - startTimeMillis);
     }
 
     /**
@@ -176,11 +182,10 @@ public abstract class TargomoRequest<R extends DefaultResponse<?,?>> {
         R parsedResponse = null;
         long startParsing = System.currentTimeMillis();
         if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-            String resultString = IOUtil.getResultString(response);
-            try {
-                parsedResponse  = MAPPER.readValue(resultString, clazz);
+            try (InputStream resultStream = IOUtil.getResultStream(response)) {
+                parsedResponse  = MAPPER.readValue(resultStream, clazz);
             } catch (IOException e) {
-                throw new TargomoClientException("Exception occurred for result: " + resultString, e, response.getStatus());
+                throw new TargomoClientException("Exception occurred while parsing the result: " + e.getMessage(), e, response.getStatus());
             }
         } else if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
             throw new TargomoClientException(String.format("Service not found: %s", travelOptions.getServiceUrl()), response.getStatus());
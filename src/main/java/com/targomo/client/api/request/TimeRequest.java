@@ -1,23 +1,26 @@
 package com.targomo.client.api.request;
 
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.request.config.RequestConfigurator;
 import com.targomo.client.api.response.TimeResponse;
+import com.targomo.client.api.response.TravelTimeConsumer;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.util.IOUtil;
-import com.targomo.client.api.util.JsonUtil;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Calculates travel times from each source point to each target.
@@ -33,11 +36,11 @@ public class TimeRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public TimeRequest(TravelOptions travelOptions) {
-		this(ClientBuilder.newClient(), travelOptions);
+		this(TargomoClient.getDefault().getClient(), travelOptions);
 	}
 
 	/**
@@ -70,6 +73,50 @@ public class TimeRequest {
 
 		long requestStart = System.currentTimeMillis();
 
+		// Execute POST request
+		return RequestExecutor.forClient(client).execute(this::prepareCall, response -> validateResponse(response, requestStart, null));
+	}
+
+	/**
+	 * Execute request and pass the results to a consumer while they are parsed, without collecting them in the response.
+	 * @param consumer receives the travel time and length of each source and target
+	 * @return Time response, with code and timings but without results
+	 * @throws TargomoClientException In case of error other than Gateway Timeout
+	 * @throws ResponseErrorException In case the response has an error code, possibly after results were passed to the
+	 * consumer, see {@link TravelTimeConsumer}
+	 */
+	public TimeResponse get(TravelTimeConsumer consumer) throws TargomoClientException, ProcessingException, ResponseErrorException {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).execute(this::prepareCall, response -> validateResponse(response, requestStart, consumer));
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the time response, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<TimeResponse> getAsync() {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, response -> validateResponse(response, requestStart, null));
+	}
+
+	/**
+	 * Execute request asynchronously, see {@link #get(TravelTimeConsumer)}
+	 * @param consumer receives the travel time and length of each source and target, on the thread parsing the response
+	 * @return future of the time response without results, completed exceptionally with the exception {@link #get()} would have thrown
+	 */
+	public CompletableFuture<TimeResponse> getAsync(TravelTimeConsumer consumer) {
+
+		long requestStart = System.currentTimeMillis();
+
+		return RequestExecutor.forClient(client).executeAsync(this::prepareCall, response -> validateResponse(response, requestStart, consumer));
+	}
+
+	private HttpCall prepareCall() throws TargomoClientException {
+
         WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/time")
                 .queryParam("cb", CALLBACK)
                 .queryParam("key", travelOptions.getServiceKey());
@@ -82,12 +129,10 @@ public class TimeRequest {
 			target = target.queryParam(Constants.INTER_SERVICE_REQUEST, travelOptions.getInterServiceRequestType());
 		}
 
-		Response response;
-		String config = RequestConfigurator.getConfig(travelOptions);
-		// Execute POST request
-		response = target.request().headers(headers).post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
-
-		return validateResponse(response, requestStart);
+		RequestConfigurator.StreamingConfig config = RequestConfigurator.getStreamingConfig(travelOptions);
+		return HttpCall.post(target, headers, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE))
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
 	/**
@@ -114,19 +159,22 @@ public class TimeRequest {
 	 * Validate HTTP response and return a TimeResponse
 	 * @param response HTTP response
 	 * @param requestStart Beginning of execution in milliseconds
+	 * @param consumer receives the results instead of the response, null to collect them
 	 * @return TimeResponse
 	 * @throws TargomoClientException In case of errors other than GatewayTimeout
 	 */
-	private TimeResponse validateResponse(final Response response, final long requestStart)
+	private TimeResponse validateResponse(final Response response, final long requestStart, final TravelTimeConsumer consumer)
 			throws TargomoClientException, ResponseErrorException {
 
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 
-			String res = IOUtil.getResultString(response);
-
-			// consume the results
-			return new TimeResponse(travelOptions, JsonUtil.parseString(res), requestStart);
+			// stream the results into the travel time matrix or the consumer
+			try (InputStream stream = IOUtil.getResultStream(response)) {
+				return TimeResponse.parse(travelOptions, stream, requestStart, consumer);
+			} catch (IOException e) {
+				throw new TargomoClientException("Could not read time response: " + e.getMessage(), e, response.getStatus());
+			}
 		}
 		else {
 			throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
@@ -2,25 +2,28 @@ package com.targomo.client.api.request;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.Constants;
+import com.targomo.client.api.TargomoClient;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.request.config.RequestConfigurator;
 import com.targomo.client.api.response.TransitStation;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Get all the transit stations reachable from source(s) and the times of the next stops
@@ -36,12 +39,12 @@ public class TransitStopsRequest {
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client uses {@link TargomoClient#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public TransitStopsRequest(TravelOptions travelOptions) {
 		this.headers = new MultivaluedHashMap<>();
-		this.client	= ClientBuilder.newClient();
+		this.client	= TargomoClient.getDefault().getClient();
 		this.travelOptions = travelOptions;
 	}
 
@@ -79,6 +82,25 @@ public class TransitStopsRequest {
 	 */
 	public Map<String, List<TransitStation>> get(Boolean filterEmptyNextStops) throws TargomoClientException, JsonProcessingException {
 
+		// Execute POST request
+		return RequestExecutor.forClient(client).execute(() -> prepareCall(filterEmptyNextStops), this::validateResponse);
+	}
+
+	public CompletableFuture<Map<String, List<TransitStation>>> getAsync() {
+		return getAsync(null);
+	}
+
+	/**
+	 * Execute request asynchronously
+	 * @return future of the map of source id to reachable transit stations, completed exceptionally with the
+	 * exception {@link #get(Boolean)} would have thrown
+	 */
+	public CompletableFuture<Map<String, List<TransitStation>>> getAsync(Boolean filterEmptyNextStops) {
+		return RequestExecutor.forClient(client).executeAsync(() -> prepareCall(filterEmptyNextStops), this::validateResponse);
+	}
+
+	private HttpCall prepareCall(Boolean filterEmptyNextStops) throws TargomoClientException {
+
 		WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/transit/stops")
 				.queryParam("cb", CALLBACK)
 				.queryParam("key", travelOptions.getServiceKey())
@@ -88,16 +110,13 @@ public class TransitStopsRequest {
 			target = target.queryParam("filterEmptyNextStops", filterEmptyNextStops);
 		}
 
-		final Entity<String> entity = Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+		final Entity<RequestConfigurator.StreamingConfig> entity = Entity.entity(RequestConfigurator.getStreamingConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
 
 		log.debug("Executing transit stops request to URI: '{}}'", target.getUri());
 
-		Response response;
-
-		// Execute POST request
-		response = target.request().headers(headers).post(entity);
-
-		return validateResponse(response);
+		return HttpCall.post(target, headers, entity)
+				.withCacheFlags(travelOptions.isForceRecalculate(), travelOptions.isCacheResult())
+				.withLocationCounts(travelOptions);
 	}
 
 	/**
@@ -106,13 +125,16 @@ public class TransitStopsRequest {
 	 * @return ReachabilityResponse
 	 * @throws TargomoClientException In case of errors other than GatewayTimeout
 	 */
-	private Map<String, List<TransitStation>> validateResponse(final Response response)
-			throws TargomoClientException, JsonProcessingException {
+	private Map<String, List<TransitStation>> validateResponse(final Response response) throws TargomoClientException {
 		// compare the HTTP status codes
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 			// consume the results
 			TypeReference<Map<String, List<TransitStation>>> typeRef = new TypeReference<Map<String, List<TransitStation>>>() {};
-			return new ObjectMapper().readValue(response.readEntity(String.class), typeRef);
+			try (InputStream responseStream = response.readEntity(InputStream.class)) {
+				return JsonMappers.reader(typeRef).readValue(responseStream);
+			} catch (IOException e) {
+				throw new TargomoClientException("Could not read transit stops response: " + e.getMessage(), e, response.getStatus());
+			}
 		} else {
 			throw new TargomoClientException(response.readEntity(String.class), response.getStatus());
 		}
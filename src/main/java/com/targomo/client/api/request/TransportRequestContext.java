@@ -0,0 +1,282 @@
+package com.targomo.client.api.request;
+
+import javax.ws.rs.Priorities;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link ClientRequestContext} of a call sent by the {@link Http2Transport}, so the {@link ClientRequestFilter}s
+ * registered with the JAX-RS client, e.g. a {@link com.targomo.client.api.request.config.RequestHeaderFilter}, apply
+ * to it as well. Filters can change URI, method, headers and entity or abort the call; the entity stream can not be
+ * replaced.
+ */
+final class TransportRequestContext implements ClientRequestContext {
+
+	private final Client client;
+	private final Configuration configuration;
+	private final Map<String, Object> properties = new HashMap<>();
+	private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+	private URI uri;
+	private String method;
+	private Entity<?> entity;
+	private Response abortResponse;
+
+	private TransportRequestContext(HttpCall call, Client client, Configuration configuration) {
+		this.client = client;
+		this.configuration = configuration;
+		this.uri = call.getTarget().getUri();
+		this.method = call.getMethod();
+		this.entity = call.getEntity();
+		if (call.getHeaders() != null) {
+			for (Map.Entry<String, List<Object>> header : call.getHeaders().entrySet())
+				headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+		}
+	}
+
+	/**
+	 * Applies the request filters registered with the configuration of the call's target in the order of their
+	 * priority.
+	 * @param call the prepared call
+	 * @param client the JAX-RS client the call was created with, null if unknown
+	 * @return the filtered request
+	 */
+	static TransportRequestContext filter(HttpCall call, Client client) {
+		Configuration configuration = call.getTarget().getConfiguration();
+		TransportRequestContext context = new TransportRequestContext(call, client, configuration);
+		if (configuration == null)
+			return context;
+
+		List<ClientRequestFilter> filters = new ArrayList<>();
+		for (Object instance : configuration.getInstances()) {
+			if (instance instanceof ClientRequestFilter)
+				filters.add((ClientRequestFilter) instance);
+		}
+		filters.sort(Comparator.comparingInt(filter -> priority(configuration, filter)));
+		for (ClientRequestFilter filter : filters) {
+			try {
+				filter.filter(context);
+			} catch (IOException e) {
+				throw new ProcessingException("Request filter " + filter.getClass().getName() + " failed", e);
+			}
+			if (context.abortResponse != null)
+				break;
+		}
+		return context;
+	}
+
+	private static int priority(Configuration configuration, ClientRequestFilter filter) {
+		Integer priority = configuration.getContracts(filter.getClass()).get(ClientRequestFilter.class);
+		return priority == null ? Priorities.USER : priority;
+	}
+
+	/**
+	 * @return the response a filter aborted the call with or null if it is sent
+	 */
+	Response getAbortResponse() {
+		return abortResponse;
+	}
+
+	/**
+	 * @return the body to send, null if the call has none
+	 */
+	Entity<?> entity() {
+		return entity;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return properties.containsKey(name) || configuration == null ? properties.get(name) : configuration.getProperty(name);
+	}
+
+	@Override
+	public Collection<String> getPropertyNames() {
+		return Collections.unmodifiableSet(properties.keySet());
+	}
+
+	@Override
+	public void setProperty(String name, Object object) {
+		properties.put(name, object);
+	}
+
+	@Override
+	public void removeProperty(String name) {
+		properties.remove(name);
+	}
+
+	@Override
+	public URI getUri() {
+		return uri;
+	}
+
+	@Override
+	public void setUri(URI uri) {
+		this.uri = uri;
+	}
+
+	@Override
+	public String getMethod() {
+		return method;
+	}
+
+	@Override
+	public void setMethod(String method) {
+		this.method = method;
+	}
+
+	@Override
+	public MultivaluedMap<String, Object> getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getStringHeaders() {
+		MultivaluedMap<String, String> strings = new MultivaluedHashMap<>();
+		for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+			for (Object value : header.getValue())
+				strings.add(header.getKey(), String.valueOf(value));
+		}
+		return strings;
+	}
+
+	@Override
+	public String getHeaderString(String name) {
+		for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+			if (header.getKey().equalsIgnoreCase(name)) {
+				List<String> values = new ArrayList<>();
+				for (Object value : header.getValue())
+					values.add(String.valueOf(value));
+				return String.join(",", values);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Date getDate() {
+		return null;
+	}
+
+	@Override
+	public Locale getLanguage() {
+		return entity == null ? null : entity.getLanguage();
+	}
+
+	@Override
+	public MediaType getMediaType() {
+		String contentType = getHeaderString(HttpHeaders.CONTENT_TYPE);
+		if (contentType != null)
+			return MediaType.valueOf(contentType);
+		return entity == null ? null : entity.getMediaType();
+	}
+
+	@Override
+	public List<MediaType> getAcceptableMediaTypes() {
+		String accept = getHeaderString(HttpHeaders.ACCEPT);
+		if (accept == null)
+			return Collections.singletonList(MediaType.WILDCARD_TYPE);
+		List<MediaType> mediaTypes = new ArrayList<>();
+		for (String mediaType : accept.split(","))
+			mediaTypes.add(MediaType.valueOf(mediaType.trim()));
+		return mediaTypes;
+	}
+
+	@Override
+	public List<Locale> getAcceptableLanguages() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Map<String, Cookie> getCookies() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public boolean hasEntity() {
+		return entity != null;
+	}
+
+	@Override
+	public Object getEntity() {
+		return entity == null ? null : entity.getEntity();
+	}
+
+	@Override
+	public Class<?> getEntityClass() {
+		return entity == null ? null : entity.getEntity().getClass();
+	}
+
+	@Override
+	public Type getEntityType() {
+		return getEntityClass();
+	}
+
+	@Override
+	public void setEntity(Object entity) {
+		setEntity(entity, getEntityAnnotations(), getMediaType());
+	}
+
+	@Override
+	public void setEntity(Object entity, Annotation[] annotations, MediaType mediaType) {
+		if (entity == null) {
+			this.entity = null;
+			return;
+		}
+		String encoding = this.entity == null ? null : this.entity.getEncoding();
+		this.entity = Entity.entity(entity, new Variant(mediaType, getLanguage(), encoding), annotations);
+	}
+
+	@Override
+	public Annotation[] getEntityAnnotations() {
+		return entity == null ? new Annotation[0] : entity.getAnnotations();
+	}
+
+	@Override
+	public OutputStream getEntityStream() {
+		throw new UnsupportedOperationException("The entity stream is not available with the Http2Transport");
+	}
+
+	@Override
+	public void setEntityStream(OutputStream outputStream) {
+		throw new UnsupportedOperationException("The entity stream can not be replaced with the Http2Transport");
+	}
+
+	@Override
+	public Client getClient() {
+		return client;
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return configuration;
+	}
+
+	@Override
+	public void abortWith(Response response) {
+		this.abortResponse = response;
+	}
+}
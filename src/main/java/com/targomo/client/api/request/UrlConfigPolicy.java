@@ -0,0 +1,160 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.util.IOUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Deflater;
+
+/**
+ * How the route, polygon and multigraph requests send their configuration if they use HTTP GET, i.e. as URL parameter
+ * <code>cfg</code>.
+ *
+ * <p>
+ * If the URL would be longer than {@link Builder#maxUrlLength(int)}, the request is sent as POST with the configuration
+ * as body instead, so large configurations do not fail with 414 (URI Too Long) or get truncated by proxies. Requests
+ * that must stay GET, e.g. to be cached by a CDN, can send the configuration compact: deflated and base64url encoded,
+ * marked by the parameter <code>cfgEncoding=deflate</code>. The service has to support this encoding.
+ * </p>
+ */
+@Slf4j
+public final class UrlConfigPolicy {
+
+	/**
+	 * Name of the URL parameter marking a compact configuration.
+	 */
+	public static final String ENCODING_PARAMETER = "cfgEncoding";
+
+	/**
+	 * Value of {@link #ENCODING_PARAMETER} for a deflated, base64url encoded configuration.
+	 */
+	public static final String DEFLATE_ENCODING = "deflate";
+
+	/**
+	 * POST above 8000 characters, the smallest request line limit of common servers and proxies, and URL encoded
+	 * configurations.
+	 */
+	public static final UrlConfigPolicy DEFAULT = builder().build();
+
+	private static final String CONFIG_PARAMETER = "cfg";
+
+	private final int maxUrlLength;
+	private final boolean compact;
+
+	private UrlConfigPolicy(Builder builder) {
+		this.maxUrlLength = builder.maxUrlLength;
+		this.compact = builder.compact;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the maximum length of an URL before a request is sent as POST
+	 */
+	public int getMaxUrlLength() {
+		return maxUrlLength;
+	}
+
+	/**
+	 * @return true if configurations are sent deflated and base64url encoded
+	 */
+	public boolean isCompact() {
+		return compact;
+	}
+
+	/**
+	 * @param target the target of the request without configuration
+	 * @param headers the headers of the request
+	 * @param config the JSON configuration of the request
+	 * @return GET call with the configuration as URL parameter or POST call with the configuration as body if the
+	 * URL would be too long
+	 */
+	HttpCall call(WebTarget target, MultivaluedMap<String, Object> headers, String config) {
+		URI uri = target.getUri();
+		int baseLength = uri == null ? 0 : uri.toString().length() + CONFIG_PARAMETER.length() + 2;
+
+		// URL encoding never shortens the configuration, so it is not encoded if it would be too long anyway
+		if (!compact && baseLength + config.length() > maxUrlLength)
+			return post(target, headers, config);
+
+		String encoded = compact ? deflate(config) : IOUtil.encode(config);
+		if (compact)
+			baseLength += ENCODING_PARAMETER.length() + DEFLATE_ENCODING.length() + 2;
+		if (baseLength + encoded.length() > maxUrlLength)
+			return post(target, headers, config);
+
+		WebTarget get = target.queryParam(CONFIG_PARAMETER, encoded);
+		if (compact)
+			get = get.queryParam(ENCODING_PARAMETER, DEFLATE_ENCODING);
+		return HttpCall.get(get, headers);
+	}
+
+	private HttpCall post(WebTarget target, MultivaluedMap<String, Object> headers, String config) {
+		log.debug("Configuration of {} characters exceeds the URL length limit, sending it as POST to '{}'",
+				config.length(), target.getUri());
+		return HttpCall.post(target, headers, Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
+	}
+
+	static String deflate(String config) {
+		byte[] input = config.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 64);
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished())
+				out.write(buffer, 0, deflater.deflate(buffer));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Builder for {@link UrlConfigPolicy}.
+	 */
+	public static class Builder {
+
+		private int maxUrlLength = 8000;
+		private boolean compact = false;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maxUrlLength maximum length of the URL including the configuration, longer requests are sent as
+		 *                     POST, default 8000; <code>Integer.MAX_VALUE</code> to always use GET
+		 * @return this builder
+		 */
+		public Builder maxUrlLength(int maxUrlLength) {
+			if (maxUrlLength <= 0)
+				throw new IllegalArgumentException("maxUrlLength must be positive but was " + maxUrlLength);
+			this.maxUrlLength = maxUrlLength;
+			return this;
+		}
+
+		/**
+		 * @param compact if true, configurations are sent deflated and base64url encoded, which is usually much
+		 *                shorter than URL encoded JSON; the service has to support it, default false
+		 * @return this builder
+		 */
+		public Builder compact(boolean compact) {
+			this.compact = compact;
+			return this;
+		}
+
+		public UrlConfigPolicy build() {
+			return new UrlConfigPolicy(this);
+		}
+	}
+}
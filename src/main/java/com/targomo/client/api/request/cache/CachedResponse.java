@@ -0,0 +1,150 @@
+package com.targomo.client.api.request.cache;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A buffered HTTP response as stored in a {@link ResponseCache}.
+ *
+ * <p>
+ * The body is held either in a byte array or in a read-only {@link ByteBuffer}, e.g. a slice of a memory-mapped
+ * file. {@link #openBody()} reads it without copying in both cases.
+ * </p>
+ */
+public final class CachedResponse {
+
+	private static final int OVERHEAD_BYTES = 96;
+
+	private final int status;
+	private final String mediaType;
+	private final Map<String, List<String>> headers;
+	private final byte[] body;
+	private final ByteBuffer bodyBuffer;
+	private final long createdAtMillis;
+
+	/**
+	 * @param status the HTTP status code
+	 * @param mediaType the content type, may be null
+	 * @param headers the response headers
+	 * @param body the response body
+	 * @param createdAtMillis the time the response was received
+	 */
+	public CachedResponse(int status, String mediaType, Map<String, List<String>> headers, byte[] body, long createdAtMillis) {
+		this(status, mediaType, headers, body, null, createdAtMillis);
+	}
+
+	/**
+	 * @param status the HTTP status code
+	 * @param mediaType the content type, may be null
+	 * @param headers the response headers
+	 * @param body the response body from its position to its limit, must not be modified afterwards
+	 * @param createdAtMillis the time the response was received
+	 */
+	public CachedResponse(int status, String mediaType, Map<String, List<String>> headers, ByteBuffer body, long createdAtMillis) {
+		this(status, mediaType, headers, null, body.slice().asReadOnlyBuffer(), createdAtMillis);
+	}
+
+	private CachedResponse(int status, String mediaType, Map<String, List<String>> headers, byte[] body,
+						   ByteBuffer bodyBuffer, long createdAtMillis) {
+		this.status = status;
+		this.mediaType = mediaType;
+		this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(headers);
+		this.body = body;
+		this.bodyBuffer = bodyBuffer;
+		this.createdAtMillis = createdAtMillis;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return the body, must not be modified; copied if the body is held in a buffer
+	 */
+	public byte[] getBody() {
+		if (body != null)
+			return body;
+		byte[] copy = new byte[bodyBuffer.remaining()];
+		bodyBuffer.duplicate().get(copy);
+		return copy;
+	}
+
+	/**
+	 * @return length of the body in bytes
+	 */
+	public int getBodyLength() {
+		return body != null ? body.length : bodyBuffer.remaining();
+	}
+
+	/**
+	 * @return a stream reading the body without copying it
+	 */
+	public InputStream openBody() {
+		return new ByteBufferInputStream(body != null ? ByteBuffer.wrap(body) : bodyBuffer.duplicate());
+	}
+
+	public long getCreatedAtMillis() {
+		return createdAtMillis;
+	}
+
+	/**
+	 * @return estimated memory used by this response in bytes
+	 */
+	public long estimateBytes() {
+		long bytes = OVERHEAD_BYTES + getBodyLength() + (mediaType == null ? 0 : 2L * mediaType.length());
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			bytes += 2L * header.getKey().length();
+			for (String value : header.getValue())
+				bytes += value == null ? 0 : 2L * value.length();
+		}
+		return bytes;
+	}
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int read = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, read);
+			return read;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,736 @@
+package com.targomo.client.api.request.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link ResponseCache} in append-only, memory-mapped segment files, so cached responses survive a restart of the JVM.
+ *
+ * <p>
+ * Responses are appended to the newest segment file of the cache directory; a full segment is sealed and a new one
+ * started. Bodies of cache hits are slices of the mapped segments and are read by the parsers without copying them
+ * into the heap, unless they are stored compressed. The index of all responses is kept in memory and written to the
+ * index file by {@link #flush()} and {@link #close()}; responses appended after the last flush are recovered by
+ * scanning the segments when the cache is opened, incomplete or corrupt records are skipped.
+ * </p>
+ *
+ * <p>
+ * If the segments take more than the maximum size, the oldest segment is compacted: if less than half of it is still
+ * live, the live responses are copied to the newest segment, otherwise they are evicted. Either way the segment file
+ * is deleted afterwards.
+ * </p>
+ *
+ * <p>
+ * Only the SHA-256 digest of a key is written to the segments and the index file. The keys contain the URI and the
+ * headers of the requests, so storing them would persist the service keys and credentials of the requests.
+ * </p>
+ *
+ * <p>
+ * One cache directory must only be used by one instance at a time. Like {@link InMemoryResponseCache}, the time to
+ * live can be configured per endpoint.
+ * </p>
+ */
+@Slf4j
+public final class DiskResponseCache implements ResponseCache, Closeable {
+
+	private static final int RECORD_MAGIC = 0x54524331;
+	private static final int INDEX_MAGIC = 0x54524958;
+	private static final int INDEX_VERSION = 1;
+	// magic and length before, checksum after the payload of a record
+	private static final int RECORD_FRAME_BYTES = 12;
+	private static final byte FLAG_COMPRESSED = 1;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+	private static final String INDEX_FILE = "index";
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final long maxBytes;
+	private final boolean compressBodies;
+	private final TimeToLive ttl;
+	private final Clock clock;
+
+	private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+	// by the digests of the keys
+	private final Map<String, Location> index = new HashMap<>();
+	private Segment active;
+	private boolean closed = false;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+	private final LongAdder compactions = new LongAdder();
+
+	private DiskResponseCache(Builder builder) throws IOException {
+		this.directory = builder.directory;
+		this.segmentBytes = builder.segmentBytes;
+		this.maxBytes = builder.maxBytes;
+		this.compressBodies = builder.compressBodies;
+		this.ttl = new TimeToLive(builder.defaultTtl.toMillis(), builder.ttlMillisByEndpoint);
+		this.clock = builder.clock;
+
+		Files.createDirectories(directory);
+		open();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public synchronized CachedResponse get(String key) {
+		String digest = digest(key);
+		Location location = closed ? null : index.get(digest);
+		if (location != null && location.expiresAtMillis <= clock.millis()) {
+			remove(digest);
+			expirations.increment();
+			location = null;
+		}
+		if (location == null) {
+			misses.increment();
+			return null;
+		}
+		try {
+			CachedResponse response = read(location);
+			hits.increment();
+			return response;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Could not read cached response from {}, removing it", location.segment.file, e);
+			remove(digest);
+			misses.increment();
+			return null;
+		}
+	}
+
+	@Override
+	public synchronized void put(String key, String endpoint, CachedResponse response) {
+		long ttlMillis = ttl.millis(endpoint);
+		if (closed || ttlMillis <= 0)
+			return;
+		try {
+			long now = clock.millis();
+			String digest = digest(key);
+			byte[] payload = encode(digest, response, now + ttlMillis);
+			byte[] body = compressBodies ? gzip(response) : null;
+			int bodyLength = body != null ? body.length : response.getBodyLength();
+			int recordBytes = RECORD_FRAME_BYTES + payload.length + 4 + bodyLength;
+			if (recordBytes > segmentBytes)
+				return;
+
+			if (active.position + recordBytes > segmentBytes)
+				roll();
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			ByteBuffer out = active.buffer.duplicate();
+			out.position(active.position + 8);
+			out.put(payload);
+			out.putInt(bodyLength);
+			crc.update(ByteBuffer.allocate(4).putInt(0, bodyLength).array());
+			ByteBuffer source = body != null ? ByteBuffer.wrap(body) : ByteBuffer.wrap(response.getBody());
+			crc.update(source.duplicate());
+			out.put(source);
+			out.putInt((int) crc.getValue());
+			out.putInt(active.position + 4, recordBytes - RECORD_FRAME_BYTES);
+			// written last, so records torn by a crash are not recognized
+			out.putInt(active.position, RECORD_MAGIC);
+
+			add(digest, new Location(active, active.position, recordBytes, now + ttlMillis));
+			active.position += recordBytes;
+			enforceMaxBytes();
+		} catch (IOException e) {
+			log.warn("Could not write response to the cache in {}", directory, e);
+		}
+	}
+
+	@Override
+	public long getMaxBodyBytes() {
+		// compressed bodies may fit into a segment even if the uncompressed one does not
+		return compressBodies ? Long.MAX_VALUE : segmentBytes;
+	}
+
+	@Override
+	public synchronized void clear() {
+		if (closed)
+			return;
+		index.clear();
+		for (Segment segment : new ArrayList<>(segments.values()))
+			delete(segment);
+		try {
+			Files.deleteIfExists(directory.resolve(INDEX_FILE));
+			active = createSegment(1);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not create a cache segment in " + directory, e);
+		}
+	}
+
+	/**
+	 * Forces the segments to the disk and writes the index file, so the next start does not need to scan the segments.
+	 * @throws IOException if the index file can not be written
+	 */
+	public synchronized void flush() throws IOException {
+		if (closed)
+			return;
+		for (Segment segment : segments.values())
+			segment.buffer.force();
+		writeIndex();
+	}
+
+	/**
+	 * Flushes the cache, afterwards it neither returns nor stores responses.
+	 * @throws IOException if the index file can not be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		flush();
+		closed = true;
+		index.clear();
+		segments.clear();
+		active = null;
+	}
+
+	/**
+	 * @return number of requests answered from the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of requests not found in the cache, including expired ones
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of responses evicted to stay within the maximum size
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return number of responses removed because their time to live was over
+	 */
+	public long getExpirations() {
+		return expirations.sum();
+	}
+
+	/**
+	 * @return number of segments compacted to stay within the maximum size
+	 */
+	public long getCompactions() {
+		return compactions.sum();
+	}
+
+	/**
+	 * @return number of cached responses
+	 */
+	public synchronized int getSize() {
+		return index.size();
+	}
+
+	/**
+	 * @return size of all segment files in bytes
+	 */
+	public synchronized long getBytes() {
+		return (long) segments.size() * segmentBytes;
+	}
+
+	private void open() throws IOException {
+		List<Integer> ids = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				try {
+					ids.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+				} catch (NumberFormatException e) {
+					log.warn("Ignoring unexpected file {} in the cache directory", file);
+				}
+			}
+		}
+		ids.sort(null);
+		for (Integer id : ids)
+			segments.put(id, mapSegment(id, segmentFile(id)));
+
+		Map<Integer, Integer> indexedPositions = readIndex();
+		for (Segment segment : segments.values())
+			scan(segment, indexedPositions.getOrDefault(segment.id, 0));
+
+		active = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+		enforceMaxBytes();
+	}
+
+	/**
+	 * Reads the index file into the index.
+	 * @return the positions of the segments up to which the index file covers them
+	 */
+	private Map<Integer, Integer> readIndex() {
+		Path file = directory.resolve(INDEX_FILE);
+		Map<Integer, Integer> positions = new HashMap<>();
+		if (!Files.exists(file))
+			return positions;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION)
+				throw new IOException("Unknown index file format");
+			int segmentCount = in.readInt();
+			for (int i = 0; i < segmentCount; i++) {
+				int id = in.readInt();
+				int position = in.readInt();
+				Segment segment = segments.get(id);
+				if (segment != null && position <= segmentBytes)
+					positions.put(id, position);
+			}
+			int entryCount = in.readInt();
+			for (int i = 0; i < entryCount; i++) {
+				String digest = in.readUTF();
+				int id = in.readInt();
+				int offset = in.readInt();
+				int recordBytes = in.readInt();
+				long expiresAtMillis = in.readLong();
+				Segment segment = segments.get(id);
+				if (segment != null && positions.containsKey(id) && offset + recordBytes <= positions.get(id))
+					add(digest, new Location(segment, offset, recordBytes, expiresAtMillis));
+			}
+		} catch (IOException e) {
+			log.warn("Could not read the cache index {}, scanning the segments", file, e);
+			index.clear();
+			for (Segment segment : segments.values())
+				segment.liveBytes = 0;
+			positions.clear();
+		}
+		return positions;
+	}
+
+	private void writeIndex() throws IOException {
+		Path file = directory.resolve(INDEX_FILE);
+		Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(INDEX_VERSION);
+			out.writeInt(segments.size());
+			for (Segment segment : segments.values()) {
+				out.writeInt(segment.id);
+				out.writeInt(segment.position);
+			}
+			out.writeInt(index.size());
+			for (Map.Entry<String, Location> entry : index.entrySet()) {
+				Location location = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeInt(location.segment.id);
+				out.writeInt(location.offset);
+				out.writeInt(location.recordBytes);
+				out.writeLong(location.expiresAtMillis);
+			}
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Adds the valid records of the segment from the position on to the index.
+	 */
+	private void scan(Segment segment, int position) {
+		ByteBuffer buffer = segment.buffer.duplicate();
+		while (position + RECORD_FRAME_BYTES <= segmentBytes && buffer.getInt(position) == RECORD_MAGIC) {
+			int payloadBytes = buffer.getInt(position + 4);
+			if (payloadBytes < 0 || position + RECORD_FRAME_BYTES + (long) payloadBytes > segmentBytes)
+				break;
+			ByteBuffer payload = buffer.duplicate();
+			payload.limit(position + 8 + payloadBytes).position(position + 8);
+			CRC32 crc = new CRC32();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != buffer.getInt(position + 8 + payloadBytes)) {
+				log.warn("Skipping the corrupt end of cache segment {} at {}", segment.file, position);
+				break;
+			}
+			long expiresAtMillis = payload.getLong(position + 16);
+			String digest = readString(payload, position + 29);
+			add(digest, new Location(segment, position, RECORD_FRAME_BYTES + payloadBytes, expiresAtMillis));
+			position += RECORD_FRAME_BYTES + payloadBytes;
+		}
+		segment.position = Math.max(segment.position, position);
+	}
+
+	private CachedResponse read(Location location) throws IOException {
+		ByteBuffer record = location.segment.buffer.duplicate();
+		record.position(location.offset + 8);
+		long createdAtMillis = record.getLong();
+		record.getLong();
+		int status = record.getInt();
+		byte flags = record.get();
+		skipString(record);
+		String mediaType = readString(record);
+		int headerCount = record.getInt();
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (int i = 0; i < headerCount; i++) {
+			String name = readString(record);
+			int valueCount = record.getInt();
+			List<String> values = new ArrayList<>(valueCount);
+			for (int j = 0; j < valueCount; j++)
+				values.add(readString(record));
+			headers.put(name, values);
+		}
+		int bodyLength = record.getInt();
+		record.limit(record.position() + bodyLength);
+
+		if ((flags & FLAG_COMPRESSED) == 0)
+			return new CachedResponse(status, mediaType, headers, record, createdAtMillis);
+		try (InputStream in = new GZIPInputStream(new CachedResponse(status, null, null, record, 0).openBody())) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream(bodyLength * 4);
+			byte[] chunk = new byte[8192];
+			for (int read; (read = in.read(chunk)) != -1; )
+				body.write(chunk, 0, read);
+			return new CachedResponse(status, mediaType, headers, body.toByteArray(), createdAtMillis);
+		}
+	}
+
+	/**
+	 * Encodes the record up to the body: created and expiry time, status, flags, key digest, media type and headers.
+	 */
+	private byte[] encode(String digest, CachedResponse response, long expiresAtMillis) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeLong(response.getCreatedAtMillis());
+		out.writeLong(expiresAtMillis);
+		out.writeInt(response.getStatus());
+		out.writeByte(compressBodies ? FLAG_COMPRESSED : 0);
+		writeString(out, digest);
+		writeString(out, response.getMediaType());
+		out.writeInt(response.getHeaders().size());
+		for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+			writeString(out, header.getKey());
+			out.writeInt(header.getValue().size());
+			for (String value : header.getValue())
+				writeString(out, value);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return the SHA-256 digest of the key as hex string
+	 */
+	private static String digest(String key) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError("SHA-256 is unknown", e);
+		}
+		StringBuilder hex = new StringBuilder(64);
+		for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8)))
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return hex.toString();
+	}
+
+	private static byte[] gzip(CachedResponse response) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.getBodyLength() / 4 + 64);
+		try (InputStream in = response.openBody(); OutputStream out = new GZIPOutputStream(bytes)) {
+			byte[] chunk = new byte[8192];
+			for (int read; (read = in.read(chunk)) != -1; )
+				out.write(chunk, 0, read);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0)
+			return null;
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readString(ByteBuffer buffer, int position) {
+		ByteBuffer string = buffer.duplicate();
+		string.position(position);
+		return readString(string);
+	}
+
+	private static void skipString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length > 0)
+			buffer.position(buffer.position() + length);
+	}
+
+	private void add(String digest, Location location) {
+		Location previous = index.put(digest, location);
+		if (previous != null)
+			previous.segment.liveBytes -= previous.recordBytes;
+		location.segment.liveBytes += location.recordBytes;
+	}
+
+	private void remove(String digest) {
+		Location removed = index.remove(digest);
+		if (removed != null)
+			removed.segment.liveBytes -= removed.recordBytes;
+	}
+
+	private void roll() throws IOException {
+		active = createSegment(active.id + 1);
+	}
+
+	private void enforceMaxBytes() throws IOException {
+		while ((long) segments.size() * segmentBytes > maxBytes && segments.size() > 1)
+			compact(segments.firstEntry().getValue());
+	}
+
+	/**
+	 * Copies the live responses of the sealed segment to the active segment if less than half of it is live,
+	 * otherwise evicts them, and deletes the segment.
+	 */
+	private void compact(Segment segment) throws IOException {
+		List<Map.Entry<String, Location>> live = new ArrayList<>();
+		long now = clock.millis();
+		for (Iterator<Map.Entry<String, Location>> entries = index.entrySet().iterator(); entries.hasNext(); ) {
+			Map.Entry<String, Location> entry = entries.next();
+			if (entry.getValue().segment != segment)
+				continue;
+			if (entry.getValue().expiresAtMillis <= now) {
+				entries.remove();
+				segment.liveBytes -= entry.getValue().recordBytes;
+				expirations.increment();
+			} else {
+				live.add(entry);
+			}
+		}
+
+		boolean copy = 2 * segment.liveBytes <= segmentBytes;
+		for (Map.Entry<String, Location> entry : live) {
+			Location location = entry.getValue();
+			if (!copy) {
+				index.remove(entry.getKey());
+				evictions.increment();
+				continue;
+			}
+			if (active.position + location.recordBytes > segmentBytes)
+				roll();
+			ByteBuffer source = segment.buffer.duplicate();
+			source.limit(location.offset + location.recordBytes).position(location.offset);
+			ByteBuffer target = active.buffer.duplicate();
+			target.position(active.position);
+			target.put(source);
+			add(entry.getKey(), new Location(active, active.position, location.recordBytes, location.expiresAtMillis));
+			active.position += location.recordBytes;
+		}
+		compactions.increment();
+		delete(segment);
+	}
+
+	private Segment createSegment(int id) throws IOException {
+		Segment segment = mapSegment(id, segmentFile(id));
+		segments.put(id, segment);
+		return segment;
+	}
+
+	private Segment mapSegment(int id, Path file) throws IOException {
+		try (RandomAccessFile access = new RandomAccessFile(file.toFile(), "rw")) {
+			if (access.length() != segmentBytes)
+				access.setLength(segmentBytes);
+			// the mapping stays valid after the file is closed
+			MappedByteBuffer buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+			return new Segment(id, file, buffer);
+		}
+	}
+
+	private void delete(Segment segment) {
+		segments.remove(segment.id);
+		try {
+			Files.deleteIfExists(segment.file);
+		} catch (IOException e) {
+			// e.g. on Windows, where mapped files can not be deleted
+			log.warn("Could not delete cache segment {}", segment.file, e);
+			segment.file.toFile().deleteOnExit();
+		}
+	}
+
+	private Path segmentFile(int id) {
+		return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+	}
+
+	private static final class Segment {
+
+		private final int id;
+		private final Path file;
+		private final MappedByteBuffer buffer;
+		private int position = 0;
+		private long liveBytes = 0;
+
+		private Segment(int id, Path file, MappedByteBuffer buffer) {
+			this.id = id;
+			this.file = file;
+			this.buffer = buffer;
+		}
+	}
+
+	private static final class Location {
+
+		private final Segment segment;
+		private final int offset;
+		private final int recordBytes;
+		private final long expiresAtMillis;
+
+		private Location(Segment segment, int offset, int recordBytes, long expiresAtMillis) {
+			this.segment = segment;
+			this.offset = offset;
+			this.recordBytes = recordBytes;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+
+	/**
+	 * Builder for a {@link DiskResponseCache}.
+	 */
+	public static class Builder {
+
+		private Path directory;
+		private int segmentBytes = 16 * 1024 * 1024;
+		private long maxBytes = 256L * 1024 * 1024;
+		private boolean compressBodies = false;
+		private Duration defaultTtl = Duration.ofDays(1);
+		private final Map<String, Long> ttlMillisByEndpoint = new LinkedHashMap<>();
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param directory directory of the segment and index files, created if it does not exist
+		 * @return this builder
+		 */
+		public Builder directory(Path directory) {
+			if (directory == null)
+				throw new IllegalArgumentException("directory must not be null");
+			this.directory = directory;
+			return this;
+		}
+
+		/**
+		 * @param segmentBytes size of one segment file in bytes, bounds the size of a cached response, default 16 MiB;
+		 *                     existing segments of another size are resized
+		 * @return this builder
+		 */
+		public Builder segmentBytes(int segmentBytes) {
+			if (segmentBytes < 1024)
+				throw new IllegalArgumentException("segmentBytes must be at least 1024 but was " + segmentBytes);
+			this.segmentBytes = segmentBytes;
+			return this;
+		}
+
+		/**
+		 * @param maxBytes maximum size of all segment files in bytes, at least two segments, default 256 MiB
+		 * @return this builder
+		 */
+		public Builder maxBytes(long maxBytes) {
+			if (maxBytes < 1)
+				throw new IllegalArgumentException("maxBytes must be greater than 0 but was " + maxBytes);
+			this.maxBytes = maxBytes;
+			return this;
+		}
+
+		/**
+		 * @param compressBodies if true, bodies are stored gzip compressed and decompressed into the heap when read,
+		 *                       default false (bodies are read directly from the mapped segments)
+		 * @return this builder
+		 */
+		public Builder compressBodies(boolean compressBodies) {
+			this.compressBodies = compressBodies;
+			return this;
+		}
+
+		/**
+		 * @param defaultTtl time to live of responses of endpoints without own time to live, default 1 day
+		 * @return this builder
+		 */
+		public Builder defaultTtl(Duration defaultTtl) {
+			if (defaultTtl == null || defaultTtl.isNegative())
+				throw new IllegalArgumentException("defaultTtl must not be null or negative");
+			this.defaultTtl = defaultTtl;
+			return this;
+		}
+
+		/**
+		 * @param endpoint part of the request path, e.g. <code>v1/time</code>
+		 * @param ttl time to live of responses of this endpoint, zero disables caching of the endpoint
+		 * @return this builder
+		 */
+		public Builder ttl(String endpoint, Duration ttl) {
+			if (endpoint == null || ttl == null || ttl.isNegative())
+				throw new IllegalArgumentException("endpoint and ttl must not be null, ttl must not be negative");
+			this.ttlMillisByEndpoint.put(endpoint, ttl.toMillis());
+			return this;
+		}
+
+		/**
+		 * @param clock clock used for the time to live, default the system clock
+		 * @return this builder
+		 */
+		public Builder clock(Clock clock) {
+			if (clock == null)
+				throw new IllegalArgumentException("clock must not be null");
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * Opens the cache and loads the responses stored in the directory.
+		 * @return the cache
+		 * @throws IOException if the directory or the segments can not be opened
+		 */
+		public DiskResponseCache build() throws IOException {
+			if (directory == null)
+				throw new IllegalArgumentException("directory must be set");
+			if (maxBytes < 2L * segmentBytes)
+				throw new IllegalArgumentException("maxBytes must be at least twice segmentBytes");
+			return new DiskResponseCache(this);
+		}
+	}
+}
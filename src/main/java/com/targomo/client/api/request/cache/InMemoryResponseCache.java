@@ -0,0 +1,214 @@
+package com.targomo.client.api.request.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ResponseCache} in the heap with least-recently-used eviction, bounded by the estimated size of the cached
+ * responses in bytes.
+ *
+ * <p>
+ * The time to live can be configured per endpoint. An endpoint matches if the path of the request contains it,
+ * e.g. <code>v1/polygon</code>; the first matching endpoint in the order of configuration wins, requests to other
+ * endpoints use the default time to live.
+ * </p>
+ */
+public final class InMemoryResponseCache implements ResponseCache {
+
+	private final long maxBytes;
+	private final TimeToLive ttl;
+	private final Clock clock;
+
+	// access ordered, i.e. the first entry is the least recently used one
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	private InMemoryResponseCache(Builder builder) {
+		this.maxBytes = builder.maxBytes;
+		this.ttl = new TimeToLive(builder.defaultTtl.toMillis(), builder.ttlMillisByEndpoint);
+		this.clock = builder.clock;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public synchronized CachedResponse get(String key) {
+		Entry entry = entries.get(key);
+		if (entry != null && entry.expiresAtMillis <= clock.millis()) {
+			remove(key);
+			expirations.increment();
+			entry = null;
+		}
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.response;
+	}
+
+	@Override
+	public synchronized void put(String key, String endpoint, CachedResponse response) {
+		long ttlMillis = ttl.millis(endpoint);
+		long weight = response.estimateBytes() + 2L * key.length();
+		if (ttlMillis <= 0 || weight > maxBytes)
+			return;
+
+		remove(key);
+		entries.put(key, new Entry(response, clock.millis() + ttlMillis, weight));
+		bytes += weight;
+
+		Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+		while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+			bytes -= leastRecentlyUsed.next().weight;
+			leastRecentlyUsed.remove();
+			evictions.increment();
+		}
+	}
+
+	@Override
+	public long getMaxBodyBytes() {
+		return maxBytes;
+	}
+
+	@Override
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * @return number of requests answered from the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of requests not found in the cache, including expired ones
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of responses removed to stay within the maximum size
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return number of responses removed because their time to live was over
+	 */
+	public long getExpirations() {
+		return expirations.sum();
+	}
+
+	/**
+	 * @return number of cached responses
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+
+	/**
+	 * @return estimated size of all cached responses in bytes
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	private void remove(String key) {
+		Entry removed = entries.remove(key);
+		if (removed != null)
+			bytes -= removed.weight;
+	}
+
+	private static final class Entry {
+
+		private final CachedResponse response;
+		private final long expiresAtMillis;
+		private final long weight;
+
+		private Entry(CachedResponse response, long expiresAtMillis, long weight) {
+			this.response = response;
+			this.expiresAtMillis = expiresAtMillis;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Builder for an {@link InMemoryResponseCache}.
+	 */
+	public static class Builder {
+
+		private long maxBytes = 64L * 1024 * 1024;
+		private Duration defaultTtl = Duration.ofMinutes(10);
+		private final Map<String, Long> ttlMillisByEndpoint = new LinkedHashMap<>();
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maxBytes maximum estimated size of all cached responses in bytes, default 64 MiB
+		 * @return this builder
+		 */
+		public Builder maxBytes(long maxBytes) {
+			if (maxBytes < 1)
+				throw new IllegalArgumentException("maxBytes must be greater than 0 but was " + maxBytes);
+			this.maxBytes = maxBytes;
+			return this;
+		}
+
+		/**
+		 * @param defaultTtl time to live of responses of endpoints without own time to live, default 10 minutes
+		 * @return this builder
+		 */
+		public Builder defaultTtl(Duration defaultTtl) {
+			if (defaultTtl == null || defaultTtl.isNegative())
+				throw new IllegalArgumentException("defaultTtl must not be null or negative");
+			this.defaultTtl = defaultTtl;
+			return this;
+		}
+
+		/**
+		 * @param endpoint part of the request path, e.g. <code>v1/polygon</code>
+		 * @param ttl time to live of responses of this endpoint, zero disables caching of the endpoint
+		 * @return this builder
+		 */
+		public Builder ttl(String endpoint, Duration ttl) {
+			if (endpoint == null || ttl == null || ttl.isNegative())
+				throw new IllegalArgumentException("endpoint and ttl must not be null, ttl must not be negative");
+			this.ttlMillisByEndpoint.put(endpoint, ttl.toMillis());
+			return this;
+		}
+
+		/**
+		 * @param clock clock used for the time to live, default the system clock
+		 * @return this builder
+		 */
+		public Builder clock(Clock clock) {
+			if (clock == null)
+				throw new IllegalArgumentException("clock must not be null");
+			this.clock = clock;
+			return this;
+		}
+
+		public InMemoryResponseCache build() {
+			return new InMemoryResponseCache(this);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.targomo.client.api.request.cache;
+
+/**
+ * Cache of HTTP responses of the request classes, configured on the
+ * {@link com.targomo.client.api.request.RequestExecutor}.
+ *
+ * <p>
+ * Only successful responses are cached. The key is built from method, URI (service URL, endpoint and query
+ * parameters including the request configuration for GET requests), headers and the hash of the request body, so it
+ * changes whenever the generated configuration changes. Requests with
+ * {@link com.targomo.client.api.TravelOptions#isForceRecalculate()} are not answered from the cache and responses of
+ * requests without {@link com.targomo.client.api.TravelOptions#isCacheResult()} are not stored.
+ * </p>
+ *
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ */
+public interface ResponseCache {
+
+	/**
+	 * @param key the key of the request
+	 * @return the cached response or null if there is none or it is expired
+	 */
+	CachedResponse get(String key);
+
+	/**
+	 * @param key the key of the request
+	 * @param endpoint the path of the request URI, e.g. to choose the time to live
+	 * @param response the response to cache
+	 */
+	void put(String key, String endpoint, CachedResponse response);
+
+	/**
+	 * @return size in bytes of the largest body the cache can store, larger responses are not buffered to be stored
+	 */
+	default long getMaxBodyBytes() {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Removes all cached responses.
+	 */
+	void clear();
+}
@@ -0,0 +1,55 @@
+package com.targomo.client.api.request.cache;
+
+/**
+ * Two {@link ResponseCache}s used as one, e.g. an {@link InMemoryResponseCache} in front of a
+ * {@link DiskResponseCache}: responses are stored in both and looked up in the first one before the second one.
+ *
+ * <p>
+ * Hits of the second cache are not copied to the first one, so responses of a previous run are served from the
+ * second cache directly until they are stored again.
+ * </p>
+ */
+public final class TieredResponseCache implements ResponseCache {
+
+	private final ResponseCache first;
+	private final ResponseCache second;
+
+	private TieredResponseCache(ResponseCache first, ResponseCache second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * @param first the cache looked up first, usually the faster one
+	 * @param second the cache looked up if the first one has no response, usually the persistent one
+	 * @return the combined cache
+	 */
+	public static TieredResponseCache of(ResponseCache first, ResponseCache second) {
+		if (first == null || second == null)
+			throw new IllegalArgumentException("first and second cache must not be null");
+		return new TieredResponseCache(first, second);
+	}
+
+	@Override
+	public CachedResponse get(String key) {
+		CachedResponse response = first.get(key);
+		return response != null ? response : second.get(key);
+	}
+
+	@Override
+	public void put(String key, String endpoint, CachedResponse response) {
+		first.put(key, endpoint, response);
+		second.put(key, endpoint, response);
+	}
+
+	@Override
+	public long getMaxBodyBytes() {
+		return Math.max(first.getMaxBodyBytes(), second.getMaxBodyBytes());
+	}
+
+	@Override
+	public void clear() {
+		first.clear();
+		second.clear();
+	}
+}
@@ -0,0 +1,34 @@
+package com.targomo.client.api.request.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time to live of cached responses per endpoint. An endpoint matches if the path of the request contains it, e.g.
+ * <code>v1/polygon</code>; the first matching endpoint in the order of configuration wins, requests to other
+ * endpoints use the default time to live.
+ */
+final class TimeToLive {
+
+	private final long defaultMillis;
+	private final Map<String, Long> millisByEndpoint;
+
+	TimeToLive(long defaultMillis, Map<String, Long> millisByEndpoint) {
+		this.defaultMillis = defaultMillis;
+		this.millisByEndpoint = new LinkedHashMap<>(millisByEndpoint);
+	}
+
+	/**
+	 * @param endpoint the path of the request, may be null
+	 * @return the time to live in milliseconds, zero if responses of the endpoint must not be cached
+	 */
+	long millis(String endpoint) {
+		if (endpoint != null) {
+			for (Map.Entry<String, Long> ttl : millisByEndpoint.entrySet()) {
+				if (endpoint.contains(ttl.getKey()))
+					return ttl.getValue();
+			}
+		}
+		return defaultMillis;
+	}
+}
@@ -1,8 +1,8 @@
 package com.targomo.client.api.request.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.json.JsonMappers;
 
 /**
  * Parse TravelOptions into JSON strings that can be used when calling client methods.
@@ -26,7 +26,7 @@ public final class JacksonRequestConfigurator {
 	public static String getConfig(final TravelOptions travelOptions) throws TargomoClientException {
 
 		try {
-			return new ObjectMapper().writer().writeValueAsString(travelOptions);
+			return JsonMappers.writer().writeValueAsString(travelOptions);
 		}
 		catch (Exception ex) {
 
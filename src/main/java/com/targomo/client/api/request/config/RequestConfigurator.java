@@ -1,6 +1,8 @@
 package com.targomo.client.api.request.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.enums.TravelType;
@@ -8,6 +10,7 @@ import com.targomo.client.api.exception.TargomoClientException;
 import com.targomo.client.api.geo.AbstractGeometry;
 import com.targomo.client.api.geo.Coordinate;
 import com.targomo.client.api.geo.DefaultSourceAddress;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.pojo.AggregationConfiguration;
 import com.targomo.client.api.pojo.AggregationInputParameters;
 import com.targomo.client.api.pojo.Geometry;
@@ -20,6 +23,11 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -28,8 +36,8 @@ import static com.targomo.client.Constants.*;
 /**
  * Parse TravelOptions into JSON strings that can be used when calling client methods.
  *
- * Targets are generated using StringBuilders for faster generation.
- * Polygon, sources array and other properties are created as JSONObjects, then appended as Strings.
+ * Sources and targets are written with a streaming JSON generator, see {@link StreamingConfig}.
+ * Polygon, source objects and other properties are created as JSONObjects, then appended as Strings.
  *
  */
 @Slf4j
@@ -46,9 +54,28 @@ public final class RequestConfigurator {
 	 */
 	public static String getConfig(final TravelOptions travelOptions) throws TargomoClientException {
 	    log.trace("Creating configuration...");
-	    String config = getCommonConfig(travelOptions);
+	    StringWriter config = new StringWriter();
+	    try {
+	        getCommonConfig(travelOptions).write(config);
+	    } catch (TargomoClientException e) {
+	        throw e;
+	    } catch (Exception e) {
+	        throw new TargomoClientException("Could not generate targomo config object", e);
+	    }
 	    log.trace("Configuration created.");
-	    return config;
+	    return config.toString();
+    }
+
+	/**
+	 * Same configuration as {@link #getConfig(TravelOptions)}, but sources and targets are serialized directly onto the
+	 * output stream when the returned object is written, e.g. as entity of a POST request. This avoids holding the
+	 * complete JSON in memory for requests with many sources or targets.
+	 * @param travelOptions Travel options to be parsed into JSON
+	 * @return Configuration that can be used as request entity
+	 * @throws TargomoClientException Thrown when the configuration is invalid
+	 */
+	public static StreamingConfig getStreamingConfig(final TravelOptions travelOptions) throws TargomoClientException {
+	    return getCommonConfig(travelOptions);
     }
 
     public static String getConfig(final Map<String, CriterionDefinition> criteria, final List<Location> locations, final List<Location> competitors) throws TargomoClientException {
@@ -66,7 +93,7 @@ public final class RequestConfigurator {
     }
 
     private static String getCommonConfig(final Map<String, CriterionDefinition> criteria, final List<Location> locations, final List<Location> competitors) throws TargomoClientException {
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        ObjectWriter ow = JsonMappers.writer();
         StringBuilder config = JSONBuilder.beginJson(new StringBuilder());
         try {
             JSONBuilder.append(config, LOCATIONS, ow.writeValueAsString(locations));
@@ -81,7 +108,7 @@ public final class RequestConfigurator {
     }
 
     private static String getCommonConfig(final List<Location> locations, final List<Location> competitors) throws TargomoClientException {
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        ObjectWriter ow = JsonMappers.writer();
         StringBuilder config = JSONBuilder.beginJson(new StringBuilder());
         try {
             if (competitors != null) {
@@ -94,13 +121,15 @@ public final class RequestConfigurator {
         return config.toString();
     }
 
-	private static String getCommonConfig(final TravelOptions travelOptions) throws TargomoClientException {
+	private static StreamingConfig getCommonConfig(final TravelOptions travelOptions) throws TargomoClientException {
 
-	    StringBuilder config = JSONBuilder.beginJson(new StringBuilder());
+	    // small sections are rendered eagerly, sources and targets are only written when the config is streamed
+	    Map<String, String> head = new LinkedHashMap<>();
+	    Map<String, String> tail = new LinkedHashMap<>();
 
         try {
             if (travelOptions.getTravelTimes() != null && !travelOptions.getTravelTimes().isEmpty())
-                JSONBuilder.append(config, POLYGON, getPolygonObject(travelOptions));
+                head.put(POLYGON, getPolygonObject(travelOptions).toString());
 
             //attention - at least one multiGraph value must be set to create the multigraph hierarchy
             if ( Stream.of(
@@ -149,120 +178,101 @@ public final class RequestConfigurator {
                     .anyMatch(Objects::nonNull) ||
                     Stream.of(travelOptions.getMultiGraphTileZoom(), travelOptions.getMultiGraphTileX(),
                             travelOptions.getMultiGraphTileY()).allMatch(Objects::nonNull))
-                JSONBuilder.append(config, MULTIGRAPH, getMultiGraphObject(travelOptions));
+                head.put(MULTIGRAPH, getMultiGraphObject(travelOptions).toString());
 
             if (travelOptions.getIntersectionMode() != null)
-                JSONBuilder.appendString(config, POLYGON_INTERSECTION_MODE, travelOptions.getIntersectionMode());
-
-            if (travelOptions.getSources() != null && !travelOptions.getSources().isEmpty())
-                JSONBuilder.append(config, SOURCES, getSources(travelOptions));
-
-            if (travelOptions.getSourceGeometries() != null && !travelOptions.getSourceGeometries().isEmpty())
-                JSONBuilder.append(config, SOURCE_GEOMETRIES, getSourceGeometries(travelOptions));
-
-            if (travelOptions.getSourceAddresses() != null && !travelOptions.getSourceAddresses().isEmpty())
-                JSONBuilder.append(config, SOURCE_ADDRESSES, getSourceAddresses(travelOptions));
-
-            if (travelOptions.getTargets() != null && !travelOptions.getTargets().isEmpty())
-                JSONBuilder.append(config, TARGETS, getTargets(travelOptions));
-
-            if (travelOptions.getTargetGeohashes() != null && !travelOptions.getTargetGeohashes().isEmpty())
-                JSONBuilder.appendStringList(config, TARGET_GEOHASHES, travelOptions.getTargetGeohashes());
-
-            if (travelOptions.getTargetAddresses() != null && !travelOptions.getTargetAddresses().isEmpty())
-                JSONBuilder.appendStringList(config, TARGET_ADDRESSES, travelOptions.getTargetAddresses());
+                head.put(POLYGON_INTERSECTION_MODE, quoted(travelOptions.getIntersectionMode()));
 
             if (travelOptions.getPathSerializer() != null)
-                JSONBuilder.appendString(config, PATH_SERIALIZER, travelOptions.getPathSerializer().getPathSerializerName());
+                tail.put(PATH_SERIALIZER, quoted(travelOptions.getPathSerializer().getPathSerializerName()));
 
             if (travelOptions.getElevationEnabled() != null)
-                JSONBuilder.append(config, ENABLE_ELEVATION, travelOptions.getElevationEnabled());
+                tail.put(ENABLE_ELEVATION, String.valueOf(travelOptions.getElevationEnabled()));
 
             if (travelOptions.getReverse() != null)
-                JSONBuilder.append(config, REVERSE, travelOptions.getReverse());
+                tail.put(REVERSE, String.valueOf(travelOptions.getReverse()));
 
             if (travelOptions.getEdgeWeightType() != null)
-                JSONBuilder.appendString(config, EDGE_WEIGHT, travelOptions.getEdgeWeightType().getKey());
+                tail.put(EDGE_WEIGHT, quoted(travelOptions.getEdgeWeightType().getKey()));
 
             if (travelOptions.getStatisticGroupId() != null)
-                JSONBuilder.appendString(config, STATISTIC_GROUP_ID, travelOptions.getStatisticGroupId());
+                tail.put(STATISTIC_GROUP_ID, quoted(travelOptions.getStatisticGroupId()));
 
             if (travelOptions.getServiceUrl() != null)
-                JSONBuilder.append(config, "serviceUrl", "\"" + travelOptions.getServiceUrl() + "\"");
+                tail.put("serviceUrl", quoted(travelOptions.getServiceUrl()));
 
             if (travelOptions.getServiceKey() != null)
-                JSONBuilder.append(config, "serviceKey", "\"" + travelOptions.getServiceKey() + "\"");
+                tail.put("serviceKey", quoted(travelOptions.getServiceKey()));
 
             if (travelOptions.getFormat() != null)
-                JSONBuilder.append(config, FORMAT, "\"" + travelOptions.getFormat().toString().toLowerCase() + "\"");
+                tail.put(FORMAT, quoted(travelOptions.getFormat().toString().toLowerCase()));
 
             if (travelOptions.getBoundingBox() != null)
-                JSONBuilder.append(config, "boundingBox", "\"" + travelOptions.getBoundingBox() + "\"");
+                tail.put("boundingBox", quoted(travelOptions.getBoundingBox()));
 
             if (travelOptions.getOsmTypes() != null) {
-                ObjectMapper mapper = new ObjectMapper();
-                JSONBuilder.append(config, "osmTypes", mapper.writeValueAsString(travelOptions.getOsmTypes()));
+                tail.put("osmTypes", JsonMappers.writer().writeValueAsString(travelOptions.getOsmTypes()));
             }
 
             if(travelOptions.getFilterGeometryForPOIs() != null){
                 JSONObject filterGeometry = new JSONObject()
                         .put(CRS, travelOptions.getFilterGeometryForPOIs().getCrs())
                         .put(DATA, travelOptions.getFilterGeometryForPOIs().getData());
-                JSONBuilder.append(config, "filterGeometry", filterGeometry);
+                tail.put("filterGeometry", String.valueOf(filterGeometry));
             }
 
             if(travelOptions.getPoiGravitationExponent() != null){
-                JSONBuilder.append(config, "gravitationExponent", travelOptions.getPoiGravitationExponent());
+                tail.put("gravitationExponent", String.valueOf(travelOptions.getPoiGravitationExponent()));
             }
 
             if(travelOptions.getPoiGravitationProbabilityDecay() != null){
-                JSONBuilder.append(config, "probabilityDecay", travelOptions.getPoiGravitationProbabilityDecay());
+                tail.put("probabilityDecay", String.valueOf(travelOptions.getPoiGravitationProbabilityDecay()));
             }
 
             if (travelOptions.getTravelTimeFactors() != null && !travelOptions.getTravelTimeFactors().isEmpty()) {
 			    JSONObject travelFactors = new JSONObject();
 			    for(Map.Entry<String,Double> factor : travelOptions.getTravelTimeFactors().entrySet())
 			        travelFactors.put(factor.getKey(),factor.getValue());
-                JSONBuilder.append(config, TRAVEL_TIME_FACTORS, travelFactors);
+                tail.put(TRAVEL_TIME_FACTORS, String.valueOf(travelFactors));
             }
 
             if (travelOptions.getDefaultRoadSpeeds() != null && !travelOptions.getDefaultRoadSpeeds().isEmpty()) {
                 JSONObject defaultRoadSpeeds = new JSONObject();
                 for(Map.Entry<String,Integer> speeds : travelOptions.getDefaultRoadSpeeds().entrySet())
                     defaultRoadSpeeds.put(speeds.getKey(), speeds.getValue());
-                JSONBuilder.append(config, DEFAULT_ROAD_SPEEDS, defaultRoadSpeeds);
+                tail.put(DEFAULT_ROAD_SPEEDS, String.valueOf(defaultRoadSpeeds));
             }
 
             if ( travelOptions.getClipGeometry() != null )
-                JSONBuilder.append(config, CLIP_GEOMETRY, createGeometryJson(travelOptions.getClipGeometry()));
+                tail.put(CLIP_GEOMETRY, String.valueOf(createGeometryJson(travelOptions.getClipGeometry())));
 
             if ( travelOptions.getExclusionGeometry() != null )
-                JSONBuilder.append(config, EXCLUSION_GEOMETRY, createGeometryJson(travelOptions.getExclusionGeometry()));
+                tail.put(EXCLUSION_GEOMETRY, String.valueOf(createGeometryJson(travelOptions.getExclusionGeometry())));
 
             if (travelOptions.getMaxSnapDistance() != null)
-                JSONBuilder.append(config, MAX_SNAP_DISTANCE, travelOptions.getMaxSnapDistance());
+                tail.put(MAX_SNAP_DISTANCE, String.valueOf(travelOptions.getMaxSnapDistance()));
 
             if (travelOptions.getNextStopsStartTime() != null)
-                JSONBuilder.append(config, NEXT_STOPS_START_TIME, travelOptions.getNextStopsStartTime());
+                tail.put(NEXT_STOPS_START_TIME, String.valueOf(travelOptions.getNextStopsStartTime()));
 
             if (travelOptions.getNextStopsEndTime() != null)
-                JSONBuilder.append(config, NEXT_STOPS_END_TIME, travelOptions.getNextStopsEndTime());
+                tail.put(NEXT_STOPS_END_TIME, String.valueOf(travelOptions.getNextStopsEndTime()));
 
             if (travelOptions.getExcludeEdgeClasses() != null)
-                JSONBuilder.append(config, EXCLUDE_EDGE_CLASSES, new JSONArray(travelOptions.getExcludeEdgeClasses()));
+                tail.put(EXCLUDE_EDGE_CLASSES, String.valueOf(new JSONArray(travelOptions.getExcludeEdgeClasses())));
 
-            JSONBuilder.append(config, "onlyPrintReachablePoints", travelOptions.isOnlyPrintReachablePoints());
+            tail.put("onlyPrintReachablePoints", String.valueOf(travelOptions.isOnlyPrintReachablePoints()));
             
-            JSONBuilder.append(config, FORCE_RECALCULATE, travelOptions.isForceRecalculate());
-            JSONBuilder.append(config, CACHE_RESULT, travelOptions.isCacheResult());
+            tail.put(FORCE_RECALCULATE, String.valueOf(travelOptions.isForceRecalculate()));
+            tail.put(CACHE_RESULT, String.valueOf(travelOptions.isCacheResult()));
 
-            JSONBuilder.appendAndEnd(config, MAX_EDGE_WEIGHT, travelOptions.getMaxEdgeWeight());
+            tail.put(MAX_EDGE_WEIGHT, String.valueOf(travelOptions.getMaxEdgeWeight()));
         }
 		catch (Exception e) {
             throw new TargomoClientException("Could not generate targomo config object", e);
         }
 
-        return config.toString();
+        return new StreamingConfig(travelOptions, head, tail);
     }
 
 	/**
@@ -578,26 +588,25 @@ public final class RequestConfigurator {
         return aggregationInputParams;
     }
 
-    private static JSONArray getSources(final TravelOptions travelOptions) throws JSONException {
-        JSONArray sources = new JSONArray();
-        for (Coordinate src : travelOptions.getSources().values()) {
-            JSONObject source = getSourceObject(travelOptions, src);
-            sources.put(source);
-        }
-        return sources;
+    private static void writeSources(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+        generator.writeFieldName(SOURCES);
+        generator.writeStartArray();
+        for (Coordinate src : travelOptions.getSources().values())
+            generator.writeRawValue(getSourceObject(travelOptions, src).toString());
+        generator.writeEndArray();
     }
 
-    private static JSONArray getSourceGeometries(final TravelOptions travelOptions) throws JSONException {
-        JSONArray sourceGeometries = new JSONArray();
-        for (AbstractGeometry src : travelOptions.getSourceGeometries().values()) {
-            JSONObject source = getSourceObject(travelOptions, src);
-            sourceGeometries.put(source);
-        }
-        return sourceGeometries;
+    private static void writeSourceGeometries(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+        generator.writeFieldName(SOURCE_GEOMETRIES);
+        generator.writeStartArray();
+        for (AbstractGeometry src : travelOptions.getSourceGeometries().values())
+            generator.writeRawValue(getSourceObject(travelOptions, src).toString());
+        generator.writeEndArray();
     }
 
-    private static JSONArray getSourceAddresses(final TravelOptions travelOptions) throws JSONException {
-        JSONArray sourceAddresses = new JSONArray();
+    private static void writeSourceAddresses(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+        generator.writeFieldName(SOURCE_ADDRESSES);
+        generator.writeStartArray();
         for (DefaultSourceAddress src : travelOptions.getSourceAddresses().values()) {
 
             List<TravelType> travelTypes = getTravelTypes(travelOptions, src);
@@ -608,28 +617,38 @@ public final class RequestConfigurator {
 
             addTransportationMode(travelOptions, src, source, travelTypes, travelMode);
 
-            sourceAddresses.put(source);
+            generator.writeRawValue(source.toString());
         }
-        return sourceAddresses;
+        generator.writeEndArray();
     }
 
-
-    private static StringBuilder getTargets(final TravelOptions travelOptions) {
-        StringBuilder targetsBuilder = new StringBuilder().append("[");
+    private static void writeTargets(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+        generator.writeFieldName(TARGETS);
+        generator.writeStartArray();
         for (Coordinate trg : travelOptions.getTargets().values()) {
-            buildTarget(targetsBuilder, trg).append(",");
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeRawValue(quoted(trg.getId()));
+            generator.writeNumberField(LATITUDE, trg.getY());
+            generator.writeNumberField(LONGITUDE, trg.getX());
+            generator.writeEndObject();
         }
-        targetsBuilder.deleteCharAt(targetsBuilder.length() - 1);
-        targetsBuilder.append("]");
-        return targetsBuilder;
+        generator.writeEndArray();
+    }
+
+    private static void writeStringList(final JsonGenerator generator, final String key, final List<?> list) throws IOException {
+        generator.writeFieldName(key);
+        generator.writeStartArray();
+        for (Object value : list)
+            generator.writeRawValue(quoted(value));
+        generator.writeEndArray();
     }
 
-    private static StringBuilder buildTarget(final StringBuilder targetsBuilder, final Coordinate trg) {
-        JSONBuilder.beginJson(targetsBuilder);
-        JSONBuilder.appendString(targetsBuilder, ID, trg.getId());
-        JSONBuilder.append(targetsBuilder,       LATITUDE, trg.getY());
-        JSONBuilder.appendAndEnd(targetsBuilder, LONGITUDE, trg.getX());
-        return targetsBuilder;
+    /**
+     * Quotes the value the way {@link JSONBuilder#appendString(StringBuilder, String, Object)} does, i.e. without escaping.
+     */
+    private static String quoted(final Object value) {
+        return "\"" + value + "\"";
     }
 
     private static JSONObject getTravelMode(final TravelOptions travelOptions,
@@ -817,4 +836,75 @@ public final class RequestConfigurator {
         geometryPolygon.put("type", geometry.getType());
         return geometryPolygon;
     }
+
+    /**
+     * JSON configuration of {@link TravelOptions} which is written to a stream.
+     * The small properties are generated (and validated) when it is created, sources and targets only while writing.
+     */
+    public static final class StreamingConfig implements StreamingOutput {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        private final TravelOptions travelOptions;
+        private final Map<String, String> head;
+        private final Map<String, String> tail;
+
+        private StreamingConfig(final TravelOptions travelOptions, final Map<String, String> head, final Map<String, String> tail) {
+            this.travelOptions = travelOptions;
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public void write(final OutputStream output) throws IOException {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+                writeConfig(generator);
+            }
+        }
+
+        /**
+         * Writes the configuration as characters.
+         * @param writer Writer the JSON is written to, it is flushed but not closed
+         * @throws IOException Thrown when writing fails
+         */
+        public void write(final Writer writer) throws IOException {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+                writeConfig(generator);
+            }
+        }
+
+        private void writeConfig(final JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            writeRawFields(generator, head);
+
+            if (travelOptions.getSources() != null && !travelOptions.getSources().isEmpty())
+                writeSources(generator, travelOptions);
+
+            if (travelOptions.getSourceGeometries() != null && !travelOptions.getSourceGeometries().isEmpty())
+                writeSourceGeometries(generator, travelOptions);
+
+            if (travelOptions.getSourceAddresses() != null && !travelOptions.getSourceAddresses().isEmpty())
+                writeSourceAddresses(generator, travelOptions);
+
+            if (travelOptions.getTargets() != null && !travelOptions.getTargets().isEmpty())
+                writeTargets(generator, travelOptions);
+
+            if (travelOptions.getTargetGeohashes() != null && !travelOptions.getTargetGeohashes().isEmpty())
+                writeStringList(generator, TARGET_GEOHASHES, travelOptions.getTargetGeohashes());
+
+            if (travelOptions.getTargetAddresses() != null && !travelOptions.getTargetAddresses().isEmpty())
+                writeStringList(generator, TARGET_ADDRESSES, travelOptions.getTargetAddresses());
+
+            writeRawFields(generator, tail);
+            generator.writeEndObject();
+        }
+
+        private static void writeRawFields(final JsonGenerator generator, final Map<String, String> fields) throws IOException {
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                generator.writeFieldName(field.getKey());
+                generator.writeRawValue(field.getValue());
+            }
+        }
+    }
 }
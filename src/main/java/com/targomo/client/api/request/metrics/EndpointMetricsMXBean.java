@@ -0,0 +1,56 @@
+package com.targomo.client.api.request.metrics;
+
+/**
+ * Latencies of the requests to one endpoint, registered by {@link JmxRequestMetrics}. All latencies are in
+ * milliseconds, see {@link com.targomo.client.api.response.RequestTimings} for the phases.
+ */
+public interface EndpointMetricsMXBean {
+
+	String getEndpoint();
+
+	long getCount();
+
+	long getFailures();
+
+	/**
+	 * @return number of responses with status 400 or above
+	 */
+	long getErrorResponses();
+
+	double getMeanRequestBytes();
+
+	double getTotalMeanMillis();
+
+	double getTotalP50Millis();
+
+	double getTotalP95Millis();
+
+	double getTotalP99Millis();
+
+	double getTotalMaxMillis();
+
+	double getConfigBuildP50Millis();
+
+	double getConfigBuildP99Millis();
+
+	double getSendP50Millis();
+
+	double getSendP99Millis();
+
+	double getBodyReadP50Millis();
+
+	double getBodyReadP99Millis();
+
+	double getParseP50Millis();
+
+	double getParseP99Millis();
+
+	double getServerP50Millis();
+
+	double getServerP99Millis();
+
+	/**
+	 * Removes all recorded latencies and counts.
+	 */
+	void reset();
+}
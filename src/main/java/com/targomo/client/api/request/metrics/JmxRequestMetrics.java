@@ -0,0 +1,301 @@
+package com.targomo.client.api.request.metrics;
+
+import com.targomo.client.api.response.RequestTimings;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RequestMetrics} keeping latency histograms per endpoint, each exported as MBean
+ * <code>com.targomo.client:type=RequestMetrics,name=&lt;name&gt;,endpoint="&lt;path&gt;"</code> (see
+ * {@link EndpointMetricsMXBean}), e.g. for JConsole or a JMX exporter:
+ * <pre>
+ *     JmxRequestMetrics metrics = JmxRequestMetrics.builder().name("routing").build();
+ *     TargomoClient targomo = TargomoClient.builder().metrics(metrics).build();
+ * </pre>
+ * The MBeans are registered when the first request to an endpoint is recorded and unregistered by {@link #close()}.
+ */
+@Slf4j
+public final class JmxRequestMetrics implements RequestMetrics, Closeable {
+
+	private static final String DOMAIN = "com.targomo.client";
+
+	private final String name;
+	private final MBeanServer server;
+	private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+	private volatile boolean closed = false;
+
+	private JmxRequestMetrics(Builder builder) {
+		this.name = builder.name;
+		this.server = builder.server;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public void record(RequestTimings timings) {
+		endpoint(timings.getEndpoint()).record(timings);
+	}
+
+	@Override
+	public void recordFailure(String endpoint, long elapsedNanos, Throwable error) {
+		endpoint(endpoint).recordFailure(elapsedNanos);
+	}
+
+	/**
+	 * @return the metrics per endpoint, sorted by endpoint
+	 */
+	public Map<String, EndpointMetricsMXBean> getEndpoints() {
+		return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+	}
+
+	/**
+	 * Unregisters the MBeans, requests recorded afterwards are only kept in memory.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (EndpointMetrics metrics : endpoints.values())
+			unregister(metrics);
+	}
+
+	private EndpointMetrics endpoint(String endpoint) {
+		EndpointMetrics metrics = endpoints.get(endpoint);
+		if (metrics != null)
+			return metrics;
+		EndpointMetrics created = new EndpointMetrics(endpoint);
+		metrics = endpoints.putIfAbsent(endpoint, created);
+		if (metrics != null)
+			return metrics;
+		if (!closed)
+			register(created);
+		return created;
+	}
+
+	private ObjectName objectName(String endpoint) throws JMException {
+		return new ObjectName(DOMAIN + ":type=RequestMetrics,name=" + ObjectName.quote(name)
+				+ ",endpoint=" + ObjectName.quote(endpoint));
+	}
+
+	private void register(EndpointMetrics metrics) {
+		try {
+			ObjectName objectName = objectName(metrics.getEndpoint());
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+			server.registerMBean(new StandardMBean(metrics, EndpointMetricsMXBean.class, true), objectName);
+		} catch (JMException e) {
+			log.warn("Could not register the request metrics of {}", metrics.getEndpoint(), e);
+		}
+	}
+
+	private void unregister(EndpointMetrics metrics) {
+		try {
+			ObjectName objectName = objectName(metrics.getEndpoint());
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+		} catch (JMException e) {
+			log.warn("Could not unregister the request metrics of {}", metrics.getEndpoint(), e);
+		}
+	}
+
+	/**
+	 * The histograms of one endpoint.
+	 */
+	private static final class EndpointMetrics implements EndpointMetricsMXBean {
+
+		private final String endpoint;
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder errorResponses = new LongAdder();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LatencyHistogram total = new LatencyHistogram();
+		private final LatencyHistogram configBuild = new LatencyHistogram();
+		private final LatencyHistogram send = new LatencyHistogram();
+		private final LatencyHistogram bodyRead = new LatencyHistogram();
+		private final LatencyHistogram parse = new LatencyHistogram();
+		private final LatencyHistogram server = new LatencyHistogram();
+
+		private EndpointMetrics(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		private void record(RequestTimings timings) {
+			if (timings.getStatus() >= 400)
+				errorResponses.increment();
+			requestBytes.add(Math.max(0, timings.getRequestBytes()));
+			total.record(timings.getTotalNanos());
+			configBuild.record(timings.getConfigBuildNanos());
+			send.record(timings.getSendNanos());
+			bodyRead.record(timings.getBodyReadNanos());
+			parse.record(timings.getParseNanos());
+			if (timings.getServerTimeMillis() >= 0)
+				server.record(TimeUnit.MILLISECONDS.toNanos(timings.getServerTimeMillis()));
+		}
+
+		private void recordFailure(long elapsedNanos) {
+			failures.increment();
+			total.record(elapsedNanos);
+		}
+
+		@Override
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		@Override
+		public long getCount() {
+			return total.getCount();
+		}
+
+		@Override
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		@Override
+		public long getErrorResponses() {
+			return errorResponses.sum();
+		}
+
+		@Override
+		public double getMeanRequestBytes() {
+			long responses = total.getCount() - failures.sum();
+			return responses <= 0 ? 0 : requestBytes.sum() / (double) responses;
+		}
+
+		@Override
+		public double getTotalMeanMillis() {
+			return total.getMeanMillis();
+		}
+
+		@Override
+		public double getTotalP50Millis() {
+			return total.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getTotalP95Millis() {
+			return total.getPercentileMillis(0.95);
+		}
+
+		@Override
+		public double getTotalP99Millis() {
+			return total.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public double getTotalMaxMillis() {
+			return total.getMaxMillis();
+		}
+
+		@Override
+		public double getConfigBuildP50Millis() {
+			return configBuild.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getConfigBuildP99Millis() {
+			return configBuild.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public double getSendP50Millis() {
+			return send.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getSendP99Millis() {
+			return send.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public double getBodyReadP50Millis() {
+			return bodyRead.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getBodyReadP99Millis() {
+			return bodyRead.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public double getParseP50Millis() {
+			return parse.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getParseP99Millis() {
+			return parse.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public double getServerP50Millis() {
+			return server.getPercentileMillis(0.5);
+		}
+
+		@Override
+		public double getServerP99Millis() {
+			return server.getPercentileMillis(0.99);
+		}
+
+		@Override
+		public void reset() {
+			failures.reset();
+			errorResponses.reset();
+			requestBytes.reset();
+			for (LatencyHistogram histogram : new LatencyHistogram[]{ total, configBuild, send, bodyRead, parse, server })
+				histogram.reset();
+		}
+	}
+
+	/**
+	 * Builder for {@link JmxRequestMetrics}.
+	 */
+	public static class Builder {
+
+		private String name = "default";
+		private MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param name distinguishes the MBeans of several clients in one JVM, default "default"
+		 * @return this builder
+		 */
+		public Builder name(String name) {
+			if (name == null || name.isEmpty())
+				throw new IllegalArgumentException("name must not be null or empty");
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * @param server the MBean server, default the platform MBean server
+		 * @return this builder
+		 */
+		public Builder server(MBeanServer server) {
+			if (server == null)
+				throw new IllegalArgumentException("server must not be null");
+			this.server = server;
+			return this;
+		}
+
+		public JmxRequestMetrics build() {
+			return new JmxRequestMetrics(this);
+		}
+	}
+}
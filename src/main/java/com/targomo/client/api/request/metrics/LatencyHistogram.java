@@ -0,0 +1,117 @@
+package com.targomo.client.api.request.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies from 1 microsecond to several hours with a relative error of at most 12.5%.
+ *
+ * <p>
+ * Each power of two microseconds is divided into 8 linear buckets, so recording is one array increment and the
+ * memory is constant. Percentiles are reported as the upper bound of their bucket.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 8;
+	private static final int SUB_BUCKET_BITS = 3;
+	// 2^40 microseconds are about 12 days
+	private static final int BUCKETS = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumMicros = new LongAdder();
+	private final AtomicLong maxMicros = new AtomicLong();
+
+	/**
+	 * @param nanos the latency to record, negative values are ignored
+	 */
+	public void record(long nanos) {
+		if (nanos < 0)
+			return;
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		counts.incrementAndGet(bucket(micros));
+		count.increment();
+		sumMicros.add(micros);
+		maxMicros.accumulateAndGet(micros, Math::max);
+	}
+
+	/**
+	 * @return number of recorded latencies
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return mean latency in milliseconds, 0 if nothing was recorded
+	 */
+	public double getMeanMillis() {
+		long recorded = count.sum();
+		return recorded == 0 ? 0 : sumMicros.sum() / 1000.0 / recorded;
+	}
+
+	/**
+	 * @return maximum latency in milliseconds
+	 */
+	public double getMaxMillis() {
+		return maxMicros.get() / 1000.0;
+	}
+
+	/**
+	 * @param percentile between 0 and 1, e.g. 0.99
+	 * @return the latency in milliseconds that the given fraction of the recorded latencies did not exceed,
+	 * 0 if nothing was recorded
+	 */
+	public double getPercentileMillis(double percentile) {
+		if (percentile < 0 || percentile > 1)
+			throw new IllegalArgumentException("percentile must be between 0 and 1 but was " + percentile);
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		for (int i = 0; i < BUCKETS; i++) {
+			rank -= snapshot[i];
+			if (rank <= 0)
+				return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+		}
+		return getMaxMillis();
+	}
+
+	/**
+	 * Removes all recorded latencies.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0);
+		count.reset();
+		sumMicros.reset();
+		maxMicros.set(0);
+	}
+
+	static int bucket(long micros) {
+		if (micros < SUB_BUCKETS)
+			return (int) micros;
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return Math.min(BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket);
+	}
+
+	/**
+	 * @return the smallest value in microseconds that belongs to the next bucket
+	 */
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket + 1;
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int subBucket = bucket % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+	}
+}
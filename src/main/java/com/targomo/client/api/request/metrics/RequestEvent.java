@@ -0,0 +1,89 @@
+package com.targomo.client.api.request.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event of one request, from building the request configuration to the parsed response. The
+ * phases are those of {@link com.targomo.client.api.response.RequestTimings}. Emitted by the
+ * {@link com.targomo.client.api.request.RequestExecutor} only while a recording is running, e.g. started with
+ * <code>-XX:StartFlightRecording</code>.
+ */
+@Name(RequestEvent.NAME)
+@Label("Targomo Request")
+@Category({"Targomo", "Client"})
+@Description("Request to a Targomo service")
+@StackTrace(false)
+public final class RequestEvent extends Event {
+
+	public static final String NAME = "com.targomo.client.Request";
+
+	@Label("Endpoint")
+	@Description("Path of the called service")
+	public String endpoint;
+
+	@Label("HTTP Method")
+	public String method;
+
+	@Label("Status")
+	@Description("HTTP status of the response, -1 if none was received")
+	public int status = -1;
+
+	@Label("Result Code")
+	@Description("Code of the Targomo result, e.g. OK or NO_ROUTE_FOUND, empty if the response has none")
+	public String code = "";
+
+	@Label("Result Type")
+	@Description("Type the response was parsed to")
+	public String resultType;
+
+	@Label("Failure")
+	@Description("Exception the request failed with")
+	public String failure;
+
+	@Label("Config Size")
+	@Description("Size of the request body, -1 if unknown")
+	@DataAmount
+	public long requestBytes = -1;
+
+	@Label("Response Size")
+	@Description("Size of the response body, -1 if it was not read separately from parsing")
+	@DataAmount
+	public long responseBytes = -1;
+
+	@Label("Sources")
+	@Description("Number of sources, -1 if the request has none")
+	public int sources = -1;
+
+	@Label("Targets")
+	@Description("Number of targets, -1 if the request has none")
+	public int targets = -1;
+
+	@Label("Config Build Time")
+	@Timespan
+	public long configBuildTime = -1;
+
+	@Label("Network Time")
+	@Description("Time until the response headers arrived, including waiting in limiters and retries")
+	@Timespan
+	public long networkTime = -1;
+
+	@Label("Body Read Time")
+	@Timespan
+	public long bodyReadTime = -1;
+
+	@Label("Parse Time")
+	@Timespan
+	public long parseTime = -1;
+
+	@Label("Server Time")
+	@Description("Processing time reported by the service")
+	@Timespan(Timespan.MILLISECONDS)
+	public long serverTime = -1;
+}
@@ -0,0 +1,38 @@
+package com.targomo.client.api.request.metrics;
+
+import com.targomo.client.api.response.RequestTimings;
+
+/**
+ * Receives the timings of all requests executed by a {@link com.targomo.client.api.request.RequestExecutor}, e.g. to
+ * export latency histograms per endpoint. Implementations are called on the threads executing and parsing the
+ * requests and must be thread-safe and fast.
+ *
+ * @see JmxRequestMetrics
+ */
+public interface RequestMetrics {
+
+	/**
+	 * Records nothing, the default.
+	 */
+	RequestMetrics NOOP = new RequestMetrics() {
+		@Override
+		public void record(RequestTimings timings) {
+		}
+
+		@Override
+		public void recordFailure(String endpoint, long elapsedNanos, Throwable error) {
+		}
+	};
+
+	/**
+	 * @param timings the timings of a request that received and parsed a response, including error responses
+	 */
+	void record(RequestTimings timings);
+
+	/**
+	 * @param endpoint path of the called service
+	 * @param elapsedNanos time until the request failed
+	 * @param error the exception the request failed with, e.g. a connection or parse error
+	 */
+	void recordFailure(String endpoint, long elapsedNanos, Throwable error);
+}
@@ -0,0 +1,40 @@
+package com.targomo.client.api.request.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event spanning the parsing of one response, e.g. to correlate allocation and GC pauses with
+ * the parsing of large time or multigraph responses. Its thread is the one that parsed the response.
+ */
+@Name(ResponseParseEvent.NAME)
+@Label("Targomo Response Parse")
+@Category({"Targomo", "Client"})
+@Description("Validating and parsing the response of a Targomo service")
+@StackTrace(false)
+public final class ResponseParseEvent extends Event {
+
+	public static final String NAME = "com.targomo.client.ResponseParse";
+
+	@Label("Endpoint")
+	@Description("Path of the called service")
+	public String endpoint;
+
+	@Label("Status")
+	@Description("HTTP status of the response")
+	public int status = -1;
+
+	@Label("Result Type")
+	@Description("Type the response was parsed to, empty if parsing failed")
+	public String resultType;
+
+	@Label("Response Size")
+	@Description("Size of the response body, -1 if it was not read separately from parsing")
+	@DataAmount
+	public long responseBytes = -1;
+}
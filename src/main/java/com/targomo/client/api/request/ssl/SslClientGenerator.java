@@ -26,23 +26,33 @@ public class SslClientGenerator {
 	 * @return Client
 	 */
     public static Client initClient(Configuration conf) {
-        SSLContext ctx;
-        
+		return (conf == null ? ClientBuilder.newBuilder() : ClientBuilder.newBuilder().withConfig(conf))
+				.hostnameVerifier(new TrustAllHostNameVerifier())
+				.sslContext(getTrustAllContext())
+				.build();
+    }
+
+	/**
+	 * The trust-all {@link SSLContext} is created once and shared by all generated clients, so that its
+	 * client session cache can resume TLS sessions instead of doing a full handshake for every new client.
+	 *
+	 * @return the shared trust-all SSL context
+	 */
+	public static SSLContext getTrustAllContext() {
+		return TrustAllContextHolder.CONTEXT;
+	}
+
+	private static SSLContext createTrustAllContext() {
 		try {
-			
-			ctx = SSLContext.getInstance("TLSv1.2");
+			SSLContext ctx = SSLContext.getInstance("TLSv1.2");
 			ctx.init(null, certs, new SecureRandom());
-
-			return (conf == null ? ClientBuilder.newBuilder() : ClientBuilder.newBuilder().withConfig(conf))
-					.hostnameVerifier(new TrustAllHostNameVerifier())
-					.sslContext(ctx)
-					.build();
+			return ctx;
 		}
 		catch (NoSuchAlgorithmException | KeyManagementException e) {
-			
+
 			throw new TargomoClientRuntimeException("Exception generating SSL context.", e);
 		}
-    }
+	}
 
     public static Client initClient() {
         return initClient(null);
@@ -67,6 +77,10 @@ public class SslClientGenerator {
         }
     };
 
+    private static class TrustAllContextHolder {
+        private static final SSLContext CONTEXT = createTrustAllContext();
+    }
+
     public static class TrustAllHostNameVerifier implements HostnameVerifier {
 
         public boolean verify(String hostname, SSLSession session) {
@@ -5,7 +5,7 @@ import lombok.Getter;
 
 @AllArgsConstructor
 @Getter
-public class BoundingBoxResponse {
+public class BoundingBoxResponse extends TimedResponse {
 
     Double minX;
     Double maxX;
@@ -9,7 +9,7 @@ import com.targomo.client.api.TravelOptions;
  * @param <I> this is the type of data that Jackson should create and from which you parse the data of type O
  *           , e.g. usually {@link java.util.Map} from {@link String} to {@link Object} for an object
  */
-public abstract class DefaultResponse<O,I> {
+public abstract class DefaultResponse<O,I> extends TimedResponse {
 
     //Json parsed data
     private ResponseCode code;
@@ -63,6 +63,11 @@ public abstract class DefaultResponse<O,I> {
         return requestTimeMillis;
     }
 
+    @Override
+    protected long serverTimeMillis() {
+        return requestTimeMillis;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -12,7 +12,7 @@ import java.util.Map;
  */
 @Getter
 @AllArgsConstructor @NoArgsConstructor
-public class EdgeStatisticsReachabilityResponse {
+public class EdgeStatisticsReachabilityResponse extends TimedResponse {
 
     // map from location id to a map of statistic id (or aggregations id) to statistic value
     HashMap<String, Map<String, Double>> data;
@@ -25,4 +25,9 @@ public class EdgeStatisticsReachabilityResponse {
 
     // time spent processing the request
     Integer requestTime;
+
+    @Override
+    protected long serverTimeMillis() {
+        return requestTime == null ? -1 : requestTime;
+    }
 }
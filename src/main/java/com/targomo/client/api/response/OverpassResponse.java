@@ -14,7 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-public class OverpassResponse {
+public class OverpassResponse extends TimedResponse {
 
     private final TravelOptions travelOptions;
     private final JSONObject result;
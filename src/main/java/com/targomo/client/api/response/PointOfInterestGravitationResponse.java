@@ -2,9 +2,9 @@ package com.targomo.client.api.response;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
@@ -14,7 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Getter
-public class PointOfInterestGravitationResponse {
+public class PointOfInterestGravitationResponse extends TimedResponse {
 
     private static final String ALL_FIELD = "all";
     private final TravelOptions travelOptions;
@@ -45,7 +45,7 @@ public class PointOfInterestGravitationResponse {
         try {
             TypeReference<HashMap<String, Map<String, Float>>> typeRef
                     = new TypeReference<HashMap<String, Map<String, Float>>>() {};
-            HashMap<String, Map<String, Float>> resultMap = new ObjectMapper().readValue(this.result.toString(), typeRef);
+            HashMap<String, Map<String, Float>> resultMap = JsonMappers.reader(typeRef).readValue(this.result.toString());
             gravitationResult = new HashMap<>();
             resultMap.forEach((sourceId, resultForThisSource) -> {
                 Float all = resultForThisSource.get(ALL_FIELD);
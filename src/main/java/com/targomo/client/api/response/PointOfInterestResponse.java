@@ -1,11 +1,11 @@
 package com.targomo.client.api.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.Constants;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.enums.Format;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
 import com.targomo.client.api.util.JsonUtil;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,7 +19,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-public class PointOfInterestResponse {
+public class PointOfInterestResponse extends TimedResponse {
 
     private final TravelOptions travelOptions;
     private final JSONObject result;
@@ -110,7 +110,7 @@ public class PointOfInterestResponse {
 
     public HashMap<String,POI> getResultAsMap() throws IOException
     {
-        return new ObjectMapper().readValue(this.result.toString(), POIResponse.class);
+        return JsonMappers.reader(POIResponse.class).readValue(this.result.toString());
     }
 
 
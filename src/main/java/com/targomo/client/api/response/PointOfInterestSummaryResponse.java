@@ -2,9 +2,9 @@ package com.targomo.client.api.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -13,7 +13,7 @@ import org.json.JSONObject;
 import java.util.Map;
 
 @Getter
-public class PointOfInterestSummaryResponse {
+public class PointOfInterestSummaryResponse extends TimedResponse {
 
     private final TravelOptions travelOptions;
     private final JSONObject result;
@@ -40,7 +40,7 @@ public class PointOfInterestSummaryResponse {
      */
     public void parseResultResults() {
         try {
-            summary = new ObjectMapper().readValue(this.result.toString(), POISummary.class);
+            summary = JsonMappers.reader(POISummary.class).readValue(this.result.toString());
         }
         catch (JsonProcessingException e){
             throw new TargomoClientRuntimeException("Couldn't parse POI reachability summary response", e);
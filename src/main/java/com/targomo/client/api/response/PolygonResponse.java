@@ -3,7 +3,7 @@ package com.targomo.client.api.response;
 import com.targomo.client.api.TravelOptions;
 import org.json.JSONObject;
 
-public class PolygonResponse {
+public class PolygonResponse extends TimedResponse {
 
 	private final ResponseCode code;
 	private final long requestTimeMillis;
@@ -52,6 +52,11 @@ public class PolygonResponse {
 		return requestTimeMillis;
 	}
 
+	@Override
+	protected long serverTimeMillis() {
+		return requestTimeMillis;
+	}
+
 	/**
 	 * @return the travelOptions
 	 */
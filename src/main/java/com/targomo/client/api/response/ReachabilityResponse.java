@@ -1,17 +1,19 @@
 package com.targomo.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.util.JsonUtil;
-import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.function.Function;
 
-public class ReachabilityResponse {
+public class ReachabilityResponse extends TimedResponse {
 
 	private final ResponseCode code;
 	private final long requestTimeMillis;
@@ -19,8 +21,9 @@ public class ReachabilityResponse {
 	private final TravelOptions travelOptions;
 	private final String message;
 
-	private final Map<String,Integer> travelTimes = new HashMap<>();
-	private final Map<String,String> closestSourceId = new HashMap<>();
+	private final TargetTravelTimes results;
+	private Map<String,Integer> travelTimes = null;
+	private Map<String,String> closestSourceId = null;
 
 	/**
 	 * Create a response from JSON results, using given travel options
@@ -44,19 +47,14 @@ public class ReachabilityResponse {
 	public ReachabilityResponse(TravelOptions travelOptions, JSONObject result, long requestStart, Function<String, String> targetIdMapperFilter) throws ResponseErrorException {
 
 		this.travelOptions 	   	  = travelOptions;
+		this.results              = new TargetTravelTimes(expectedTargets(travelOptions));
 		this.code 		 	   	  = ResponseCode.fromString(JsonUtil.getString(result, "code"));
 		this.requestTimeMillis 	  = result.has("requestTime") ? JsonUtil.getLong(result, "requestTime") : -1;
 		this.totalTimeMillis 	  = System.currentTimeMillis() - requestStart;
 		this.message              = result.has("message") ? JsonUtil.getString(result, "message") : "";
 
 		// throw an exception in case of an error code
-		if (this.code != ResponseCode.OK) {
-			String msg = "Reachability request returned an error";
-			if (!StringUtils.isEmpty(message)) {
-				msg += ": " + message;
-			}
-			throw new ResponseErrorException(this.code, msg);
-		}
+		ResponseHeader.check(this.code, this.message, "Reachability request");
 
 		mapResults(result, targetIdMapperFilter);
 	}
@@ -71,6 +69,7 @@ public class ReachabilityResponse {
 	public ReachabilityResponse(TravelOptions travelOptions, ResponseCode code, long requestTime, long requestStart) {
 
 		this.travelOptions 	   	  = travelOptions;
+		this.results              = new TargetTravelTimes(expectedTargets(travelOptions));
 		this.code 		 	   	  = code;
 		this.requestTimeMillis 	  = requestTime;
 		this.totalTimeMillis = System.currentTimeMillis() - requestStart;
@@ -78,13 +77,121 @@ public class ReachabilityResponse {
 	}
 
 	public ReachabilityResponse(TravelOptions travelOptions, ResponseCode code, long requestTimeMillis, long totalTimeMillis, String message) {
+		this(travelOptions, new TargetTravelTimes(expectedTargets(travelOptions)), code, requestTimeMillis, totalTimeMillis, message);
+	}
+
+	private ReachabilityResponse(TravelOptions travelOptions, TargetTravelTimes results, ResponseCode code,
+								 long requestTimeMillis, long totalTimeMillis, String message) {
 		this.travelOptions = travelOptions;
+		this.results = results;
 		this.code = code;
 		this.requestTimeMillis = requestTimeMillis;
 		this.totalTimeMillis = totalTimeMillis;
 		this.message = message;
 	}
 
+	/**
+	 * Create a response by streaming the JSON results into the {@link TargetTravelTimes} of the response, without
+	 * building a {@link JSONObject} of the whole body first.
+	 * @param travelOptions travel options, from the request
+	 * @param stream Travel times in JSON, without callback
+	 * @param requestStart Start time of execution
+	 * @param targetIdMapperFilter a function that maps the target id to a different value or filters targets by returning null.
+	 * @return the response
+	 * @throws IOException In case the stream can not be read or is no valid JSON
+	 * @throws ResponseErrorException In case the response has an error code
+	 */
+	public static ReachabilityResponse parse(TravelOptions travelOptions, InputStream stream, long requestStart,
+											 Function<String, String> targetIdMapperFilter) throws IOException, ResponseErrorException {
+
+		TargetTravelTimes results = new TargetTravelTimes(expectedTargets(travelOptions));
+		ResponseHeader header = read(stream, (sourceId, targetId, travelTime, length) -> {
+			String trgId = targetIdMapperFilter.apply(targetId);
+			if (trgId != null) {
+				results.setTravelTime(trgId, travelTime);
+				if (sourceId != null) results.setClosestSource(trgId, sourceId);
+			}
+		});
+		return new ReachabilityResponse(travelOptions, results, header.getCode(), header.getRequestTime(),
+				System.currentTimeMillis() - requestStart, header.getMessage());
+	}
+
+	/**
+	 * Create a response by streaming the JSON results to a consumer, without building a {@link JSONObject} of the whole
+	 * body first or collecting the results.
+	 * @param travelOptions travel options, from the request
+	 * @param stream Travel times in JSON, without callback
+	 * @param requestStart Start time of execution
+	 * @param consumer receives the results, with the closest source as source and a length of
+	 *                 {@link TravelTimeMatrix#NO_VALUE}
+	 * @return the response, without results
+	 * @throws IOException In case the stream can not be read or is no valid JSON
+	 * @throws ResponseErrorException In case the response has an error code
+	 */
+	public static ReachabilityResponse parse(TravelOptions travelOptions, InputStream stream, long requestStart,
+											 TravelTimeConsumer consumer) throws IOException, ResponseErrorException {
+
+		if (consumer == null)
+			throw new IllegalArgumentException("consumer must not be null");
+
+		ResponseHeader header = read(stream, consumer);
+		return new ReachabilityResponse(travelOptions, new TargetTravelTimes(0), header.getCode(), header.getRequestTime(),
+				System.currentTimeMillis() - requestStart, header.getMessage());
+	}
+
+	/**
+	 * Reads the response, passing its results to the consumer.
+	 * @return the header of the response, with a successful code
+	 */
+	private static ResponseHeader read(InputStream stream, TravelTimeConsumer consumer) throws IOException, ResponseErrorException {
+		ResponseHeader header = new ResponseHeader();
+		try (JsonParser parser = ResponseHeader.open(stream)) {
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if (header.read(parser, field))
+					continue;
+				// results after an error code are skipped, results before it were already passed on
+				boolean failed = header.getCode() != null && header.getCode() != ResponseCode.OK;
+				if ("data".equals(field) && value == JsonToken.START_ARRAY && !failed)
+					readTargets(parser, consumer);
+				else
+					parser.skipChildren();
+			}
+		}
+
+		header.check("Reachability request");
+		return header;
+	}
+
+	/**
+	 * Reads the <code>data</code> array, the parser is at its start.
+	 */
+	private static void readTargets(JsonParser parser, TravelTimeConsumer consumer) throws IOException {
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+			String target = null;
+			String source = null;
+			int travelTime = ResponseHeader.MISSING;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				if ("id".equals(field))
+					target = parser.getValueAsString();
+				else if ("travelTime".equals(field))
+					travelTime = ResponseHeader.readInt(parser);
+				else if ("source".equals(field))
+					source = parser.getValueAsString();
+				else
+					parser.skipChildren();
+			}
+			if (target == null)
+				continue;
+			// like the JSON constructor, a target without travel time is an invalid response
+			ResponseHeader.require(travelTime, "travelTime", target);
+			consumer.accept(source, target, travelTime, TravelTimeMatrix.NO_VALUE);
+		}
+	}
+
 	/**
 	 * Parse results in JSON to travel times map.
 	 * Applies the given function to each target id to modify the id or filter the target.
@@ -112,11 +219,23 @@ public class ReachabilityResponse {
 	 * @param travelTime Travel time for the target
 	 */
 	public void addTravelTime(String targetId, Integer travelTime) {
-		this.travelTimes.put(targetId, travelTime);
+		// null is no result, -1 is a valid travel time
+		if (travelTime == null)
+			this.results.clearTravelTime(targetId);
+		else
+			this.results.setTravelTime(targetId, travelTime);
 	}
 
 	public void addClosestSource(String targetId, String closestSourceId) {
-		this.closestSourceId.put(targetId, closestSourceId);
+		this.results.setClosestSource(targetId, closestSourceId);
+	}
+
+	/**
+	 * The results as primitive travel times and interned closest sources, e.g. to iterate large results without boxing.
+	 * @return the travel times of the targets
+	 */
+	public TargetTravelTimes getResults() {
+		return results;
 	}
 	
 	/**
@@ -133,6 +252,11 @@ public class ReachabilityResponse {
 		return requestTimeMillis;
 	}
 
+	@Override
+	protected long serverTimeMillis() {
+		return requestTimeMillis;
+	}
+
 	/**
 	 * @return the travelOptions
 	 */
@@ -141,18 +265,24 @@ public class ReachabilityResponse {
 	}
 	
 	/**
-	 * Map of source IDs - travel times
-	 * @return travel time map
+	 * Map of target IDs - travel times
+	 * @return read-only travel time map, see {@link #getResults()}
 	 */
 	public Map<String, Integer> getTravelTimes() {
+		if (this.travelTimes == null)
+			this.travelTimes = results.asTravelTimeMap();
 		return this.travelTimes;
 	}
 
 	/**
 	 * Map of target IDs to the individual closest source ID
-	 * @return target id - source id
+	 * @return read-only map target id - source id, see {@link #getResults()}
 	 */
-	public Map<String, String> getClosestSourceIds(){ return this.closestSourceId; }
+	public Map<String, String> getClosestSourceIds() {
+		if (this.closestSourceId == null)
+			this.closestSourceId = results.asClosestSourceMap();
+		return this.closestSourceId;
+	}
 	
 	/**
 	 * Get total time in milliseconds
@@ -167,6 +297,10 @@ public class ReachabilityResponse {
 	}
 
 	public String getClosestSourceForTarget(String targetId) {
-		return this.closestSourceId.get(targetId);
+		return this.results.getClosestSourceId(targetId);
+	}
+
+	private static int expectedTargets(TravelOptions travelOptions) {
+		return travelOptions == null ? 0 : travelOptions.getTargets().size();
 	}
 }
@@ -0,0 +1,234 @@
+package com.targomo.client.api.response;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time of one request went, from building the request configuration to the parsed response.
+ *
+ * <p>
+ * The phases are measured on the client:
+ * </p>
+ * <ul>
+ *     <li>config build: creating the target and the request body, e.g. the JSON configuration of the travel options</li>
+ *     <li>send: from sending the call until the response headers arrived, i.e. connect and time to first byte,
+ *     including waiting in rate and concurrency limiters and retries</li>
+ *     <li>body read: waiting for the response body while it is parsed, only measured separately if request
+ *     metrics are configured or a flight recording is running, otherwise it is part of parse</li>
+ *     <li>parse: validating and parsing the response into the response object</li>
+ * </ul>
+ * <p>
+ * Phases that were not measured are -1, e.g. the server time if the service does not report it.
+ * </p>
+ */
+public final class RequestTimings {
+
+    private final String endpoint;
+    private final int status;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long configBuildNanos;
+    private final long sendNanos;
+    private final long bodyReadNanos;
+    private final long parseNanos;
+    private final long totalNanos;
+    private final long serverTimeMillis;
+
+    private RequestTimings(Builder builder) {
+        this.endpoint = builder.endpoint;
+        this.status = builder.status;
+        this.requestBytes = builder.requestBytes;
+        this.responseBytes = builder.responseBytes;
+        this.configBuildNanos = builder.configBuildNanos;
+        this.sendNanos = builder.sendNanos;
+        this.bodyReadNanos = builder.bodyReadNanos;
+        this.parseNanos = builder.parseNanos;
+        this.totalNanos = builder.totalNanos;
+        this.serverTimeMillis = builder.serverTimeMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param serverTimeMillis processing time reported by the service
+     * @return a copy of these timings with the server time
+     */
+    public RequestTimings withServerTimeMillis(long serverTimeMillis) {
+        return toBuilder().serverTimeMillis(serverTimeMillis).build();
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .endpoint(endpoint)
+                .status(status)
+                .requestBytes(requestBytes)
+                .responseBytes(responseBytes)
+                .configBuildNanos(configBuildNanos)
+                .sendNanos(sendNanos)
+                .bodyReadNanos(bodyReadNanos)
+                .parseNanos(parseNanos)
+                .totalNanos(totalNanos)
+                .serverTimeMillis(serverTimeMillis);
+    }
+
+    /**
+     * @return path of the called service, e.g. <code>/westcentraleurope/v1/time</code>
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return HTTP status of the response
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return size of the request body before compression, 0 without body
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return size of the response body as received, -1 if the body was not read separately
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public long getConfigBuildNanos() {
+        return configBuildNanos;
+    }
+
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    public long getBodyReadNanos() {
+        return bodyReadNanos;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public double getConfigBuildMillis() {
+        return millis(configBuildNanos);
+    }
+
+    public double getSendMillis() {
+        return millis(sendNanos);
+    }
+
+    public double getBodyReadMillis() {
+        return millis(bodyReadNanos);
+    }
+
+    public double getParseMillis() {
+        return millis(parseNanos);
+    }
+
+    public double getTotalMillis() {
+        return millis(totalNanos);
+    }
+
+    /**
+     * @return processing time reported by the service (<code>requestTime</code>), -1 if it is not reported
+     */
+    public long getServerTimeMillis() {
+        return serverTimeMillis;
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %d: total %.1f ms (config %.1f ms, send %.1f ms, body %.1f ms, parse %.1f ms, server %d ms), " +
+                        "%d bytes sent, %d bytes received", endpoint, status, getTotalMillis(), getConfigBuildMillis(),
+                getSendMillis(), getBodyReadMillis(), getParseMillis(), serverTimeMillis, requestBytes, responseBytes);
+    }
+
+    /**
+     * Builder for {@link RequestTimings}, all durations default to -1 (not measured).
+     */
+    public static class Builder {
+
+        private String endpoint = "";
+        private int status = -1;
+        private long requestBytes = 0;
+        private long responseBytes = -1;
+        private long configBuildNanos = -1;
+        private long sendNanos = -1;
+        private long bodyReadNanos = -1;
+        private long parseNanos = -1;
+        private long totalNanos = -1;
+        private long serverTimeMillis = -1;
+
+        private Builder() {
+        }
+
+        public Builder endpoint(String endpoint) {
+            this.endpoint = endpoint == null ? "" : endpoint;
+            return this;
+        }
+
+        public Builder status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder requestBytes(long requestBytes) {
+            this.requestBytes = requestBytes;
+            return this;
+        }
+
+        public Builder responseBytes(long responseBytes) {
+            this.responseBytes = responseBytes;
+            return this;
+        }
+
+        public Builder configBuildNanos(long configBuildNanos) {
+            this.configBuildNanos = configBuildNanos;
+            return this;
+        }
+
+        public Builder sendNanos(long sendNanos) {
+            this.sendNanos = sendNanos;
+            return this;
+        }
+
+        public Builder bodyReadNanos(long bodyReadNanos) {
+            this.bodyReadNanos = bodyReadNanos;
+            return this;
+        }
+
+        public Builder parseNanos(long parseNanos) {
+            this.parseNanos = parseNanos;
+            return this;
+        }
+
+        public Builder totalNanos(long totalNanos) {
+            this.totalNanos = totalNanos;
+            return this;
+        }
+
+        public Builder serverTimeMillis(long serverTimeMillis) {
+            this.serverTimeMillis = serverTimeMillis;
+            return this;
+        }
+
+        public RequestTimings build() {
+            return new RequestTimings(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.targomo.client.api.response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.exception.TargomoClientRuntimeException;
+import com.targomo.client.api.json.JsonMappers;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The code, request time and message of a JSON response, read while its results are streamed.
+ */
+final class ResponseHeader {
+
+	/**
+	 * Value of a number that is missing, null or no number, see {@link #readInt(JsonParser)}.
+	 */
+	static final int MISSING = Integer.MIN_VALUE;
+
+	private ResponseCode code = null;
+	private long requestTime = -1;
+	private String message = "";
+
+	/**
+	 * @param stream the JSON response, without callback
+	 * @return a parser positioned at the start of the response object
+	 * @throws IOException In case the stream does not start with a JSON object
+	 */
+	static JsonParser open(InputStream stream) throws IOException {
+		JsonParser parser = JsonMappers.parser(stream);
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			parser.close();
+			throw new IOException("Expected a JSON object but found " + parser.currentToken());
+		}
+		return parser;
+	}
+
+	/**
+	 * Reads the value of a top level field if it is part of the header.
+	 * @param parser parser positioned at the value of the field
+	 * @param field name of the field
+	 * @return true if the field was read, false if it is not part of the header
+	 * @throws IOException In case the value can not be read
+	 */
+	boolean read(JsonParser parser, String field) throws IOException {
+		switch (field) {
+			case "code":
+				code = ResponseCode.fromString(parser.getValueAsString());
+				return true;
+			case "requestTime":
+				requestTime = parser.getValueAsLong(-1);
+				return true;
+			case "message":
+				message = parser.getValueAsString("");
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	ResponseCode getCode() {
+		return code;
+	}
+
+	long getRequestTime() {
+		return requestTime;
+	}
+
+	String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @param request name of the request for the error message, e.g. "Time request"
+	 * @throws ResponseErrorException In case the response has an error code
+	 */
+	void check(String request) throws ResponseErrorException {
+		check(code, message, request);
+	}
+
+	/**
+	 * @param parser parser positioned at a value
+	 * @return the integer value, {@link #MISSING} if it is null or no number
+	 * @throws IOException In case the value can not be read
+	 */
+	static int readInt(JsonParser parser) throws IOException {
+		switch (parser.currentToken()) {
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return parser.getValueAsInt();
+			case VALUE_STRING:
+				try {
+					return Integer.parseInt(parser.getText().trim());
+				} catch (NumberFormatException e) {
+					return MISSING;
+				}
+			default:
+				parser.skipChildren();
+				return MISSING;
+		}
+	}
+
+	/**
+	 * Fails like {@link com.targomo.client.api.util.JsonUtil#getInt(org.json.JSONObject, String)} on a missing value.
+	 * @param value the value read with {@link #readInt(JsonParser)}
+	 * @param field name of the field
+	 * @param id ID of the object the field belongs to
+	 * @throws TargomoClientRuntimeException In case the value is missing
+	 */
+	static void require(int value, String field, String id) {
+		if (value == MISSING)
+			throw new TargomoClientRuntimeException(String.format("Could not get key '%s' from target '%s'", field, id));
+	}
+
+	static void check(ResponseCode code, String message, String request) throws ResponseErrorException {
+		if (code != ResponseCode.OK) {
+			String msg = request + " returned an error";
+			if (!StringUtils.isEmpty(message)) {
+				msg += ": " + message;
+			}
+			throw new ResponseErrorException(code, msg);
+		}
+	}
+}
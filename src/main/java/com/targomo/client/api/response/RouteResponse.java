@@ -3,7 +3,7 @@ package com.targomo.client.api.response;
 import com.targomo.client.api.TravelOptions;
 import org.json.JSONArray;
 
-public class RouteResponse {
+public class RouteResponse extends TimedResponse {
 
 	private final ResponseCode code;
 	private final long requestTimeMillis;
@@ -38,6 +38,11 @@ public class RouteResponse {
 		return requestTimeMillis;
 	}
 
+	@Override
+	protected long serverTimeMillis() {
+		return requestTimeMillis;
+	}
+
 	/**
 	 * @return the travelOptions
 	 */
@@ -10,7 +10,7 @@ import org.json.JSONObject;
 @AllArgsConstructor
 @Setter
 @Getter
-public class ScoreResponse {
+public class ScoreResponse extends TimedResponse {
     private final JSONObject data;
     private String message;
     private JSONArray errors;
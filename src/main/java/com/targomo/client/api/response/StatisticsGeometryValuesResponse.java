@@ -5,7 +5,7 @@ import com.targomo.client.api.response.statistics.StatisticGeometryValuesResult;
 import com.targomo.client.api.util.JsonUtil;
 import org.json.JSONObject;
 
-public class StatisticsGeometryValuesResponse {
+public class StatisticsGeometryValuesResponse extends TimedResponse {
 
 	private final long requestTimeMillis;
 	private final long totalTimeMillis;
@@ -49,6 +49,11 @@ public class StatisticsGeometryValuesResponse {
 		return requestTimeMillis;
 	}
 
+	@Override
+	protected long serverTimeMillis() {
+		return requestTimeMillis;
+	}
+
 	/**
 	 * @return the totalTimeMillis
 	 */
@@ -0,0 +1,307 @@
+package com.targomo.client.api.response;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Travel times and closest sources of the targets of a reachability request, stored in <code>int</code> arrays indexed
+ * by the ordinals of the targets. A target costs its ID and 8 bytes instead of a boxed travel time and two map entries.
+ *
+ * <p>
+ * The ordinals follow the order in which the targets are added. The IDs of the closest sources are interned, each ID
+ * is stored once no matter how many targets it is the closest source of. The map views ({@link #asTravelTimeMap()}
+ * etc.) are read-only and create their values when they are read. Not thread-safe while the results are added.
+ * </p>
+ */
+public final class TargetTravelTimes {
+
+	/**
+	 * Travel time of a target without a result.
+	 */
+	public static final int NO_VALUE = -1;
+
+	// marks targets without a travel time, travel times of -1 are valid
+	private static final int ABSENT = Integer.MIN_VALUE;
+
+	private String[] targets;
+	private int[] travelTimes;
+	// ordinals of the closest sources, -1 if there is none
+	private int[] closestSources;
+	private int targetCount = 0;
+	private int travelTimeCount = 0;
+	private int closestSourceCount = 0;
+	private final TObjectIntHashMap<String> targetIndex;
+
+	private String[] sources = new String[4];
+	private int sourceCount = 0;
+	private final TObjectIntHashMap<String> sourceIndex = new TObjectIntHashMap<>(10, 0.5f, -1);
+
+	TargetTravelTimes(int expectedTargets) {
+		int capacity = Math.max(1, expectedTargets);
+		this.targets = new String[capacity];
+		this.travelTimes = new int[capacity];
+		this.closestSources = new int[capacity];
+		this.targetIndex = new TObjectIntHashMap<>(capacity, 0.5f, -1);
+	}
+
+	public int getTargetCount() {
+		return targetCount;
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @return the ID of the target
+	 */
+	public String getTargetId(int target) {
+		checkIndex(target);
+		return targets[target];
+	}
+
+	/**
+	 * @param id ID of a target
+	 * @return the ordinal of the target, -1 if it is unknown
+	 */
+	public int indexOfTarget(String id) {
+		return id == null ? -1 : targetIndex.get(id);
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @return true if the results contain a travel time of the target
+	 */
+	public boolean hasTravelTime(int target) {
+		checkIndex(target);
+		return travelTimes[target] != ABSENT;
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @return the travel time, {@link #NO_VALUE} if there is no result
+	 */
+	public int getTravelTime(int target) {
+		checkIndex(target);
+		return travelTimes[target] == ABSENT ? NO_VALUE : travelTimes[target];
+	}
+
+	/**
+	 * @param targetId ID of the target
+	 * @return the travel time, {@link #NO_VALUE} if the target is unknown or there is no result
+	 */
+	public int getTravelTime(String targetId) {
+		int target = indexOfTarget(targetId);
+		return target < 0 ? NO_VALUE : getTravelTime(target);
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @return the ID of the closest source, null if it is not part of the results
+	 */
+	public String getClosestSourceId(int target) {
+		checkIndex(target);
+		return closestSources[target] < 0 ? null : sources[closestSources[target]];
+	}
+
+	/**
+	 * @param targetId ID of the target
+	 * @return the ID of the closest source, null if the target is unknown or its closest source is not part of the results
+	 */
+	public String getClosestSourceId(String targetId) {
+		int target = indexOfTarget(targetId);
+		return target < 0 ? null : getClosestSourceId(target);
+	}
+
+	/**
+	 * @param consumer receives the targets that have a travel time with their closest source, in the order of the
+	 *                 targets and with a length of {@link TravelTimeMatrix#NO_VALUE}
+	 */
+	public void forEach(TravelTimeConsumer consumer) {
+		for (int target = 0; target < targetCount; target++) {
+			if (travelTimes[target] != ABSENT)
+				consumer.accept(getClosestSourceId(target), targets[target], travelTimes[target], TravelTimeMatrix.NO_VALUE);
+		}
+	}
+
+	/**
+	 * @return read-only view from the IDs of the targets with results to their travel times
+	 */
+	public Map<String, Integer> asTravelTimeMap() {
+		return new TargetMap<Integer>() {
+			@Override
+			boolean present(int target) {
+				return travelTimes[target] != ABSENT;
+			}
+
+			@Override
+			Integer value(int target) {
+				return travelTimes[target];
+			}
+
+			@Override
+			int count() {
+				return travelTimeCount;
+			}
+		};
+	}
+
+	/**
+	 * @return read-only view from the IDs of the targets to the IDs of their closest sources
+	 */
+	public Map<String, String> asClosestSourceMap() {
+		return new TargetMap<String>() {
+			@Override
+			boolean present(int target) {
+				return closestSources[target] >= 0;
+			}
+
+			@Override
+			String value(int target) {
+				return sources[closestSources[target]];
+			}
+
+			@Override
+			int count() {
+				return closestSourceCount;
+			}
+		};
+	}
+
+	/**
+	 * @param targetId ID of the target, added if it is unknown
+	 * @param travelTime the travel time
+	 */
+	void setTravelTime(String targetId, int travelTime) {
+		int target = addTarget(targetId);
+		if (travelTimes[target] == ABSENT)
+			travelTimeCount++;
+		travelTimes[target] = travelTime;
+	}
+
+	/**
+	 * Removes the travel time of a target, it has no result afterwards.
+	 * @param targetId ID of the target, added if it is unknown
+	 */
+	void clearTravelTime(String targetId) {
+		int target = addTarget(targetId);
+		if (travelTimes[target] != ABSENT)
+			travelTimeCount--;
+		travelTimes[target] = ABSENT;
+	}
+
+	/**
+	 * @param targetId ID of the target, added if it is unknown
+	 * @param sourceId ID of the closest source
+	 */
+	void setClosestSource(String targetId, String sourceId) {
+		int source = sourceIndex.get(sourceId);
+		if (source < 0) {
+			if (sourceCount == sources.length)
+				sources = Arrays.copyOf(sources, sourceCount * 2);
+			sources[sourceCount] = sourceId;
+			sourceIndex.put(sourceId, sourceCount);
+			source = sourceCount++;
+		}
+		int target = addTarget(targetId);
+		if (closestSources[target] < 0)
+			closestSourceCount++;
+		closestSources[target] = source;
+	}
+
+	private int addTarget(String targetId) {
+		int index = targetIndex.get(targetId);
+		if (index >= 0)
+			return index;
+		if (targetCount == targets.length) {
+			targets = Arrays.copyOf(targets, targetCount * 2);
+			travelTimes = Arrays.copyOf(travelTimes, targetCount * 2);
+			closestSources = Arrays.copyOf(closestSources, targetCount * 2);
+		}
+		targets[targetCount] = targetId;
+		travelTimes[targetCount] = ABSENT;
+		closestSources[targetCount] = -1;
+		targetIndex.put(targetId, targetCount);
+		return targetCount++;
+	}
+
+	private void checkIndex(int target) {
+		if (target < 0 || target >= targetCount)
+			throw new IndexOutOfBoundsException("Index " + target + " out of bounds for length " + targetCount);
+	}
+
+	/**
+	 * Read-only view of the targets that have a value.
+	 */
+	private abstract class TargetMap<V> extends AbstractMap<String, V> {
+
+		abstract boolean present(int target);
+
+		abstract V value(int target);
+
+		/**
+		 * @return the number of targets that have a value
+		 */
+		abstract int count();
+
+		@Override
+		public int size() {
+			return count();
+		}
+
+		@Override
+		public V get(Object key) {
+			int target = key instanceof String ? indexOfTarget((String) key) : -1;
+			return target < 0 || !present(target) ? null : value(target);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			int target = key instanceof String ? indexOfTarget((String) key) : -1;
+			return target >= 0 && present(target);
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<Entry<String, V>>() {
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					return new Iterator<Entry<String, V>>() {
+
+						private int next = advance(0);
+
+						private int advance(int from) {
+							int target = from;
+							while (target < targetCount && !present(target))
+								target++;
+							return target;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < targetCount;
+						}
+
+						@Override
+						public Entry<String, V> next() {
+							if (!hasNext())
+								throw new NoSuchElementException();
+							Entry<String, V> entry = new SimpleImmutableEntry<>(targets[next], value(next));
+							next = advance(next + 1);
+							return entry;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return count();
+				}
+			};
+		}
+	}
+}
@@ -1,21 +1,23 @@
 package com.targomo.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.geo.Coordinate;
 import com.targomo.client.api.pojo.TravelWeight;
 import com.targomo.client.api.util.JsonUtil;
-import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-public class TimeResponse {
+public class TimeResponse extends TimedResponse {
 
 	private static final TravelWeight EMPTY_TRAVELWEIGHT = new TravelWeight(-1, -1);
 
@@ -25,7 +27,8 @@ public class TimeResponse {
 	private final TravelOptions travelOptions;
 	private final String message;
 
-	private final Map<Coordinate, Map<Coordinate,TravelWeight>> travelWeights = new HashMap<>();
+	private final TravelTimeMatrix matrix;
+	private Map<Coordinate, Map<Coordinate, TravelWeight>> travelWeights = null;
 	private Map<Coordinate, Map<Coordinate, Integer>> travelTimes = null;
 	private Map<Coordinate, Map<Coordinate, Integer>> travelDistances = null;
 
@@ -38,19 +41,14 @@ public class TimeResponse {
 	public TimeResponse(TravelOptions travelOptions, JSONObject result, long requestStart) throws ResponseErrorException {
 		
 		this.travelOptions 	   	  = travelOptions;
+		this.matrix               = matrix(travelOptions);
 		this.code 		 	   	  = ResponseCode.fromString(JsonUtil.getString(result, "code"));
 		this.requestTimeMillis 	  = result.has("requestTime") ? JsonUtil.getLong(result, "requestTime") : -1;
 		this.totalTimeMillis      = System.currentTimeMillis() - requestStart;
 		this.message              = result.has("message") ? JsonUtil.getString(result, "message") : "";
 
 		// throw an exception in case of an error code
-		if (this.code != ResponseCode.OK) {
-			String msg = "Time request returned an error";
-			if (!StringUtils.isEmpty(message)) {
-				msg += ": " + message;
-			}
-			throw new ResponseErrorException(this.code, msg);
-		}
+		ResponseHeader.check(this.code, this.message, "Time request");
 
 		mapResults(result);
 	}
@@ -65,12 +63,145 @@ public class TimeResponse {
 	public TimeResponse(TravelOptions travelOptions, ResponseCode code, long requestTime, long requestStart) {
 
 		this.travelOptions 	   	  = travelOptions;
+		this.matrix               = matrix(travelOptions);
 		this.code 		 	   	  = code;
 		this.requestTimeMillis 	  = requestTime;
 		this.totalTimeMillis      = System.currentTimeMillis() - requestStart;
 		this.message              = "";
 	}
 
+	private TimeResponse(TravelOptions travelOptions, TravelTimeMatrix matrix, ResponseCode code, long requestTime,
+						 String message, long requestStart) {
+
+		this.travelOptions 	   	  = travelOptions;
+		this.matrix               = matrix;
+		this.code 		 	   	  = code;
+		this.requestTimeMillis 	  = requestTime;
+		this.totalTimeMillis      = System.currentTimeMillis() - requestStart;
+		this.message              = message;
+	}
+
+	/**
+	 * Create a response by streaming the JSON results into the {@link TravelTimeMatrix}, without building a
+	 * {@link JSONObject} of the whole body first. Results of sources and targets that are not part of the travel
+	 * options are skipped.
+	 * @param travelOptions Travel options used in request
+	 * @param stream Travel times in JSON, without callback
+	 * @param requestStart Start time of execution
+	 * @return the response
+	 * @throws IOException In case the stream can not be read or is no valid JSON
+	 * @throws ResponseErrorException In case the response has an error code
+	 */
+	public static TimeResponse parse(TravelOptions travelOptions, InputStream stream, long requestStart)
+			throws IOException, ResponseErrorException {
+		return parse(travelOptions, stream, requestStart, null);
+	}
+
+	/**
+	 * Create a response by streaming the JSON results, see {@link #parse(TravelOptions, InputStream, long)}.
+	 * @param travelOptions Travel options used in request
+	 * @param stream Travel times in JSON, without callback
+	 * @param requestStart Start time of execution
+	 * @param consumer receives the results instead of the matrix of the response, null to collect them in the matrix
+	 * @return the response, without results if a consumer is given
+	 * @throws IOException In case the stream can not be read or is no valid JSON
+	 * @throws ResponseErrorException In case the response has an error code
+	 */
+	public static TimeResponse parse(TravelOptions travelOptions, InputStream stream, long requestStart,
+									 TravelTimeConsumer consumer) throws IOException, ResponseErrorException {
+
+		TravelTimeMatrix matrix = matrix(travelOptions);
+		ResponseHeader header = new ResponseHeader();
+
+		try (JsonParser parser = ResponseHeader.open(stream)) {
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if (header.read(parser, field))
+					continue;
+				// results after an error code are skipped, results before it were already passed on
+				boolean failed = header.getCode() != null && header.getCode() != ResponseCode.OK;
+				if ("data".equals(field) && value == JsonToken.START_ARRAY && !failed)
+					readSources(parser, consumer != null ? new ConsumerSink(consumer) : new MatrixSink(matrix));
+				else
+					parser.skipChildren();
+			}
+		}
+
+		header.check("Time request");
+		return new TimeResponse(travelOptions, matrix, header.getCode(), header.getRequestTime(), header.getMessage(), requestStart);
+	}
+
+	/**
+	 * Reads the <code>data</code> array, the parser is at its start.
+	 */
+	private static void readSources(JsonParser parser, CellSink sink) throws IOException {
+		// cells of targets that come before the ID of their source
+		String[] pendingTargets = new String[0];
+		int[] pendingWeights = new int[0];
+
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+			String source = null;
+			int pendingCells = 0;
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("id".equals(field)) {
+					source = parser.getValueAsString();
+					sink.source(source);
+				}
+				else if ("targets".equals(field) && value == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						String target = null;
+						int travelTime = ResponseHeader.MISSING;
+						int length = ResponseHeader.MISSING;
+						while (parser.nextToken() == JsonToken.FIELD_NAME) {
+							String targetField = parser.getCurrentName();
+							parser.nextToken();
+							if ("id".equals(targetField))
+								target = parser.getValueAsString();
+							else if ("travelTime".equals(targetField))
+								travelTime = ResponseHeader.readInt(parser);
+							else if ("length".equals(targetField))
+								length = ResponseHeader.readInt(parser);
+							else
+								parser.skipChildren();
+						}
+						if (target == null)
+							continue;
+						// like the JSON constructor, a target without travel time or length is an invalid response
+						ResponseHeader.require(travelTime, "travelTime", target);
+						ResponseHeader.require(length, "length", target);
+						if (source != null) {
+							sink.cell(source, target, travelTime, length);
+						}
+						else {
+							if (pendingTargets.length == pendingCells) {
+								pendingTargets = Arrays.copyOf(pendingTargets, Math.max(16, pendingCells * 2));
+								pendingWeights = Arrays.copyOf(pendingWeights, pendingTargets.length * 2);
+							}
+							pendingTargets[pendingCells] = target;
+							pendingWeights[pendingCells * 2] = travelTime;
+							pendingWeights[pendingCells * 2 + 1] = length;
+							pendingCells++;
+						}
+					}
+				}
+				else {
+					parser.skipChildren();
+				}
+			}
+
+			if (source != null) {
+				for (int i = 0; i < pendingCells; i++)
+					sink.cell(source, pendingTargets[i], pendingWeights[i * 2], pendingWeights[i * 2 + 1]);
+			}
+		}
+	}
+
+
+
 	/**
 	 * Parse results in JSON to travel times map.
 	 * @param result resulting JSON
@@ -94,13 +225,15 @@ public class TimeResponse {
 			String srcId = JsonUtil.getString(source, "id");
 			JSONArray targets = JsonUtil.getJsonArray(source, "targets");
 
-			this.travelWeights.putIfAbsent(travelOptions.getSource(srcId), new HashMap<>());
+			int row = matrix.addRow(travelOptions.getSource(srcId));
+			if (row < 0)
+				continue;
 
 			for (int j = 0; j < targets.length(); j++) {
 				JSONObject target = JsonUtil.getJSONObject(targets, j);
 				String trgId = JsonUtil.getString(target, "id");
 
-				addTravelWeight(travelOptions.getSource(srcId), travelOptions.getTarget(trgId),
+				matrix.set(row, travelOptions.getTarget(trgId),
 						JsonUtil.getInt(target, "travelTime"), JsonUtil.getInt(target, "length"));
 			}
 		}
@@ -113,9 +246,9 @@ public class TimeResponse {
 	 * @param length Travel distance to be added
 	 */
 	public void addTravelWeight(Coordinate source, Coordinate target, Integer travelTime, Integer length) {
-		
-		this.travelWeights.putIfAbsent(source, new HashMap<>());
-		this.travelWeights.get(source).put(target, new TravelWeight(length, travelTime));
+		int row = matrix.addRow(source);
+		if (row >= 0)
+			matrix.set(row, target, travelTime, length);
 	}
 
 	/**
@@ -142,7 +275,19 @@ public class TimeResponse {
 	 * @return null if the source or the target is not available, the travel weight otherwise
 	 */
 	public TravelWeight getTravelWeight(Coordinate source, Coordinate target) {
-		return this.travelWeights.getOrDefault(source, Collections.emptyMap()).getOrDefault(target, EMPTY_TRAVELWEIGHT);
+		int sourceIndex = matrix.indexOfSource(source);
+		int targetIndex = matrix.indexOfTarget(target);
+		if (sourceIndex < 0 || targetIndex < 0 || !matrix.hasValue(sourceIndex, targetIndex))
+			return EMPTY_TRAVELWEIGHT;
+		return new TravelWeight(matrix.getLength(sourceIndex, targetIndex), matrix.getTravelTime(sourceIndex, targetIndex));
+	}
+
+	/**
+	 * The results as matrix of primitive travel times and lengths, e.g. to iterate large results without boxing.
+	 * @return the travel time matrix
+	 */
+	public TravelTimeMatrix getMatrix() {
+		return matrix;
 	}
 
 	/**
@@ -159,6 +304,11 @@ public class TimeResponse {
 		return requestTimeMillis;
 	}
 
+	@Override
+	protected long serverTimeMillis() {
+		return requestTimeMillis;
+	}
+
 	/**
 	 * @return the travelOptions
 	 */
@@ -168,55 +318,104 @@ public class TimeResponse {
 	
 	/**
 	 * Get travel weights from each source point to each target point.
-	 * @return map from each source to (targets, travel times)
+	 * @return read-only map from each source to (targets, travel weights), see {@link #getMatrix()}
 	 */
 	public Map<Coordinate, Map<Coordinate, TravelWeight>> getTravelWeights() {
-		return this.travelWeights;
+		if (travelWeights == null)
+			travelWeights = matrix.asTravelWeightMap();
+		return travelWeights;
 	}
 
 	/**
 	 * Get travel times from each source point to each target point.
-	 * @return map from each source to (targets, travel times)
+	 * @return read-only map from each source to (targets, travel times), see {@link #getMatrix()}
 	 */
 	public Map<Coordinate, Map<Coordinate, Integer>> getTravelTimes() {
-
-		if (travelTimes == null) {
-			travelTimes = new HashMap<>();
-
-			this.travelWeights.entrySet().forEach(entry ->
-					travelTimes.put(
-							entry.getKey(),
-							entry.getValue().entrySet().stream()
-									.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getTravelTime())))
-			);
-		}
+		if (travelTimes == null)
+			travelTimes = matrix.asTravelTimeMap();
 		return travelTimes;
 	}
 
 	/**
 	 * Get travel distances from each source point to each target point.
-	 * @return map from each source to (targets, lengths)
+	 * @return read-only map from each source to (targets, lengths), see {@link #getMatrix()}
 	 */
 	public Map<Coordinate, Map<Coordinate, Integer>> getLengths() {
-
-		if (travelDistances == null) {
-			travelDistances = new HashMap<>();
-
-			this.travelWeights.entrySet().forEach(entry ->
-					travelDistances.put(
-							entry.getKey(),
-							entry.getValue().entrySet().stream()
-									.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getTravelDistance())))
-			);
-
-		}
+		if (travelDistances == null)
+			travelDistances = matrix.asLengthMap();
 		return travelDistances;
 	}
 
+	private static TravelTimeMatrix matrix(TravelOptions travelOptions) {
+		if (travelOptions == null)
+			return new TravelTimeMatrix(Collections.emptyList(), Collections.emptyList());
+		return new TravelTimeMatrix(travelOptions.getSources().values(), travelOptions.getTargets().values());
+	}
+
 	/**
 	 * @return Total execution time
 	 */
 	public long getTotalTime() {
 		return this.totalTimeMillis;
 	}
+
+	/**
+	 * Receives the results while they are read, source by source.
+	 */
+	private interface CellSink {
+		void source(String sourceId);
+
+		void cell(String sourceId, String targetId, int travelTime, int length);
+	}
+
+	/**
+	 * Writes the results of the sources and targets of the travel options into the matrix.
+	 */
+	private static final class MatrixSink implements CellSink {
+
+		private final TravelTimeMatrix matrix;
+		private int row = -1;
+
+		private MatrixSink(TravelTimeMatrix matrix) {
+			this.matrix = matrix;
+		}
+
+		@Override
+		public void source(String sourceId) {
+			row = matrix.indexOfSource(sourceId);
+			if (row >= 0)
+				matrix.addRow(row);
+		}
+
+		@Override
+		public void cell(String sourceId, String targetId, int travelTime, int length) {
+			if (row < 0)
+				return;
+			int target = matrix.indexOfTarget(targetId);
+			if (target >= 0)
+				matrix.set(row, target, travelTime, length);
+		}
+	}
+
+	/**
+	 * Passes the results on to a {@link TravelTimeConsumer}.
+	 */
+	private static final class ConsumerSink implements CellSink {
+
+		private final TravelTimeConsumer consumer;
+
+		private ConsumerSink(TravelTimeConsumer consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void source(String sourceId) {
+			// the consumer only receives cells
+		}
+
+		@Override
+		public void cell(String sourceId, String targetId, int travelTime, int length) {
+			consumer.accept(sourceId, targetId, travelTime, length);
+		}
+	}
 }
@@ -0,0 +1,35 @@
+package com.targomo.client.api.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Base of the responses that carry the {@link RequestTimings} of the request they were received with.
+ */
+public abstract class TimedResponse {
+
+    private RequestTimings timings;
+
+    /**
+     * @return the timings of the request or null if the response was not received by a request
+     */
+    @JsonIgnore
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * @param timings the timings of the request, completed with the server time reported in this response
+     */
+    @JsonIgnore
+    public void setTimings(RequestTimings timings) {
+        long serverTimeMillis = serverTimeMillis();
+        this.timings = timings == null || serverTimeMillis < 0 ? timings : timings.withServerTimeMillis(serverTimeMillis);
+    }
+
+    /**
+     * @return processing time reported by the service in milliseconds, -1 if the response does not contain it
+     */
+    protected long serverTimeMillis() {
+        return -1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.targomo.client.api.response;
+
+/**
+ * Receives the results of a time or reachability request one by one while the response is parsed, instead of
+ * collecting them in the response, e.g. to aggregate very large results in constant memory:
+ * <pre>
+ *     AtomicInteger reached = new AtomicInteger();
+ *     new ReachabilityRequest(client, options).get((sourceId, targetId, travelTime, length) -&gt; {
+ *         if (travelTime &gt;= 0 &amp;&amp; travelTime &lt;= 900)
+ *             reached.incrementAndGet();
+ *     });
+ * </pre>
+ * The callback runs on the thread that parses the response, for asynchronous requests on a thread of the client.
+ * The IDs are passed as returned by the service, results of IDs that are not part of the travel options are
+ * passed as well.
+ *
+ * <p>
+ * The results are passed on as they arrive, before the code of the response is known if the service sends it after
+ * the results, as it usually does. A request whose response turns out to have an error code then fails with a
+ * {@link com.targomo.client.api.exception.ResponseErrorException} after results were passed; the consumer must
+ * discard what it received for such a request. Results are not passed once an error code was read.
+ * </p>
+ */
+@FunctionalInterface
+public interface TravelTimeConsumer {
+
+	/**
+	 * @param sourceId ID of the source, for reachability results the closest source or null if it is not returned
+	 * @param targetId ID of the target
+	 * @param travelTime the travel time in seconds, -1 if the target is not reachable
+	 * @param length the travel distance in meters, {@link TravelTimeMatrix#NO_VALUE} for reachability results
+	 */
+	void accept(String sourceId, String targetId, int travelTime, int length);
+}
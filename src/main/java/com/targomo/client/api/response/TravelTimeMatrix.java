@@ -0,0 +1,490 @@
+package com.targomo.client.api.response;
+
+import com.targomo.client.api.geo.Coordinate;
+import com.targomo.client.api.pojo.TravelWeight;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Travel times and lengths from sources to targets, stored as one <code>int</code> row per source and indexed by the
+ * ordinals of the sources and targets. A cell costs 8 bytes instead of a {@link TravelWeight} and two map entries.
+ *
+ * <p>
+ * The ordinals follow the order of the sources and targets of the travel options; sources and targets that appear in
+ * the results only are appended. Cells without a result are distinguished from results of -1, e.g. unreachable
+ * targets, with {@link #hasValue(int, int)}. The map views ({@link #asTravelWeightMap()} etc.) are read-only and
+ * create their values when they are read. Not thread-safe while the results are added.
+ * </p>
+ */
+public final class TravelTimeMatrix {
+
+	/**
+	 * Travel time and length of a cell without a result.
+	 */
+	public static final int NO_VALUE = -1;
+
+	// marks cells without a result in the rows, results of -1 are valid
+	private static final int ABSENT = Integer.MIN_VALUE;
+
+	/**
+	 * Receives the cells of a matrix without boxing.
+	 */
+	@FunctionalInterface
+	public interface CellConsumer {
+		void accept(int source, int target, int travelTime, int length);
+	}
+
+	private Coordinate[] sources;
+	private Coordinate[] targets;
+	private int sourceCount = 0;
+	private int targetCount = 0;
+	private final TObjectIntHashMap<String> sourceIndex;
+	private final TObjectIntHashMap<String> targetIndex;
+	// null for sources without results
+	private int[][] travelTimes;
+	private int[][] lengths;
+	// sizes of the map views: sources with results and cells with a result per source
+	private int rowCount = 0;
+	private int[] cellCounts;
+
+	TravelTimeMatrix(Collection<Coordinate> sources, Collection<Coordinate> targets) {
+		this.sources = new Coordinate[Math.max(1, sources.size())];
+		this.targets = new Coordinate[Math.max(1, targets.size())];
+		this.sourceIndex = new TObjectIntHashMap<>(this.sources.length, 0.5f, -1);
+		this.targetIndex = new TObjectIntHashMap<>(this.targets.length, 0.5f, -1);
+		this.travelTimes = new int[this.sources.length][];
+		this.lengths = new int[this.sources.length][];
+		this.cellCounts = new int[this.sources.length];
+		for (Coordinate source : sources)
+			addSource(source);
+		for (Coordinate target : targets)
+			addTarget(target);
+	}
+
+	public int getSourceCount() {
+		return sourceCount;
+	}
+
+	public int getTargetCount() {
+		return targetCount;
+	}
+
+	/**
+	 * @param source ordinal of the source
+	 * @return the source
+	 */
+	public Coordinate getSource(int source) {
+		checkIndex(source, sourceCount);
+		return sources[source];
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @return the target
+	 */
+	public Coordinate getTarget(int target) {
+		checkIndex(target, targetCount);
+		return targets[target];
+	}
+
+	/**
+	 * @param id ID of a source
+	 * @return the ordinal of the source, -1 if it is unknown
+	 */
+	public int indexOfSource(String id) {
+		return id == null ? -1 : sourceIndex.get(id);
+	}
+
+	/**
+	 * @param id ID of a target
+	 * @return the ordinal of the target, -1 if it is unknown
+	 */
+	public int indexOfTarget(String id) {
+		return id == null ? -1 : targetIndex.get(id);
+	}
+
+	/**
+	 * @param source a source coordinate
+	 * @return the ordinal of the source, -1 if it is unknown
+	 */
+	public int indexOfSource(Coordinate source) {
+		int index = source == null ? -1 : indexOfSource(source.getId());
+		return index >= 0 && sources[index].equals(source) ? index : -1;
+	}
+
+	/**
+	 * @param target a target coordinate
+	 * @return the ordinal of the target, -1 if it is unknown
+	 */
+	public int indexOfTarget(Coordinate target) {
+		int index = target == null ? -1 : indexOfTarget(target.getId());
+		return index >= 0 && targets[index].equals(target) ? index : -1;
+	}
+
+	/**
+	 * @param source ordinal of the source
+	 * @param target ordinal of the target
+	 * @return true if the results contain the cell
+	 */
+	public boolean hasValue(int source, int target) {
+		return cell(travelTimes, source, target) != ABSENT;
+	}
+
+	/**
+	 * @param source ordinal of the source
+	 * @param target ordinal of the target
+	 * @return the travel time, {@link #NO_VALUE} if there is no result
+	 */
+	public int getTravelTime(int source, int target) {
+		int travelTime = cell(travelTimes, source, target);
+		return travelTime == ABSENT ? NO_VALUE : travelTime;
+	}
+
+	/**
+	 * @param source ordinal of the source
+	 * @param target ordinal of the target
+	 * @return the travel distance, {@link #NO_VALUE} if there is no result
+	 */
+	public int getLength(int source, int target) {
+		int length = cell(lengths, source, target);
+		return length == ABSENT ? NO_VALUE : length;
+	}
+
+	/**
+	 * @param sourceId ID of the source
+	 * @param targetId ID of the target
+	 * @return the travel time, {@link #NO_VALUE} if the source or target is unknown or there is no result
+	 */
+	public int getTravelTime(String sourceId, String targetId) {
+		int source = indexOfSource(sourceId);
+		int target = indexOfTarget(targetId);
+		return source < 0 || target < 0 ? NO_VALUE : getTravelTime(source, target);
+	}
+
+	/**
+	 * @param sourceId ID of the source
+	 * @param targetId ID of the target
+	 * @return the travel distance, {@link #NO_VALUE} if the source or target is unknown or there is no result
+	 */
+	public int getLength(String sourceId, String targetId) {
+		int source = indexOfSource(sourceId);
+		int target = indexOfTarget(targetId);
+		return source < 0 || target < 0 ? NO_VALUE : getLength(source, target);
+	}
+
+	/**
+	 * @param source ordinal of the source
+	 * @param consumer receives the cells of the source that have a result, in the order of the targets
+	 */
+	public void forEachInRow(int source, CellConsumer consumer) {
+		checkIndex(source, sourceCount);
+		int[] times = travelTimes[source];
+		if (times == null)
+			return;
+		int[] distances = lengths[source];
+		for (int target = 0; target < times.length; target++) {
+			if (times[target] != ABSENT)
+				consumer.accept(source, target, times[target], distances[target]);
+		}
+	}
+
+	/**
+	 * @param target ordinal of the target
+	 * @param consumer receives the cells of the target that have a result, in the order of the sources
+	 */
+	public void forEachInColumn(int target, CellConsumer consumer) {
+		checkIndex(target, targetCount);
+		for (int source = 0; source < sourceCount; source++) {
+			int[] times = travelTimes[source];
+			if (times != null && target < times.length && times[target] != ABSENT)
+				consumer.accept(source, target, times[target], lengths[source][target]);
+		}
+	}
+
+	/**
+	 * @param consumer receives all cells that have a result, row by row
+	 */
+	public void forEach(CellConsumer consumer) {
+		for (int source = 0; source < sourceCount; source++)
+			forEachInRow(source, consumer);
+	}
+
+	/**
+	 * @return read-only view from each source with results to its targets with results and their travel weights
+	 */
+	public Map<Coordinate, Map<Coordinate, TravelWeight>> asTravelWeightMap() {
+		return new SourceMap<TravelWeight>() {
+			@Override
+			TravelWeight value(int source, int target) {
+				return new TravelWeight(lengths[source][target], travelTimes[source][target]);
+			}
+		};
+	}
+
+	/**
+	 * @return read-only view from each source with results to its targets with results and their travel times
+	 */
+	public Map<Coordinate, Map<Coordinate, Integer>> asTravelTimeMap() {
+		return new SourceMap<Integer>() {
+			@Override
+			Integer value(int source, int target) {
+				return travelTimes[source][target];
+			}
+		};
+	}
+
+	/**
+	 * @return read-only view from each source with results to its targets with results and their travel distances
+	 */
+	public Map<Coordinate, Map<Coordinate, Integer>> asLengthMap() {
+		return new SourceMap<Integer>() {
+			@Override
+			Integer value(int source, int target) {
+				return lengths[source][target];
+			}
+		};
+	}
+
+	/**
+	 * Marks the source as part of the results, even if none of its targets has a result.
+	 * @param source a source coordinate
+	 * @return the ordinal of the source, -1 if it is null
+	 */
+	int addRow(Coordinate source) {
+		int index = indexOfSource(source);
+		if (index < 0) {
+			if (source == null)
+				return -1;
+			index = addSource(source);
+		}
+		addRow(index);
+		return index;
+	}
+
+	/**
+	 * Marks the source as part of the results, even if none of its targets has a result.
+	 * @param source ordinal of the source
+	 */
+	void addRow(int source) {
+		if (travelTimes[source] == null) {
+			travelTimes[source] = absentRow(targetCount);
+			lengths[source] = absentRow(targetCount);
+			rowCount++;
+		}
+	}
+
+	/**
+	 * @param source ordinal of the source, see {@link #addRow(Coordinate)}
+	 * @param target a target coordinate, added if it is unknown
+	 * @param travelTime the travel time
+	 * @param length the travel distance
+	 */
+	void set(int source, Coordinate target, int travelTime, int length) {
+		int index = indexOfTarget(target);
+		if (index < 0) {
+			if (target == null)
+				return;
+			index = addTarget(target);
+		}
+		set(source, index, travelTime, length);
+	}
+
+	/**
+	 * @param source ordinal of the source, see {@link #addRow(int)}
+	 * @param target ordinal of the target
+	 * @param travelTime the travel time
+	 * @param length the travel distance
+	 */
+	void set(int source, int target, int travelTime, int length) {
+		if (travelTimes[source].length <= target) {
+			travelTimes[source] = grow(travelTimes[source], targetCount);
+			lengths[source] = grow(lengths[source], targetCount);
+		}
+		if (travelTimes[source][target] == ABSENT)
+			cellCounts[source]++;
+		travelTimes[source][target] = travelTime;
+		lengths[source][target] = length;
+	}
+
+	private int addSource(Coordinate source) {
+		if (sourceCount == sources.length) {
+			sources = Arrays.copyOf(sources, sourceCount * 2);
+			travelTimes = Arrays.copyOf(travelTimes, sourceCount * 2);
+			lengths = Arrays.copyOf(lengths, sourceCount * 2);
+			cellCounts = Arrays.copyOf(cellCounts, sourceCount * 2);
+		}
+		sources[sourceCount] = source;
+		sourceIndex.put(source.getId(), sourceCount);
+		return sourceCount++;
+	}
+
+	private int addTarget(Coordinate target) {
+		if (targetCount == targets.length)
+			targets = Arrays.copyOf(targets, targetCount * 2);
+		targets[targetCount] = target;
+		targetIndex.put(target.getId(), targetCount);
+		return targetCount++;
+	}
+
+	private int cell(int[][] rows, int source, int target) {
+		checkIndex(source, sourceCount);
+		checkIndex(target, targetCount);
+		int[] row = rows[source];
+		return row == null || target >= row.length ? ABSENT : row[target];
+	}
+
+	private static int[] absentRow(int length) {
+		int[] row = new int[length];
+		Arrays.fill(row, ABSENT);
+		return row;
+	}
+
+	private static int[] grow(int[] row, int length) {
+		int[] grown = Arrays.copyOf(row, length);
+		Arrays.fill(grown, row.length, length, ABSENT);
+		return grown;
+	}
+
+	private static void checkIndex(int index, int count) {
+		if (index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+	}
+
+	/**
+	 * Read-only view of the sources with results, the inner maps are created when they are read.
+	 */
+	private abstract class SourceMap<V> extends AbstractMap<Coordinate, Map<Coordinate, V>> {
+
+		abstract V value(int source, int target);
+
+		@Override
+		public Map<Coordinate, V> get(Object key) {
+			int source = key instanceof Coordinate ? indexOfSource((Coordinate) key) : -1;
+			return source < 0 || travelTimes[source] == null ? null : new TargetMap(source);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<Coordinate, Map<Coordinate, V>>> entrySet() {
+			return new AbstractSet<Entry<Coordinate, Map<Coordinate, V>>>() {
+				@Override
+				public Iterator<Entry<Coordinate, Map<Coordinate, V>>> iterator() {
+					return new CellIterator<Entry<Coordinate, Map<Coordinate, V>>>(sourceCount) {
+						@Override
+						boolean present(int source) {
+							return travelTimes[source] != null;
+						}
+
+						@Override
+						Entry<Coordinate, Map<Coordinate, V>> entry(int source) {
+							return new SimpleImmutableEntry<>(sources[source], new TargetMap(source));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return rowCount;
+				}
+			};
+		}
+
+		/**
+		 * Read-only view of the targets of one source that have a result.
+		 */
+		private final class TargetMap extends AbstractMap<Coordinate, V> {
+
+			private final int source;
+
+			private TargetMap(int source) {
+				this.source = source;
+			}
+
+			@Override
+			public V get(Object key) {
+				int target = key instanceof Coordinate ? indexOfTarget((Coordinate) key) : -1;
+				return target < 0 || !hasValue(source, target) ? null : value(source, target);
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				int target = key instanceof Coordinate ? indexOfTarget((Coordinate) key) : -1;
+				return target >= 0 && hasValue(source, target);
+			}
+
+			@Override
+			public Set<Entry<Coordinate, V>> entrySet() {
+				return new AbstractSet<Entry<Coordinate, V>>() {
+					@Override
+					public Iterator<Entry<Coordinate, V>> iterator() {
+						return new CellIterator<Entry<Coordinate, V>>(travelTimes[source].length) {
+							@Override
+							boolean present(int target) {
+								return travelTimes[source][target] != ABSENT;
+							}
+
+							@Override
+							Entry<Coordinate, V> entry(int target) {
+								return new SimpleImmutableEntry<>(targets[target], value(source, target));
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return cellCounts[source];
+					}
+				};
+			}
+		}
+	}
+
+	/**
+	 * Iterates the present ordinals below a bound.
+	 */
+	private abstract static class CellIterator<E> implements Iterator<E> {
+
+		private final int bound;
+		private int next = -1;
+		private boolean advanced = false;
+
+		private CellIterator(int bound) {
+			this.bound = bound;
+		}
+
+		abstract boolean present(int index);
+
+		abstract E entry(int index);
+
+		@Override
+		public boolean hasNext() {
+			if (!advanced) {
+				do {
+					next++;
+				} while (next < bound && !present(next));
+				advanced = true;
+			}
+			return next < bound;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			advanced = false;
+			return entry(next);
+		}
+	}
+}
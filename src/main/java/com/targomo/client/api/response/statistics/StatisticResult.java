@@ -13,7 +13,9 @@ import java.util.stream.DoubleStream;
 @Slf4j
 public class StatisticResult {
 
-	private final Map<Integer, Map<Integer, Double>> statistics;
+	private final Map<Integer, StatisticValues> statisticValues;
+	// built on first use, concurrent first calls may build equal maps
+	private volatile Map<Integer, Map<Integer, Double>> statistics = null;
 	private final Map<Integer, Integer> reachableTargets;
 	private final Map<Integer, Integer> targetTravelTimes;
 	private final TravelOptions options;
@@ -25,7 +27,7 @@ public class StatisticResult {
 	public StatisticResult(TravelOptions options, JSONObject jsonResult) {
 		
 		this.options		   = options;
-		this.statistics 	   = jsonResult.has("statistics") ? parseReachableStatisticsResult(jsonResult) : Collections.emptyMap();
+		this.statisticValues   = jsonResult.has("statistics") ? parseStatisticValues(jsonResult) : Collections.emptyMap();
 		this.reachableTargets  = jsonResult.has("reachableTargets") ? parseReachableTargetsResult(jsonResult) : Collections.emptyMap();
 		this.targetTravelTimes = jsonResult.has("targetTravelTimes") ? parseTargetTravelTimes(jsonResult) : Collections.emptyMap();
 	}
@@ -41,9 +43,10 @@ public class StatisticResult {
 		
 		JSONObject minuteToReachableTargets = JsonUtil.getJSONObject(jsonResult, "reachableTargets");
 		
-		for ( Integer minute : JsonUtil.getSortedIntKeySet(minuteToReachableTargets) )
-			if ( minute <= this.options.getMaxEdgeWeight() )
-				reachableTargets.put(minute, JsonUtil.getInt(minuteToReachableTargets, minute + ""));
+		// the tree map sorts the minutes, no need to sort the keys first
+		for ( String key : minuteToReachableTargets.keySet() )
+			if ( Integer.parseInt(key) <= this.options.getMaxEdgeWeight() )
+				reachableTargets.put(Integer.valueOf(key), JsonUtil.getInt(minuteToReachableTargets, key));
 			
 		return reachableTargets;
 	}
@@ -59,9 +62,11 @@ public class StatisticResult {
 		
 		JSONObject targetToMinute = JsonUtil.getJSONObject(jsonResult, "targetTravelTimes");
 		
-		for ( Integer targetId : JsonUtil.getSortedIntKeySet(targetToMinute) ) 
-			if ( JsonUtil.getInt(targetToMinute, targetId + "") <= this.options.getMaxEdgeWeight() )
-				targetTravelTimes.put(targetId, JsonUtil.getInt(targetToMinute, targetId + ""));
+		for ( String key : targetToMinute.keySet() ) {
+			int travelTime = JsonUtil.getInt(targetToMinute, key);
+			if ( travelTime <= this.options.getMaxEdgeWeight() )
+				targetTravelTimes.put(Integer.valueOf(key), travelTime);
+		}
 			
 		return targetTravelTimes;
 	}
@@ -72,27 +77,48 @@ public class StatisticResult {
 	 * @return Map of targets with reachability and statistics
 	 */
 	public Map<Integer, Map<Integer, Double>> parseReachableStatisticsResult(JSONObject result)  {
-		
+		return toMaps(parseStatisticValues(result));
+	}
+
+	/**
+	 * Parses the values of each statistic into arrays indexed by minute, without sorting the keys.
+	 * @param result result as json object
+	 * @return values per statistic id
+	 */
+	private Map<Integer, StatisticValues> parseStatisticValues(JSONObject result) {
+
 		long start = System.currentTimeMillis();
-		Map<Integer, Map<Integer, Double>> reachablePersonsByStatistic = new HashMap<>();
-		
+		Map<Integer, StatisticValues> valuesByStatistic = new TreeMap<>();
+
 		JSONObject statistics = JsonUtil.getJSONObject(result, "statistics");
-		
-		for ( Integer statistic : JsonUtil.getSortedIntKeySet(statistics) ) {
-		
-			JSONObject minuteToValues 			  = JsonUtil.getJSONObject(statistics, statistic + "");
-			Map<Integer, Double> reachablePersons = new TreeMap<>();
-			
-			for ( Integer minute : JsonUtil.getSortedIntKeySet(minuteToValues)) 
-				if ( minute <= this.options.getMaxEdgeWeight() )
-					reachablePersons.put(minute, JsonUtil.getDouble(minuteToValues, minute + ""));
-			
-			reachablePersonsByStatistic.put(statistic, reachablePersons);
+
+		for ( String statistic : statistics.keySet() ) {
+
+			JSONObject minuteToValues = JsonUtil.getJSONObject(statistics, statistic);
+			int[] minutes             = new int[minuteToValues.length()];
+			double[] values           = new double[minuteToValues.length()];
+			int count                 = 0;
+
+			for ( String key : minuteToValues.keySet() ) {
+				int minute = Integer.parseInt(key);
+				if ( minute >= 0 && minute <= this.options.getMaxEdgeWeight() ) {
+					minutes[count] = minute;
+					values[count++] = JsonUtil.getDouble(minuteToValues, key);
+				}
+			}
+
+			valuesByStatistic.put(Integer.valueOf(statistic), new StatisticValues(minutes, values, count));
 		}
-		
+
 		log.debug("It took {}ms to parse the population results!", System.currentTimeMillis() - start);
-		
-		return reachablePersonsByStatistic;
+
+		return valuesByStatistic;
+	}
+
+	private static Map<Integer, Map<Integer, Double>> toMaps(Map<Integer, StatisticValues> valuesByStatistic) {
+		Map<Integer, Map<Integer, Double>> maps = new TreeMap<>();
+		valuesByStatistic.forEach((statistic, values) -> maps.put(statistic, values.asMap()));
+		return Collections.unmodifiableMap(maps);
 	}
 
 	/**
@@ -152,15 +178,67 @@ public class StatisticResult {
 	 */
 	private OptionalDouble getAggToMinute(Integer statisticId, Integer startMinute, Integer endMinute, Function<DoubleStream,OptionalDouble> aggregatorFunction) {
 
-		return aggregatorFunction.apply(
-				this.statistics.get(statisticId).entrySet()
-						.parallelStream()
-						.filter(entry -> startMinute <= entry.getKey() && entry.getKey() <= endMinute)
-						.mapToDouble(Map.Entry::getValue));
+		return aggregatorFunction.apply(this.statisticValues.get(statisticId).stream(startMinute, endMinute));
+	}
+
+	/**
+	 * Sum of the values of a statistic over a range of minutes, in constant time.
+	 *
+	 * @param statisticId the id of the statistic
+	 * @param startMinute the minute of the interval to start from (inclusive)
+	 * @param endMinute the minute of the interval to end at (inclusive)
+	 * @return the sum, 0 if there are no values in the range
+	 *
+	 * @throws NullPointerException if there are no values for the statistic id
+	 */
+	public double getSum(int statisticId, int startMinute, int endMinute) {
+		return this.statisticValues.get(statisticId).getSum(startMinute, endMinute);
+	}
+
+	/**
+	 * Smallest value of a statistic over a range of minutes, in logarithmic time.
+	 *
+	 * @param statisticId the id of the statistic
+	 * @param startMinute the minute of the interval to start from (inclusive)
+	 * @param endMinute the minute of the interval to end at (inclusive)
+	 * @return the minimum, empty if there are no values in the range
+	 *
+	 * @throws NullPointerException if there are no values for the statistic id
+	 */
+	public OptionalDouble getMin(int statisticId, int startMinute, int endMinute) {
+		return this.statisticValues.get(statisticId).getMin(startMinute, endMinute);
+	}
+
+	/**
+	 * Largest value of a statistic over a range of minutes, in logarithmic time.
+	 *
+	 * @param statisticId the id of the statistic
+	 * @param startMinute the minute of the interval to start from (inclusive)
+	 * @param endMinute the minute of the interval to end at (inclusive)
+	 * @return the maximum, empty if there are no values in the range
+	 *
+	 * @throws NullPointerException if there are no values for the statistic id
+	 */
+	public OptionalDouble getMax(int statisticId, int startMinute, int endMinute) {
+		return this.statisticValues.get(statisticId).getMax(startMinute, endMinute);
 	}
 
+	/**
+	 * @param statisticId the id of the statistic
+	 * @return the values of the statistic by minute, null if there are none
+	 */
+	public StatisticValues getStatisticValues(int statisticId) {
+		return this.statisticValues.get(statisticId);
+	}
+
+	/**
+	 * @return read-only map from statistic id to its values by minute, see {@link #getStatisticValues(int)}
+	 */
 	public Map<Integer, Map<Integer, Double>> getStatistics() {
-		return statistics;
+		Map<Integer, Map<Integer, Double>> maps = statistics;
+		if (maps == null)
+			statistics = maps = toMaps(statisticValues);
+		return maps;
 	}
 
 	public Map<Integer, Integer> getReachableTargets() {
@@ -180,11 +258,11 @@ public class StatisticResult {
 		builder.append(getClass().getName());
 		builder.append("\n  statistics: \n");
 		
-		for ( Integer statisticId : this.statistics.keySet() ) {
+		for ( Map.Entry<Integer, Map<Integer, Double>> statistic : getStatistics().entrySet() ) {
 
-			builder.append("    " + statisticId + "\n");
+			builder.append("    " + statistic.getKey() + "\n");
 			builder.append("    ---------------\n");
-			for ( Map.Entry<Integer, Double> entry : this.statistics.get(statisticId).entrySet() )
+			for ( Map.Entry<Integer, Double> entry : statistic.getValue().entrySet() )
 				builder.append("      " + String.format("%6d", entry.getKey()) + ":" + String.format("%14.2f", entry.getValue()) + "\n");
 		}
 		
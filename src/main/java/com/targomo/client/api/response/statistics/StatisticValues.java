@@ -0,0 +1,188 @@
+package com.targomo.client.api.response.statistics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * The values of one statistic per minute, stored in a <code>double</code> array indexed by the minute. Cumulative sums
+ * and counts answer sums and averages over any range of minutes in constant time, minimum and maximum are answered in
+ * logarithmic time from segment trees.
+ *
+ * <p>
+ * Ranges are inclusive at both ends and clipped to the minutes with values. Minutes without a value are skipped by all
+ * aggregations. Immutable once created.
+ * </p>
+ */
+public final class StatisticValues {
+
+	// values per minute, NaN for minutes without a value
+	private final double[] values;
+	// prefixSums[m] is the sum of the values of the minutes before m, prefixCounts[m] their number
+	private final double[] prefixSums;
+	private final int[] prefixCounts;
+	// segment trees with the leaves at size + minute, minutes without a value are infinite
+	private final int size;
+	private final double[] minTree;
+	private final double[] maxTree;
+
+	/**
+	 * @param minutes the minutes with values, in any order
+	 * @param minuteValues the value of each minute
+	 * @param count number of minutes to use from the arrays
+	 */
+	StatisticValues(int[] minutes, double[] minuteValues, int count) {
+		int length = 0;
+		for (int i = 0; i < count; i++)
+			length = Math.max(length, minutes[i] + 1);
+
+		this.values = new double[length];
+		Arrays.fill(this.values, Double.NaN);
+		for (int i = 0; i < count; i++)
+			this.values[minutes[i]] = minuteValues[i];
+
+		this.prefixSums = new double[length + 1];
+		this.prefixCounts = new int[length + 1];
+		for (int minute = 0; minute < length; minute++) {
+			boolean present = !Double.isNaN(values[minute]);
+			prefixSums[minute + 1] = prefixSums[minute] + (present ? values[minute] : 0);
+			prefixCounts[minute + 1] = prefixCounts[minute] + (present ? 1 : 0);
+		}
+
+		this.size = Math.max(1, length);
+		this.minTree = new double[2 * size];
+		this.maxTree = new double[2 * size];
+		Arrays.fill(minTree, Double.POSITIVE_INFINITY);
+		Arrays.fill(maxTree, Double.NEGATIVE_INFINITY);
+		for (int minute = 0; minute < length; minute++) {
+			if (!Double.isNaN(values[minute])) {
+				minTree[size + minute] = values[minute];
+				maxTree[size + minute] = values[minute];
+			}
+		}
+		for (int node = size - 1; node > 0; node--) {
+			minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+			maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * @return the last minute with a value, -1 if there are no values
+	 */
+	public int getMaxMinute() {
+		return values.length - 1;
+	}
+
+	/**
+	 * @param minute the minute
+	 * @return the value of the minute, empty if it has none
+	 */
+	public OptionalDouble getValue(int minute) {
+		return minute < 0 || minute >= values.length || Double.isNaN(values[minute]) ?
+				OptionalDouble.empty() : OptionalDouble.of(values[minute]);
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the sum of the values in the range, 0 if there are none
+	 */
+	public double getSum(int startMinute, int endMinute) {
+		int start = Math.max(0, startMinute);
+		int end = Math.min(values.length - 1, endMinute);
+		return start > end ? 0 : prefixSums[end + 1] - prefixSums[start];
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the number of minutes with a value in the range
+	 */
+	public int getCount(int startMinute, int endMinute) {
+		int start = Math.max(0, startMinute);
+		int end = Math.min(values.length - 1, endMinute);
+		return start > end ? 0 : prefixCounts[end + 1] - prefixCounts[start];
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the average of the values in the range, empty if there are none
+	 */
+	public OptionalDouble getAverage(int startMinute, int endMinute) {
+		int count = getCount(startMinute, endMinute);
+		return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(getSum(startMinute, endMinute) / count);
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the smallest value in the range, empty if there are none
+	 */
+	public OptionalDouble getMin(int startMinute, int endMinute) {
+		double min = query(minTree, startMinute, endMinute, Double.POSITIVE_INFINITY, true);
+		return min == Double.POSITIVE_INFINITY ? OptionalDouble.empty() : OptionalDouble.of(min);
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the largest value in the range, empty if there are none
+	 */
+	public OptionalDouble getMax(int startMinute, int endMinute) {
+		double max = query(maxTree, startMinute, endMinute, Double.NEGATIVE_INFINITY, false);
+		return max == Double.NEGATIVE_INFINITY ? OptionalDouble.empty() : OptionalDouble.of(max);
+	}
+
+	/**
+	 * @param startMinute first minute of the range (inclusive)
+	 * @param endMinute last minute of the range (inclusive)
+	 * @return the values in the range, in the order of the minutes
+	 */
+	public DoubleStream stream(int startMinute, int endMinute) {
+		int start = Math.max(0, startMinute);
+		int end = Math.min(values.length - 1, endMinute);
+		return IntStream.rangeClosed(start, end)
+				.filter(minute -> !Double.isNaN(values[minute]))
+				.mapToDouble(minute -> values[minute]);
+	}
+
+	/**
+	 * @return read-only map from the minutes with a value to their values, sorted by minute
+	 */
+	public Map<Integer, Double> asMap() {
+		Map<Integer, Double> map = new TreeMap<>();
+		for (int minute = 0; minute < values.length; minute++) {
+			if (!Double.isNaN(values[minute]))
+				map.put(minute, values[minute]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	private double query(double[] tree, int startMinute, int endMinute, double identity, boolean min) {
+		int start = Math.max(0, startMinute);
+		int end = Math.min(values.length - 1, endMinute);
+		if (start > end)
+			return identity;
+		int from = start + size;
+		int to = end + size + 1;
+		double result = identity;
+		while (from < to) {
+			if ((from & 1) == 1) {
+				result = min ? Math.min(result, tree[from]) : Math.max(result, tree[from]);
+				from++;
+			}
+			if ((to & 1) == 1) {
+				to--;
+				result = min ? Math.min(result, tree[to]) : Math.max(result, tree[to]);
+			}
+			from >>= 1;
+			to >>= 1;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,150 @@
+package com.targomo.client.api.util;
+
+import com.targomo.client.Constants;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming counterpart of {@link IOUtil#getResultString(javax.ws.rs.core.Response)}: removes the JSONP wrapper
+ * <code>callback( ... )</code> from a response body while it is read, so the body can be parsed directly from the
+ * stream without materializing it as a String first.
+ *
+ * <p>
+ * A leading <code>callback(</code> and a closing parenthesis that is only followed by whitespace are skipped, all other
+ * bytes are passed through unchanged. Bodies without JSONP wrapper are therefore returned as is, as long as they do
+ * not end with a closing parenthesis.
+ * </p>
+ */
+public final class CallbackStrippingInputStream extends FilterInputStream {
+
+	private static final byte[] PREFIX = (Constants.CALLBACK + "(").getBytes(StandardCharsets.US_ASCII);
+	private static final int BUFFER_SIZE = 8192;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position = 0;   // next byte to hand out
+	private int safeEnd = 0;    // bytes before this index can be handed out
+	private int end = 0;        // end of the buffered bytes
+	private boolean prefixChecked = false;
+	private boolean eof = false;
+
+	public CallbackStrippingInputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureAvailable())
+			return -1;
+		return buffer[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0)
+			return 0;
+		if (!ensureAvailable())
+			return -1;
+		int count = Math.min(len, safeEnd - position);
+		System.arraycopy(buffer, position, b, off, count);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n && ensureAvailable()) {
+			int count = (int) Math.min(n - skipped, safeEnd - position);
+			position += count;
+			skipped += count;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return safeEnd - position;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		// not supported
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	/**
+	 * Fills the buffer until at least one byte can be handed out or the stream is exhausted.
+	 * @return false if there are no more bytes
+	 */
+	private boolean ensureAvailable() throws IOException {
+		while (position >= safeEnd) {
+			if (eof)
+				return false;
+			fill();
+		}
+		return true;
+	}
+
+	private void fill() throws IOException {
+		// keep the bytes that were held back
+		int remaining = end - position;
+		System.arraycopy(buffer, position, buffer, 0, remaining);
+		position = 0;
+		end = remaining;
+
+		int read = in.read(buffer, end, buffer.length - end);
+		if (read < 0)
+			eof = true;
+		else
+			end += read;
+
+		if (!prefixChecked && (end >= PREFIX.length || eof)) {
+			prefixChecked = true;
+			if (startsWithPrefix())
+				position = PREFIX.length;
+		}
+		safeEnd = prefixChecked ? computeSafeEnd() : position;
+	}
+
+	private boolean startsWithPrefix() {
+		if (end < PREFIX.length)
+			return false;
+		for (int i = 0; i < PREFIX.length; i++) {
+			if (buffer[i] != PREFIX[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Holds back a trailing closing parenthesis and the whitespace following it until it is known whether more
+	 * bytes follow. At the end of the stream the parenthesis is dropped.
+	 */
+	private int computeSafeEnd() {
+		int i = end;
+		while (i > position && Character.isWhitespace(buffer[i - 1]))
+			i--;
+		if (i == position || buffer[i - 1] != ')')
+			return end;
+		if (eof) {
+			// drop the closing parenthesis of the callback
+			System.arraycopy(buffer, i, buffer, i - 1, end - i);
+			end--;
+			return end;
+		}
+		// a buffer full of held back bytes can not be anything we need to strip
+		return i - 1 > position || end < buffer.length ? i - 1 : end;
+	}
+}
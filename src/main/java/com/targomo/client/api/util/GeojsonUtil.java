@@ -2,6 +2,7 @@ package com.targomo.client.api.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.targomo.client.api.TargomoClient;
 import lombok.extern.slf4j.Slf4j;
 import org.locationtech.jts.geom.Geometry;
 import org.geotools.geometry.jts.JTS;
@@ -13,7 +14,6 @@ import org.wololo.jts2geojson.GeoJSONReader;
 import org.wololo.jts2geojson.GeoJSONWriter;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
@@ -94,7 +94,7 @@ public class GeojsonUtil {
         }
 
         //For each tour generate a github gist that can be referenced from geojson.io
-        Client client = ClientBuilder.newClient();
+        Client client = TargomoClient.getDefault().getClient();
         WebTarget target = client.target("https://api.github.com/").path("gists");
         String authForUploadingGists = Base64.getEncoder().encodeToString((gitHubUser+":"+githubTokenForGistUpload).getBytes());
         for(Map.Entry<String,Object> geojsonFile : fileMap.entrySet()) {
@@ -138,7 +138,7 @@ public class GeojsonUtil {
         String requestAsString = mapper.writeValueAsString( ImmutableMap.builder().put("public",true).put("files", fileMap).build());
 
         //(2) Execute Request
-        Client client = ClientBuilder.newClient();
+        Client client = TargomoClient.getDefault().getClient();
         WebTarget target = client.target("https://api.github.com/").path("gists");
         String authForUploadingGists = Base64.getEncoder().encodeToString((gitHubUser+":"+githubTokenForGistUpload).getBytes());
         Response response = target.request()
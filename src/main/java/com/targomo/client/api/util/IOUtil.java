@@ -1,12 +1,12 @@
 package com.targomo.client.api.util;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.targomo.client.api.exception.TargomoClientRuntimeException;
 import com.targomo.client.Constants;
+import com.targomo.client.api.json.JsonMappers;
 
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -27,9 +27,7 @@ public final class IOUtil {
      */
 	public static <T> T cloneObjects(T object, Class<T> clazz){
 		try {
-			ObjectMapper om = new ObjectMapper();
-			om.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			return om.readValue(om.writeValueAsString(object), clazz);
+			return JsonMappers.lenientReader(clazz).readValue(JsonMappers.writer().writeValueAsBytes(object));
 		} catch (IOException e) {
 			throw new TargomoClientRuntimeException("Could not duplicate travel options due to: " + e.getMessage());
 		}
@@ -71,4 +69,35 @@ public final class IOUtil {
 	public static String getResultString(final Response response) {
 		return response.readEntity(String.class).replace(Constants.CALLBACK + "(", "").replaceAll("\\)$", "");
 	}
+
+	/**
+	 * Get the body from HTTP response as stream and remove the callback while it is read, so it can be parsed without
+	 * holding the raw body in memory. The stream has to be closed by the caller.
+	 * @param response HTTP response
+	 * @return Response body stream without callback
+	 */
+	public static InputStream getResultStream(final Response response) {
+		return new CallbackStrippingInputStream(response.readEntity(InputStream.class));
+	}
+
+	/**
+	 * Parse the body of a HTTP response directly from its stream, see {@link #getResultStream(Response)}
+	 * @param response HTTP response
+	 * @param parser parser consuming the body stream
+	 * @param <T> type of the parsed result
+	 * @return the parsed result
+	 * @throws TargomoClientRuntimeException In case the body can not be read
+	 */
+	public static <T> T parseResultStream(final Response response, final StreamParser<T> parser) {
+		try (InputStream stream = getResultStream(response)) {
+			return parser.parse(stream);
+		} catch (IOException e) {
+			throw new TargomoClientRuntimeException("Could not read response body: " + e.getMessage(), e);
+		}
+	}
+
+	@FunctionalInterface
+	public interface StreamParser<T> {
+		T parse(InputStream stream) throws IOException;
+	}
 }
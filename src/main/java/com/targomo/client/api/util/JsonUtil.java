@@ -5,7 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -131,6 +135,24 @@ public class JsonUtil {
 		}
 	}
 	
+	/**
+	 * Parse a JSON object directly from a stream, e.g. a response body
+	 * @param stream UTF-8 encoded JSON, not closed by this method
+	 * @return Parsed JSONObject
+	 * @throws TargomoClientRuntimeException In case of any parse errors
+	 */
+	public static JSONObject parseStream(InputStream stream) throws TargomoClientRuntimeException {
+
+		try {
+
+			return new JSONObject(new JSONTokener(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+		}
+		catch (JSONException e) {
+
+			throw new TargomoClientRuntimeException("Could not parse stream to json object: " + e.getMessage(), e);
+		}
+	}
+
 	public static JSONArray parseArray(String config) throws TargomoClientRuntimeException {
 		
 		try {
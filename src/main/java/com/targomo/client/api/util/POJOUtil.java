@@ -1,7 +1,7 @@
 package com.targomo.client.api.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targomo.client.api.json.JsonMappers;
 
 public class POJOUtil {
 
@@ -13,9 +13,8 @@ public class POJOUtil {
      * @return the pretty print String
      */
     public static String prettyPrintPOJO(Object plainOldJavaObject) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(plainOldJavaObject);
+            return JsonMappers.prettyWriter().writeValueAsString(plainOldJavaObject);
         } catch (JsonProcessingException e) {
             return e.getMessage();
         }
@@ -0,0 +1,63 @@
+package com.targomo.client.api;
+
+import com.targomo.client.api.request.RequestCompression;
+import com.targomo.client.api.request.RequestExecutor;
+import com.targomo.client.api.request.RetryPolicy;
+import com.targomo.client.api.request.ssl.SslClientGenerator;
+import org.junit.Test;
+
+import javax.ws.rs.client.Client;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class TargomoClientTest {
+
+	@Test
+	public void closeOfSharedInstanceHasNoEffect() {
+		TargomoClient shared = TargomoClient.getDefault();
+		shared.close();
+
+		assertSame(shared, TargomoClient.getDefault());
+		assertNotNull(shared.getClient().target("http://localhost/v1/time"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void closeClosesOwnClient() {
+		TargomoClient targomo = TargomoClient.builder().build();
+		Client client = targomo.getClient();
+		targomo.close();
+
+		client.target("http://localhost/v1/time");
+	}
+
+	@Test
+	public void builderConfiguresRequestExecutor() {
+		RequestCompression compression = RequestCompression.builder().build();
+		RetryPolicy retryPolicy = RetryPolicy.builder().build();
+		try (TargomoClient targomo = TargomoClient.builder()
+				.requestCompression(compression)
+				.retryPolicy(retryPolicy)
+				.requestTimeout(Duration.ofSeconds(5))
+				.build()) {
+			RequestExecutor executor = (RequestExecutor) targomo.getClient().getConfiguration().getProperty(RequestExecutor.PROPERTY);
+
+			assertNotNull(executor);
+			assertSame(compression, executor.getCompression());
+			assertSame(retryPolicy, executor.getRetryPolicy());
+			assertEquals(Duration.ofSeconds(5), executor.getRequestTimeout());
+			assertNull(executor.getResponseCache());
+		}
+	}
+
+	@Test
+	public void trustAllUsesTrustAllSslPolicy() {
+		Client trustAll = TargomoClient.getDefaultTrustAll().getClient();
+		Client verifying = TargomoClient.getDefault().getClient();
+
+		assertSame(SslClientGenerator.getTrustAllContext(), trustAll.getSslContext());
+		assertTrue(trustAll.getHostnameVerifier() instanceof SslClientGenerator.TrustAllHostNameVerifier);
+		assertNotSame(SslClientGenerator.getTrustAllContext(), verifying.getSslContext());
+		assertFalse(verifying.getHostnameVerifier() instanceof SslClientGenerator.TrustAllHostNameVerifier);
+	}
+}
@@ -3,13 +3,20 @@ package com.targomo.client.api;
 import com.targomo.client.api.enums.RoutingAggregationTypeTest;
 import com.targomo.client.api.enums.WeekdayTest;
 import com.targomo.client.api.json.JacksonRequestConfiguratorTest;
+import com.targomo.client.api.json.JsonMappersTest;
 import com.targomo.client.api.json.TravelOptionsSerializerTest;
 import com.targomo.client.api.pojo.GeometryTest;
 import com.targomo.client.api.request.*;
+import com.targomo.client.api.request.cache.DiskResponseCacheTest;
+import com.targomo.client.api.request.cache.InMemoryResponseCacheTest;
 import com.targomo.client.api.request.config.RequestConfiguratorTest;
+import com.targomo.client.api.request.metrics.LatencyHistogramTest;
 import com.targomo.client.api.request.ssl.SslClientGeneratorTest;
 import com.targomo.client.api.response.ReachabilityResponseTest;
 import com.targomo.client.api.response.TimeResponseTest;
+import com.targomo.client.api.response.TravelTimeMatrixTest;
+import com.targomo.client.api.response.TargetTravelTimesTest;
+import com.targomo.client.api.response.statistics.StatisticResultTest;
 import com.targomo.client.api.util.CurlUtilTest;
 import com.targomo.client.api.util.GeojsonUtilTest;
 import com.targomo.client.api.util.IOUtilTest;
@@ -18,8 +25,25 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+        TargomoClientTest.class,
         GeometryTest.class,
         RequestConfiguratorTest.class,
+        RequestCompressionTest.class,
+        RequestCoalescerTest.class,
+        RequestExecutorTest.class,
+        RetryPolicyTest.class,
+        ServiceIsolationTest.class,
+        ConcurrencyLimiterTest.class,
+        RateLimiterTest.class,
+        DeadlineTest.class,
+        RequestMetricsTest.class,
+        LatencyHistogramTest.class,
+        Http2TransportTest.class,
+        UrlConfigPolicyTest.class,
+        ClientWarmUpTest.class,
+        LoadBalancerTest.class,
+        InMemoryResponseCacheTest.class,
+        DiskResponseCacheTest.class,
         SslClientGeneratorTest.class,
         GeocodingRequestTest.class,
         MultiGraphRequestTest.class,
@@ -32,13 +56,17 @@ import org.junit.runners.Suite;
         TimeVectorRequestTest.class,
         ReachabilityResponseTest.class,
         TimeResponseTest.class,
+        TravelTimeMatrixTest.class,
+        TargetTravelTimesTest.class,
+        StatisticResultTest.class,
         CurlUtilTest.class,
         GeojsonUtilTest.class,
         IOUtilTest.class,
         WeekdayTest.class,
         RoutingAggregationTypeTest.class,
         TravelOptionsSerializerTest.class,
-        JacksonRequestConfiguratorTest.class
+        JacksonRequestConfiguratorTest.class,
+        JsonMappersTest.class
 })
 public class TestSuite {
 }
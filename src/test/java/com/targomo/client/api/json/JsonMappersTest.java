@@ -0,0 +1,50 @@
+package com.targomo.client.api.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.targomo.client.api.TravelOptions;
+import com.targomo.client.api.util.CollectionUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class JsonMappersTest {
+
+    @Test
+    public void readersAreCached() {
+        Assert.assertSame(JsonMappers.reader(TravelOptions.class), JsonMappers.reader(TravelOptions.class));
+        Assert.assertSame(JsonMappers.reader(new TypeReference<Map<String, List<Integer>>>() {}),
+                JsonMappers.reader(new TypeReference<Map<String, List<Integer>>>() {}));
+    }
+
+    @Test
+    public void writerIsCompact() throws Exception {
+        Assert.assertEquals("{\"all\":1.5}", JsonMappers.writer().writeValueAsString(CollectionUtils.map("all", 1.5)));
+    }
+
+    @Test
+    public void readGenericType() throws Exception {
+        Map<String, List<Integer>> values = JsonMappers.reader(new TypeReference<Map<String, List<Integer>>>() {})
+                .readValue("{\"a\":[1,2]}");
+        Assert.assertEquals(2, values.get("a").size());
+    }
+
+    @Test
+    public void lenientMapperIgnoresUnknownProperties() throws Exception {
+        TravelOptions options = JsonMappers.lenientReader(TravelOptions.class).readValue("{\"unknownProperty\":1}");
+        Assert.assertNotNull(options);
+        Assert.assertNotNull(JsonMappers.getLenientMapper().readValue("{\"unknownProperty\":1}", TravelOptions.class));
+    }
+
+    @Test
+    public void reconfiguringTheMapperDoesNotAffectTheSharedOne() throws Exception {
+        ObjectMapper mapper = JsonMappers.getMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        Assert.assertNotSame(mapper, JsonMappers.getMapper());
+        Assert.assertEquals("{\"all\":1.5}", JsonMappers.getMapper().writeValueAsString(CollectionUtils.map("all", 1.5)));
+        Assert.assertEquals("{\"all\":1.5}", JsonMappers.writer().writeValueAsString(CollectionUtils.map("all", 1.5)));
+    }
+}
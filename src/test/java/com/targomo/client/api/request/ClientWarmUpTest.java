@@ -0,0 +1,87 @@
+package com.targomo.client.api.request;
+
+import com.sun.net.httpserver.HttpServer;
+import com.targomo.client.api.TargomoClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClientWarmUpTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private TargomoClient targomo;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        targomo = TargomoClient.builder().build();
+    }
+
+    @After
+    public void tearDown() {
+        targomo.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void marksClientAsWarm() throws Exception {
+        assertFalse(targomo.isWarm());
+
+        targomo.warmUp(ClientWarmUp.builder().iterations(3).locations(5).build());
+
+        assertTrue(targomo.isWarm());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void connectsToService() throws Exception {
+        ClientWarmUp warmUp = ClientWarmUp.builder()
+                .iterations(1)
+                .serviceUrl("http://localhost:" + server.getAddress().getPort() + "/westcentraleurope/")
+                .build();
+
+        Duration elapsed = warmUp.run(targomo);
+
+        assertEquals(1, requests.get());
+        assertFalse(elapsed.isNegative());
+    }
+
+    @Test
+    public void ignoresUnreachableService() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        targomo.warmUp(ClientWarmUp.builder().iterations(1).serviceUrl("http://localhost:" + port + "/").build());
+
+        assertTrue(targomo.isWarm());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeIterations() {
+        ClientWarmUp.builder().iterations(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNoLocations() {
+        ClientWarmUp.builder().locations(0);
+    }
+}
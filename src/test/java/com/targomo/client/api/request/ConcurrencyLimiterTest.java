@@ -0,0 +1,135 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import org.junit.Test;
+
+import javax.ws.rs.client.CompletionStageRxInvoker;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConcurrencyLimiterTest {
+
+	private static final URI TIME = URI.create("https://api.targomo.com/westcentraleurope/v1/time?cb=x&key=abc");
+	// the API key "abc" as the start of its SHA-256 digest
+	private static final String LIMIT_KEY = "https://api.targomo.com/westcentraleurope ba7816bf8f01cfea";
+
+	@Test
+	public void defaultLimitKey() {
+		assertEquals(LIMIT_KEY, ConcurrencyLimiter.defaultLimitKey(TIME));
+		assertEquals("https://api.targomo.com/westcentraleurope cb8379ac2098aa16",
+				ConcurrencyLimiter.defaultLimitKey(URI.create("https://api.targomo.com/westcentraleurope/v1/polygon?key=def")));
+	}
+
+	@Test
+	public void limitShrinksOnOverload() {
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limits(10, 2, 100).build();
+		RequestExecutor executor = RequestExecutor.builder().limiter(limiter).build();
+		Response unavailable = response(503);
+		WebTarget target = target(blocking(unavailable));
+
+		for (int i = 0; i < 30; i++)
+			executor.execute(HttpCall.get(target, null));
+
+		assertEquals(2, limiter.getLimit(LIMIT_KEY));
+	}
+
+	@Test
+	public void limitGrowsWhileUsed() {
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limits(1, 1, 100).build();
+		RequestExecutor executor = RequestExecutor.builder().limiter(limiter).build();
+		Response ok = response(200);
+		WebTarget target = target(blocking(ok));
+
+		for (int i = 0; i < 10; i++)
+			executor.execute(HttpCall.get(target, null));
+
+		assertTrue(limiter.getLimit(LIMIT_KEY) > 1);
+	}
+
+	@Test
+	public void callsOverTheLimitWait() throws Exception {
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limits(1, 1, 1).queue(Duration.ZERO, 10).build();
+		RequestExecutor executor = RequestExecutor.builder().limiter(limiter).build();
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		Response ok = response(200);
+		CompletionStageRxInvoker rx = mock(CompletionStageRxInvoker.class);
+		when(rx.get()).thenReturn(pending, CompletableFuture.completedFuture(ok));
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.rx()).thenReturn(rx);
+		WebTarget target = target(builder);
+
+		CompletableFuture<Integer> first = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		try {
+			executor.execute(HttpCall.get(target, null));
+			fail("blocking calls must not wait longer than the maximum wait");
+		} catch (CallRejectedException e) {
+			assertEquals(CallRejectedException.Reason.LIMIT_EXCEEDED, e.getReason());
+		}
+		verify(rx, times(1)).get();
+
+		pending.complete(ok);
+		assertEquals(200, (int) first.get());
+		assertEquals(200, (int) executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus).get());
+		assertEquals(1, limiter.getRejectedCalls());
+	}
+
+	@Test
+	public void abandonedWaitersLeaveTheQueue() throws Exception {
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limits(1, 1, 1).queue(Duration.ofSeconds(10), 1).build();
+		RequestExecutor executor = RequestExecutor.builder().limiter(limiter).build();
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		Response ok = response(200);
+		CompletionStageRxInvoker rx = mock(CompletionStageRxInvoker.class);
+		when(rx.get()).thenReturn(pending, CompletableFuture.completedFuture(ok));
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.rx()).thenReturn(rx);
+		WebTarget target = target(builder);
+
+		CompletableFuture<Integer> first = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		Thread.currentThread().interrupt();
+		try {
+			executor.execute(HttpCall.get(target, null));
+			fail("interrupted calls must be rejected");
+		} catch (CallRejectedException e) {
+			assertTrue(Thread.interrupted());
+			assertTrue(e.getMessage().startsWith("Call to " + LIMIT_KEY + " rejected"));
+			assertFalse(e.getMessage().contains("abc"));
+		}
+
+		// the interrupted call no longer takes the only place in the queue
+		CompletableFuture<Integer> queued = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		assertFalse(queued.isDone());
+		pending.complete(ok);
+		assertEquals(200, (int) first.get());
+		assertEquals(200, (int) queued.get());
+	}
+
+	private static Invocation.Builder blocking(Response response) {
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.get()).thenReturn(response);
+		return builder;
+	}
+
+	private static WebTarget target(Invocation.Builder builder) {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(TIME);
+		when(target.request()).thenReturn(builder);
+		return target;
+	}
+
+	private static Response response(int status) {
+		Response response = mock(Response.class);
+		when(response.getStatus()).thenReturn(status);
+		return response;
+	}
+}
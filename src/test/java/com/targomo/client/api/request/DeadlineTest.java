@@ -0,0 +1,131 @@
+package com.targomo.client.api.request;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeadlineTest extends RequestTest {
+
+    @Before
+    public void setUpTarget() {
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost/v1/time"));
+    }
+
+    @Test
+    public void passesRemainingBudgetToConnector() {
+        RequestExecutor executor = RequestExecutor.builder().requestTimeout(Duration.ofSeconds(10)).build();
+
+        executor.execute(call());
+
+        verify(mockBuilder).property(eq(Deadline.READ_TIMEOUT_PROPERTY), anyObject());
+        verify(mockBuilder).property(eq(Deadline.CONNECT_TIMEOUT_PROPERTY), anyObject());
+    }
+
+    @Test
+    public void doesNotSendWhenExpired() {
+        RequestExecutor executor = RequestExecutor.builder().build();
+
+        try (Deadline.Scope scope = Deadline.after(Duration.ZERO).enter()) {
+            executor.execute(call());
+            fail("expired deadline not detected");
+        } catch (ProcessingException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        verify(mockBuilder, never()).post(anyObject());
+    }
+
+    @Test
+    public void doesNotRetryBeyondDeadline() {
+        RetryPolicy policy = RetryPolicy.builder().backoff(Duration.ofSeconds(5), Duration.ofSeconds(5), 1).build();
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(policy).build();
+        Response unavailable = mock(Response.class);
+        when(unavailable.getStatus()).thenReturn(503);
+        when(mockBuilder.post(anyObject())).thenReturn(unavailable);
+
+        try (Deadline.Scope scope = Deadline.after(Duration.ofSeconds(1)).enter()) {
+            assertEquals(503, executor.execute(call()).getStatus());
+        }
+        verify(mockBuilder, times(1)).post(anyObject());
+    }
+
+    @Test(timeout = 5000)
+    public void failsAsyncCallAfterDeadline() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().requestTimeout(Duration.ofMillis(50)).build();
+        CompletableFuture<Response> pending = new CompletableFuture<>();
+        when(mockRxInvoker.post(anyObject())).thenReturn(pending);
+
+        CompletableFuture<Integer> status = executor.executeAsync(this::call, Response::getStatus);
+
+        try {
+            status.get();
+            fail("deadline did not fail the call");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ProcessingException);
+            assertTrue(e.getCause().getCause() instanceof TimeoutException);
+        }
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test(timeout = 5000)
+    public void cancelsAsyncCallsOfWorkflow() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().build();
+        when(mockRxInvoker.post(anyObject())).thenReturn(new CompletableFuture<>());
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        CompletableFuture<Integer> first;
+        CompletableFuture<Integer> second;
+        try (Deadline.Scope scope = deadline.enter()) {
+            first = executor.executeAsync(this::call, Response::getStatus);
+            second = executor.executeAsync(this::call, Response::getStatus);
+        }
+        deadline.cancel();
+
+        for (CompletableFuture<Integer> status : Arrays.asList(first, second)) {
+            try {
+                status.get();
+                fail("cancelled call completed");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CancellationException);
+            }
+        }
+    }
+
+    @Test
+    public void nestedDeadlineIsCappedByOuterOne() {
+        Deadline outer = Deadline.after(Duration.ofSeconds(1));
+        try (Deadline.Scope scope = outer.enter()) {
+            try (Deadline.Scope inner = Deadline.after(Duration.ofMinutes(1)).enter()) {
+                assertTrue(Deadline.current().remainingMillis() <= TimeUnit.SECONDS.toMillis(1));
+                outer.cancel();
+                assertTrue(Deadline.current().isCancelled());
+            }
+            assertTrue(Deadline.current().isExpired());
+        }
+        assertNull(Deadline.current());
+    }
+
+    private HttpCall call() {
+        return HttpCall.post(mockWebTarget, null, Entity.entity("{}", MediaType.APPLICATION_JSON_TYPE));
+    }
+}
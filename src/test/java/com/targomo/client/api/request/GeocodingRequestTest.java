@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.function.ToDoubleFunction;
 
 import static org.mockito.Mockito.when;
@@ -90,6 +91,19 @@ public class GeocodingRequestTest extends RequestTest{
         new GeocodingRequest(mockClient).getBatchParallel(10,2,batch2);
     }
 
+    @Test
+    public void batchBacksOffBetweenTries() throws TargomoClientException {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+        long start = System.nanoTime();
+        try {
+            new GeocodingRequest(mockClient).getBatchParallel(1, 2, batch2[0]);
+            Assert.fail("TargomoClientException expected");
+        } catch (TargomoClientException e) {
+            // the default backoff of at least half of 100 ms passed before the second try
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
     @Test
     public void testSuccessResponse() throws TargomoClientException {
         when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
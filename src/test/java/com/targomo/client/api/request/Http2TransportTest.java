@@ -0,0 +1,182 @@
+package com.targomo.client.api.request;
+
+import com.sun.net.httpserver.HttpServer;
+import com.targomo.client.api.request.config.UserServiceEnvClientFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class Http2TransportTest extends RequestTest {
+
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+    private final CountDownLatch firstPartRead = new CountDownLatch(1);
+    private HttpServer server;
+    private RequestExecutor executor;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/time", exchange -> {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            received.put("method", exchange.getRequestMethod());
+            received.put("contentType", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+            received.put("custom", String.valueOf(exchange.getRequestHeaders().getFirst("X-Targomo")));
+            received.put("environment", String.valueOf(exchange.getRequestHeaders().getFirst("x-targomo-environment")));
+            byte[] response = ("{\"echo\":" + new String(body, StandardCharsets.UTF_8) + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Retry-After", "3");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.createContext("/v1/stream", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("first,".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                // the rest is only sent once the client read the first part
+                boolean streamed = firstPartRead.await(5, TimeUnit.SECONDS);
+                received.put("streamed", String.valueOf(streamed));
+                out.write("second".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        executor = RequestExecutor.builder().transport(Http2Transport.builder().build()).build();
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/time?key=abc"));
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void sendsStreamedBodyAndHeaders() throws Exception {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.putSingle("X-Targomo", "test");
+        StreamingOutput body = output -> output.write("[1,2]".getBytes(StandardCharsets.UTF_8));
+
+        Response response = executor.execute(HttpCall.post(mockWebTarget, headers, Entity.entity(body, MediaType.APPLICATION_JSON_TYPE)));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        assertEquals("3", response.getHeaderString("retry-after"));
+        assertEquals("{\"echo\":[1,2]}", response.readEntity(String.class));
+        assertEquals("POST", received.get("method"));
+        assertEquals("application/json", received.get("contentType"));
+        assertEquals("test", received.get("custom"));
+        verify(mockWebTarget, never()).request();
+    }
+
+    @Test
+    public void appliesRequestFiltersOfTheClient() throws Exception {
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getInstances()).thenReturn(Collections.singleton(new UserServiceEnvClientFilter("staging")));
+        when(configuration.getContracts(UserServiceEnvClientFilter.class)).thenReturn(Collections.emptyMap());
+        when(mockWebTarget.getConfiguration()).thenReturn(configuration);
+
+        Response response = executor.execute(HttpCall.get(mockWebTarget, null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("staging", received.get("environment"));
+    }
+
+    @Test
+    public void requestFilterCanAbortTheCall() throws Exception {
+        Response aborted = Response.status(Response.Status.FORBIDDEN).build();
+        ClientRequestFilter filter = context -> context.abortWith(aborted);
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getInstances()).thenReturn(Collections.singleton(filter));
+        when(configuration.getContracts(filter.getClass())).thenReturn(Collections.emptyMap());
+        when(mockWebTarget.getConfiguration()).thenReturn(configuration);
+
+        assertSame(aborted, executor.execute(HttpCall.get(mockWebTarget, null)));
+        assertNull(received.get("method"));
+    }
+
+    @Test
+    public void parsesResponseBodyWhileItArrives() throws Exception {
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/stream"));
+
+        Response response = executor.execute(HttpCall.get(mockWebTarget, null));
+
+        try (InputStream body = response.readEntity(InputStream.class)) {
+            byte[] first = new byte[6];
+            assertEquals(6, body.readNBytes(first, 0, 6));
+            assertEquals("first,", new String(first, StandardCharsets.UTF_8));
+            firstPartRead.countDown();
+            assertEquals("second", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("true", received.get("streamed"));
+    }
+
+    @Test
+    public void failingStreamedBodyFailsTheCall() {
+        StreamingOutput body = output -> {
+            output.write(new byte[100_000]);
+            throw new IOException("configuration could not be written");
+        };
+
+        try {
+            executor.execute(HttpCall.post(mockWebTarget, null, Entity.entity(body, MediaType.APPLICATION_JSON_TYPE)));
+            fail("call with incomplete body succeeded");
+        } catch (ProcessingException e) {
+            assertNull(received.get("method"));
+        }
+    }
+
+    @Test
+    public void sendsAsync() throws Exception {
+        String body = executor.executeAsync(() -> HttpCall.get(mockWebTarget, null), response -> response.readEntity(String.class)).get();
+
+        assertEquals("{\"echo\":}", body);
+        assertEquals("GET", received.get("method"));
+        verify(mockWebTarget, never()).request();
+    }
+
+    @Test
+    public void failsWithProcessingExceptionIfNotConnected() {
+        server.stop(0);
+
+        try {
+            executor.execute(HttpCall.get(mockWebTarget, null));
+            fail("call to stopped server succeeded");
+        } catch (ProcessingException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.CompletionStageRxInvoker;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoadBalancerTest {
+
+	private static final String SERVICE = "https://api.targomo.com/westcentraleurope/";
+	private static final String REPLICA_A = "https://a.example.com/westcentraleurope";
+	private static final String REPLICA_B = "https://b.example.com/westcentraleurope/";
+	private static final String TIME = "/v1/time?cb=x&key=abc";
+
+	private Client client;
+	private Invocation.Builder builderA;
+	private Invocation.Builder builderB;
+	private CompletionStageRxInvoker rxA;
+	private CompletionStageRxInvoker rxB;
+	private WebTarget service;
+
+	@Before
+	public void setUp() {
+		client = mock(Client.class);
+		builderA = mock(Invocation.Builder.class);
+		builderB = mock(Invocation.Builder.class);
+		rxA = mock(CompletionStageRxInvoker.class);
+		rxB = mock(CompletionStageRxInvoker.class);
+		when(builderA.rx()).thenReturn(rxA);
+		when(builderB.rx()).thenReturn(rxB);
+		WebTarget targetA = target(URI.create(REPLICA_A + TIME), builderA);
+		WebTarget targetB = target(URI.create("https://b.example.com/westcentraleurope" + TIME), builderB);
+		when(client.target(URI.create(REPLICA_A + TIME))).thenReturn(targetA);
+		when(client.target(URI.create("https://b.example.com/westcentraleurope" + TIME))).thenReturn(targetB);
+		service = target(URI.create("https://api.targomo.com/westcentraleurope" + TIME), mock(Invocation.Builder.class));
+	}
+
+	@Test
+	public void sendsCallsToReplica() {
+		Response ok = response(200);
+		when(builderA.get()).thenReturn(ok);
+		RequestExecutor executor = executor(LoadBalancer.builder().service(SERVICE, REPLICA_A).build());
+
+		assertSame(ok, executor.execute(HttpCall.get(service, null)));
+
+		verify(builderA).get();
+		verify(service, never()).request();
+	}
+
+	@Test
+	public void leastOutstandingAvoidsBusyReplica() {
+		when(rxA.get()).thenReturn(new CompletableFuture<>());
+		when(rxB.get()).thenReturn(new CompletableFuture<>());
+		RequestExecutor executor = executor(LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A, REPLICA_B)
+				.strategy(LoadBalancer.Strategy.LEAST_OUTSTANDING)
+				.build());
+
+		executor.executeAsync(() -> HttpCall.get(service, null), response -> response);
+		executor.executeAsync(() -> HttpCall.get(service, null), response -> response);
+
+		verify(rxA).get();
+		verify(rxB).get();
+		for (LoadBalancer.Replica replica : executor.getLoadBalancer().getReplicas().get("https://api.targomo.com/westcentraleurope"))
+			assertEquals(1, replica.getOutstanding());
+	}
+
+	@Test
+	public void failsOverToReachableReplica() {
+		Response ok = response(200);
+		when(builderA.get()).thenThrow(new ProcessingException(new ConnectException("Connection refused")));
+		when(builderB.get()).thenReturn(ok);
+		RequestExecutor executor = executor(LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A, REPLICA_B)
+				.ejection(100, Duration.ofMinutes(1))
+				.build());
+
+		for (int i = 0; i < 10; i++)
+			assertSame(ok, executor.execute(HttpCall.get(service, null)));
+
+		verify(builderB, times(10)).get();
+	}
+
+	@Test
+	public void failsOverAsync() throws Exception {
+		Response ok = response(200);
+		CompletableFuture<Response> refused = new CompletableFuture<>();
+		refused.completeExceptionally(new ProcessingException(new ConnectException("Connection refused")));
+		when(rxA.get()).thenReturn(refused);
+		when(rxB.get()).thenReturn(CompletableFuture.completedFuture(ok));
+		RequestExecutor executor = executor(LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A, REPLICA_B)
+				.ejection(100, Duration.ofMinutes(1))
+				.build());
+
+		for (int i = 0; i < 10; i++)
+			assertSame(ok, executor.executeAsync(() -> HttpCall.get(service, null), response -> response).get());
+	}
+
+	@Test
+	public void doesNotFailOverAfterTheCallWasSent() {
+		when(builderA.get()).thenThrow(new ProcessingException(new SocketTimeoutException("Read timed out")));
+		when(builderB.get()).thenThrow(new ProcessingException(new SocketTimeoutException("Read timed out")));
+		LoadBalancer balancer = LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A, REPLICA_B)
+				.ejection(1, Duration.ofMinutes(1))
+				.build();
+		RequestExecutor executor = executor(balancer);
+
+		try {
+			executor.execute(HttpCall.get(service, null));
+			fail("calls that may have been processed must not be sent again by the balancer");
+		} catch (ProcessingException e) {
+			assertTrue(e.getCause() instanceof SocketTimeoutException);
+		}
+
+		// one of the replicas got the call and failed
+		List<LoadBalancer.Replica> replicas = balancer.getReplicas().get("https://api.targomo.com/westcentraleurope");
+		assertNotEquals(replicas.get(0).isEjected(), replicas.get(1).isEjected());
+	}
+
+	@Test
+	public void rejectedCallsDoNotCountAgainstReplica() {
+		Response ok = response(200);
+		when(builderA.get()).thenReturn(ok);
+		LoadBalancer balancer = LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A)
+				.ejection(1, Duration.ofMinutes(1))
+				.build();
+		RequestExecutor executor = register(RequestExecutor.builder()
+				.loadBalancer(balancer)
+				.rateLimiter(RateLimiter.builder().rate(0.001, 1).queue(Duration.ZERO, 0).build())
+				.build());
+
+		executor.execute(HttpCall.get(service, null));
+		try {
+			executor.execute(HttpCall.get(service, null));
+			fail("calls over the rate must be rejected");
+		} catch (CallRejectedException e) {
+			assertEquals(CallRejectedException.Reason.RATE_LIMITED, e.getReason());
+		}
+
+		LoadBalancer.Replica replica = balancer.getReplicas().get("https://api.targomo.com/westcentraleurope").get(0);
+		assertFalse(replica.isEjected());
+		assertEquals(0, replica.getOutstanding());
+	}
+
+	@Test
+	public void ejectsFailingReplica() {
+		Response ok = response(200);
+		when(builderA.get()).thenThrow(new ProcessingException(new ConnectException("Connection refused")));
+		when(builderB.get()).thenReturn(ok);
+		LoadBalancer balancer = LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A, REPLICA_B)
+				.ejection(1, Duration.ofMinutes(1))
+				.build();
+		RequestExecutor executor = executor(balancer);
+
+		for (int i = 0; i < 20; i++)
+			executor.execute(HttpCall.get(service, null));
+
+		verify(builderA, atMost(1)).get();
+		List<LoadBalancer.Replica> replicas = balancer.getReplicas().get("https://api.targomo.com/westcentraleurope");
+		assertEquals(REPLICA_A, replicas.get(0).getUrl());
+		assertTrue(replicas.get(0).isEjected());
+		assertFalse(replicas.get(1).isEjected());
+	}
+
+	@Test
+	public void usesEjectedReplicasIfAllAreEjected() {
+		Response unavailable = response(503);
+		when(builderA.get()).thenReturn(unavailable);
+		LoadBalancer balancer = LoadBalancer.builder()
+				.service(SERVICE, REPLICA_A)
+				.ejection(1, Duration.ofMinutes(1))
+				.build();
+		RequestExecutor executor = executor(balancer);
+
+		executor.execute(HttpCall.get(service, null));
+		assertTrue(balancer.getReplicas().get("https://api.targomo.com/westcentraleurope").get(0).isEjected());
+		executor.execute(HttpCall.get(service, null));
+
+		verify(builderA, times(2)).get();
+	}
+
+	@Test
+	public void sendsOtherServicesUnchanged() {
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		Response ok = response(200);
+		when(builder.get()).thenReturn(ok);
+		WebTarget other = target(URI.create("https://api.targomo.com/westcentraleurope2" + TIME), builder);
+		RequestExecutor executor = executor(LoadBalancer.builder().service(SERVICE, REPLICA_A).build());
+
+		assertSame(ok, executor.execute(HttpCall.get(other, null)));
+
+		verify(builderA, never()).get();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsBalancerWithoutServices() {
+		LoadBalancer.builder().build();
+	}
+
+	/**
+	 * @return an executor registered with the mocked client
+	 */
+	private RequestExecutor executor(LoadBalancer balancer) {
+		return register(RequestExecutor.builder().loadBalancer(balancer).build());
+	}
+
+	private RequestExecutor register(RequestExecutor executor) {
+		Configuration configuration = mock(Configuration.class);
+		when(configuration.getProperty(RequestExecutor.PROPERTY)).thenReturn(executor);
+		when(client.getConfiguration()).thenReturn(configuration);
+		assertSame(executor, RequestExecutor.forClient(client));
+		return executor;
+	}
+
+	private static WebTarget target(URI uri, Invocation.Builder builder) {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(uri);
+		when(target.request()).thenReturn(builder);
+		return target;
+	}
+
+	private static Response response(int status) {
+		Response response = mock(Response.class);
+		when(response.getStatus()).thenReturn(status);
+		return response;
+	}
+}
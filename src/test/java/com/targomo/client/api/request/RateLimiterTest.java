@@ -0,0 +1,124 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import org.junit.Test;
+
+import javax.ws.rs.client.CompletionStageRxInvoker;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RateLimiterTest {
+
+	@Test
+	public void apiKeyOfTheCall() {
+		assertEquals("abc", HttpCall.apiKey(URI.create("https://api.targomo.com/westcentraleurope/v1/time?key=abc")));
+		assertEquals("def", HttpCall.apiKey(URI.create("https://api.targomo.com/quality/v1/scores?apiKey=def&inter=true")));
+		assertEquals("", HttpCall.apiKey(URI.create("https://api.targomo.com/statistics/charts")));
+	}
+
+	@Test
+	public void burstIsAdmittedImmediately() {
+		RateLimiter limiter = RateLimiter.builder().rate(1, 3).build();
+		RequestExecutor executor = RequestExecutor.builder().rateLimiter(limiter).build();
+		WebTarget target = target("abc");
+
+		for (int i = 0; i < 3; i++)
+			executor.execute(HttpCall.get(target, null));
+
+		assertEquals(3, limiter.getAdmittedCalls());
+		assertEquals(0, limiter.getDelayedCalls());
+	}
+
+	@Test
+	public void callsOverTheRateAreQueued() throws Exception {
+		RateLimiter limiter = RateLimiter.builder().rate(10, 1).build();
+		RequestExecutor executor = RequestExecutor.builder().rateLimiter(limiter).build();
+		WebTarget target = target("abc");
+		// loads the classes of the asynchronous path with another API key, so the calls below are queued in time
+		executor.executeAsync(() -> HttpCall.get(target("def"), null), Response::getStatus).get();
+
+		long start = System.nanoTime();
+		executor.execute(HttpCall.get(target, null));
+		CompletableFuture<Integer> second = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		CompletableFuture<Integer> third = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		long queuedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(2, limiter.getQueueDepth());
+		// SHA-256 of "abc", the API key itself is not exposed
+		assertEquals(2, (int) limiter.getQueueDepths().get("ba7816bf8f01cfea"));
+		assertEquals(200, (int) second.get());
+		assertEquals(200, (int) third.get());
+		// the third call is due two intervals of 100 ms after the first
+		assertTrue(System.nanoTime() - start >= 190_000_000L);
+		assertEquals(2, limiter.getDelayedCalls());
+		assertEquals(0, limiter.getQueueDepth());
+		// the calls were due 100 and 200 ms after the first one and waited from when they were queued
+		assertTrue(limiter.getWaitTimeMillis() >= 290 - 2 * queuedMillis);
+	}
+
+	@Test
+	public void interruptedCallReturnsItsToken() {
+		RateLimiter limiter = RateLimiter.builder().rate(1, 1).build();
+		RequestExecutor executor = RequestExecutor.builder().rateLimiter(limiter).build();
+		WebTarget target = target("abc");
+
+		executor.execute(HttpCall.get(target, null));
+		Thread.currentThread().interrupt();
+		try {
+			executor.execute(HttpCall.get(target, null));
+			fail("interrupted calls must be rejected");
+		} catch (CallRejectedException e) {
+			assertTrue(Thread.interrupted());
+		}
+
+		assertEquals(1, limiter.getAdmittedCalls());
+		assertEquals(1, limiter.getRejectedCalls());
+		assertTrue(limiter.getQueueDepths().isEmpty());
+	}
+
+	@Test
+	public void apiKeysHaveSeparateBuckets() {
+		RateLimiter limiter = RateLimiter.builder()
+				.rate(0.001, 1)
+				.rate("batch", 0.001, 2)
+				.queue(Duration.ZERO, 0)
+				.build();
+		RequestExecutor executor = RequestExecutor.builder().rateLimiter(limiter).build();
+
+		executor.execute(HttpCall.get(target("abc"), null));
+		executor.execute(HttpCall.get(target("def"), null));
+		executor.execute(HttpCall.get(target("batch"), null));
+		executor.execute(HttpCall.get(target("batch"), null));
+		try {
+			executor.execute(HttpCall.get(target("abc"), null));
+			fail("calls that would have to wait longer than the maximum wait must be rejected");
+		} catch (CallRejectedException e) {
+			assertEquals(CallRejectedException.Reason.RATE_LIMITED, e.getReason());
+		}
+		assertEquals(1, limiter.getRejectedCalls());
+		assertEquals(4, limiter.getAdmittedCalls());
+	}
+
+	private static WebTarget target(String apiKey) {
+		Response ok = mock(Response.class);
+		when(ok.getStatus()).thenReturn(200);
+		CompletionStageRxInvoker rx = mock(CompletionStageRxInvoker.class);
+		when(rx.get()).thenReturn(CompletableFuture.completedFuture(ok));
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.get()).thenReturn(ok);
+		when(builder.rx()).thenReturn(rx);
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(URI.create("https://api.targomo.com/westcentraleurope/v1/time?key=" + apiKey));
+		when(target.request()).thenReturn(builder);
+		return target;
+	}
+}
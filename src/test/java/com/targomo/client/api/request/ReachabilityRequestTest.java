@@ -3,7 +3,9 @@ package com.targomo.client.api.request;
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.enums.PathSerializerType;
 import com.targomo.client.api.enums.TravelType;
+import com.targomo.client.api.exception.ResponseErrorException;
 import com.targomo.client.api.exception.TargomoClientException;
+import com.targomo.client.api.exception.TargomoClientRuntimeException;
 import com.targomo.client.api.geo.DefaultSourceCoordinate;
 import com.targomo.client.api.geo.DefaultTargetCoordinate;
 import com.targomo.client.api.response.ReachabilityResponse;
@@ -15,9 +17,13 @@ import javax.ws.rs.core.Response;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
 public class ReachabilityRequestTest extends RequestTest {
@@ -39,6 +45,66 @@ public class ReachabilityRequestTest extends RequestTest {
         assertNotNull(reachabilityResponse.getTravelTimes());
     }
 
+    @Test
+    public void get_consumer() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+
+        InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/ReachabilityResponse.json");
+        String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
+        when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+
+        Map<String, Integer> travelTimes = new HashMap<>();
+        ReachabilityResponse reachabilityResponse = new ReachabilityRequest(mockClient, getTravelOptions())
+                .get((sourceId, targetId, travelTime, length) -> {
+                    assertEquals("1", sourceId);
+                    assertEquals(-1, length);
+                    travelTimes.put(targetId, travelTime);
+                });
+
+        assertEquals(ResponseCode.OK, reachabilityResponse.getCode());
+        assertEquals(517, reachabilityResponse.getRequestTimeMillis());
+        assertEquals(5, travelTimes.size());
+        assertEquals(Integer.valueOf(833), travelTimes.get("id1"));
+        assertTrue(reachabilityResponse.getTravelTimes().isEmpty());
+    }
+
+    @Test
+    public void get_consumer_error_code() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        // like the service, the results come before the code
+        when(sampleResponse.readEntity(String.class))
+                .thenReturn("{\"data\":[{\"id\":\"id1\",\"travelTime\":1}],\"code\":\"no-route-found\"}");
+
+        Map<String, Integer> received = new HashMap<>();
+        try {
+            new ReachabilityRequest(mockClient, getTravelOptions())
+                    .get((sourceId, targetId, travelTime, length) -> received.put(targetId, travelTime));
+            fail("expected ResponseErrorException");
+        } catch (ResponseErrorException e) {
+            assertEquals(ResponseCode.NO_ROUTE_FOUND, e.getErrorCode());
+        }
+        // passed on before the code was read, the exception tells the consumer to discard them
+        assertEquals(Integer.valueOf(1), received.get("id1"));
+    }
+
+    @Test(expected = ResponseErrorException.class)
+    public void get_consumer_error_code_first() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(sampleResponse.readEntity(String.class))
+                .thenReturn("{\"code\":\"no-route-found\",\"data\":[{\"id\":\"id1\",\"travelTime\":1}]}");
+
+        new ReachabilityRequest(mockClient, getTravelOptions()).get((sourceId, targetId, travelTime, length) -> fail());
+    }
+
+    @Test(expected = TargomoClientRuntimeException.class)
+    public void get_consumer_null_travel_time() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(sampleResponse.readEntity(String.class))
+                .thenReturn("{\"code\":\"ok\",\"data\":[{\"id\":\"id1\",\"travelTime\":null}]}");
+
+        new ReachabilityRequest(mockClient, getTravelOptions()).get((sourceId, targetId, travelTime, length) -> fail());
+    }
+
     @Test(expected = TargomoClientException.class)
     public void get_gateway_timeout() throws Exception {
         when(sampleResponse.getStatus()).thenReturn(Response.Status.GATEWAY_TIMEOUT.getStatusCode());
@@ -0,0 +1,178 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.TargomoClientException;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestCoalescerTest {
+
+	@Test(timeout = 10000)
+	public void identicalRequestsShareOneCall() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		RequestCoalescer.BlockingCall<Object> call = () -> {
+			calls.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new TargomoClientException("interrupted", e);
+			}
+			return new Object();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> first = executor.submit(() -> coalescer.execute("key", call(null), call));
+			while (calls.get() == 0)
+				Thread.sleep(1);
+			Future<Object> second = executor.submit(() -> coalescer.execute("key", call(null), call));
+			while (coalescer.getCoalescedRequests() == 0)
+				Thread.sleep(1);
+			release.countDown();
+
+			assertSame(first.get(), second.get());
+			assertEquals(1, calls.get());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// the request is not in flight anymore and is sent again
+		coalescer.execute("key", call(null), call);
+		assertEquals(2, calls.get());
+	}
+
+	@Test(timeout = 10000)
+	public void asyncRequestsShareFailure() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CompletableFuture<Object> response = new CompletableFuture<>();
+		AtomicInteger calls = new AtomicInteger();
+
+		CompletableFuture<Object> first = coalescer.executeAsync("key", call(null), () -> {
+			calls.incrementAndGet();
+			return response;
+		});
+		CompletableFuture<Object> second = coalescer.executeAsync("key", call(null), () -> {
+			calls.incrementAndGet();
+			return response;
+		});
+		response.completeExceptionally(new TargomoClientException("failed", 500));
+
+		assertEquals(1, calls.get());
+		assertEquals(1, coalescer.getCoalescedRequests());
+		for (CompletableFuture<Object> future : Arrays.asList(first, second)) {
+			try {
+				future.get();
+				fail("ExecutionException expected");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof TargomoClientException);
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void followersWaitWithinTheirDeadline() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		RequestCoalescer.BlockingCall<Object> call = () -> {
+			calls.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new TargomoClientException("interrupted", e);
+			}
+			return new Object();
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> leader = executor.submit(() -> coalescer.execute("key", call(null), call));
+			while (calls.get() == 0)
+				Thread.sleep(1);
+
+			try {
+				coalescer.execute("key", call(Deadline.after(Duration.ofMillis(50))), call);
+				fail("ProcessingException expected");
+			} catch (ProcessingException e) {
+				assertTrue(e.getCause() instanceof TimeoutException);
+			}
+			CompletableFuture<Object> follower = coalescer.executeAsync("key", call(Deadline.after(Duration.ofMillis(50))),
+					CompletableFuture::new);
+			try {
+				follower.get();
+				fail("ExecutionException expected");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof ProcessingException);
+			}
+
+			// the followers giving up does not affect the request in flight
+			release.countDown();
+			assertNotNull(leader.get());
+			assertEquals(1, calls.get());
+			assertEquals(2, coalescer.getCoalescedRequests());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void keyIsComputedOnce() {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(URI.create("http://localhost/v1/polygon?key=abc"));
+		AtomicInteger writes = new AtomicInteger();
+		StreamingOutput streamed = out -> {
+			writes.incrementAndGet();
+			out.write("{}".getBytes(StandardCharsets.UTF_8));
+		};
+		HttpCall call = HttpCall.post(target, null, Entity.entity(streamed, MediaType.APPLICATION_JSON_TYPE));
+
+		String key = call.key();
+
+		assertEquals(key, call.key());
+		assertEquals(key, call.withDeadline(Deadline.after(Duration.ofSeconds(1))).withCacheFlags(true, false).key());
+		assertEquals(1, writes.get());
+	}
+
+	@Test
+	public void keyHashesBody() {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(URI.create("http://localhost/v1/polygon?key=abc"));
+		String body = "{\"sources\":[]}";
+		StreamingOutput streamed = out -> out.write(body.getBytes(StandardCharsets.UTF_8));
+
+		String key = RequestCoalescer.key(HttpCall.post(target, null, Entity.entity(body, MediaType.APPLICATION_JSON_TYPE)), "type");
+
+		assertEquals(key, RequestCoalescer.key(HttpCall.post(target, null, Entity.entity(streamed, MediaType.APPLICATION_JSON_TYPE)), "type"));
+		assertNotEquals(key, RequestCoalescer.key(HttpCall.post(target, null, Entity.entity("{}", MediaType.APPLICATION_JSON_TYPE)), "type"));
+		assertNotEquals(key, RequestCoalescer.key(HttpCall.post(target, null, Entity.entity(body, MediaType.APPLICATION_JSON_TYPE)), "other"));
+	}
+
+	private static HttpCall call(Deadline deadline) {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(URI.create("http://localhost/v1/time?key=abc"));
+		HttpCall call = HttpCall.get(target, null);
+		return deadline == null ? call : call.withDeadline(deadline);
+	}
+}
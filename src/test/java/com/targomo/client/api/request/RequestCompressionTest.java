@@ -0,0 +1,141 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.TravelOptions;
+import com.targomo.client.api.geo.DefaultSourceCoordinate;
+import com.targomo.client.api.geo.DefaultTargetCoordinate;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestCompressionTest {
+
+	private static final String LARGE_BODY = largeBody();
+
+	@Test
+	public void gzipLargeBody() throws Exception {
+		RequestCompression compression = RequestCompression.builder().threshold(1024).build();
+		HttpCall call = HttpCall.post(target(), null, Entity.entity(LARGE_BODY, MediaType.APPLICATION_JSON_TYPE));
+
+		HttpCall compressed = compression.apply(call);
+
+		assertEquals("gzip", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(MediaType.APPLICATION_JSON_TYPE, compressed.getEntity().getMediaType());
+		assertEquals(0, compression.getCompressedRequests());
+		byte[] body = write(compressed);
+		assertEquals(LARGE_BODY, IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8));
+
+		assertEquals(1, compression.getCompressedRequests());
+		assertEquals(LARGE_BODY.length(), compression.getUncompressedBytes());
+		assertEquals(body.length, compression.getCompressedBytes());
+		assertTrue(compression.getCompressedBytes() < compression.getUncompressedBytes());
+	}
+
+	@Test
+	public void deflateStreamedBody() throws Exception {
+		long[] reported = new long[2];
+		RequestCompression compression = RequestCompression.builder()
+				.encoding(RequestCompression.Encoding.DEFLATE)
+				.threshold(1024)
+				.listener((uri, uncompressed, compressed) -> {
+					reported[0] = uncompressed;
+					reported[1] = compressed;
+				})
+				.build();
+		StreamingOutput output = out -> out.write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+		HttpCall call = HttpCall.post(target(), null, Entity.entity(output, MediaType.APPLICATION_JSON_TYPE));
+
+		HttpCall compressed = compression.apply(call);
+
+		assertEquals("deflate", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		byte[] body = write(compressed);
+		assertEquals(LARGE_BODY, IOUtils.toString(new InflaterInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8));
+		assertEquals(LARGE_BODY.length(), reported[0]);
+		assertEquals(body.length, reported[1]);
+	}
+
+	@Test
+	public void smallBodyIsNotCompressed() throws Exception {
+		RequestCompression compression = RequestCompression.builder().threshold(1024).build();
+		HttpCall call = HttpCall.post(target(), null, Entity.entity("{\"a\":1}", MediaType.APPLICATION_JSON_TYPE));
+
+		assertSame(call, compression.apply(call));
+		assertEquals(0, compression.getCompressedRequests());
+	}
+
+	@Test
+	public void streamedBodyWithFewLocationsIsNotRendered() throws Exception {
+		RequestCompression compression = RequestCompression.builder().threshold(0).locationThreshold(3).build();
+		StreamingOutput output = out -> fail("body rendered to decide on compression");
+		TravelOptions travelOptions = new TravelOptions();
+		travelOptions.addSource(new DefaultSourceCoordinate("s", 13.4, 52.5));
+		travelOptions.addTarget(new DefaultTargetCoordinate("t", 13.5, 52.5));
+		HttpCall call = HttpCall.post(target(), null, Entity.entity(output, MediaType.APPLICATION_JSON_TYPE))
+				.withLocationCounts(travelOptions);
+
+		assertSame(call, compression.apply(call));
+
+		travelOptions.addTarget(new DefaultTargetCoordinate("u", 13.6, 52.5));
+		HttpCall large = call.withLocationCounts(travelOptions);
+		assertEquals("gzip", compression.apply(large).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void compressionDoesNotCloseTheConnection() throws Exception {
+		RequestCompression compression = RequestCompression.builder().threshold(0).build();
+		HttpCall call = compression.apply(HttpCall.post(target(), null, Entity.entity(LARGE_BODY, MediaType.APPLICATION_JSON_TYPE)));
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+
+		((StreamingOutput) call.getEntity().getEntity()).write(out);
+
+		assertFalse(closed[0]);
+		assertEquals(LARGE_BODY, IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void getIsNotCompressed() throws Exception {
+		RequestCompression compression = RequestCompression.builder().threshold(0).build();
+		HttpCall call = HttpCall.get(target(), null);
+
+		assertSame(call, compression.apply(call));
+	}
+
+	private static byte[] write(HttpCall call) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		((StreamingOutput) call.getEntity().getEntity()).write(out);
+		return out.toByteArray();
+	}
+
+	private static WebTarget target() {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(URI.create("http://localhost/v1/time"));
+		return target;
+	}
+
+	private static String largeBody() {
+		StringBuilder body = new StringBuilder("{\"targets\":[");
+		for (int i = 0; i < 1000; i++)
+			body.append(i == 0 ? "" : ",").append("{\"id\":\"").append(i).append("\",\"lat\":52.5,\"lng\":13.4}");
+		return body.append("]}").toString();
+	}
+}
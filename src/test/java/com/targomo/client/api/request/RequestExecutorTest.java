@@ -0,0 +1,127 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.request.cache.InMemoryResponseCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestExecutorTest extends RequestTest {
+
+    private static final String BODY = "callback({\"code\":\"ok\"})";
+
+    private InMemoryResponseCache cache;
+    private RequestExecutor executor;
+
+    @Before
+    public void setUpCache() {
+        cache = InMemoryResponseCache.builder().build();
+        executor = RequestExecutor.builder().responseCache(cache).build();
+
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost/v1/time?key=abc"));
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(sampleResponse.hasEntity()).thenReturn(true);
+        when(sampleResponse.readEntity(byte[].class)).thenReturn(BODY.getBytes(StandardCharsets.UTF_8));
+        when(sampleResponse.getStringHeaders()).thenReturn(new MultivaluedHashMap<>());
+    }
+
+    @Test
+    public void identicalRequestIsAnsweredFromCache() throws Exception {
+        Response first = executor.execute(call("{\"a\":1}"));
+        Response second = executor.execute(call("{\"a\":1}"));
+
+        assertEquals(BODY, first.readEntity(String.class));
+        assertEquals(BODY, second.readEntity(String.class));
+        assertEquals(200, second.getStatus());
+        verify(mockBuilder, times(1)).post(anyObject());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void differentBodyIsNotAnsweredFromCache() throws Exception {
+        executor.execute(call("{\"a\":1}"));
+        executor.execute(call("{\"a\":2}"));
+
+        verify(mockBuilder, times(2)).post(anyObject());
+    }
+
+    @Test
+    public void forceRecalculateSkipsCache() throws Exception {
+        executor.execute(call("{\"a\":1}"));
+        executor.execute(call("{\"a\":1}").withCacheFlags(true, true));
+
+        verify(mockBuilder, times(2)).post(anyObject());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void cacheResultFalseIsNotStored() throws Exception {
+        executor.execute(call("{\"a\":1}").withCacheFlags(false, false));
+        executor.execute(call("{\"a\":1}"));
+
+        verify(mockBuilder, times(2)).post(anyObject());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void errorsAreNotCached() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.BAD_REQUEST.getStatusCode());
+
+        executor.execute(call("{\"a\":1}"));
+        executor.execute(call("{\"a\":1}"));
+
+        verify(mockBuilder, times(2)).post(anyObject());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void errorCodesAreNotCached() throws Exception {
+        String body = "{\"requestTime\":5,\"code\":\"gateway-time-out\"}";
+        when(sampleResponse.readEntity(byte[].class)).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+
+        Response response = executor.execute(call("{\"a\":1}"));
+        executor.execute(call("{\"a\":1}"));
+
+        assertEquals(body, response.readEntity(String.class));
+        verify(mockBuilder, times(2)).post(anyObject());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void responsesLargerThanTheCacheAreNotBuffered() throws Exception {
+        executor = RequestExecutor.builder().responseCache(InMemoryResponseCache.builder().maxBytes(1024).build()).build();
+        when(sampleResponse.getLength()).thenReturn(4096);
+
+        Response response = executor.execute(call("{\"a\":1}"));
+
+        assertSame(sampleResponse, response);
+        verify(sampleResponse, never()).readEntity(byte[].class);
+    }
+
+    @Test
+    public void asyncRequestIsAnsweredFromCache() throws Exception {
+        executor.execute(call("{\"a\":1}"));
+
+        String body = executor.executeAsync(() -> call("{\"a\":1}"), response -> response.readEntity(String.class)).get();
+
+        assertEquals(BODY, body);
+        verify(mockBuilder, times(1)).post(anyObject());
+        verify(mockRxInvoker, times(0)).post(anyObject());
+    }
+
+    private HttpCall call(String body) {
+        return HttpCall.post(mockWebTarget, null, Entity.entity(body, MediaType.APPLICATION_JSON_TYPE));
+    }
+}
@@ -0,0 +1,221 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.request.metrics.EndpointMetricsMXBean;
+import com.targomo.client.api.request.metrics.JmxRequestMetrics;
+import com.targomo.client.api.request.metrics.RequestEvent;
+import com.targomo.client.api.request.metrics.RequestMetrics;
+import com.targomo.client.api.request.metrics.ResponseParseEvent;
+import com.targomo.client.api.response.RequestTimings;
+import com.targomo.client.api.response.ResponseCode;
+import org.junit.Before;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestMetricsTest extends RequestTest {
+
+    private static final String BODY = "{\"code\":\"ok\"}";
+    private static final String REQUEST = "{\"a\":1}";
+
+    private final List<RequestTimings> recorded = new CopyOnWriteArrayList<>();
+    private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+    private final RequestMetrics metrics = new RequestMetrics() {
+        @Override
+        public void record(RequestTimings timings) {
+            recorded.add(timings);
+        }
+
+        @Override
+        public void recordFailure(String endpoint, long elapsedNanos, Throwable error) {
+            failures.add(error);
+        }
+    };
+
+    @Before
+    public void setUpResponse() {
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost/v1/time?key=abc"));
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(sampleResponse.hasEntity()).thenReturn(true);
+        // the stub of RequestTest would be invoked by when(), stub the stream without calling it
+        doAnswer(invocation -> new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)))
+                .when(sampleResponse).readEntity(InputStream.class);
+        when(sampleResponse.getStringHeaders()).thenReturn(new MultivaluedHashMap<>());
+    }
+
+    @Test
+    public void recordsPhasesOfBlockingRequest() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().metrics(metrics).build();
+
+        String body = executor.execute(this::call, response -> response.readEntity(String.class));
+
+        assertEquals(BODY, body);
+        assertEquals(1, recorded.size());
+        RequestTimings timings = recorded.get(0);
+        assertEquals("/v1/time", timings.getEndpoint());
+        assertEquals(200, timings.getStatus());
+        assertEquals(REQUEST.length(), timings.getRequestBytes());
+        assertEquals(BODY.length(), timings.getResponseBytes());
+        assertTrue(timings.getConfigBuildNanos() >= 0);
+        assertTrue(timings.getSendNanos() >= 0);
+        assertTrue(timings.getBodyReadNanos() >= 0);
+        assertTrue(timings.getParseNanos() >= 0);
+        assertTrue(timings.getTotalNanos() >= timings.getSendNanos() + timings.getParseNanos());
+    }
+
+    @Test
+    public void recordsPhasesOfAsyncRequest() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().metrics(metrics).build();
+
+        String body = executor.executeAsync(this::call, response -> response.readEntity(String.class)).get();
+
+        assertEquals(BODY, body);
+        assertEquals(1, recorded.size());
+        assertEquals(BODY.length(), recorded.get(0).getResponseBytes());
+        assertTrue(recorded.get(0).getBodyReadNanos() >= 0);
+    }
+
+    @Test
+    public void readsTheBodyAsStreamWhileParsing() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().metrics(metrics).build();
+
+        int length = executor.execute(this::call, response -> {
+            try (InputStream body = response.readEntity(InputStream.class)) {
+                return body.readAllBytes().length;
+            }
+        });
+
+        assertEquals(BODY.length(), length);
+        assertEquals(BODY.length(), recorded.get(0).getResponseBytes());
+        verify(sampleResponse, never()).readEntity(byte[].class);
+    }
+
+    @Test
+    public void countsRequestBodyInUtf8() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().metrics(metrics).build();
+        String request = "{\"name\":\"Stra\u00DFe \uD83D\uDE8C \uD800\"}";
+
+        executor.execute(() -> HttpCall.post(mockWebTarget, null, Entity.entity(request, MediaType.APPLICATION_JSON_TYPE)),
+                response -> response.readEntity(String.class));
+
+        assertEquals(request.getBytes(StandardCharsets.UTF_8).length, recorded.get(0).getRequestBytes());
+        assertEquals(request.getBytes(StandardCharsets.UTF_8).length, CallTimer.utf8Length(request));
+    }
+
+    @Test
+    public void recordsFailures() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().metrics(metrics).build();
+        when(mockBuilder.post(anyObject())).thenThrow(new ProcessingException("connection refused"));
+
+        try {
+            executor.execute(this::call, response -> response.readEntity(String.class));
+            fail("failure not propagated");
+        } catch (ProcessingException e) {
+            assertEquals(1, failures.size());
+            assertSame(e, failures.get(0));
+        }
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    public void exportsEndpointMetricsViaJmx() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        try (JmxRequestMetrics jmx = JmxRequestMetrics.builder().name("test").server(server).build()) {
+            RequestExecutor executor = RequestExecutor.builder().metrics(jmx).build();
+            executor.execute(this::call, response -> response.readEntity(String.class));
+            executor.execute(this::call, response -> response.readEntity(String.class));
+
+            ObjectName name = new ObjectName("com.targomo.client:type=RequestMetrics,name=\"test\",endpoint=\"/v1/time\"");
+            assertEquals(2L, server.getAttribute(name, "Count"));
+            assertEquals(0L, server.getAttribute(name, "Failures"));
+            EndpointMetricsMXBean endpoint = jmx.getEndpoints().get("/v1/time");
+            assertEquals(REQUEST.length(), endpoint.getMeanRequestBytes(), 0.001);
+            assertTrue(endpoint.getTotalP99Millis() >= endpoint.getTotalP50Millis());
+
+            jmx.close();
+            assertFalse(server.isRegistered(name));
+        }
+    }
+
+    @Test
+    public void emitsFlightRecorderEvents() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().build();
+        Path file = Files.createTempFile("requests", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RequestEvent.NAME);
+            recording.enable(ResponseParseEvent.NAME);
+            recording.start();
+            executor.execute(this::call, response -> response.readEntity(String.class));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent request = events.stream()
+                    .filter(event -> event.getEventType().getName().equals(RequestEvent.NAME)).findFirst().get();
+            assertEquals("/v1/time", request.getString("endpoint"));
+            assertEquals(200, request.getInt("status"));
+            assertEquals("", request.getString("code"));
+            assertEquals(String.class.getName(), request.getString("resultType"));
+            assertEquals(REQUEST.length(), request.getLong("requestBytes"));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(ResponseParseEvent.NAME)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void flightRecorderEventCarriesResultCode() throws Exception {
+        RequestExecutor executor = RequestExecutor.builder().build();
+        Path file = Files.createTempFile("requests", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RequestEvent.NAME);
+            recording.start();
+            try {
+                executor.execute(this::call, response -> {
+                    throw new ResponseErrorException(ResponseCode.NO_ROUTE_FOUND, "no route");
+                });
+                fail("expected ResponseErrorException");
+            } catch (ResponseErrorException e) {
+                // expected
+            }
+            recording.stop();
+            recording.dump(file);
+
+            RecordedEvent request = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(RequestEvent.NAME)).findFirst().get();
+            assertEquals(200, request.getInt("status"));
+            assertEquals("NO_ROUTE_FOUND", request.getString("code"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private HttpCall call() {
+        return HttpCall.post(mockWebTarget, null, Entity.entity(REQUEST, MediaType.APPLICATION_JSON_TYPE));
+    }
+}
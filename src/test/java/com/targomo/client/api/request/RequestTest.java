@@ -6,9 +6,14 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.CompletionStageRxInvoker;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.when;
@@ -25,6 +30,8 @@ public abstract class RequestTest {
     @Mock
     Invocation mockInvocation;
     @Mock
+    CompletionStageRxInvoker mockRxInvoker;
+    @Mock
     protected Response sampleResponse;
 
     @Before
@@ -39,7 +46,17 @@ public abstract class RequestTest {
         when(mockBuilder.post(anyObject())).thenReturn(sampleResponse);
         when(mockBuilder.buildGet()).thenReturn(mockInvocation);
         when(mockBuilder.headers(anyObject())).thenReturn(mockBuilder);
+        when(mockBuilder.rx()).thenReturn(mockRxInvoker);
+
+        when(mockRxInvoker.get()).thenReturn(CompletableFuture.completedFuture(sampleResponse));
+        when(mockRxInvoker.post(anyObject())).thenReturn(CompletableFuture.completedFuture(sampleResponse));
 
         when(mockInvocation.invoke()).thenReturn(sampleResponse);
+
+        // bodies are stubbed as String, serve the same body to stream based parsing
+        when(sampleResponse.readEntity(InputStream.class)).thenAnswer(invocation -> {
+            String body = sampleResponse.readEntity(String.class);
+            return body == null ? null : new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        });
     }
 }
@@ -0,0 +1,153 @@
+package com.targomo.client.api.request;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryPolicyTest extends RequestTest {
+
+    private Response ok;
+
+    @Before
+    public void setUpResponses() {
+        when(mockWebTarget.getUri()).thenReturn(URI.create("http://localhost/v1/time"));
+        ok = response(200);
+    }
+
+    @Test
+    public void retriesGatewayErrors() {
+        RetryPolicy policy = noBackoff().build();
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(policy).build();
+        Response gatewayTimeout = response(504);
+        Response badGateway = response(502);
+        when(mockBuilder.post(anyObject())).thenReturn(gatewayTimeout, badGateway, ok);
+
+        assertSame(ok, executor.execute(call()));
+        verify(mockBuilder, times(3)).post(anyObject());
+        verify(gatewayTimeout).close();
+        assertEquals(2, policy.getRetries());
+    }
+
+    @Test
+    public void returnsLastResponseAfterMaxAttempts() {
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(noBackoff().maxAttempts(2).build()).build();
+        Response gatewayTimeout = response(504);
+        when(mockBuilder.post(anyObject())).thenReturn(gatewayTimeout);
+
+        assertEquals(504, executor.execute(call()).getStatus());
+        verify(mockBuilder, times(2)).post(anyObject());
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() {
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(noBackoff().build()).build();
+        Response badRequest = response(400);
+        when(mockBuilder.post(anyObject())).thenReturn(badRequest, ok);
+
+        assertEquals(400, executor.execute(call()).getStatus());
+        verify(mockBuilder, times(1)).post(anyObject());
+    }
+
+    @Test
+    public void nonIdempotentCallsAreOnlyRetriedIfNotProcessed() {
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(noBackoff().postIdempotent(false).build()).build();
+        Response badGateway = response(502);
+        Response unavailable = response(503);
+
+        when(mockBuilder.post(anyObject())).thenReturn(badGateway, ok);
+        assertEquals(502, executor.execute(call()).getStatus());
+
+        when(mockBuilder.post(anyObject())).thenReturn(unavailable, ok);
+        assertSame(ok, executor.execute(call()));
+
+        when(mockBuilder.post(anyObject()))
+                .thenThrow(new ProcessingException(new ConnectException("refused")))
+                .thenReturn(ok);
+        assertSame(ok, executor.execute(call()));
+
+        when(mockBuilder.post(anyObject()))
+                .thenThrow(new ProcessingException(new SocketTimeoutException("read timed out")))
+                .thenReturn(ok);
+        try {
+            executor.execute(call());
+            fail("read timeouts of non-idempotent calls must not be retried");
+        } catch (ProcessingException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void retriesAsynchronously() throws Exception {
+        RetryPolicy policy = noBackoff().build();
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(policy).build();
+        CompletableFuture<Response> refused = new CompletableFuture<>();
+        refused.completeExceptionally(new ProcessingException(new ConnectException("refused")));
+        CompletableFuture<Response> unavailable = CompletableFuture.completedFuture(response(503));
+        when(mockRxInvoker.post(anyObject())).thenReturn(refused, unavailable, CompletableFuture.completedFuture(ok));
+
+        int status = executor.executeAsync(this::call, Response::getStatus).get();
+
+        assertEquals(200, status);
+        assertEquals(2, policy.getRetries());
+    }
+
+    @Test
+    public void hedgesSlowCalls() throws Exception {
+        RetryPolicy policy = noBackoff().hedgeDelay(Duration.ofMillis(10)).build();
+        RequestExecutor executor = RequestExecutor.builder().retryPolicy(policy).build();
+        when(mockRxInvoker.post(anyObject())).thenReturn(new CompletableFuture<>(), CompletableFuture.completedFuture(ok));
+
+        assertSame(ok, executor.execute(call()));
+        assertEquals(1, policy.getHedgedCalls());
+        verify(mockRxInvoker, times(2)).post(anyObject());
+    }
+
+    @Test
+    public void backoffGrowsAndRespectsRetryAfter() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .backoff(Duration.ofMillis(100), Duration.ofSeconds(1), 2)
+                .jitter(0)
+                .build();
+
+        assertEquals(100, policy.backoffMillis(1, null));
+        assertEquals(400, policy.backoffMillis(3, null));
+        assertEquals(1000, policy.backoffMillis(10, null));
+
+        Response unavailable = response(503);
+        when(unavailable.getHeaderString(HttpHeaders.RETRY_AFTER)).thenReturn("0");
+        assertEquals(0, policy.backoffMillis(1, unavailable));
+        when(unavailable.getHeaderString(HttpHeaders.RETRY_AFTER)).thenReturn("120");
+        assertEquals(1000, policy.backoffMillis(1, unavailable));
+    }
+
+    private static RetryPolicy.Builder noBackoff() {
+        return RetryPolicy.builder().backoff(Duration.ZERO, Duration.ZERO, 1);
+    }
+
+    private static Response response(int status) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
+    }
+
+    private HttpCall call() {
+        return HttpCall.post(mockWebTarget, null, Entity.entity("{}", MediaType.APPLICATION_JSON_TYPE));
+    }
+}
@@ -0,0 +1,223 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.exception.CallRejectedException;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.CompletionStageRxInvoker;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServiceIsolationTest {
+
+	private static final URI ROUTING = URI.create("https://api.targomo.com/westcentraleurope/v1/time?key=abc");
+	private static final URI STATISTICS = URI.create("https://api.targomo.com/statistics/charts/multi?key=abc");
+
+	@Test
+	public void defaultServiceKey() {
+		assertEquals("https://api.targomo.com/westcentraleurope", ServiceIsolation.defaultServiceKey(ROUTING));
+		assertEquals("https://api.targomo.com/statistics", ServiceIsolation.defaultServiceKey(STATISTICS));
+		assertEquals("http://localhost:8080/", ServiceIsolation.defaultServiceKey(URI.create("http://localhost:8080")));
+	}
+
+	@Test
+	public void circuitOpensPerService() {
+		ServiceIsolation isolation = ServiceIsolation.builder().failureRate(0.5, 4, 4).build();
+		RequestExecutor executor = RequestExecutor.builder().isolation(isolation).build();
+		Response gatewayTimeout = response(504);
+		Response ok = response(200);
+		Invocation.Builder statistics = builder(gatewayTimeout);
+		WebTarget statisticsTarget = target(STATISTICS, statistics);
+		Invocation.Builder routing = builder(ok);
+		WebTarget routingTarget = target(ROUTING, routing);
+
+		for (int i = 0; i < 4; i++)
+			assertEquals(504, executor.execute(HttpCall.get(statisticsTarget, null)).getStatus());
+
+		assertEquals(ServiceIsolation.State.OPEN, isolation.getState("https://api.targomo.com/statistics"));
+		try {
+			executor.execute(HttpCall.get(statisticsTarget, null));
+			fail("calls to an open circuit must fail fast");
+		} catch (CallRejectedException e) {
+			assertEquals(CallRejectedException.Reason.CIRCUIT_OPEN, e.getReason());
+		}
+		verify(statistics, times(4)).get();
+
+		assertSame(ok, executor.execute(HttpCall.get(routingTarget, null)));
+		assertEquals(ServiceIsolation.State.CLOSED, isolation.getState("https://api.targomo.com/westcentraleurope"));
+		assertEquals(1, isolation.getRejectedCalls());
+	}
+
+	@Test
+	public void halfOpenTrialCallsCloseTheCircuit() {
+		MovableClock clock = new MovableClock();
+		ServiceIsolation isolation = ServiceIsolation.builder()
+				.failureRate(0.5, 2, 2)
+				.open(Duration.ofSeconds(10), 2)
+				.clock(clock)
+				.build();
+		RequestExecutor executor = RequestExecutor.builder().isolation(isolation).build();
+		Response ok = response(200);
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.get())
+				.thenThrow(new ProcessingException(new ConnectException("refused")))
+				.thenThrow(new ProcessingException(new ConnectException("refused")))
+				.thenReturn(ok);
+		WebTarget target = target(ROUTING, builder);
+		String service = ServiceIsolation.defaultServiceKey(ROUTING);
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				executor.execute(HttpCall.get(target, null));
+				fail();
+			} catch (ProcessingException e) {
+				assertFalse(e instanceof CallRejectedException);
+			}
+		}
+		assertEquals(ServiceIsolation.State.OPEN, isolation.getState(service));
+
+		clock.millis += 10_000;
+		assertSame(ok, executor.execute(HttpCall.get(target, null)));
+		assertEquals(ServiceIsolation.State.HALF_OPEN, isolation.getState(service));
+		assertSame(ok, executor.execute(HttpCall.get(target, null)));
+		assertEquals(ServiceIsolation.State.CLOSED, isolation.getState(service));
+	}
+
+	@Test
+	public void unfinishedTrialCallsReopenTheCircuit() throws Exception {
+		MovableClock clock = new MovableClock();
+		ServiceIsolation isolation = ServiceIsolation.builder()
+				.failureRate(0.5, 1, 1)
+				.open(Duration.ofSeconds(10), 1)
+				.clock(clock)
+				.build();
+		RequestExecutor executor = RequestExecutor.builder().isolation(isolation).build();
+		Response ok = response(200);
+		CompletableFuture<Response> hanging = new CompletableFuture<>();
+		CompletionStageRxInvoker rx = mock(CompletionStageRxInvoker.class);
+		when(rx.get()).thenReturn(hanging);
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.get()).thenThrow(new ProcessingException(new ConnectException("refused"))).thenReturn(ok);
+		when(builder.rx()).thenReturn(rx);
+		WebTarget target = target(ROUTING, builder);
+		String service = ServiceIsolation.defaultServiceKey(ROUTING);
+
+		try {
+			executor.execute(HttpCall.get(target, null));
+			fail();
+		} catch (ProcessingException e) {
+			assertFalse(e instanceof CallRejectedException);
+		}
+		assertEquals(ServiceIsolation.State.OPEN, isolation.getState(service));
+
+		clock.millis += 10_000;
+		CompletableFuture<Integer> trial = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		assertFalse(trial.isDone());
+		assertEquals(ServiceIsolation.State.HALF_OPEN, isolation.getState(service));
+
+		clock.millis += 10_000;
+		try {
+			executor.execute(HttpCall.get(target, null));
+			fail();
+		} catch (CallRejectedException e) {
+			assertEquals(CallRejectedException.Reason.CIRCUIT_OPEN, e.getReason());
+		}
+		assertEquals(ServiceIsolation.State.OPEN, isolation.getState(service));
+
+		clock.millis += 10_000;
+		assertSame(ok, executor.execute(HttpCall.get(target, null)));
+		assertEquals(ServiceIsolation.State.CLOSED, isolation.getState(service));
+		// the late outcome of the abandoned trial is ignored
+		hanging.complete(response(503));
+		assertEquals(503, (int) trial.get());
+		assertEquals(ServiceIsolation.State.CLOSED, isolation.getState(service));
+	}
+
+	@Test
+	public void bulkheadRejectsCallsOverTheLimit() throws Exception {
+		ServiceIsolation isolation = ServiceIsolation.builder().maxConcurrentCalls("/statistics", 1).build();
+		RequestExecutor executor = RequestExecutor.builder().isolation(isolation).build();
+		CompletableFuture<Response> pending = new CompletableFuture<>();
+		CompletionStageRxInvoker rx = mock(CompletionStageRxInvoker.class);
+		when(rx.get()).thenReturn(pending);
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.rx()).thenReturn(rx);
+		WebTarget target = target(STATISTICS, builder);
+
+		CompletableFuture<Integer> first = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+		CompletableFuture<Integer> second = executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus);
+
+		assertTrue(second.isCompletedExceptionally());
+		try {
+			second.join();
+			fail();
+		} catch (Exception e) {
+			assertEquals(CallRejectedException.Reason.BULKHEAD_FULL, ((CallRejectedException) e.getCause()).getReason());
+		}
+
+		Response ok = response(200);
+		pending.complete(ok);
+		assertEquals(200, (int) first.get());
+		// the slot is free again
+		executor.executeAsync(() -> HttpCall.get(target, null), Response::getStatus).get();
+	}
+
+	private static Invocation.Builder builder(Response response) {
+		Invocation.Builder builder = mock(Invocation.Builder.class);
+		when(builder.get()).thenReturn(response);
+		return builder;
+	}
+
+	private static WebTarget target(URI uri, Invocation.Builder builder) {
+		WebTarget target = mock(WebTarget.class);
+		when(target.getUri()).thenReturn(uri);
+		when(target.request()).thenReturn(builder);
+		return target;
+	}
+
+	private static Response response(int status) {
+		Response response = mock(Response.class);
+		when(response.getStatus()).thenReturn(status);
+		return response;
+	}
+
+	private static final class MovableClock extends Clock {
+
+		private long millis = 0;
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+	}
+}
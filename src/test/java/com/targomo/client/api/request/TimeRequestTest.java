@@ -15,9 +15,13 @@ import javax.ws.rs.core.Response;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import static org.mockito.Mockito.when;
 
@@ -40,6 +44,10 @@ public class TimeRequestTest extends RequestTest {
         assertNotNull(timeResponse.getTravelWeights());
         assertNotNull(timeResponse.getTravelTimes());
         assertNotNull(timeResponse.getLengths());
+        assertEquals(200, timeResponse.getTimings().getStatus());
+        assertEquals(472, timeResponse.getTimings().getServerTimeMillis());
+        assertTrue(timeResponse.getTimings().getSendNanos() >= 0);
+        assertTrue(timeResponse.getTimings().getTotalNanos() >= timeResponse.getTimings().getParseNanos());
     }
 
     @Test(expected = TargomoClientException.class)
@@ -61,6 +69,66 @@ public class TimeRequestTest extends RequestTest {
     }
 
 
+    @Test
+    public void getAsync_success() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+
+        InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json");
+        String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
+        when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+
+        TimeResponse timeResponse = new TimeRequest(mockClient, getTravelOptions()).getAsync().get();
+
+        assertEquals(ResponseCode.OK, timeResponse.getCode());
+        assertEquals(472, timeResponse.getRequestTimeMillis());
+        assertNotNull(timeResponse.getTravelTimes());
+    }
+
+    @Test
+    public void get_consumer() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+
+        InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json");
+        String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
+        when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+
+        AtomicInteger cells = new AtomicInteger();
+        AtomicInteger reachable = new AtomicInteger();
+        TimeResponse timeResponse = new TimeRequest(mockClient, getTravelOptions()).get((sourceId, targetId, travelTime, length) -> {
+            cells.incrementAndGet();
+            if (travelTime >= 0 && travelTime <= 900)
+                reachable.incrementAndGet();
+            if (sourceId.equals("id0") && targetId.equals("id1"))
+                assertEquals(1024, length);
+        });
+
+        assertEquals(ResponseCode.OK, timeResponse.getCode());
+        assertEquals(472, timeResponse.getRequestTimeMillis());
+        assertEquals(9, cells.get());
+        assertEquals(4, reachable.get());
+        assertTrue(timeResponse.getTravelTimes().isEmpty());
+    }
+
+    @Test(expected = TargomoClientException.class)
+    public void get_malformed_body() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(sampleResponse.readEntity(String.class)).thenReturn("{\"code\":\"ok\",\"data\":[");
+
+        new TimeRequest(mockClient, getTravelOptions()).get();
+    }
+
+    @Test
+    public void getAsync_exception() throws Exception {
+        when(sampleResponse.getStatus()).thenReturn(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+
+        try {
+            new TimeRequest(mockClient, getTravelOptions()).getAsync().get();
+            fail("Expected the future to complete exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TargomoClientException);
+        }
+    }
+
 	private TravelOptions getTravelOptions() {
 		TravelOptions options = new TravelOptions();
 		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
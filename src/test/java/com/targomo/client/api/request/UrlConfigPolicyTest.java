@@ -0,0 +1,76 @@
+package com.targomo.client.api.request;
+
+import com.targomo.client.api.util.IOUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.HttpMethod;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Inflater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UrlConfigPolicyTest extends RequestTest {
+
+    private static final String CONFIG = "{\"sources\":[{\"id\":\"a\",\"lat\":52.5,\"lng\":13.4}],\"polygon\":{\"values\":[600]}}";
+
+    @Before
+    public void setUpTarget() {
+        when(mockWebTarget.getUri()).thenReturn(URI.create("https://api.targomo.com/westcentraleurope/v1/polygon?cb=cb&key=abc"));
+    }
+
+    @Test
+    public void sendsShortConfigAsUrlParameter() {
+        HttpCall call = UrlConfigPolicy.DEFAULT.call(mockWebTarget, null, CONFIG);
+
+        assertEquals(HttpMethod.GET, call.getMethod());
+        assertNull(call.getEntity());
+        verify(mockWebTarget).queryParam("cfg", IOUtil.encode(CONFIG));
+    }
+
+    @Test
+    public void sendsLongConfigAsPost() {
+        UrlConfigPolicy policy = UrlConfigPolicy.builder().maxUrlLength(100).build();
+
+        HttpCall call = policy.call(mockWebTarget, null, CONFIG);
+
+        assertEquals(HttpMethod.POST, call.getMethod());
+        assertEquals(CONFIG, call.getEntity().getEntity());
+        verify(mockWebTarget, never()).queryParam(eq("cfg"), anyString());
+    }
+
+    @Test
+    public void sendsCompactConfig() throws Exception {
+        UrlConfigPolicy policy = UrlConfigPolicy.builder().compact(true).build();
+
+        HttpCall call = policy.call(mockWebTarget, null, CONFIG);
+
+        String encoded = UrlConfigPolicy.deflate(CONFIG);
+        assertEquals(HttpMethod.GET, call.getMethod());
+        verify(mockWebTarget).queryParam("cfg", encoded);
+        verify(mockWebTarget).queryParam(UrlConfigPolicy.ENCODING_PARAMETER, UrlConfigPolicy.DEFLATE_ENCODING);
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(CONFIG, inflate(encoded));
+    }
+
+    private static String inflate(String encoded) throws Exception {
+        Inflater inflater = new Inflater();
+        inflater.setInput(Base64.getUrlDecoder().decode(encoded));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (!inflater.finished())
+            out.write(buffer, 0, inflater.inflate(buffer));
+        inflater.end();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,187 @@
+package com.targomo.client.api.request.cache;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DiskResponseCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void responsesSurviveReopening() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		headers.put("X-Request-Id", Arrays.asList("1", "2"));
+
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			cache.put("a", "/v1/time", new CachedResponse(200, "application/json", headers, bytes("{\"a\":1}"), 42));
+		}
+
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			CachedResponse response = cache.get("a");
+			assertNotNull(response);
+			assertEquals(200, response.getStatus());
+			assertEquals("application/json", response.getMediaType());
+			assertEquals(headers, response.getHeaders());
+			assertEquals(42, response.getCreatedAtMillis());
+			assertEquals("{\"a\":1}", body(response));
+			assertNull(cache.get("b"));
+			assertEquals(1, cache.getHits());
+			assertEquals(1, cache.getMisses());
+		}
+	}
+
+	@Test
+	public void responsesAfterTheLastFlushAreRecovered() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		DiskResponseCache crashed = DiskResponseCache.builder().directory(directory).build();
+		crashed.put("a", "/v1/time", response("a"));
+		crashed.flush();
+		crashed.put("b", "/v1/time", response("b"));
+
+		// opened without closing the first instance, as after a crash
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			assertEquals("a", body(cache.get("a")));
+			assertEquals("b", body(cache.get("b")));
+		}
+	}
+
+	@Test
+	public void corruptRecordsAreSkipped() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			cache.put("a", "/v1/time", response("a"));
+		}
+		Files.delete(directory.resolve("index"));
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().get();
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// flips a byte of the media type, so the checksum of the record does not match anymore
+			file.seek(105);
+			int value = file.read();
+			file.seek(105);
+			file.write(value ^ 0xFF);
+		}
+
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			assertEquals(0, cache.getSize());
+			cache.put("b", "/v1/time", response("b"));
+			assertEquals("b", body(cache.get("b")));
+		}
+	}
+
+	@Test
+	public void keysAreNotWrittenToDisk() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		String key = "POST https://api.targomo.com/westcentraleurope/v1/time?key=SECRET-KEY {Authorization=[Bearer SECRET-TOKEN]}";
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			cache.put(key, "/v1/time", response("a"));
+		}
+
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+				assertFalse(file.toString(), content.contains("SECRET"));
+			}
+		}
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(directory).build()) {
+			assertEquals("a", body(cache.get(key)));
+			assertNull(cache.get(key + " "));
+		}
+	}
+
+	@Test
+	public void compactionKeepsSizeBounded() throws Exception {
+		DiskResponseCache cache = DiskResponseCache.builder()
+				.directory(folder.getRoot().toPath())
+				.segmentBytes(4096)
+				.maxBytes(3 * 4096)
+				.build();
+
+		for (int i = 0; i < 100; i++)
+			cache.put("key" + (i % 5), "/v1/time", new CachedResponse(200, null, null, new byte[1000], 0));
+
+		assertTrue(cache.getCompactions() > 0);
+		assertTrue(cache.getBytes() <= 3 * 4096);
+		assertEquals(5, cache.getSize());
+		for (int i = 0; i < 5; i++)
+			assertNotNull(cache.get("key" + i));
+		cache.close();
+	}
+
+	@Test
+	public void compressedBodies() throws Exception {
+		String body = String.join(",", Collections.nCopies(1000, "{\"id\":1,\"travelTime\":600}"));
+		try (DiskResponseCache cache = DiskResponseCache.builder().directory(folder.getRoot().toPath()).compressBodies(true).build()) {
+			cache.put("a", "/v1/time", response(body));
+			assertEquals(body, body(cache.get("a")));
+		}
+	}
+
+	@Test
+	public void ttlPerEndpoint() throws Exception {
+		MutableClock clock = new MutableClock();
+		try (DiskResponseCache cache = DiskResponseCache.builder()
+				.directory(folder.getRoot().toPath())
+				.clock(clock)
+				.defaultTtl(Duration.ofMinutes(1))
+				.ttl("v1/polygon", Duration.ZERO)
+				.build()) {
+			cache.put("time", "/v1/time", response("time"));
+			cache.put("polygon", "/v1/polygon", response("polygon"));
+
+			assertNotNull(cache.get("time"));
+			assertNull(cache.get("polygon"));
+
+			clock.millis += Duration.ofMinutes(1).toMillis();
+			assertNull(cache.get("time"));
+			assertEquals(1, cache.getExpirations());
+		}
+	}
+
+	@Test
+	public void tieredCacheFallsBackToSecondCache() throws Exception {
+		try (DiskResponseCache disk = DiskResponseCache.builder().directory(folder.getRoot().toPath()).build()) {
+			disk.put("a", "/v1/time", response("a"));
+			InMemoryResponseCache memory = InMemoryResponseCache.builder().build();
+			TieredResponseCache cache = TieredResponseCache.of(memory, disk);
+
+			assertEquals("a", body(cache.get("a")));
+			cache.put("b", "/v1/time", response("b"));
+			assertNotNull(memory.get("b"));
+			assertNotNull(disk.get("b"));
+		}
+	}
+
+	private static CachedResponse response(String body) {
+		return new CachedResponse(200, "application/json", null, bytes(body), 0);
+	}
+
+	private static byte[] bytes(String body) {
+		return body.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String body(CachedResponse response) throws IOException {
+		return IOUtils.toString(response.openBody(), StandardCharsets.UTF_8);
+	}
+}
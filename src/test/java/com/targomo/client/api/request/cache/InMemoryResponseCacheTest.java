@@ -0,0 +1,82 @@
+package com.targomo.client.api.request.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class InMemoryResponseCacheTest {
+
+	@Test
+	public void hitAndMiss() {
+		InMemoryResponseCache cache = InMemoryResponseCache.builder().build();
+		CachedResponse response = response(100);
+
+		assertNull(cache.get("a"));
+		cache.put("a", "/v1/polygon", response);
+
+		assertSame(response, cache.get("a"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getSize());
+		assertTrue(cache.getBytes() >= 100);
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedBySize() {
+		long entryBytes = response(1000).estimateBytes() + 2;
+		InMemoryResponseCache cache = InMemoryResponseCache.builder().maxBytes(2 * entryBytes).build();
+
+		cache.put("a", "/v1/time", response(1000));
+		cache.put("b", "/v1/time", response(1000));
+		cache.get("a");
+		cache.put("c", "/v1/time", response(1000));
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertEquals(1, cache.getEvictions());
+		assertTrue(cache.getBytes() <= 2 * entryBytes);
+	}
+
+	@Test
+	public void tooLargeResponseIsNotCached() {
+		InMemoryResponseCache cache = InMemoryResponseCache.builder().maxBytes(500).build();
+
+		cache.put("a", "/v1/time", response(1000));
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getBytes());
+	}
+
+	@Test
+	public void ttlPerEndpoint() {
+		MutableClock clock = new MutableClock();
+		InMemoryResponseCache cache = InMemoryResponseCache.builder()
+				.defaultTtl(Duration.ofMinutes(10))
+				.ttl("v1/polygon", Duration.ofMinutes(1))
+				.ttl("v1/route", Duration.ZERO)
+				.clock(clock)
+				.build();
+
+		cache.put("polygon", "/v1/polygon", response(10));
+		cache.put("time", "/v1/time", response(10));
+		cache.put("route", "/v1/route", response(10));
+		assertNull(cache.get("route"));
+
+		clock.millis += Duration.ofMinutes(2).toMillis();
+		assertNull(cache.get("polygon"));
+		assertNotNull(cache.get("time"));
+		assertEquals(1, cache.getExpirations());
+
+		clock.millis += Duration.ofMinutes(10).toMillis();
+		assertNull(cache.get("time"));
+		assertEquals(0, cache.getSize());
+	}
+
+	private static CachedResponse response(int bodyBytes) {
+		return new CachedResponse(200, "application/json", Collections.emptyMap(), new byte[bodyBytes], 0);
+	}
+}
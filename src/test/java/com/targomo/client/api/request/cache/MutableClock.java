@@ -0,0 +1,33 @@
+package com.targomo.client.api.request.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Clock for tests, only moves when the test changes {@link #millis}.
+ */
+final class MutableClock extends Clock {
+
+	long millis = 0;
+
+	@Override
+	public ZoneId getZone() {
+		return ZoneId.of("UTC");
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return this;
+	}
+
+	@Override
+	public long millis() {
+		return millis;
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis);
+	}
+}
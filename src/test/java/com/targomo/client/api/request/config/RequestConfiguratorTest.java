@@ -16,6 +16,7 @@ import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -282,6 +283,64 @@ public class RequestConfiguratorTest {
         }
     }
 
+    @Test
+    public void streamingConfigEqualsConfig() throws Exception {
+        String sourceGeom = "{\"type\":\"Polygon\",\"coordinates\":[[[13.396024703979492,52.51264288568319],[13.399758338928223,52.51264288568319],[13.399758338928223,52.514784484308684],[13.396024703979492,52.51264288568319]]]}";
+        TravelOptions options = new TravelOptions();
+        options.addSource(new DefaultSourceCoordinate("POI:1",8.620987,47.384197));
+        options.addSourceGeometry(new DefaultSourceGeometry("POI:2",sourceGeom,4326));
+        for (int i = 0; i < 100; i++)
+            options.addTarget(new DefaultSourceCoordinate("Home " + i, 8.5 + i / 10000.0, 47.3 + i / 10000.0));
+        options.addTargetGeohash("u33d8zxfptcp");
+        options.setTravelTimes(Arrays.asList(600, 1200));
+        options.setServiceKey("YOUR_API_KEY_HERE");
+        options.setServiceUrl("http://127.0.0.1:8080/");
+        options.setEdgeWeightType(EdgeWeightType.TIME);
+        options.setMaxEdgeWeight(720);
+        options.setTravelType(TravelType.BIKE);
+
+        assertStreamedConfig("data/StreamingBikeRequestCfgSample.json", options);
+    }
+
+    @Test
+    public void streamingTransitConfigEqualsConfig() throws Exception {
+        TravelOptions options = new TravelOptions();
+        options.addSource(new DefaultSourceCoordinate("POI:1",8.620987,47.384197));
+        options.addSource(new DefaultSourceCoordinate("POI:2",8.497925,47.385334));
+        options.addTarget(new DefaultSourceCoordinate("Home 3",8.511658,47.322069));
+        options.addTarget(new DefaultSourceCoordinate("Home 4",8.572083,47.439235));
+        options.addTargetGeohash("u33d4zxf4tb4");
+        options.setServiceKey("YOUR_API_KEY_HERE");
+        options.setServiceUrl("http://127.0.0.1:8080/");
+        options.setEdgeWeightType(EdgeWeightType.TIME);
+        options.setMaxEdgeWeight(720);
+        options.setTravelType(TravelType.TRANSIT);
+        options.setDate(20180815);
+        options.setWeekday(Weekday.TUESDAY);
+        options.setTime(40000);
+        options.setFrame(14400);
+        options.setEarliestArrival(true);
+        options.setMaxWalkingTimeFromSource(500);
+        options.setMaxWalkingTimeToTarget(500);
+        options.setElevationEnabled(true);
+
+        assertStreamedConfig("data/StreamingTransitRequestCfgSample.json", options);
+    }
+
+    /**
+     * Compares the configuration built in memory and the streamed one with the configuration the client sent before
+     * it was streamed, byte by byte.
+     */
+    private void assertStreamedConfig(String sample, TravelOptions options) throws Exception {
+        String sampleJson = IOUtils.toString(getClass().getClassLoader().getResourceAsStream(sample), StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RequestConfigurator.getStreamingConfig(options).write(out);
+
+        Assert.assertEquals(sampleJson, RequestConfigurator.getConfig(options));
+        Assert.assertEquals(sampleJson, out.toString(StandardCharsets.UTF_8.name()));
+    }
+
     @Test
     public void readTravelOptionsWithJackson() throws IOException {
         StatisticTravelOptions parsed = new ObjectMapper()
@@ -0,0 +1,56 @@
+package com.targomo.client.api.request.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++)
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMillis(), 0.001);
+        assertEquals(1000, histogram.getMaxMillis(), 0.001);
+        assertWithin(500, histogram.getPercentileMillis(0.5));
+        assertWithin(950, histogram.getPercentileMillis(0.95));
+        assertWithin(990, histogram.getPercentileMillis(0.99));
+        assertEquals(1000, histogram.getPercentileMillis(1), 0.001);
+    }
+
+    @Test
+    public void bucketsCoverAllValues() {
+        long previous = 0;
+        for (int bucket = 0; bucket < 300; bucket++) {
+            long upperBound = LatencyHistogram.upperBound(bucket);
+            assertTrue(upperBound > previous);
+            assertEquals(bucket, LatencyHistogram.bucket(upperBound - 1));
+            assertEquals(bucket + 1, LatencyHistogram.bucket(upperBound));
+            previous = upperBound;
+        }
+    }
+
+    @Test
+    public void ignoresNegativeAndResets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        assertEquals(0, histogram.getCount());
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(0.99), 0);
+    }
+
+    private static void assertWithin(double expected, double actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                actual >= expected && actual <= expected * 1.125);
+    }
+}
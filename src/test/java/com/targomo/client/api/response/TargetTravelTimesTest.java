@@ -0,0 +1,121 @@
+package com.targomo.client.api.response;
+
+import com.targomo.client.api.TravelOptions;
+import com.targomo.client.api.geo.DefaultTargetCoordinate;
+import com.targomo.client.api.util.JsonUtil;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class TargetTravelTimesTest {
+
+	@Test
+	public void parseMatchesJsonResults() throws Exception {
+		String json = sample();
+		Function<String, String> mapperFilter = targetId -> targetId.equals("id1") ? null : targetId + "+";
+		ReachabilityResponse expected = new ReachabilityResponse(getTravelOptions(), JsonUtil.parseString(json), 0, mapperFilter);
+		ReachabilityResponse parsed = ReachabilityResponse.parse(getTravelOptions(), stream(json), 0, mapperFilter);
+
+		assertEquals(ResponseCode.OK, parsed.getCode());
+		assertEquals(517, parsed.getRequestTimeMillis());
+		assertEquals(expected.getTravelTimes(), parsed.getTravelTimes());
+		assertEquals(expected.getClosestSourceIds(), parsed.getClosestSourceIds());
+		assertEquals(4, parsed.getTravelTimes().size());
+		assertFalse(parsed.getTravelTimes().containsKey("id1"));
+		assertEquals(Integer.valueOf(1), parsed.getTravelTimes().get("id2+"));
+	}
+
+	@Test
+	public void internsClosestSources() throws Exception {
+		String json = "{\"code\":\"ok\",\"data\":["
+				+ "{\"id\":\"a\",\"travelTime\":60,\"source\":\"s1\"},"
+				+ "{\"id\":\"b\",\"travelTime\":120,\"source\":\"s1\"},"
+				+ "{\"id\":\"c\",\"travelTime\":-1}]}";
+
+		TargetTravelTimes results = ReachabilityResponse.parse(getTravelOptions(), stream(json), 0, Function.identity()).getResults();
+
+		assertEquals(3, results.getTargetCount());
+		assertEquals(120, results.getTravelTime("b"));
+		assertEquals(-1, results.getTravelTime("c"));
+		assertTrue(results.hasTravelTime(results.indexOfTarget("c")));
+		assertEquals(TargetTravelTimes.NO_VALUE, results.getTravelTime("unknown"));
+		assertEquals("s1", results.getClosestSourceId("a"));
+		assertSame(results.getClosestSourceId("a"), results.getClosestSourceId("b"));
+		assertNull(results.getClosestSourceId("c"));
+		assertEquals(2, results.asClosestSourceMap().size());
+	}
+
+	@Test
+	public void iteratesTargetsInOrder() {
+		ReachabilityResponse response = new ReachabilityResponse(null, ResponseCode.OK, 0, 0);
+		response.addTravelTime("a", 300);
+		response.addClosestSource("b", "s");
+		response.addTravelTime("c", 600);
+		response.addTravelTime("a", 200);
+
+		List<String> visited = new ArrayList<>();
+		response.getResults().forEach((sourceId, targetId, travelTime, length) -> visited.add(targetId + "=" + travelTime));
+
+		assertEquals(3, response.getResults().getTargetCount());
+		assertEquals(2, visited.size());
+		assertEquals("a=200", visited.get(0));
+		assertEquals("c=600", visited.get(1));
+		assertFalse(response.getResults().hasTravelTime(response.getResults().indexOfTarget("b")));
+		assertFalse(response.getTravelTimes().containsKey("b"));
+		assertEquals("s", response.getClosestSourceForTarget("b"));
+
+		int entries = 0;
+		for (Map.Entry<String, Integer> entry : response.getTravelTimes().entrySet())
+			entries += entry.getValue() > 0 ? 1 : 0;
+		assertEquals(2, entries);
+	}
+
+	@Test
+	public void nullTravelTimeIsNoResult() {
+		ReachabilityResponse response = new ReachabilityResponse(null, ResponseCode.OK, 0, 0);
+		response.addTravelTime("a", -1);
+		response.addTravelTime("b", 60);
+		response.addTravelTime("b", null);
+
+		TargetTravelTimes results = response.getResults();
+		assertTrue(results.hasTravelTime(results.indexOfTarget("a")));
+		assertEquals(Integer.valueOf(-1), response.getTravelTimes().get("a"));
+		assertFalse(results.hasTravelTime(results.indexOfTarget("b")));
+		assertNull(response.getTravelTimes().get("b"));
+		assertFalse(response.getTravelTimes().containsKey("b"));
+		assertEquals(1, response.getTravelTimes().size());
+		assertEquals(1, response.getTravelTimes().entrySet().size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void mapViewsAreReadOnly() {
+		ReachabilityResponse response = new ReachabilityResponse(null, ResponseCode.OK, 0, 0);
+		response.getTravelTimes().put("a", 1);
+	}
+
+	private static String sample() throws Exception {
+		try (InputStream stream = TargetTravelTimesTest.class.getClassLoader().getResourceAsStream("data/ReachabilityResponse.json")) {
+			return IOUtils.toString(stream, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.addTarget(new DefaultTargetCoordinate("id0", -84.01440151465849, 41.805968836500426));
+		options.addTarget(new DefaultTargetCoordinate("id1", 71.34898703519798, -36.16051650737182));
+		return options;
+	}
+}
@@ -2,6 +2,8 @@ package com.targomo.client.api.response;
 
 import com.targomo.client.api.TravelOptions;
 import com.targomo.client.api.enums.PathSerializerType;
+import com.targomo.client.api.exception.ResponseErrorException;
+import com.targomo.client.api.exception.TargomoClientRuntimeException;
 import com.targomo.client.api.enums.TravelType;
 import com.targomo.client.api.geo.Coordinate;
 import com.targomo.client.api.geo.DefaultSourceCoordinate;
@@ -13,12 +15,15 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 public class TimeResponseTest {
@@ -48,6 +53,70 @@ public class TimeResponseTest {
 		}
 	}
 
+	@Test
+	public void parseMatchesJsonResults() throws Exception {
+		TravelOptions options = getTravelOptions();
+		TimeResponse expected;
+		TimeResponse parsed;
+		try (InputStream stream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json")) {
+			expected = new TimeResponse(options, JsonUtil.parseString(IOUtils.toString(stream, StandardCharsets.UTF_8)), 123);
+		}
+		try (InputStream stream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json")) {
+			parsed = TimeResponse.parse(options, stream, 123);
+		}
+
+		assertEquals(ResponseCode.OK, parsed.getCode());
+		assertEquals(472, parsed.getRequestTimeMillis());
+		assertEquals(expected.getTravelTimes(), parsed.getTravelTimes());
+		assertEquals(expected.getLengths(), parsed.getLengths());
+		TravelTimeMatrix matrix = parsed.getMatrix();
+		assertEquals(3, matrix.getSourceCount());
+		assertEquals(3, matrix.getTargetCount());
+		assertEquals(833, matrix.getTravelTime("id0", "id1"));
+		assertEquals(1024, matrix.getLength("id0", "id1"));
+	}
+
+	@Test
+	public void parseAcceptsAnyFieldOrder() throws Exception {
+		String json = "{\"requestTime\":12,\"data\":["
+				+ "{\"targets\":[{\"length\":500,\"travelTime\":60,\"id\":\"id1\"},{\"id\":\"unknown\",\"travelTime\":1,\"length\":1}],\"id\":\"id2\"},"
+				+ "{\"id\":\"unknown\",\"targets\":[{\"id\":\"id1\",\"travelTime\":1,\"length\":1}]},"
+				+ "{\"id\":\"id0\",\"extra\":{\"nested\":[1,2]},\"targets\":[]}"
+				+ "],\"code\":\"ok\"}";
+
+		TimeResponse response = TimeResponse.parse(getTravelOptions(), stream(json), 0);
+
+		TravelTimeMatrix matrix = response.getMatrix();
+		assertEquals(12, response.getRequestTimeMillis());
+		assertEquals(60, matrix.getTravelTime("id2", "id1"));
+		assertEquals(500, matrix.getLength("id2", "id1"));
+		assertEquals(3, matrix.getSourceCount());
+		assertEquals(3, matrix.getTargetCount());
+		assertFalse(matrix.hasValue(matrix.indexOfSource("id1"), matrix.indexOfTarget("id1")));
+		assertEquals(2, response.getTravelTimes().size());
+	}
+
+	@Test(expected = ResponseErrorException.class)
+	public void parseThrowsOnErrorCode() throws Exception {
+		TimeResponse.parse(getTravelOptions(), stream("{\"code\":\"no-route-found\",\"message\":\"No route\",\"data\":[]}"), 0);
+	}
+
+	@Test(expected = TargomoClientRuntimeException.class)
+	public void parseRejectsMissingTravelTime() throws Exception {
+		TimeResponse.parse(getTravelOptions(), stream("{\"code\":\"ok\",\"data\":[{\"id\":\"id0\",\"targets\":["
+				+ "{\"id\":\"id1\",\"length\":100}]}]}"), 0);
+	}
+
+	@Test(expected = TargomoClientRuntimeException.class)
+	public void parseRejectsNullTravelTime() throws Exception {
+		TimeResponse.parse(getTravelOptions(), stream("{\"code\":\"ok\",\"data\":[{\"id\":\"id0\",\"targets\":["
+				+ "{\"id\":\"id1\",\"travelTime\":null,\"length\":100}]}]}"), 0);
+	}
+
+	private static InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
 	private TravelOptions getTravelOptions() {
 		TravelOptions options = new TravelOptions();
 		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
@@ -0,0 +1,140 @@
+package com.targomo.client.api.response;
+
+import com.targomo.client.api.TravelOptions;
+import com.targomo.client.api.enums.TravelType;
+import com.targomo.client.api.geo.Coordinate;
+import com.targomo.client.api.geo.DefaultSourceCoordinate;
+import com.targomo.client.api.geo.DefaultTargetCoordinate;
+import com.targomo.client.api.pojo.TravelWeight;
+import com.targomo.client.api.util.JsonUtil;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TravelTimeMatrixTest {
+
+	@Test
+	public void readsResults() throws Exception {
+		TravelOptions options = getTravelOptions();
+		TravelTimeMatrix matrix = new TimeResponse(options, sample(), 0).getMatrix();
+
+		assertEquals(3, matrix.getSourceCount());
+		assertEquals(3, matrix.getTargetCount());
+		assertEquals(833, matrix.getTravelTime("id0", "id1"));
+		assertEquals(1024, matrix.getLength("id0", "id1"));
+		assertEquals(3059, matrix.getTravelTime(matrix.indexOfSource("id2"), matrix.indexOfTarget("id2")));
+		// unreachable targets are results of -1
+		int unreachable = matrix.indexOfTarget("id0");
+		assertTrue(matrix.hasValue(matrix.indexOfSource("id1"), unreachable));
+		assertEquals(-1, matrix.getTravelTime(matrix.indexOfSource("id1"), unreachable));
+		assertEquals(TravelTimeMatrix.NO_VALUE, matrix.getTravelTime("unknown", "id1"));
+		assertEquals(-1, matrix.indexOfSource("unknown"));
+		assertEquals(matrix.indexOfSource("id1"), matrix.indexOfSource(options.getSource("id1")));
+	}
+
+	@Test
+	public void iteratesRowsAndColumns() throws Exception {
+		TravelTimeMatrix matrix = new TimeResponse(getTravelOptions(), sample(), 0).getMatrix();
+		int source = matrix.indexOfSource("id2");
+		int target = matrix.indexOfTarget("id1");
+
+		AtomicInteger rowSum = new AtomicInteger();
+		matrix.forEachInRow(source, (s, t, travelTime, length) -> {
+			assertEquals(source, s);
+			rowSum.addAndGet(travelTime);
+		});
+		AtomicInteger columnCells = new AtomicInteger();
+		matrix.forEachInColumn(target, (s, t, travelTime, length) -> {
+			assertEquals(target, t);
+			assertEquals(s == source ? 2953 : 833, travelTime);
+			columnCells.incrementAndGet();
+		});
+		AtomicInteger cells = new AtomicInteger();
+		matrix.forEach((s, t, travelTime, length) -> cells.incrementAndGet());
+
+		assertEquals(-1 + 3059 + 2953, rowSum.get());
+		assertEquals(3, columnCells.get());
+		assertEquals(9, cells.get());
+	}
+
+	@Test
+	public void mapViewsMatchMatrix() throws Exception {
+		TravelOptions options = getTravelOptions();
+		TimeResponse response = new TimeResponse(options, sample(), 0);
+		Coordinate source = options.getSource("id2");
+		Coordinate target = options.getTarget("id1");
+
+		Map<Coordinate, Map<Coordinate, Integer>> travelTimes = response.getTravelTimes();
+		assertEquals(3, travelTimes.size());
+		assertEquals(3, travelTimes.get(source).size());
+		assertEquals(Integer.valueOf(2953), travelTimes.get(source).get(target));
+		assertEquals(Integer.valueOf(1908), response.getLengths().get(source).get(target));
+		TravelWeight weight = response.getTravelWeights().get(source).get(target);
+		assertEquals(2953, weight.getTravelTime());
+		assertEquals(1908, weight.getTravelDistance());
+		assertEquals(Integer.valueOf(2953), response.getTravelTime(source, target));
+
+		int entries = 0;
+		for (Map.Entry<Coordinate, Map<Coordinate, Integer>> row : travelTimes.entrySet())
+			entries += row.getValue().entrySet().size();
+		assertEquals(9, entries);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void mapViewsAreReadOnly() throws Exception {
+		TravelOptions options = getTravelOptions();
+		new TimeResponse(options, sample(), 0).getTravelTimes().put(options.getSource("id0"), null);
+	}
+
+	@Test
+	public void addsResultsOfUnknownLocations() {
+		TimeResponse response = new TimeResponse(null, ResponseCode.OK, 0, 0);
+		Coordinate source = new DefaultSourceCoordinate("s", 13.4, 52.5);
+		Coordinate reached = new DefaultTargetCoordinate("a", 13.5, 52.5);
+		Coordinate missing = new DefaultTargetCoordinate("b", 13.6, 52.5);
+
+		response.addTravelWeight(source, reached, 600, 5000);
+		response.addTravelWeight(source, missing, 1200, 9000);
+		response.addTravelWeight(new DefaultSourceCoordinate("t", 13.4, 52.6), reached, 300, 2000);
+
+		TravelTimeMatrix matrix = response.getMatrix();
+		assertEquals(2, matrix.getSourceCount());
+		assertEquals(2, matrix.getTargetCount());
+		assertEquals(600, matrix.getTravelTime("s", "a"));
+		assertEquals(1200, matrix.getTravelTime("s", "b"));
+		assertFalse(matrix.hasValue(matrix.indexOfSource("t"), matrix.indexOfTarget("b")));
+		assertEquals(TravelTimeMatrix.NO_VALUE, matrix.getTravelTime("t", "b"));
+		assertEquals(-1, response.getTravelTime(new DefaultSourceCoordinate("t", 13.4, 52.6), missing).intValue());
+		assertNull(response.getTravelTimes().get(new DefaultSourceCoordinate("t", 13.4, 52.6)).get(missing));
+
+		response.addTravelWeight(source, reached, 500, 4000);
+		assertEquals(2, response.getTravelTimes().size());
+		assertEquals(2, response.getTravelTimes().get(source).size());
+		assertEquals(1, response.getTravelTimes().get(new DefaultSourceCoordinate("t", 13.4, 52.6)).size());
+	}
+
+	private static JSONObject sample() throws Exception {
+		try (InputStream stream = TravelTimeMatrixTest.class.getClassLoader().getResourceAsStream("data/TimeResponse.json")) {
+			return JsonUtil.parseString(IOUtils.toString(stream, StandardCharsets.UTF_8));
+		}
+	}
+
+	private static TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setTravelType(TravelType.CAR);
+		options.addSource(new DefaultSourceCoordinate("id0", 10.639872441947901, -17.37236573607632, TravelType.CAR));
+		options.addSource(new DefaultSourceCoordinate("id1", 49.75913939827413, -75.83100508496594, TravelType.CAR));
+		options.addSource(new DefaultSourceCoordinate("id2", 64.68336864385466, 62.545199028051314, TravelType.CAR));
+		options.addTarget(new DefaultTargetCoordinate("id0", -84.01440151465849, 41.805968836500426));
+		options.addTarget(new DefaultTargetCoordinate("id1", 71.34898703519798, -36.16051650737182));
+		options.addTarget(new DefaultTargetCoordinate("id2", 57.12383436652155, 33.64895304828113));
+		return options;
+	}
+}
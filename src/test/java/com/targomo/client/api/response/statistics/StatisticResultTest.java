@@ -0,0 +1,102 @@
+package com.targomo.client.api.response.statistics;
+
+import com.targomo.client.api.TravelOptions;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.stream.DoubleStream;
+
+import static org.junit.Assert.*;
+
+public class StatisticResultTest {
+
+	@Test
+	public void aggregatesRanges() {
+		StatisticResult result = new StatisticResult(options(), sample());
+
+		assertEquals(60.0, result.getSum(0, 0, 10), 1e-9);
+		assertEquals(50.0, result.getSum(0, 2, 3), 1e-9);
+		assertEquals(0.0, result.getSum(0, 4, 4), 1e-9);
+		assertEquals(30.0, result.getMax(0, 0, 100).getAsDouble(), 1e-9);
+		assertEquals(10.0, result.getMin(0, 0, 100).getAsDouble(), 1e-9);
+		assertEquals(20.0, result.getMin(0, 2, 5).getAsDouble(), 1e-9);
+		assertFalse(result.getMin(0, 4, 4).isPresent());
+		assertEquals(5.0, result.getSum(1, 0, 1800), 1e-9);
+	}
+
+	@Test
+	public void rangesOutsideTheMinutesAreEmpty() {
+		StatisticResult result = new StatisticResult(options(), sample());
+
+		assertFalse(result.getMin(0, Integer.MAX_VALUE, Integer.MAX_VALUE).isPresent());
+		assertFalse(result.getMax(0, Integer.MAX_VALUE, Integer.MAX_VALUE).isPresent());
+		assertFalse(result.getMin(0, Integer.MIN_VALUE, -1).isPresent());
+		assertFalse(result.getMax(0, 5, 2).isPresent());
+		assertEquals(0.0, result.getSum(0, Integer.MAX_VALUE, Integer.MAX_VALUE), 1e-9);
+		assertEquals(30.0, result.getMax(0, Integer.MIN_VALUE, Integer.MAX_VALUE).getAsDouble(), 1e-9);
+	}
+
+	@Test
+	public void keepsAggregationFunctions() {
+		StatisticResult result = new StatisticResult(options(), sample());
+
+		assertEquals(60.0, result.getAggregationToMinute(0, 10, DoubleStream::sum).getAsDouble(), 1e-9);
+		assertEquals(25.0, result.getAggregationToMinute(0, 2, 3, stream -> stream.average().orElse(0)).getAsDouble(), 1e-9);
+	}
+
+	@Test
+	public void skipsMinutesAboveMaxEdgeWeight() {
+		TravelOptions options = options();
+		options.setMaxEdgeWeight(2);
+		StatisticResult result = new StatisticResult(options, sample());
+
+		Map<Integer, Double> values = result.getStatistics().get(0);
+		assertEquals(2, values.size());
+		assertEquals(Double.valueOf(10), values.get(0));
+		assertEquals(Double.valueOf(30), values.get(2));
+		assertEquals(40.0, result.getSum(0, 0, 10), 1e-9);
+		assertEquals(1, result.getReachableTargets().size());
+	}
+
+	@Test
+	public void statisticsAreSortedByMinute() {
+		StatisticResult result = new StatisticResult(options(), sample());
+
+		Integer previous = -1;
+		for (Integer minute : result.getStatistics().get(0).keySet()) {
+			assertTrue(minute > previous);
+			previous = minute;
+		}
+		assertEquals(3, result.getStatisticValues(0).getCount(0, 100));
+		assertEquals(OptionalDouble.of(20.0), result.getStatisticValues(0).getAverage(0, 3));
+		assertNull(result.getStatisticValues(7));
+	}
+
+	@Test
+	public void emptyValues() {
+		StatisticValues values = new StatisticValues(new int[0], new double[0], 0);
+
+		assertEquals(-1, values.getMaxMinute());
+		assertEquals(0.0, values.getSum(0, 10), 1e-9);
+		assertFalse(values.getMax(0, 10).isPresent());
+		assertFalse(values.getAverage(0, 10).isPresent());
+		assertFalse(values.getValue(0).isPresent());
+	}
+
+	private static JSONObject sample() {
+		JSONObject statistics = new JSONObject()
+				.put("0", new JSONObject().put("3", 20.0).put("0", 10.0).put("2", 30.0))
+				.put("1", new JSONObject().put("1800", 5.0));
+		return new JSONObject()
+				.put("statistics", statistics)
+				.put("reachableTargets", new JSONObject().put("0", 1).put("3", 4));
+	}
+
+	private static TravelOptions options() {
+		TravelOptions options = new TravelOptions();
+		options.setMaxEdgeWeight(1800);
+		return options;
+	}
+}
@@ -3,9 +3,13 @@ package com.targomo.client.api.util;
 import com.targomo.client.api.StatisticTravelOptions;
 import com.targomo.client.api.enums.EdgeWeightType;
 import com.targomo.client.api.enums.TravelType;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -37,6 +41,40 @@ public class IOUtilTest {
 		assertEquals("{\"aaa\": \"bb\",\n\"cc\":\"bab\"", IOUtil.getResultString(response));
 	}
 
+	@Test
+	public void getResultStream() throws Exception {
+		Response response = mock(Response.class);
+		when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(
+				"callback({\"aaa\": \"b(b)\",\n\"cc\":\"bab\")".getBytes(StandardCharsets.UTF_8)));
+		try (InputStream stream = IOUtil.getResultStream(response)) {
+			assertEquals("{\"aaa\": \"b(b)\",\n\"cc\":\"bab\"", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void getResultStreamWithoutCallback() throws Exception {
+		Response response = mock(Response.class);
+		when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream("{\"a\":[1,2]}".getBytes(StandardCharsets.UTF_8)));
+		try (InputStream stream = IOUtil.getResultStream(response)) {
+			assertEquals("{\"a\":[1,2]}", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void getResultStreamLargeBody() throws Exception {
+		StringBuilder json = new StringBuilder("{\"data\":[");
+		for (int i = 0; i < 50000; i++) {
+			json.append(i).append(',');
+		}
+		json.append("0]}");
+		Response response = mock(Response.class);
+		when(response.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream(
+				("callback(" + json + ")\n").getBytes(StandardCharsets.UTF_8)));
+		try (InputStream stream = IOUtil.getResultStream(response)) {
+			assertEquals(json + "\n", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		}
+	}
+
 	@Test
 	public void testTravelOptionsCloning() {
 		//prepare